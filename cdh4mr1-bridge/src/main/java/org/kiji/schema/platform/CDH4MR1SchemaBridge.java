@@ -22,6 +22,7 @@ package org.kiji.schema.platform;
 import java.io.IOException;
 
 import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
 import org.kiji.annotations.ApiAudience;
 
@@ -44,5 +45,12 @@ public final class CDH4MR1SchemaBridge extends SchemaPlatformBridge {
     // We can do this directly in CDH4.
     hTable.setWriteBufferSize(bufSize);
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public void incrementCounter(TaskAttemptContext context, Enum<?> counter, long amount) {
+    // Task attempt contexts expose their counters directly in CDH4.
+    context.getCounter(counter).increment(amount);
+  }
 }
 
@@ -23,6 +23,8 @@ import java.io.IOException;
 
 import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,5 +61,17 @@ public final class Hadoop1xSchemaBridge extends SchemaPlatformBridge {
           + hTable.getClass().getName());
     }
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public void incrementCounter(TaskAttemptContext context, Enum<?> counter, long amount) {
+    // Only the input/output contexts of tasks expose counters in Hadoop 1.x; downcast.
+    if (context instanceof TaskInputOutputContext) {
+      ((TaskInputOutputContext<?, ?, ?, ?>) context).getCounter(counter).increment(amount);
+    } else {
+      LOG.debug("Cannot increment counter " + counter + " for TaskAttemptContext impl "
+          + context.getClass().getName());
+    }
+  }
 }
 
@@ -0,0 +1,137 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiColumnName;
+import org.kiji.schema.KijiInstaller;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.hbase.InMemoryHBaseFactory;
+import org.kiji.schema.layout.KijiTableLayout;
+
+/**
+ * Kiji instances and data shared by the benchmarks.
+ *
+ * <p>
+ *   Benchmarks run against in-memory HBase instances served by {@link InMemoryHBaseFactory},
+ *   so they measure KijiSchema rather than the network and the region servers.
+ * </p>
+ */
+public final class BenchmarkKiji {
+  static {
+    // Must be set before the first HBaseFactory lookup, which is cached for the JVM lifetime:
+    System.setProperty(InMemoryHBaseFactory.ENABLE_PROPERTY, "true");
+  }
+
+  /** Name of the table created by {@link #createTable(Kiji)}. */
+  public static final String TABLE_NAME = "benchmark";
+
+  /** Resource path of the layout of the benchmark table. */
+  private static final String TABLE_LAYOUT_RESOURCE =
+      "/org/kiji/schema/benchmarks/benchmark-table.json";
+
+  /** Counter used to name distinct in-memory HBase instances. */
+  private static final AtomicLong INSTANCE_COUNTER = new AtomicLong();
+
+  /**
+   * Installs and opens a new Kiji instance in a new in-memory HBase instance.
+   *
+   * @return a new Kiji instance. Caller must release it when done.
+   * @throws IOException on I/O error.
+   */
+  public static Kiji open() throws IOException {
+    final KijiURI uri = KijiURI.newBuilder(String.format("kiji://%sbenchmark-%d/benchmark",
+        InMemoryHBaseFactory.IN_MEMORY_HBASE_ID_PREFIX, INSTANCE_COUNTER.getAndIncrement()))
+        .build();
+    final Configuration conf = HBaseConfiguration.create();
+    KijiInstaller.get().install(uri, conf);
+    return Kiji.Factory.open(uri, conf);
+  }
+
+  /**
+   * Loads the layout of the benchmark table.
+   *
+   * <p>
+   *   Rows are keyed by a formatted, salted (user, timestamp) key. The table has the columns
+   *   info:name (string), info:event (record, see {@link #newEvent(int)}), info:visits (counter)
+   *   and the map-type family wide (string).
+   * </p>
+   *
+   * @return the layout of the benchmark table.
+   * @throws IOException on I/O error.
+   */
+  public static KijiTableLayout getTableLayout() throws IOException {
+    return KijiTableLayout.createFromEffectiveJsonResource(TABLE_LAYOUT_RESOURCE);
+  }
+
+  /**
+   * Creates the benchmark table in a Kiji instance.
+   *
+   * @param kiji Kiji instance to create the benchmark table in.
+   * @throws IOException on I/O error.
+   */
+  public static void createTable(Kiji kiji) throws IOException {
+    kiji.createTable(TABLE_NAME, getTableLayout());
+  }
+
+  /**
+   * Reports the Avro schema of the info:event column.
+   *
+   * @return the Avro schema of the info:event column.
+   * @throws IOException on I/O error.
+   */
+  public static Schema getEventSchema() throws IOException {
+    return getTableLayout().getSchema(new KijiColumnName("info", "event"));
+  }
+
+  /**
+   * Builds an info:event record.
+   *
+   * @param seed Seed for the content of the record.
+   * @return a new info:event record.
+   * @throws IOException on I/O error.
+   */
+  public static GenericRecord newEvent(int seed) throws IOException {
+    final Schema schema = getEventSchema();
+    final GenericData.Record event = new GenericData.Record(schema);
+    event.put("name", "event-" + seed);
+    event.put("count", (long) seed);
+    final GenericData.Array<CharSequence> tags = new GenericData.Array<CharSequence>(
+        4, schema.getField("tags").schema());
+    for (int i = 0; i < 4; ++i) {
+      tags.add("tag-" + (seed + i));
+    }
+    event.put("tags", tags);
+    return event;
+  }
+
+  /** Utility class may not be instantiated. */
+  private BenchmarkKiji() {
+  }
+}
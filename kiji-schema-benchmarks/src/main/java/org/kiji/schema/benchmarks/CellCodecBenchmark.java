@@ -0,0 +1,123 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.DecodedCell;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.avro.CellSchema;
+import org.kiji.schema.avro.SchemaStorage;
+import org.kiji.schema.avro.SchemaType;
+import org.kiji.schema.impl.AvroCellEncoder;
+import org.kiji.schema.impl.GenericCellDecoder;
+import org.kiji.schema.layout.impl.CellSpec;
+
+/**
+ * Benchmarks AvroCellEncoder.encode() and AvroCellDecoder.decodeCell() on a record,
+ * for each schema storage mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CellCodecBenchmark {
+  /** Schema storage mode of the cells, one of the SchemaStorage names. */
+  @Param({"HASH", "UID", "FINAL"})
+  private String mStorage;
+
+  /** Kiji instance providing the schema table. */
+  private Kiji mKiji;
+
+  /** Cell encoder under test. */
+  private AvroCellEncoder mEncoder;
+
+  /** Cell decoder under test. */
+  private GenericCellDecoder<GenericRecord> mDecoder;
+
+  /** Value to encode. */
+  private GenericRecord mValue;
+
+  /** Encoded cell to decode. */
+  private byte[] mEncoded;
+
+  /**
+   * Builds the encoder and the decoder for the schema storage mode.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    final CellSchema cellSchema = CellSchema.newBuilder()
+        .setStorage(SchemaStorage.valueOf(mStorage))
+        .setType(SchemaType.INLINE)
+        .setValue(BenchmarkKiji.getEventSchema().toString())
+        .build();
+    final CellSpec cellSpec = CellSpec.fromCellSchema(cellSchema, mKiji.getSchemaTable());
+    mEncoder = new AvroCellEncoder(cellSpec);
+    mDecoder = new GenericCellDecoder<GenericRecord>(cellSpec);
+    mValue = BenchmarkKiji.newEvent(42);
+    mEncoded = mEncoder.encode(mValue);
+  }
+
+  /**
+   * Releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    mKiji.release();
+  }
+
+  /**
+   * Encodes a record.
+   *
+   * @return the encoded cell.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return mEncoder.encode(mValue);
+  }
+
+  /**
+   * Decodes a record.
+   *
+   * @return the decoded cell.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public DecodedCell<GenericRecord> decodeCell() throws IOException {
+    return mDecoder.decodeCell(mEncoded);
+  }
+}
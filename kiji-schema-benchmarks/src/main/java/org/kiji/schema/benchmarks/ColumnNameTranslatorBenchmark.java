@@ -0,0 +1,118 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.kiji.schema.KijiColumnName;
+import org.kiji.schema.NoSuchColumnException;
+import org.kiji.schema.hbase.HBaseColumnName;
+import org.kiji.schema.layout.ColumnNameTranslator;
+
+/**
+ * Benchmarks ColumnNameTranslator lookups in both directions,
+ * for a column of a group-type family and a column of a map-type family.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColumnNameTranslatorBenchmark {
+  /** Translator under test. */
+  private ColumnNameTranslator mTranslator;
+
+  /** Kiji name of a column in a group-type family. */
+  private KijiColumnName mGroupColumn;
+
+  /** Kiji name of a column in a map-type family. */
+  private KijiColumnName mMapColumn;
+
+  /** HBase name of a column in a group-type family. */
+  private HBaseColumnName mGroupHBaseColumn;
+
+  /** HBase name of a column in a map-type family. */
+  private HBaseColumnName mMapHBaseColumn;
+
+  /**
+   * Builds the translator and the column names.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mTranslator = new ColumnNameTranslator(BenchmarkKiji.getTableLayout());
+    mGroupColumn = new KijiColumnName("info", "event");
+    mMapColumn = new KijiColumnName("wide", "qualifier-0042");
+    mGroupHBaseColumn = mTranslator.toHBaseColumnName(mGroupColumn);
+    mMapHBaseColumn = mTranslator.toHBaseColumnName(mMapColumn);
+  }
+
+  /**
+   * Translates a group-type family column to HBase.
+   *
+   * @return the HBase column name.
+   * @throws NoSuchColumnException if the column does not exist.
+   */
+  @Benchmark
+  public HBaseColumnName groupToHBase() throws NoSuchColumnException {
+    return mTranslator.toHBaseColumnName(mGroupColumn);
+  }
+
+  /**
+   * Translates a map-type family column to HBase.
+   *
+   * @return the HBase column name.
+   * @throws NoSuchColumnException if the column does not exist.
+   */
+  @Benchmark
+  public HBaseColumnName mapToHBase() throws NoSuchColumnException {
+    return mTranslator.toHBaseColumnName(mMapColumn);
+  }
+
+  /**
+   * Translates a group-type family column from HBase.
+   *
+   * @return the Kiji column name.
+   * @throws NoSuchColumnException if the column does not exist.
+   */
+  @Benchmark
+  public KijiColumnName groupFromHBase() throws NoSuchColumnException {
+    return mTranslator.toKijiColumnName(mGroupHBaseColumn);
+  }
+
+  /**
+   * Translates a map-type family column from HBase.
+   *
+   * @return the Kiji column name.
+   * @throws NoSuchColumnException if the column does not exist.
+   */
+  @Benchmark
+  public KijiColumnName mapFromHBase() throws NoSuchColumnException {
+    return mTranslator.toKijiColumnName(mMapHBaseColumn);
+  }
+}
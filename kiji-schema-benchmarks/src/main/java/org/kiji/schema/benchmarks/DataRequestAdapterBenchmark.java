@@ -0,0 +1,101 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hbase.client.Get;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.kiji.schema.EntityId;
+import org.kiji.schema.EntityIdFactory;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiDataRequestBuilder;
+import org.kiji.schema.impl.HBaseDataRequestAdapter;
+import org.kiji.schema.impl.HBaseDataRequestAdapter.GetTemplate;
+import org.kiji.schema.layout.KijiTableLayout;
+
+/**
+ * Benchmarks the translation of a Kiji data request into an HBase Get,
+ * with HBaseDataRequestAdapter.toGet() and with a compiled Get template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataRequestAdapterBenchmark {
+  /** Layout of the benchmark table. */
+  private KijiTableLayout mLayout;
+
+  /** Entity ID of the requested row. */
+  private EntityId mEntityId;
+
+  /** Adapter for the data request. */
+  private HBaseDataRequestAdapter mAdapter;
+
+  /** Get template compiled from the data request. */
+  private GetTemplate mTemplate;
+
+  /**
+   * Builds the data request and compiles its Get template.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mLayout = BenchmarkKiji.getTableLayout();
+    mEntityId = EntityIdFactory.getFactory(mLayout).getEntityId("user-1234567", 0L);
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().add("info", "name").add("info", "visits");
+    builder.newColumnsDef().withMaxVersions(3).add("info", "event");
+    builder.newColumnsDef().withMaxVersions(1).addFamily("wide");
+    mAdapter = new HBaseDataRequestAdapter(builder.build());
+    mTemplate = mAdapter.compile(mLayout);
+  }
+
+  /**
+   * Translates the data request into a Get.
+   *
+   * @return the Get.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public Get toGet() throws IOException {
+    return mAdapter.toGet(mEntityId, mLayout);
+  }
+
+  /**
+   * Instantiates the compiled Get template.
+   *
+   * @return the Get.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public Get compiledToGet() throws IOException {
+    return mTemplate.toGet(mEntityId);
+  }
+}
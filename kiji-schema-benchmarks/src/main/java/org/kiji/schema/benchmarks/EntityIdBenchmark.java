@@ -0,0 +1,143 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.kiji.schema.avro.HashSpec;
+import org.kiji.schema.avro.HashType;
+import org.kiji.schema.avro.RowKeyEncoding;
+import org.kiji.schema.avro.RowKeyFormat;
+import org.kiji.schema.avro.RowKeyFormat2;
+import org.kiji.schema.impl.FormattedEntityId;
+import org.kiji.schema.impl.HashPrefixedEntityId;
+
+/**
+ * Benchmarks the construction of entity IDs from Kiji row keys,
+ * and their parsing from HBase row keys, for each hashing method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityIdBenchmark {
+  /** Hashing method of the row keys, one of the HashType names. */
+  @Param({"MD5", "MURMUR3"})
+  private String mHashType;
+
+  /** Formatted row key format of the benchmark table. */
+  private RowKeyFormat2 mFormattedFormat;
+
+  /** Hash-prefixed row key format. */
+  private RowKeyFormat mHashPrefixedFormat;
+
+  /** Components of a formatted row key. */
+  private List<Object> mFormattedComponents;
+
+  /** HBase row key of a formatted entity ID. */
+  private byte[] mFormattedHBaseRowKey;
+
+  /** Kiji row key of a hash-prefixed entity ID. */
+  private byte[] mHashPrefixedKijiRowKey;
+
+  /** HBase row key of a hash-prefixed entity ID. */
+  private byte[] mHashPrefixedHBaseRowKey;
+
+  /**
+   * Prepares the row key formats and the row keys.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    final HashType hashType = HashType.valueOf(mHashType);
+    final RowKeyFormat2 tableFormat =
+        (RowKeyFormat2) BenchmarkKiji.getTableLayout().getDesc().getKeysFormat();
+    mFormattedFormat = RowKeyFormat2.newBuilder(tableFormat)
+        .setSalt(HashSpec.newBuilder(tableFormat.getSalt()).setHashType(hashType).build())
+        .build();
+    mFormattedComponents = Lists.<Object>newArrayList("user-1234567", 1357000000000L);
+    mFormattedHBaseRowKey =
+        FormattedEntityId.getEntityId(mFormattedComponents, mFormattedFormat).getHBaseRowKey();
+
+    mHashPrefixedFormat = RowKeyFormat.newBuilder()
+        .setEncoding(RowKeyEncoding.HASH_PREFIX)
+        .setHashType(hashType)
+        .setHashSize(2)
+        .build();
+    mHashPrefixedKijiRowKey = Bytes.toBytes("user-1234567");
+    mHashPrefixedHBaseRowKey =
+        HashPrefixedEntityId.getEntityId(mHashPrefixedKijiRowKey, mHashPrefixedFormat)
+            .getHBaseRowKey();
+  }
+
+  /**
+   * Builds a formatted entity ID from its components.
+   *
+   * @return the entity ID.
+   */
+  @Benchmark
+  public FormattedEntityId formattedFromComponents() {
+    return FormattedEntityId.getEntityId(mFormattedComponents, mFormattedFormat);
+  }
+
+  /**
+   * Parses a formatted entity ID from an HBase row key, and gets its components.
+   *
+   * @return the components of the entity ID.
+   */
+  @Benchmark
+  public List<Object> formattedFromHBaseRowKey() {
+    return FormattedEntityId.fromHBaseRowKey(mFormattedHBaseRowKey, mFormattedFormat)
+        .getComponents();
+  }
+
+  /**
+   * Builds a hash-prefixed entity ID from a Kiji row key.
+   *
+   * @return the entity ID.
+   */
+  @Benchmark
+  public HashPrefixedEntityId hashPrefixedFromKijiRowKey() {
+    return HashPrefixedEntityId.getEntityId(mHashPrefixedKijiRowKey, mHashPrefixedFormat);
+  }
+
+  /**
+   * Parses a hash-prefixed entity ID from an HBase row key.
+   *
+   * @return the entity ID.
+   */
+  @Benchmark
+  public HashPrefixedEntityId hashPrefixedFromHBaseRowKey() {
+    return HashPrefixedEntityId.fromHBaseRowKey(mHashPrefixedHBaseRowKey, mHashPrefixedFormat);
+  }
+}
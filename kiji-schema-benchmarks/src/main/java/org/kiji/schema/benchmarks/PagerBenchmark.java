@@ -0,0 +1,139 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.EntityId;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiDataRequestBuilder;
+import org.kiji.schema.KijiPager;
+import org.kiji.schema.KijiRowData;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableReader;
+import org.kiji.schema.KijiTableWriter;
+
+/**
+ * Benchmarks paging through every column of a wide map-type family.
+ *
+ * <p>The time per operation is the cost of a full walk; it grows linearly with the width
+ * of the row when the cost of a page does not depend on its position.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PagerBenchmark {
+  /** Number of columns in the wide family of the row. */
+  @Param({"1000", "10000"})
+  private int mWidth;
+
+  /** Number of columns per page. */
+  @Param({"10", "100"})
+  private int mPageSize;
+
+  /** Kiji instance holding the benchmark table. */
+  private Kiji mKiji;
+
+  /** Benchmark table. */
+  private KijiTable mTable;
+
+  /** Reader for the benchmark table. */
+  private KijiTableReader mReader;
+
+  /** Entity ID of the wide row. */
+  private EntityId mEntityId;
+
+  /** Paged data request for the wide family. */
+  private KijiDataRequest mDataRequest;
+
+  /**
+   * Writes the wide row.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    BenchmarkKiji.createTable(mKiji);
+    mTable = mKiji.openTable(BenchmarkKiji.TABLE_NAME);
+    mEntityId = mTable.getEntityId("user-wide", 0L);
+
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setMaxBufferedCells(1000));
+    try {
+      for (int i = 0; i < mWidth; ++i) {
+        writer.put(mEntityId, "wide", String.format("qualifier-%06d", i), 1L, "value-" + i);
+      }
+    } finally {
+      writer.close();
+    }
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(1).withPageSize(mPageSize).addFamily("wide");
+    mDataRequest = builder.build();
+    mReader = mTable.openTableReader();
+  }
+
+  /**
+   * Closes the reader and the table, and releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    IOUtils.closeQuietly(mReader);
+    IOUtils.closeQuietly(mTable);
+    mKiji.release();
+  }
+
+  /**
+   * Pages through all the columns of the wide family.
+   *
+   * @return the number of columns read.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public int pageThroughFamily() throws IOException {
+    final KijiRowData row = mReader.get(mEntityId, mDataRequest);
+    final KijiPager pager = row.getPager("wide");
+    try {
+      int columns = 0;
+      while (pager.hasNext()) {
+        columns += pager.next().getQualifiers("wide").size();
+      }
+      return columns;
+    } finally {
+      pager.close();
+    }
+  }
+}
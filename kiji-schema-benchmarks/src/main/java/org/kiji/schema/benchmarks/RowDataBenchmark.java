@@ -0,0 +1,139 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.EntityId;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiDataRequestBuilder;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableReader;
+import org.kiji.schema.KijiTableWriter;
+import org.kiji.schema.impl.HBaseKijiRowData;
+import org.kiji.schema.impl.HBaseKijiTable;
+
+/** Benchmarks HBaseKijiRowData accessors on rows with a wide map-type family. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RowDataBenchmark {
+  /** Number of columns in the wide family of the row. */
+  @Param({"10", "1000"})
+  private int mWidth;
+
+  /** Kiji instance holding the benchmark table. */
+  private Kiji mKiji;
+
+  /** Benchmark table. */
+  private KijiTable mTable;
+
+  /** Entity ID of the wide row. */
+  private EntityId mEntityId;
+
+  /** Data request for the wide family. */
+  private KijiDataRequest mDataRequest;
+
+  /** HBase result with the content of the wide row. */
+  private Result mResult;
+
+  /**
+   * Writes the wide row and fetches its HBase result.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    BenchmarkKiji.createTable(mKiji);
+    mTable = mKiji.openTable(BenchmarkKiji.TABLE_NAME);
+    mEntityId = mTable.getEntityId("user-wide", 0L);
+
+    final KijiTableWriter writer = mTable.openTableWriter();
+    try {
+      for (int i = 0; i < mWidth; ++i) {
+        writer.put(mEntityId, "wide", String.format("qualifier-%06d", i), 1L, "value-" + i);
+      }
+    } finally {
+      writer.close();
+    }
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().addFamily("wide");
+    mDataRequest = builder.build();
+
+    final KijiTableReader reader = mTable.openTableReader();
+    try {
+      mResult = ((HBaseKijiRowData) reader.get(mEntityId, mDataRequest)).getHBaseResult();
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Closes the table and releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    IOUtils.closeQuietly(mTable);
+    mKiji.release();
+  }
+
+  /**
+   * Builds the row data from the HBase result, and materializes its map.
+   *
+   * @return the map of the row data.
+   */
+  @Benchmark
+  public NavigableMap<String, NavigableMap<String, NavigableMap<Long, byte[]>>> getMap() {
+    return new HBaseKijiRowData(mEntityId, mDataRequest, (HBaseKijiTable) mTable, mResult)
+        .getMap();
+  }
+
+  /**
+   * Builds the row data from the HBase result, and decodes the values of the wide family in
+   * place from the KeyValues.
+   *
+   * @return the decoded values of the wide family.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public NavigableMap<String, CharSequence> getMostRecentValues() throws IOException {
+    return new HBaseKijiRowData(mEntityId, mDataRequest, (HBaseKijiTable) mTable, mResult)
+        .<CharSequence>getMostRecentValues("wide");
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiRowData;
+import org.kiji.schema.KijiRowScanner;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableReader;
+import org.kiji.schema.KijiTableReader.KijiScannerOptions;
+import org.kiji.schema.KijiTableWriter;
+
+/**
+ * Benchmarks a scan decoding the info:event record of every row, with and without row data and
+ * record reuse.
+ *
+ * <p>Run with the JMH GC profiler ({@code -prof gc}) to compare the GC pressure of the scans:
+ * with reuse, the scan recycles a single row data and a single record for all the rows.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScanBenchmark {
+  /** Number of rows in the table. */
+  private static final int NUM_ROWS = 1000;
+
+  /** Whether the scan recycles the row data and the decoded records. */
+  @Param({"false", "true"})
+  private boolean mReuse;
+
+  /** Kiji instance holding the benchmark table. */
+  private Kiji mKiji;
+
+  /** Benchmark table. */
+  private KijiTable mTable;
+
+  /** Reader for the benchmark table. */
+  private KijiTableReader mReader;
+
+  /** Data request for the info:event column. */
+  private KijiDataRequest mDataRequest;
+
+  /**
+   * Writes the rows to scan.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    BenchmarkKiji.createTable(mKiji);
+    mTable = mKiji.openTable(BenchmarkKiji.TABLE_NAME);
+
+    final KijiTableWriter writer = mTable.openTableWriter();
+    try {
+      for (int i = 0; i < NUM_ROWS; ++i) {
+        writer.put(mTable.getEntityId("user-" + i, 0L), "info", "event", 1L,
+            BenchmarkKiji.newEvent(i));
+      }
+    } finally {
+      writer.close();
+    }
+
+    mReader = mTable.openTableReader();
+    mDataRequest = KijiDataRequest.create("info", "event");
+  }
+
+  /**
+   * Closes the reader and the table, and releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    IOUtils.closeQuietly(mReader);
+    IOUtils.closeQuietly(mTable);
+    mKiji.release();
+  }
+
+  /**
+   * Scans the table and decodes the info:event record of every row.
+   *
+   * @return the sum of the event counts, so that decoding cannot be optimized away.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public long scan() throws IOException {
+    final KijiRowScanner scanner = mReader.getScanner(
+        mDataRequest, new KijiScannerOptions().setReuseRowData(mReuse));
+    try {
+      long sum = 0;
+      GenericRecord event = null;
+      for (KijiRowData row : scanner) {
+        event = mReuse
+            ? row.<GenericRecord>getMostRecentValue("info", "event", event)
+            : row.<GenericRecord>getMostRecentValue("info", "event");
+        sum += (Long) event.get("count");
+      }
+      return sum;
+    } finally {
+      scanner.close();
+    }
+  }
+}
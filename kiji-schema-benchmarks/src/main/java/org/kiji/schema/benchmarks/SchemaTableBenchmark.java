@@ -0,0 +1,129 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiSchemaTable;
+import org.kiji.schema.util.BytesKey;
+
+/**
+ * Benchmarks lookups of known schemas in the schema table, by ID and by hash.
+ *
+ * <p>The schema table is shared by all the benchmark threads: run with
+ * <code>-t 1</code>, <code>-t 8</code> and <code>-t 32</code> to measure contention.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaTableBenchmark {
+  /** Number of distinct schemas registered in the schema table. */
+  private static final int NUM_SCHEMAS = 64;
+
+  /** Kiji instance providing the schema table. */
+  private Kiji mKiji;
+
+  /** Schema table shared by all the benchmark threads. */
+  private KijiSchemaTable mSchemaTable;
+
+  /** IDs of the registered schemas. */
+  private long[] mSchemaIds;
+
+  /** Hashes of the registered schemas. */
+  private BytesKey[] mSchemaHashes;
+
+  /** Per-thread cursor over the registered schemas. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    /** Index of the next schema to look up. */
+    private int mIndex = 0;
+
+    /** @return the index of the next schema to look up. */
+    public int next() {
+      mIndex = (mIndex + 1) % NUM_SCHEMAS;
+      return mIndex;
+    }
+  }
+
+  /**
+   * Registers the schemas and warms the schema table caches up.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    mSchemaTable = mKiji.getSchemaTable();
+    mSchemaIds = new long[NUM_SCHEMAS];
+    mSchemaHashes = new BytesKey[NUM_SCHEMAS];
+    for (int i = 0; i < NUM_SCHEMAS; ++i) {
+      final Schema schema =
+          Schema.createFixed("Fixed" + i, null, "org.kiji.schema.benchmarks", i + 1);
+      mSchemaIds[i] = mSchemaTable.getOrCreateSchemaId(schema);
+      mSchemaHashes[i] = mSchemaTable.getOrCreateSchemaHash(schema);
+    }
+  }
+
+  /**
+   * Releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    mKiji.release();
+  }
+
+  /**
+   * Looks a schema up by ID.
+   *
+   * @param cursor Per-thread cursor over the registered schemas.
+   * @return the schema.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public Schema getSchemaById(Cursor cursor) throws IOException {
+    return mSchemaTable.getSchema(mSchemaIds[cursor.next()]);
+  }
+
+  /**
+   * Looks a schema up by hash.
+   *
+   * @param cursor Per-thread cursor over the registered schemas.
+   * @return the schema.
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public Schema getSchemaByHash(Cursor cursor) throws IOException {
+    return mSchemaTable.getSchema(mSchemaHashes[cursor.next()]);
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.kiji.schema.EntityId;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableWriter;
+
+/**
+ * Benchmarks the throughput of the table writer, with and without buffering.
+ *
+ * <p>Writes rotate over a fixed set of rows, so that buffered increments can be coalesced.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TableWriterBenchmark {
+  /** Number of distinct rows written to. */
+  private static final int NUM_ROWS = 100;
+
+  /** Maximum number of cells buffered by the writer; zero means an unbuffered writer. */
+  @Param({"0", "1000"})
+  private int mMaxBufferedCells;
+
+  /** Whether the writer coalesces increments. */
+  @Param({"false", "true"})
+  private boolean mCoalesceIncrements;
+
+  /** Kiji instance holding the benchmark table. */
+  private Kiji mKiji;
+
+  /** Benchmark table. */
+  private KijiTable mTable;
+
+  /** Writer under test. */
+  private KijiTableWriter mWriter;
+
+  /** Entity IDs of the rows written to. */
+  private EntityId[] mEntityIds;
+
+  /** Record written to the info:event column. */
+  private GenericRecord mEvent;
+
+  /** Number of operations issued so far, used to pick the next row. */
+  private int mCounter = 0;
+
+  /**
+   * Creates the benchmark table and opens the writer.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Setup
+  public void setup() throws IOException {
+    mKiji = BenchmarkKiji.open();
+    BenchmarkKiji.createTable(mKiji);
+    mTable = mKiji.openTable(BenchmarkKiji.TABLE_NAME);
+    mEntityIds = new EntityId[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; ++i) {
+      mEntityIds[i] = mTable.getEntityId("user-" + i, 0L);
+    }
+    mEvent = BenchmarkKiji.newEvent(42);
+    mWriter = mTable.openTableWriter(new KijiTableWriter.KijiWriterOptions()
+        .setMaxBufferedCells(mMaxBufferedCells)
+        .setCoalesceIncrements(mCoalesceIncrements));
+  }
+
+  /**
+   * Flushes and closes the writer, closes the table and releases the Kiji instance.
+   *
+   * @throws IOException on I/O error.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    mWriter.close();
+    IOUtils.closeQuietly(mTable);
+    mKiji.release();
+  }
+
+  /** @return the entity ID of the row to write to next. */
+  private EntityId nextEntityId() {
+    mCounter = (mCounter + 1) % NUM_ROWS;
+    return mEntityIds[mCounter];
+  }
+
+  /**
+   * Writes a record cell.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public void putRecord() throws IOException {
+    mWriter.put(nextEntityId(), "info", "event", mEvent);
+  }
+
+  /**
+   * Increments a counter.
+   *
+   * @throws IOException on I/O error.
+   */
+  @Benchmark
+  public void increment() throws IOException {
+    mWriter.increment(nextEntityId(), "info", "visits", 1L);
+  }
+}
@@ -52,4 +52,44 @@ public interface KijiCellDecoder<T> {
    * @throws IOException on I/O error.
    */
   T decodeValue(byte[] bytes) throws IOException;
+
+  /**
+   * Decodes a Kiji cell from a slice of a byte array, in place.
+   *
+   * <p>Allows decoding the cells of HBase KeyValues without copying them.</p>
+   *
+   * @param bytes Byte array holding the binary encoded Kiji cell.
+   * @param offset Offset of the encoded cell in the byte array.
+   * @param length Length, in bytes, of the encoded cell.
+   * @return the decoded KijiCell.
+   * @throws IOException on I/O error.
+   */
+  DecodedCell<T> decodeCell(byte[] bytes, int offset, int length) throws IOException;
+
+  /**
+   * Decodes a Kiji cell value from a slice of a byte array, in place.
+   *
+   * @param bytes Byte array holding the binary encoded Kiji cell.
+   * @param offset Offset of the encoded cell in the byte array.
+   * @param length Length, in bytes, of the encoded cell.
+   * @return the decoded cell value.
+   * @throws IOException on I/O error.
+   */
+  T decodeValue(byte[] bytes, int offset, int length) throws IOException;
+
+  /**
+   * Decodes a Kiji cell value from a slice of a byte array, in place, into a recycled object.
+   *
+   * <p>If reuse is non-null, the decoder may fill it with the decoded value and return it,
+   * rather than allocating a new object. Values of immutable types (eg. counters) are never
+   * recycled.</p>
+   *
+   * @param bytes Byte array holding the binary encoded Kiji cell.
+   * @param offset Offset of the encoded cell in the byte array.
+   * @param length Length, in bytes, of the encoded cell.
+   * @param reuse Optional object to recycle (may be null).
+   * @return the decoded cell value, possibly the recycled object.
+   * @throws IOException on I/O error.
+   */
+  T decodeValue(byte[] bytes, int offset, int length, T reuse) throws IOException;
 }
@@ -23,18 +23,22 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Objects.ToStringHelper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.apache.avro.Schema;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.hadoop.hbase.HConstants;
 
 import org.kiji.annotations.ApiAudience;
 import org.kiji.schema.filter.KijiColumnFilter;
+import org.kiji.schema.util.AvroUtils;
 
 /**
  * <p>Describes a request for columns of data to read from a Kiji table.</p>
@@ -86,6 +90,9 @@ public final class KijiDataRequest implements Serializable {
   /** The maximum timestamp of cells to be read (exclusive). */
   private final long mMaxTimestamp;
 
+  /** Cached hash code of this immutable request, or 0 if not computed yet. */
+  private transient int mHashCode = 0;
+
   /**
    * Describes a request for a Kiji Table column.
    */
@@ -104,6 +111,39 @@ public final class KijiDataRequest implements Serializable {
     private final KijiColumnFilter mFilter;
     /** The number of cells per page (zero means no paging). */
     private final int mPageSize;
+    /** JSON form of the reader schema to decode the cells with (may be null). */
+    private final String mReaderSchemaJson;
+    /** The record fields to decode, in the schema from the table layout (may be null). */
+    private final ImmutableList<String> mFields;
+    /** The reader schema, parsed lazily from its JSON form. Avro schemas are not serializable. */
+    private transient Schema mReaderSchema;
+    /** The last projection of the requested fields, with the layout schema it was built from. */
+    private transient volatile Projection mProjection;
+
+    /**
+     * A record projection, memoized by the identity of the layout schema it was projected from.
+     *
+     * <p>Row data call {@link Column#getProjectedSchema(Schema)} for every row: returning the
+     * same schema instance each time lets the decoders reuse their cached DatumReaders without
+     * hashing and comparing the projected schema.</p>
+     */
+    private static final class Projection {
+      /** Layout schema the projection was built from. */
+      private final Schema mLayoutSchema;
+      /** Projection of the layout schema onto the requested fields. */
+      private final Schema mProjectedSchema;
+
+      /**
+       * Creates a memoized projection.
+       *
+       * @param layoutSchema Layout schema the projection was built from.
+       * @param projectedSchema Projection of the layout schema onto the requested fields.
+       */
+      private Projection(Schema layoutSchema, Schema projectedSchema) {
+        mLayoutSchema = layoutSchema;
+        mProjectedSchema = projectedSchema;
+      }
+    }
 
     /**
      * Creates a new request for the latest version of the cell in <code>family:qualifier</code>.
@@ -116,11 +156,31 @@ public final class KijiDataRequest implements Serializable {
      */
     Column(String family, String qualifier, int maxVersions, KijiColumnFilter filter,
         int pageSize) {
+      this(family, qualifier, maxVersions, filter, pageSize, null, null);
+    }
+
+    /**
+     * Creates a new request for the latest version of the cell in <code>family:qualifier</code>,
+     * with a reader schema projection.
+     *
+     * @param family The name of the column family to request.
+     * @param qualifier The name of the column qualifier to request.
+     * @param maxVersions the max versions of the column to request.
+     * @param filter a column filter to attach to the results of this column request.
+     * @param pageSize the default number of cells per page to retrieve at a time.
+     * @param readerSchema the reader schema to decode the cells with (may be null).
+     * @param fields the record fields to decode (may be null). Exclusive with readerSchema.
+     */
+    Column(String family, String qualifier, int maxVersions, KijiColumnFilter filter,
+        int pageSize, Schema readerSchema, List<String> fields) {
       mFamily = family;
       mQualifier = qualifier;
       mMaxVersions = maxVersions;
       mFilter = filter;
       mPageSize = pageSize;
+      mReaderSchema = readerSchema;
+      mReaderSchemaJson = (null != readerSchema) ? readerSchema.toString() : null;
+      mFields = (null != fields) ? ImmutableList.copyOf(fields) : null;
     }
 
     /**
@@ -197,6 +257,63 @@ public final class KijiDataRequest implements Serializable {
       return 0 != mPageSize;
     }
 
+    /**
+     * Gets the reader schema requested to decode the cells of this column.
+     *
+     * @return the requested reader schema, or null if none was specified.
+     */
+    public Schema getReaderSchema() {
+      if ((null == mReaderSchema) && (null != mReaderSchemaJson)) {
+        mReaderSchema = new Schema.Parser().parse(mReaderSchemaJson);
+      }
+      return mReaderSchema;
+    }
+
+    /**
+     * Gets the names of the record fields requested from the cells of this column.
+     *
+     * @return the names of the requested record fields, or null if none were specified.
+     */
+    public List<String> getFields() {
+      return mFields;
+    }
+
+    /**
+     * Determines whether the cells of this column are decoded with a projected reader schema.
+     *
+     * @return whether a reader schema or a list of record fields was requested.
+     */
+    public boolean isProjected() {
+      return (null != mReaderSchemaJson) || (null != mFields);
+    }
+
+    /**
+     * Gets the reader schema to decode the cells of this column with.
+     *
+     * @param layoutSchema Reader schema of the column, as declared in the table layout.
+     * @return the requested reader schema, the projection of the layout schema onto the
+     *     requested record fields, or the layout schema if no projection was requested.
+     * @throws KijiDataRequestException if the requested fields cannot be projected.
+     */
+    public Schema getProjectedSchema(Schema layoutSchema) {
+      if (null != mFields) {
+        final Projection projection = mProjection;
+        if ((null != projection) && (projection.mLayoutSchema == layoutSchema)) {
+          return projection.mProjectedSchema;
+        }
+        try {
+          final Schema projected = AvroUtils.projectRecord(layoutSchema, mFields);
+          mProjection = new Projection(layoutSchema, projected);
+          return projected;
+        } catch (IllegalArgumentException iae) {
+          throw new KijiDataRequestException(String.format(
+              "Invalid projection for column '%s': %s", getName(), iae.getMessage()));
+        }
+      }
+      final Schema readerSchema = getReaderSchema();
+      return (null != readerSchema) ? readerSchema : layoutSchema;
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean equals(Object other) {
@@ -208,6 +325,8 @@ public final class KijiDataRequest implements Serializable {
           .append(getName(), otherCol.getName())
           .append(mMaxVersions, otherCol.mMaxVersions)
           .append(mPageSize, otherCol.mPageSize)
+          .append(mReaderSchemaJson, otherCol.mReaderSchemaJson)
+          .append(mFields, otherCol.mFields)
           .isEquals();
     }
 
@@ -225,6 +344,8 @@ public final class KijiDataRequest implements Serializable {
           .add("maxVersions", getMaxVersions())
           .add("filter", getFilter())
           .add("pageSize", getPageSize())
+          .add("readerSchema", mReaderSchemaJson)
+          .add("fields", mFields)
           .toString();
     }
   }
@@ -313,7 +434,19 @@ public final class KijiDataRequest implements Serializable {
 
     int maxVersions = Math.max(col1.getMaxVersions(), col2.getMaxVersions());
 
-    return new Column(family, qualifier, maxVersions, null, pageSize);
+    // Keep a projection only if it reads everything both columns read:
+    Schema readerSchema = null;
+    List<String> fields = null;
+    if ((null != col1.mFields) && (null != col2.mFields)) {
+      final Set<String> union = new LinkedHashSet<String>(col1.mFields);
+      union.addAll(col2.mFields);
+      fields = new ArrayList<String>(union);
+    } else if ((null != col1.mReaderSchemaJson)
+        && col1.mReaderSchemaJson.equals(col2.mReaderSchemaJson)) {
+      readerSchema = col1.getReaderSchema();
+    }
+
+    return new Column(family, qualifier, maxVersions, null, pageSize, readerSchema, fields);
   }
 
   /**
@@ -335,6 +468,9 @@ public final class KijiDataRequest implements Serializable {
    *       value is chosen.</li>
    *   <li>When pageSize differs for the same column in both requests, the lesser value
    *       is chosen.</li>
+   *   <li>When both requests project the same column onto record fields, the union of the
+   *       fields is requested. Differing reader schemas, or a projection in only one of the
+   *       requests, fall back to the reader schema from the table layout.</li>
    *   <li>If either request contains KijiColumnFilter definitions attached to a column,
    *      this is considered an error, and a RuntimeException is thrown. Data requests with
    *      filters cannot be merged.</li>
@@ -537,7 +673,12 @@ public final class KijiDataRequest implements Serializable {
   /** {@inheritDoc} */
   @Override
   public int hashCode() {
-    return toString().hashCode();
+    // Data requests key the Get templates cached by table readers: avoid rendering the request
+    // as a string on every lookup.
+    if (0 == mHashCode) {
+      mHashCode = toString().hashCode();
+    }
+    return mHashCode;
   }
 
   /** {@inheritDoc} */
@@ -19,12 +19,14 @@
 
 package org.kiji.schema;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import org.apache.avro.Schema;
 
 import org.kiji.annotations.ApiAudience;
 import org.kiji.schema.filter.KijiColumnFilter;
@@ -101,6 +103,12 @@ import org.kiji.schema.filter.KijiColumnFilter;
  * builder.newColumnsDef().withMaxVersions(42).addFamily("fam2");
  * KijiDataRequest request = builder.build();
  * </pre>
+ *
+ * <p>To decode only the <tt>name</tt> and <tt>email</tt> fields of the records stored in
+ * <tt>info:profile</tt>, and skip the other fields:</p>
+ * <pre>
+ * builder.newColumnsDef().withFields("name", "email").add("info", "profile");
+ * </pre>
  */
 @ApiAudience.Public
 public final class KijiDataRequestBuilder {
@@ -156,6 +164,12 @@ public final class KijiDataRequestBuilder {
     /** The number of cells per page (zero means no paging). */
     private Integer mPageSize;
 
+    /** The reader schema to decode the cells with (may be null). */
+    private Schema mReaderSchema = null;
+
+    /** The record fields to decode (may be null). */
+    private List<String> mFields = null;
+
     /** Columns in this definition. */
     private List<KijiColumnName> mColumns = Lists.newArrayList();
 
@@ -235,6 +249,50 @@ public final class KijiDataRequestBuilder {
       return this;
     }
 
+    /**
+     * Sets the Avro reader schema to decode the cells of the columns with.
+     *
+     * <p>The reader schema must be able to read data written with the schema declared in the
+     * table layout, according to the Avro schema resolution rules: this is checked when the
+     * data request is validated against the table layout. A record reader schema with fewer
+     * fields than the layout schema is a projection: Avro skips the other fields instead of
+     * decoding them. Projected values are decoded as generic records, since generated classes
+     * only hold complete records.</p>
+     *
+     * @param readerSchema The Avro reader schema.
+     * @return This column request builder instance.
+     */
+    public ColumnsDef withReaderSchema(Schema readerSchema) {
+      checkNoCols();
+      checkNoProjection();
+      mReaderSchema = Preconditions.checkNotNull(readerSchema);
+      return this;
+    }
+
+    /**
+     * Restricts the decoding of the cells of the columns to some fields of their records.
+     *
+     * <p>The reader schema becomes the record schema declared in the table layout, restricted
+     * to the given fields. Avro skips the other fields instead of decoding them.
+     * See {@link #withReaderSchema(Schema)}.</p>
+     *
+     * @param fields Names of the record fields to decode.
+     * @return This column request builder instance.
+     */
+    public ColumnsDef withFields(String... fields) {
+      checkNoCols();
+      checkNoProjection();
+      Preconditions.checkArgument(fields.length > 0, "At least one field must be requested.");
+      mFields = Arrays.asList(fields.clone());
+      return this;
+    }
+
+    /** If a projection has already been set, throw IllegalStateException. */
+    private void checkNoProjection() {
+      Preconditions.checkState((null == mReaderSchema) && (null == mFields),
+          "Cannot set the reader schema or the fields more than once.");
+    }
+
     /**
      * Adds a column to the data request, using the properties associated with this
      * KijiDataRequestBuilder.ColumnsDef object. Once you call this method, you may not
@@ -311,8 +369,8 @@ public final class KijiDataRequestBuilder {
 
       final List<KijiDataRequest.Column> columns = Lists.newArrayListWithCapacity(mColumns.size());
       for (KijiColumnName column: mColumns) {
-        columns.add(new KijiDataRequest.Column(
-            column.getFamily(), column.getQualifier(), mMaxVersions, mFilter, mPageSize));
+        columns.add(new KijiDataRequest.Column(column.getFamily(), column.getQualifier(),
+            mMaxVersions, mFilter, mPageSize, mReaderSchema, mFields));
       }
       return columns;
     }
@@ -383,11 +441,16 @@ public final class KijiDataRequestBuilder {
    *     data request builder.
    */
   public ColumnsDef newColumnsDef(KijiDataRequest.Column existingColumn) {
-    return newColumnsDef()
+    final ColumnsDef def = newColumnsDef()
         .withFilter(existingColumn.getFilter())
         .withPageSize(existingColumn.getPageSize())
-        .withMaxVersions(existingColumn.getMaxVersions())
-        .add(existingColumn.getFamily(), existingColumn.getQualifier());
+        .withMaxVersions(existingColumn.getMaxVersions());
+    if (null != existingColumn.getReaderSchema()) {
+      def.withReaderSchema(existingColumn.getReaderSchema());
+    } else if (null != existingColumn.getFields()) {
+      def.withFields(existingColumn.getFields().toArray(new String[0]));
+    }
+    return def.add(existingColumn.getFamily(), existingColumn.getQualifier());
   }
 
   /**
@@ -19,12 +19,20 @@
 
 package org.kiji.schema;
 
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import org.apache.avro.Schema;
+
 import org.kiji.annotations.ApiAudience;
 import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.util.AvroUtils;
 
 /**
  * This class validates a {@link KijiDataRequest} against the layout
- * of a Kiji table to make sure it contains all of the columns requested.
+ * of a Kiji table to make sure it contains all of the columns requested,
+ * and that the requested reader schema projections can read the columns.
  */
 @ApiAudience.Framework
 public final class KijiDataRequestValidator {
@@ -63,6 +71,54 @@ public final class KijiDataRequestValidator {
               tableLayout.getName(), column.getName()));
         }
       }
+
+      if (column.isProjected()) {
+        validateProjection(tableLayout, fLayout, column);
+      }
+    }
+  }
+
+  /**
+   * Validates the reader schema projection of a column request against the table layout.
+   *
+   * @param tableLayout The Kiji table layout to validate against.
+   * @param fLayout The layout of the family of the requested column.
+   * @param column The column request with a reader schema projection.
+   * @throws KijiDataRequestException If the projection cannot read the requested column.
+   */
+  private static void validateProjection(
+      KijiTableLayout tableLayout,
+      KijiTableLayout.LocalityGroupLayout.FamilyLayout fLayout,
+      KijiDataRequest.Column column) {
+    // A request for a whole group-type family projects every column of the family:
+    final List<KijiColumnName> columnNames = Lists.newArrayList();
+    if (fLayout.isGroupType() && (null == column.getQualifier())) {
+      for (String qualifier : fLayout.getColumnMap().keySet()) {
+        columnNames.add(new KijiColumnName(column.getFamily(), qualifier));
+      }
+    } else {
+      columnNames.add(column.getColumnName());
+    }
+
+    for (KijiColumnName columnName : columnNames) {
+      final Schema layoutSchema;
+      try {
+        layoutSchema = tableLayout.getSchema(columnName);
+      } catch (IOException ioe) {
+        throw new KijiDataRequestException(String.format(
+            "Cannot read the schema of column '%s': %s", columnName, ioe.getMessage()));
+      }
+      if (null == layoutSchema) {
+        throw new KijiDataRequestException(String.format(
+            "Column '%s' is a counter, and cannot be read with a projection.", columnName));
+      }
+      final String incompatibility =
+          AvroUtils.getIncompatibility(column.getProjectedSchema(layoutSchema), layoutSchema);
+      if (null != incompatibility) {
+        throw new KijiDataRequestException(String.format(
+            "Projection for column '%s' cannot read its layout schema: %s",
+            columnName, incompatibility));
+      }
     }
   }
 }
@@ -43,7 +43,9 @@ public interface KijiIncrementer extends Closeable, Flushable {
    * @param family Column family.
    * @param qualifier Column qualifier.
    * @param amount Amount to increment the counter (may be negative).
-   * @return the new counter value, post increment.
+   * @return the new counter value, post increment, or null if the increment is coalesced with
+   *     other increments and sent later (see
+   *     {@link KijiTableWriter.KijiWriterOptions#setCoalesceIncrements(boolean)}).
    * @throws IOException on I/O error.
    */
   KijiCell<Long> increment(EntityId entityId, String family, String qualifier, long amount)
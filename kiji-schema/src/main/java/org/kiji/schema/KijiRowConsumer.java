@@ -0,0 +1,47 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema;
+
+import java.io.IOException;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.annotations.Inheritance;
+
+/**
+ * Callback receiving the rows of a parallel scan.
+ *
+ * @see KijiTableReader#parallelScan(KijiDataRequest,
+ *     KijiTableReader.KijiParallelScanOptions, KijiRowConsumer)
+ */
+@ApiAudience.Public
+@Inheritance.Extensible
+public interface KijiRowConsumer {
+  /**
+   * Processes a row of a parallel scan.
+   *
+   * <p>Unless the scan is ordered, this method is invoked concurrently from several threads
+   * and must be thread-safe.</p>
+   *
+   * @param row The row to process.
+   * @throws IOException on I/O error. The scan is aborted and the error is reported to the
+   *     caller of the scan.
+   */
+  void consume(KijiRowData row) throws IOException;
+}
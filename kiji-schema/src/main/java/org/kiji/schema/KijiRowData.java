@@ -20,6 +20,7 @@
 package org.kiji.schema;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
 
@@ -96,7 +97,7 @@ public interface KijiRowData {
 
   /**
    * Gets the reader schema for a column as declared in the layout of the table this row
-   * comes from.
+   * comes from, or the reader schema projection requested for the column by the data request.
    *
    * @param family A column family name.
    * @param qualifier A column qualifier name.
@@ -132,6 +133,65 @@ public interface KijiRowData {
    */
   <T> T getMostRecentValue(String family, String qualifier) throws IOException;
 
+  /**
+   * Gets the value stored within the specified cell, decoded into a recycled object.
+   *
+   * <p>If reuse is non-null, it may be filled with the decoded value and returned, instead of
+   * allocating a new object: Avro records, arrays, maps and Utf8 strings are recycled. This lets
+   * tight loops over many rows decode values without generating garbage. The caller must not
+   * keep references to a value it passes back in for reuse.</p>
+   *
+   * @param family A column family name.
+   * @param qualifier A column qualifier name.
+   * @param timestamp The timestamp of the cell.
+   * @param reuse Optional object to recycle (may be null).
+   * @param <T> The type of the values stored at the specified coordinates.
+   * @return the value of the specified cell, possibly the recycled object,
+   *     or null if the cell does not exist.
+   * @throws IOException If there is an error.
+   */
+  <T> T getValue(String family, String qualifier, long timestamp, T reuse) throws IOException;
+
+  /**
+   * Gets the value with the latest timestamp stored within the specified cell,
+   * decoded into a recycled object.
+   *
+   * @param family A column family name.
+   * @param qualifier A column qualifier name.
+   * @param reuse Optional object to recycle (may be null).
+   * @param <T> The type of the values stored at the specified coordinates.
+   * @return the value of the specified cell, possibly the recycled object,
+   *     or null if the cell does not exist.
+   * @throws IOException If there is an error.
+   * @see #getValue(String, String, long, Object)
+   */
+  <T> T getMostRecentValue(String family, String qualifier, T reuse) throws IOException;
+
+  /**
+   * Gets a read-only view of the encoded content of the specified cell.
+   *
+   * <p>The view exposes the cell as stored in HBase, without copying it: the writer schema
+   * (unless the column is final) followed by the Avro-encoded value, or the 8 bytes of a
+   * counter. The view starts at position 0.</p>
+   *
+   * @param family A column family name.
+   * @param qualifier A column qualifier name.
+   * @param timestamp The timestamp of the cell.
+   * @return a read-only view of the encoded cell, or null if the cell does not exist.
+   */
+  ByteBuffer getRawValue(String family, String qualifier, long timestamp);
+
+  /**
+   * Gets a read-only view of the encoded content of the most recent cell of a column.
+   *
+   * @param family A column family name.
+   * @param qualifier A column qualifier name.
+   * @return a read-only view of the encoded cell with the latest timestamp, or null if the
+   *     column has no cell.
+   * @see #getRawValue(String, String, long)
+   */
+  ByteBuffer getMostRecentRawValue(String family, String qualifier);
+
   /**
    * Gets the value with the latest timestamp stored within the specified cell.
    *
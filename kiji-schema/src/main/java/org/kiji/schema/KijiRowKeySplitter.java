@@ -20,12 +20,19 @@
 package org.kiji.schema;
 
 import java.util.Arrays;
+import java.util.List;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.avro.RowKeyEncoding;
+import org.kiji.schema.avro.RowKeyFormat;
+import org.kiji.schema.avro.RowKeyFormat2;
+import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.util.ByteArrayFormatter;
 
 /**
@@ -73,4 +80,79 @@ public final class KijiRowKeySplitter {
     // Remove the startKey from the beginning and the limitKey from the end.
     return Arrays.copyOfRange(ends, 1, ends.length - 1);
   }
+
+  /**
+   * Returns the keys splitting a range of row keys into evenly spaced sub-ranges.
+   *
+   * <p>Keys are interpolated between the range bounds, which spreads rows evenly only when
+   * row keys are uniformly distributed, i.e. when they start with a hash.
+   * An empty start (resp. end) key stands for the start (resp. end) of the table.</p>
+   *
+   * @param startKey The start key (inclusive) of the range to split.
+   * @param endKey The end key (exclusive) of the range to split.
+   * @param numSplits The number of desired sub-ranges.
+   * @return The row keys that serve as the boundaries between the sub-ranges. There may be fewer
+   *     than numSplits - 1 keys, if the range is too narrow.
+   */
+  public static byte[][] getSplitKeys(byte[] startKey, byte[] endKey, int numSplits) {
+    Preconditions.checkArgument(numSplits >= 1, "numSplits must be at least 1: %s", numSplits);
+    if (numSplits == 1) {
+      return new byte[0][];
+    }
+
+    byte[] lowKey = startKey;
+    if (lowKey.length == 0) {
+      lowKey = new byte[HBASE_ROW_KEY_RESOLUTION];
+      Arrays.fill(lowKey, (byte) 0x00);
+    }
+    byte[] highKey = endKey;
+    if (highKey.length == 0) {
+      highKey = new byte[Math.max(HBASE_ROW_KEY_RESOLUTION, lowKey.length)];
+      Arrays.fill(highKey, (byte) 0xFF);
+    }
+    if (Bytes.compareTo(lowKey, highKey) >= 0) {
+      return new byte[0][];
+    }
+
+    // This result includes numSplits + 1 keys in it (includes lowKey and highKey).
+    final byte[][] ends = Bytes.split(lowKey, highKey, numSplits - 1);
+    if (null == ends) {
+      return new byte[0][];
+    }
+
+    // Keep the strictly increasing keys within (startKey, endKey).
+    final List<byte[]> splitKeys = Lists.newArrayList();
+    byte[] previous = startKey;
+    for (int i = 1; i < ends.length - 1; i++) {
+      final byte[] key = ends[i];
+      if ((Bytes.compareTo(key, previous) > 0)
+          && ((endKey.length == 0) || (Bytes.compareTo(key, endKey) < 0))) {
+        splitKeys.add(key);
+        previous = key;
+      }
+    }
+    return splitKeys.toArray(new byte[splitKeys.size()][]);
+  }
+
+  /**
+   * Reports whether the row keys of a table start with a hash, and are therefore uniformly
+   * distributed over the row key space.
+   *
+   * @param layout The layout of the table.
+   * @return whether the row keys of the table start with a hash.
+   */
+  public static boolean hasHashedRowKeys(KijiTableLayout layout) {
+    final Object keysFormat = layout.getDesc().getKeysFormat();
+    if (keysFormat instanceof RowKeyFormat) {
+      final RowKeyEncoding encoding = ((RowKeyFormat) keysFormat).getEncoding();
+      return (encoding == RowKeyEncoding.HASH) || (encoding == RowKeyEncoding.HASH_PREFIX);
+    } else if (keysFormat instanceof RowKeyFormat2) {
+      final RowKeyFormat2 format = (RowKeyFormat2) keysFormat;
+      return (format.getEncoding() == RowKeyEncoding.FORMATTED)
+          && (null != format.getSalt())
+          && (format.getSalt().getHashSize() > 0);
+    } else {
+      return false;
+    }
+  }
 }
@@ -84,6 +84,17 @@ public interface KijiTable extends Closeable {
    */
   KijiTableWriter openTableWriter() throws IOException;
 
+  /**
+   * Opens an appropriate implementation of KijiTableWriter for this table, configured with
+   * the specified options.  The caller is responsible for closing this writer.
+   *
+   * @param writerOptions Options for the writer, e.g. its buffering policy.
+   * @throws IOException If there was an error opening the writer.
+   * @return A KijiTableWriter for this table.
+   */
+  KijiTableWriter openTableWriter(KijiTableWriter.KijiWriterOptions writerOptions)
+      throws IOException;
+
   /**
    * Return the regions in this table as an ordered list.
    *
@@ -21,11 +21,14 @@ package org.kiji.schema;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
@@ -45,7 +48,8 @@ import org.kiji.schema.util.Clock;
  * opened and returned. When the client is finished, it should call release() to allow
  * other clients or threads the option to reuse the opened table.</p>
  *
- * <p>This class is thread-safe.</p>
+ * <p>This class is thread-safe. Tables are borrowed from and returned to per-table concurrent
+ * deques, without a pool-wide lock: idle tables are closed without blocking borrowers.</p>
  */
 @ApiAudience.Public
 public final class KijiTablePool implements Closeable {
@@ -72,13 +76,13 @@ public final class KijiTablePool implements Closeable {
   private final long mIdlePollPeriod;
 
   /** A map from table names to their connection pools. */
-  private final Map<String, Pool> mTableCache;
+  private final ConcurrentMap<String, Pool> mTableCache;
 
   /** A cleanup thread for idle connections. */
-  private IdleTimeoutThread mCleanupThread;
+  private volatile IdleTimeoutThread mCleanupThread;
 
   /** Whether the table pool is open. */
-  private boolean mIsOpen;
+  private volatile boolean mIsOpen;
 
   /**
    * Describes the options that can be configured on the KijiTablePool.
@@ -239,7 +243,7 @@ public final class KijiTablePool implements Closeable {
     mMaxSize = (0 == options.getMaxSize()) ? Integer.MAX_VALUE : options.getMaxSize();
     mIdleTimeout = options.getIdleTimeout();
     mIdlePollPeriod = options.getIdlePollPeriod();
-    mTableCache = new HashMap<String, Pool>();
+    mTableCache = new ConcurrentHashMap<String, Pool>();
     mIsOpen = true;
   }
 
@@ -257,6 +261,104 @@ public final class KijiTablePool implements Closeable {
     }
   }
 
+  /**
+   * Statistics about the connections of a table pool.
+   */
+  @ApiAudience.Public
+  public static final class Stats {
+    private final long mHits;
+    private final long mMisses;
+    private final long mTotalOpenTimeNanos;
+    private final int mLiveCount;
+    private final int mIdleCount;
+
+    /**
+     * Creates a snapshot of pool statistics.
+     *
+     * @param hits Number of borrows served by an idle connection.
+     * @param misses Number of borrows that opened a new connection.
+     * @param totalOpenTimeNanos Total time spent opening connections for borrows that missed,
+     *     in nanoseconds.
+     * @param liveCount Number of connections opened by the pool, borrowed or idle.
+     * @param idleCount Number of idle connections.
+     */
+    private Stats(long hits, long misses, long totalOpenTimeNanos, int liveCount,
+        int idleCount) {
+      mHits = hits;
+      mMisses = misses;
+      mTotalOpenTimeNanos = totalOpenTimeNanos;
+      mLiveCount = liveCount;
+      mIdleCount = idleCount;
+    }
+
+    /**
+     * Gets the number of borrows served by an idle connection.
+     *
+     * @return The number of borrows served by an idle connection.
+     */
+    public long getHits() {
+      return mHits;
+    }
+
+    /**
+     * Gets the number of borrows that opened a new connection.
+     *
+     * @return The number of borrows that opened a new connection.
+     */
+    public long getMisses() {
+      return mMisses;
+    }
+
+    /**
+     * Gets the fraction of borrows served by an idle connection.
+     *
+     * @return The hit rate, between 0 and 1; 0 if no connection was borrowed.
+     */
+    public double getHitRate() {
+      final long borrows = mHits + mMisses;
+      return (borrows == 0) ? 0.0 : (double) mHits / borrows;
+    }
+
+    /**
+     * Gets the average time spent opening a new connection, for borrows that missed.
+     *
+     * <p>Borrows served by an idle connection do not wait: this is the cost of a miss.</p>
+     *
+     * @param unit Time unit of the returned value.
+     * @return The average time to open a connection; 0 if no connection was opened.
+     */
+    public double getAverageOpenTime(TimeUnit unit) {
+      return (mMisses == 0)
+          ? 0.0
+          : (double) mTotalOpenTimeNanos / TimeUnit.NANOSECONDS.convert(1, unit) / mMisses;
+    }
+
+    /**
+     * Gets the number of connections opened by the pool, borrowed or idle.
+     *
+     * @return The number of live connections.
+     */
+    public int getLiveCount() {
+      return mLiveCount;
+    }
+
+    /**
+     * Gets the number of idle connections available for reuse.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleCount() {
+      return mIdleCount;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+      return String.format("Stats(hits=%d, misses=%d, live=%d, idle=%d, avgOpenMicros=%.1f)",
+          mHits, mMisses, mLiveCount, mIdleCount, getAverageOpenTime(TimeUnit.MICROSECONDS));
+    }
+  }
+
   /**
    * Gets a previously opened table from the pool, or open a new connection.
    * Clients should not call close() on the returned table. Instead, they should release the
@@ -267,17 +369,38 @@ public final class KijiTablePool implements Closeable {
    * @throws IOException If there is an error.
    * @throws KijiTablePool.NoCapacityException If the table pool is at capacity.
    */
-  public synchronized KijiTable get(String name) throws IOException {
+  public KijiTable get(String name) throws IOException {
     LOG.debug("Retrieving a connection for " + name + " from the table pool.");
     if (!mIsOpen) {
       throw new IllegalStateException("Table pool is closed.");
     }
+    return getPool(name).get(name);
+  }
 
-    if (!mTableCache.containsKey(name)) {
-      mTableCache.put(name, new Pool());
+  /**
+   * Gets the connection pool for a table, creating it if necessary.
+   *
+   * @param name The name of the Kiji table.
+   * @return The connection pool for the table.
+   * @throws IllegalStateException if the table pool is closed.
+   */
+  private Pool getPool(String name) {
+    final Pool pool = mTableCache.get(name);
+    if (null != pool) {
+      return pool;
     }
-
-    return mTableCache.get(name).get(name);
+    final Pool newPool = new Pool();
+    final Pool existing = mTableCache.putIfAbsent(name, newPool);
+    if (null != existing) {
+      return existing;
+    }
+    if (!mIsOpen) {
+      // The table pool was closed concurrently, possibly after clearing the cache:
+      mTableCache.remove(name, newPool);
+      newPool.closeQuietly();
+      throw new IllegalStateException("Table pool is closed.");
+    }
+    return newPool;
   }
 
   /**
@@ -287,7 +410,7 @@ public final class KijiTablePool implements Closeable {
    *
    * @param table The table to release to the pool. If null, will be a no-op.
    */
-  public synchronized void release(KijiTable table) {
+  public void release(KijiTable table) {
     LOG.debug("Releasing a KijiTable " + table + " back to the pool.");
     if (!mIsOpen) {
       throw new IllegalStateException("Table pool is closed.");
@@ -301,19 +424,34 @@ public final class KijiTablePool implements Closeable {
     // Throw an IllegalArgumentException if not.
     //
     // Verify that the table is still open.  Throw an IllegalStateException if not.
-    mTableCache.get(table.getName()).release(table);
+    final Pool pool = mTableCache.get(table.getName());
+    if (null == pool) {
+      // The table pool was closed concurrently: nobody will borrow the table again.
+      LOG.debug("Closing KijiTable " + table + " released to a closed pool.");
+      IOUtils.closeQuietly(table);
+      return;
+    }
+    pool.release(table);
 
     // Start the cleanup thread if necessary.
     if (mIdleTimeout > 0L && null == mCleanupThread) {
-      mCleanupThread = new IdleTimeoutThread();
-      mCleanupThread.start();
+      startCleanupThread();
+    }
+  }
+
+  /** Starts the cleanup thread for idle connections, unless it is already running. */
+  private synchronized void startCleanupThread() {
+    if (mIsOpen && null == mCleanupThread) {
+      final IdleTimeoutThread thread = new IdleTimeoutThread();
+      thread.start();
+      mCleanupThread = thread;
     }
   }
 
   /**
    * Explicitly force a cleanup of table connections that have been idle too long.
    */
-  synchronized void cleanIdleConnections() {
+  void cleanIdleConnections() {
     if (mIdleTimeout > 0) {
       for (Pool pool: mTableCache.values()) {
         pool.clean(mIdleTimeout);
@@ -332,6 +470,7 @@ public final class KijiTablePool implements Closeable {
       LOG.warn("Called close() on a KijiTablePool that was already closed.");
       return;
     }
+    mIsOpen = false;
     if (null != mCleanupThread) {
       mCleanupThread.interrupt();
       try {
@@ -344,7 +483,6 @@ public final class KijiTablePool implements Closeable {
       IOUtils.closeQuietly(pool);
     }
     mTableCache.clear();
-    mIsOpen = false;
   }
 
   @Override
@@ -363,24 +501,70 @@ public final class KijiTablePool implements Closeable {
    * @return The size of the table pool.
    */
   public int getPoolSize(String tableName) {
-    return mTableCache.get(tableName).getPoolSize();
+    final Pool pool = mTableCache.get(tableName);
+    return (null == pool) ? 0 : pool.getPoolSize();
+  }
+
+  /**
+   * Gets statistics about the connections to the specified table.
+   *
+   * @param tableName The name of the table.
+   * @return Statistics about the connections to the table.
+   */
+  public Stats getStats(String tableName) {
+    final Pool pool = mTableCache.get(tableName);
+    return (null == pool) ? new Stats(0, 0, 0, 0, 0) : pool.getStats();
+  }
+
+  /**
+   * Gets statistics about the connections to all the tables of this pool.
+   *
+   * @return Statistics about the connections of this pool.
+   */
+  public Stats getStats() {
+    long hits = 0;
+    long misses = 0;
+    long openTimeNanos = 0;
+    int liveCount = 0;
+    int idleCount = 0;
+    for (Pool pool : mTableCache.values()) {
+      final Stats stats = pool.getStats();
+      hits += stats.getHits();
+      misses += stats.getMisses();
+      openTimeNanos += stats.mTotalOpenTimeNanos;
+      liveCount += stats.getLiveCount();
+      idleCount += stats.getIdleCount();
+    }
+    return new Stats(hits, misses, openTimeNanos, liveCount, idleCount);
   }
 
   /**
    * A pool of connections for a single table. Maintains a number of
-   * connections in use, and a queue of available ones for re-use.
+   * connections in use, and a deque of available ones for re-use.
+   *
+   * <p>Available connections are reused most recent first, so that the least recently used
+   * connections at the tail of the deque become idle and may be cleaned up.</p>
    */
   private class Pool implements Closeable {
-    private final Queue<Connection> mConnections;
+    private final BlockingDeque<Connection> mConnections;
     // The total pool size is the total number of tables in use and available connections.
-    private int mPoolSize;
+    private final AtomicInteger mPoolSize;
+    private final AtomicLong mHits;
+    private final AtomicLong mMisses;
+    private final AtomicLong mOpenTimeNanos;
+    // Set when the pool is closed: connections added afterwards must be closed right away.
+    private volatile boolean mClosed;
 
     /**
      * Constructor.
      */
     public Pool() {
-      mConnections = new ArrayDeque<Connection>();
-      mPoolSize = 0;
+      mConnections = new LinkedBlockingDeque<Connection>();
+      mPoolSize = new AtomicInteger(0);
+      mHits = new AtomicLong(0);
+      mMisses = new AtomicLong(0);
+      mOpenTimeNanos = new AtomicLong(0);
+      mClosed = false;
     }
 
     /**
@@ -392,27 +576,74 @@ public final class KijiTablePool implements Closeable {
      * @throws KijiTablePool.NoCapacityException If there is no more room in the
      *     pool to open a new connection.
      */
-    public synchronized KijiTable get(String tableName) throws IOException {
-      Connection availableConnection = mConnections.poll();
-      if (null == availableConnection) {
-        if (mPoolSize >= mMaxSize) {
-          throw new NoCapacityException("Reached max pool size for table " + tableName + ". There"
-            + " are " + mPoolSize + " tables in the pool.");
+    public KijiTable get(String tableName) throws IOException {
+      if (mClosed) {
+        throw new IllegalStateException("Table pool is closed.");
+      }
+      final Connection availableConnection = mConnections.pollFirst();
+      if (null != availableConnection) {
+        LOG.debug("Cache hit for table " + tableName);
+        mHits.incrementAndGet();
+        return availableConnection.getTable();
+      }
+
+      if (!reserve(mMaxSize)) {
+        throw new NoCapacityException("Reached max pool size for table " + tableName + ". There"
+          + " are " + mPoolSize.get() + " tables in the pool.");
+      }
+      LOG.debug("Cache miss for table " + tableName);
+      mMisses.incrementAndGet();
+      final long startTime = System.nanoTime();
+      final KijiTable tableConnection;
+      try {
+        tableConnection = mTableFactory.openTable(tableName);
+      } catch (IOException ioe) {
+        mPoolSize.decrementAndGet();
+        throw ioe;
+      } finally {
+        mOpenTimeNanos.addAndGet(System.nanoTime() - startTime);
+      }
+      fillToMinSize(tableName);
+      return tableConnection;
+    }
+
+    /**
+     * Reserves room in the pool for a new connection.
+     *
+     * @param limit The pool size below which room may be reserved.
+     * @return whether room for a new connection was reserved.
+     */
+    private boolean reserve(int limit) {
+      while (true) {
+        final int size = mPoolSize.get();
+        if (size >= limit) {
+          return false;
         }
-        LOG.debug("Cache miss for table " + tableName);
-        KijiTable tableConnection = mTableFactory.openTable(tableName);
-        mPoolSize++;
-        if (mPoolSize < mMinSize) {
-          LOG.debug("Below the min pool size for table " + tableName + ". Adding to the pool.");
-          while (mPoolSize < mMinSize) {
-            mConnections.add(new Connection(mTableFactory.openTable(tableName), mClock));
-            mPoolSize++;
-          }
+        if (mPoolSize.compareAndSet(size, size + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Opens connections until the pool reaches its minimum size.
+     *
+     * @param tableName The name of the table.
+     */
+    private void fillToMinSize(String tableName) {
+      if (mPoolSize.get() < mMinSize) {
+        LOG.debug("Below the min pool size for table " + tableName + ". Adding to the pool.");
+      }
+      while (reserve(mMinSize)) {
+        try {
+          add(new Connection(mTableFactory.openTable(tableName), mClock), false);
+        } catch (IOException ioe) {
+          mPoolSize.decrementAndGet();
+          LOG.warn("Unable to open connection to table {} for the pool: {}",
+              tableName, ioe.getMessage());
+          return;
         }
-        return tableConnection;
       }
-      LOG.debug("Cache hit for table " + tableName);
-      return availableConnection.getTable();
     }
 
     /**
@@ -420,27 +651,70 @@ public final class KijiTablePool implements Closeable {
      *
      * @param table The table to release.
      */
-    public synchronized void release(KijiTable table) {
-      mConnections.add(new Connection(table, mClock));
+    public void release(KijiTable table) {
+      add(new Connection(table, mClock), true);
+    }
+
+    /**
+     * Makes a connection available for reuse, or closes it if the pool was closed.
+     *
+     * <p>The connection is added before the pool state is checked: either close() drains it, or
+     * this method sees the pool closed and removes it. Exactly one of them closes the table.</p>
+     *
+     * @param connection The connection to add.
+     * @param mostRecent Whether the connection is reused first, or last.
+     */
+    private void add(Connection connection, boolean mostRecent) {
+      if (mostRecent) {
+        mConnections.offerFirst(connection);
+      } else {
+        mConnections.offerLast(connection);
+      }
+      if (mClosed && mConnections.removeFirstOccurrence(connection)) {
+        LOG.debug("Closing KijiTable connection released to a closed pool.");
+        IOUtils.closeQuietly(connection.getTable());
+      }
     }
 
     /**
      * Cleans any connections from the pool that have been idle, while maintining the minimum pool
      * size.
      *
+     * <p>Borrowers are not blocked while idle connections are closed.</p>
+     *
      * @param idleTimeout Milliseconds idle required to be closed and
      *     removed from the pool.
      */
-    public synchronized void clean(long idleTimeout) {
-      long currentTime = mClock.getTime();
-      Iterator<Connection> iterator = mConnections.iterator();
-      while (iterator.hasNext() && mPoolSize > mMinSize) {
-        Connection connection = iterator.next();
-        if (currentTime - connection.getLastAccessTime() > idleTimeout) {
-          LOG.info("Closing idle KijiTable connection to " + connection.getTable().getName());
-          iterator.remove();
-          IOUtils.closeQuietly(connection.getTable());
-          mPoolSize--;
+    public void clean(long idleTimeout) {
+      final long currentTime = mClock.getTime();
+      final Iterator<Connection> iterator = mConnections.descendingIterator();
+      while (iterator.hasNext() && mPoolSize.get() > mMinSize) {
+        final Connection connection = iterator.next();
+        if ((currentTime - connection.getLastAccessTime() > idleTimeout) && shrink()) {
+          // The connection may be borrowed concurrently: only close it if it is removed here.
+          if (mConnections.removeFirstOccurrence(connection)) {
+            LOG.info("Closing idle KijiTable connection to " + connection.getTable().getName());
+            IOUtils.closeQuietly(connection.getTable());
+          } else {
+            mPoolSize.incrementAndGet();
+          }
+        }
+      }
+    }
+
+    /**
+     * Removes one connection from the pool size, unless the pool is at its minimum size.
+     *
+     * @return whether the pool size was decremented.
+     */
+    private boolean shrink() {
+      while (true) {
+        final int size = mPoolSize.get();
+        if (size <= mMinSize) {
+          return false;
+        }
+        if (mPoolSize.compareAndSet(size, size - 1)) {
+          return true;
         }
       }
     }
@@ -450,15 +724,32 @@ public final class KijiTablePool implements Closeable {
      *
      * @return The size of the table pool.
      */
-    public synchronized int getPoolSize() {
-        return mPoolSize;
+    public int getPoolSize() {
+        return mPoolSize.get();
+    }
+
+    /**
+     * Gets statistics about the connections of this pool.
+     *
+     * @return Statistics about the connections of this pool.
+     */
+    public Stats getStats() {
+      return new Stats(mHits.get(), mMisses.get(), mOpenTimeNanos.get(), mPoolSize.get(),
+          mConnections.size());
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void close() throws IOException {
-      while (!mConnections.isEmpty()) {
-        IOUtils.closeQuietly(mConnections.remove().getTable());
+    public void close() throws IOException {
+      closeQuietly();
+    }
+
+    /** Closes the available connections, and the connections released from now on. */
+    public void closeQuietly() {
+      mClosed = true;
+      Connection connection;
+      while (null != (connection = mConnections.pollFirst())) {
+        IOUtils.closeQuietly(connection.getTable());
       }
     }
   }
@@ -513,9 +804,7 @@ public final class KijiTablePool implements Closeable {
     @Override
     public void run() {
       while (true) {
-        for (Pool pool : mTableCache.values()) {
-          pool.clean(mIdleTimeout);
-        }
+        cleanIdleConnections();
         try {
           sleep(mIdlePollPeriod);
         } catch (InterruptedException e) {
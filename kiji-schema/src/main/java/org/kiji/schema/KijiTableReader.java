@@ -22,6 +22,10 @@ package org.kiji.schema;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Preconditions;
 
 import org.kiji.annotations.ApiAudience;
 import org.kiji.annotations.Inheritance;
@@ -40,6 +44,10 @@ public interface KijiTableReader extends Closeable {
   /**
    * Retrieves data from a single row in the kiji table.
    *
+   * <p>When the row cache is enabled for the table (see "kiji.schema.row.cache.max.bytes"),
+   * the row may be served from the cache: modifications made through other KijiTable objects
+   * are only observed once the cached row expires.</p>
+   *
    * @param entityId The entity id for the row to get data from.
    * @param dataRequest Specifies the columns of data to retrieve.
    * @return The requested data. If there is no row for the specified entityId, this
@@ -63,6 +71,29 @@ public interface KijiTableReader extends Closeable {
   List<KijiRowData> bulkGet(List<EntityId> entityIds, KijiDataRequest dataRequest)
       throws IOException;
 
+  /**
+   * Retrieves data from a list of rows in the kiji table, asynchronously.
+   *
+   * <p>The rows are grouped by the region server hosting them, and the groups are fetched
+   * concurrently, with at most {@link KijiBulkGetOptions#getMaxParallelism()} concurrent
+   * requests per region server. Each row is decoded as soon as its group is retrieved, and its
+   * future completes independently of the rows hosted by other region servers.</p>
+   *
+   * @param entityIds The list of entity ids to collect data for.
+   * @param dataRequest Specifies constraints on the data to retrieve for each entity id.
+   * @param bulkGetOptions Options controlling the parallelism of the bulk get.
+   * @return Futures for the requested data, in the order of <code>entityIds</code>.
+   *     If an EntityId specified in <code>entityIds</code> does not exist, then the
+   *     corresponding KijiRowData will be empty. If a get fails, then the corresponding
+   *     future fails with the cause of the error.
+   * @throws IOException If there is an IO error.
+   */
+  List<Future<KijiRowData>> bulkGetAsync(
+      List<EntityId> entityIds,
+      KijiDataRequest dataRequest,
+      KijiBulkGetOptions bulkGetOptions)
+      throws IOException;
+
   /**
    * Gets a KijiRowScanner with the specified data request.
    *
@@ -86,6 +117,25 @@ public interface KijiTableReader extends Closeable {
   KijiRowScanner getScanner(KijiDataRequest dataRequest, KijiScannerOptions scannerOptions)
       throws IOException;
 
+  /**
+   * Scans the table with one scanner per region, in parallel, and feeds the rows to a consumer.
+   *
+   * <p>This method blocks until all the rows have been consumed. Unless the scan is ordered,
+   * the consumer is invoked concurrently from the threads scanning the regions. If scanning a
+   * region or consuming a row fails, the scan is aborted and the error is reported.</p>
+   *
+   * @param dataRequest The data request to scan for.
+   * @param parallelScanOptions Options for the parallel scan.
+   * @param consumer Consumer for the rows of the scan.
+   * @throws IOException If there is an IO error, or if the consumer fails.
+   * @throws KijiDataRequestException If the data request is invalid.
+   */
+  void parallelScan(
+      KijiDataRequest dataRequest,
+      KijiParallelScanOptions parallelScanOptions,
+      KijiRowConsumer consumer)
+      throws IOException;
+
   /**
    * Options for KijiRowScanners.
    */
@@ -104,6 +154,13 @@ public interface KijiTableReader extends Closeable {
      * Defaults to the default HBaseScanOptions if not set.
      */
     private HBaseScanOptions mHBaseScanOptions = new HBaseScanOptions();
+    /**
+     * Maximum number of rows fetched and filtered ahead of the consumer by a background thread.
+     * Prefetching is disabled when 0.
+     */
+    private int mPrefetchDepth = 0;
+    /** Whether the scanner recycles a single KijiRowData for all the rows it returns. */
+    private boolean mReuseRowData = false;
 
     /**
      * Creates KijiScannerOptions with uninitialized options
@@ -194,5 +251,267 @@ public interface KijiTableReader extends Closeable {
     public HBaseScanOptions getHBaseScanOptions() {
       return mHBaseScanOptions;
     }
+
+    /**
+     * Sets the number of rows the scanner fetches ahead of the consumer, in a background thread.
+     * The default is 0, which disables prefetching.
+     *
+     * <p>The background thread also filters the requested cells of the prefetched rows and builds
+     * their cell decoders: the consumer only decodes the cells it reads.</p>
+     *
+     * @param prefetchDepth Maximum number of prefetched rows, 0 to disable prefetching.
+     * @return This KijiScannerOptions with the prefetch depth set.
+     */
+    public KijiScannerOptions setPrefetchDepth(int prefetchDepth) {
+      Preconditions.checkArgument(prefetchDepth >= 0,
+          "Invalid prefetch depth: %s", prefetchDepth);
+      mPrefetchDepth = prefetchDepth;
+      return this;
+    }
+
+    /**
+     * Gets the number of rows the scanner fetches ahead of the consumer.
+     *
+     * @return The maximum number of prefetched rows; 0 if prefetching is disabled.
+     */
+    public int getPrefetchDepth() {
+      return mPrefetchDepth;
+    }
+
+    /**
+     * Sets whether the scanner recycles a single KijiRowData for all the rows it returns.
+     * The default is false.
+     *
+     * <p>When enabled, each iterator of the scanner returns the same KijiRowData instance for
+     * every row, updated in place to describe the next row, along with the cell decoders and the
+     * internal state it holds. Callers must be done with a row before moving to the next one.
+     * Combined with {@link KijiRowData#getMostRecentValue(String, String, Object)}, this lets a
+     * scan loop decode rows with close to no garbage. Row data reuse may not be combined with
+     * prefetching, which hands out rows prepared ahead of time, and is ignored by parallel scans,
+     * which may buffer rows.</p>
+     *
+     * @param reuseRowData Whether to recycle the KijiRowData returned by the scanner.
+     * @return This KijiScannerOptions with row data reuse set.
+     */
+    public KijiScannerOptions setReuseRowData(boolean reuseRowData) {
+      mReuseRowData = reuseRowData;
+      return this;
+    }
+
+    /**
+     * Reports whether the scanner recycles a single KijiRowData for all the rows it returns.
+     *
+     * @return whether the scanner recycles the KijiRowData it returns.
+     */
+    public boolean isReuseRowData() {
+      return mReuseRowData;
+    }
+  }
+
+  /**
+   * Options for asynchronous bulk gets.
+   */
+  @ApiAudience.Public
+  public static final class KijiBulkGetOptions {
+    /** Default maximum number of groups of rows fetched concurrently from a region server. */
+    public static final int DEFAULT_MAX_PARALLELISM = 8;
+
+    /** Default maximum number of rows fetched in a single request. */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /** Maximum number of groups of rows fetched concurrently from a region server. */
+    private int mMaxParallelism = DEFAULT_MAX_PARALLELISM;
+
+    /** Maximum number of rows fetched in a single request. */
+    private int mMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /** Creates KijiBulkGetOptions with the default settings. */
+    public KijiBulkGetOptions() {}
+
+    /**
+     * Sets the maximum number of groups of rows fetched concurrently from a region server,
+     * and returns this KijiBulkGetOptions to allow chaining.
+     *
+     * @param maxParallelism Maximum number of concurrent requests per region server, at least 1.
+     * @return This KijiBulkGetOptions with the maximum parallelism set.
+     */
+    public KijiBulkGetOptions setMaxParallelism(int maxParallelism) {
+      Preconditions.checkArgument(maxParallelism > 0,
+          "Invalid maximum parallelism: %s", maxParallelism);
+      mMaxParallelism = maxParallelism;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of groups of rows fetched concurrently from a region server.
+     *
+     * @return The maximum number of concurrent requests per region server.
+     */
+    public int getMaxParallelism() {
+      return mMaxParallelism;
+    }
+
+    /**
+     * Sets the maximum number of rows fetched in a single request.
+     * Rows from a single region server are split into several requests past this size.
+     *
+     * @param maxBatchSize Maximum number of rows per request, at least 1.
+     * @return This KijiBulkGetOptions with the maximum batch size set.
+     */
+    public KijiBulkGetOptions setMaxBatchSize(int maxBatchSize) {
+      Preconditions.checkArgument(maxBatchSize > 0,
+          "Invalid maximum batch size: %s", maxBatchSize);
+      mMaxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of rows fetched in a single request.
+     *
+     * @return The maximum number of rows per request.
+     */
+    public int getMaxBatchSize() {
+      return mMaxBatchSize;
+    }
+  }
+
+  /**
+   * Options for parallel scans.
+   */
+  @ApiAudience.Public
+  public static final class KijiParallelScanOptions {
+    /** Default number of rows buffered per region in an ordered scan. */
+    public static final int DEFAULT_ORDERED_BUFFER_SIZE = 1000;
+
+    /** Options for the scanners opened on each region. */
+    private KijiScannerOptions mScannerOptions = new KijiScannerOptions();
+    /** Executor running the region scanners, or null to use a dedicated thread pool. */
+    private ExecutorService mExecutorService = null;
+    /** Maximum number of regions scanned concurrently, when using a dedicated thread pool. */
+    private int mMaxParallelism = Runtime.getRuntime().availableProcessors();
+    /** Whether the rows are fed to the consumer in row key order, from a single thread. */
+    private boolean mOrdered = false;
+    /** Maximum number of rows buffered per region in an ordered scan. */
+    private int mOrderedBufferSize = DEFAULT_ORDERED_BUFFER_SIZE;
+
+    /** Creates KijiParallelScanOptions with the default settings. */
+    public KijiParallelScanOptions() {}
+
+    /**
+     * Sets the options of the scanners opened on each region, and returns this
+     * KijiParallelScanOptions to allow chaining. The start and stop rows restrict
+     * the range of the whole scan.
+     *
+     * @param scannerOptions The scanner options to use.
+     * @return This KijiParallelScanOptions with the scanner options set.
+     */
+    public KijiParallelScanOptions setScannerOptions(KijiScannerOptions scannerOptions) {
+      mScannerOptions = Preconditions.checkNotNull(scannerOptions);
+      return this;
+    }
+
+    /**
+     * Gets the options of the scanners opened on each region.
+     *
+     * @return The scanner options to use.
+     */
+    public KijiScannerOptions getScannerOptions() {
+      return mScannerOptions;
+    }
+
+    /**
+     * Sets the executor running the region scanners, and returns this KijiParallelScanOptions
+     * to allow chaining. By default, a thread pool of the maximum parallelism is created for
+     * the duration of the scan.
+     *
+     * <p>An ordered scan requires an executor that runs tasks in submission order.</p>
+     *
+     * @param executorService The executor to use, or null to use a dedicated thread pool.
+     * @return This KijiParallelScanOptions with the executor set.
+     */
+    public KijiParallelScanOptions setExecutorService(ExecutorService executorService) {
+      mExecutorService = executorService;
+      return this;
+    }
+
+    /**
+     * Gets the executor running the region scanners.
+     *
+     * @return The executor to use, or null to use a dedicated thread pool.
+     */
+    public ExecutorService getExecutorService() {
+      return mExecutorService;
+    }
+
+    /**
+     * Sets the maximum number of regions scanned concurrently when using a dedicated thread
+     * pool, and returns this KijiParallelScanOptions to allow chaining.
+     * The default is the number of available processors.
+     *
+     * @param maxParallelism Maximum number of concurrent region scanners, at least 1.
+     * @return This KijiParallelScanOptions with the maximum parallelism set.
+     */
+    public KijiParallelScanOptions setMaxParallelism(int maxParallelism) {
+      Preconditions.checkArgument(maxParallelism > 0,
+          "Invalid maximum parallelism: %s", maxParallelism);
+      mMaxParallelism = maxParallelism;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of regions scanned concurrently.
+     *
+     * @return The maximum number of concurrent region scanners.
+     */
+    public int getMaxParallelism() {
+      return mMaxParallelism;
+    }
+
+    /**
+     * Sets whether rows are fed to the consumer in row key order, and returns this
+     * KijiParallelScanOptions to allow chaining.
+     *
+     * <p>Regions are still scanned concurrently, but their rows are buffered and fed to the
+     * consumer from the calling thread, one region after the other.</p>
+     *
+     * @param ordered Whether rows are fed to the consumer in row key order.
+     * @return This KijiParallelScanOptions with the ordering set.
+     */
+    public KijiParallelScanOptions setOrdered(boolean ordered) {
+      mOrdered = ordered;
+      return this;
+    }
+
+    /**
+     * Reports whether rows are fed to the consumer in row key order.
+     *
+     * @return whether rows are fed to the consumer in row key order.
+     */
+    public boolean isOrdered() {
+      return mOrdered;
+    }
+
+    /**
+     * Sets the maximum number of rows buffered per region in an ordered scan,
+     * and returns this KijiParallelScanOptions to allow chaining.
+     *
+     * @param orderedBufferSize Maximum number of buffered rows per region, at least 1.
+     * @return This KijiParallelScanOptions with the buffer size set.
+     */
+    public KijiParallelScanOptions setOrderedBufferSize(int orderedBufferSize) {
+      Preconditions.checkArgument(orderedBufferSize > 0,
+          "Invalid buffer size: %s", orderedBufferSize);
+      mOrderedBufferSize = orderedBufferSize;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of rows buffered per region in an ordered scan.
+     *
+     * @return The maximum number of buffered rows per region.
+     */
+    public int getOrderedBufferSize() {
+      return mOrderedBufferSize;
+    }
   }
 }
@@ -19,6 +19,8 @@
 
 package org.kiji.schema;
 
+import com.google.common.base.Preconditions;
+
 import org.kiji.annotations.ApiAudience;
 import org.kiji.annotations.Inheritance;
 
@@ -30,4 +32,136 @@ import org.kiji.annotations.Inheritance;
 @ApiAudience.Public
 @Inheritance.Sealed
 public interface KijiTableWriter extends KijiPutter, KijiIncrementer, KijiDeleter {
+
+  /**
+   * Options for KijiTableWriters.
+   *
+   * <p>By default, writers send every modification to the table as soon as it is issued.
+   * Setting any of the flush thresholds turns on buffering: puts and deletes are then grouped
+   * into a single mutation per row and sent in batches whenever one of the thresholds is
+   * reached, when {@link KijiTableWriter#flush()} is called, or when the writer is closed.</p>
+   */
+  @ApiAudience.Public
+  public static final class KijiWriterOptions {
+    /** Maximum number of buffered bytes before the writer flushes (0 means no limit). */
+    private long mMaxBufferedBytes = 0L;
+    /** Maximum number of buffered cell modifications before the writer flushes (0: no limit). */
+    private int mMaxBufferedCells = 0;
+    /** Maximum age, in milliseconds, of the buffered modifications (0 means no limit). */
+    private long mFlushIntervalMillis = 0L;
+    /** Whether increments to the same counter are summed before being sent. */
+    private boolean mCoalesceIncrements = false;
+
+    /**
+     * Creates KijiWriterOptions for a non-buffered writer.
+     */
+    public KijiWriterOptions() {}
+
+    /**
+     * Sets the maximum number of bytes the writer may buffer before flushing,
+     * and returns this KijiWriterOptions to allow chaining.
+     *
+     * @param maxBufferedBytes Size threshold, in bytes. Use zero (0) for no size threshold.
+     * @return This KijiWriterOptions with the size threshold set.
+     */
+    public KijiWriterOptions setMaxBufferedBytes(long maxBufferedBytes) {
+      Preconditions.checkArgument(maxBufferedBytes >= 0,
+          "Invalid buffer size: %s", maxBufferedBytes);
+      mMaxBufferedBytes = maxBufferedBytes;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of bytes the writer may buffer before flushing.
+     *
+     * @return The size threshold, in bytes, or zero (0) if there is none.
+     */
+    public long getMaxBufferedBytes() {
+      return mMaxBufferedBytes;
+    }
+
+    /**
+     * Sets the maximum number of cell modifications the writer may buffer before flushing,
+     * and returns this KijiWriterOptions to allow chaining.
+     *
+     * @param maxBufferedCells Count threshold. Use zero (0) for no count threshold.
+     * @return This KijiWriterOptions with the count threshold set.
+     */
+    public KijiWriterOptions setMaxBufferedCells(int maxBufferedCells) {
+      Preconditions.checkArgument(maxBufferedCells >= 0,
+          "Invalid buffered cell count: %s", maxBufferedCells);
+      mMaxBufferedCells = maxBufferedCells;
+      return this;
+    }
+
+    /**
+     * Gets the maximum number of cell modifications the writer may buffer before flushing.
+     *
+     * @return The count threshold, or zero (0) if there is none.
+     */
+    public int getMaxBufferedCells() {
+      return mMaxBufferedCells;
+    }
+
+    /**
+     * Sets the maximum amount of time buffered modifications may wait before being flushed,
+     * and returns this KijiWriterOptions to allow chaining.
+     *
+     * <p>The interval is checked every time a modification is issued to the writer.
+     * Modifications issued to an idle writer are sent on the next flush() or close().</p>
+     *
+     * @param flushIntervalMillis Time threshold, in milliseconds. Use zero (0) for no threshold.
+     * @return This KijiWriterOptions with the time threshold set.
+     */
+    public KijiWriterOptions setFlushIntervalMillis(long flushIntervalMillis) {
+      Preconditions.checkArgument(flushIntervalMillis >= 0,
+          "Invalid flush interval: %s", flushIntervalMillis);
+      mFlushIntervalMillis = flushIntervalMillis;
+      return this;
+    }
+
+    /**
+     * Gets the maximum amount of time buffered modifications may wait before being flushed.
+     *
+     * @return The time threshold, in milliseconds, or zero (0) if there is none.
+     */
+    public long getFlushIntervalMillis() {
+      return mFlushIntervalMillis;
+    }
+
+    /**
+     * Reports whether these options describe a buffered writer.
+     *
+     * @return whether at least one flush threshold is set.
+     */
+    public boolean isBuffered() {
+      return (mMaxBufferedBytes > 0) || (mMaxBufferedCells > 0) || (mFlushIntervalMillis > 0);
+    }
+
+    /**
+     * Sets whether the writer coalesces increments, and returns this KijiWriterOptions to allow
+     * chaining.
+     *
+     * <p>A coalescing writer sums the increments to each counter in memory, and sends them as
+     * one HBase increment per row, according to the flush thresholds of the writer.
+     * Without any threshold, increments are sent on flush() or close().
+     * Coalesced increments return null instead of the new counter value.</p>
+     *
+     * @param coalesceIncrements Whether the writer coalesces increments.
+     * @return This KijiWriterOptions with the increment coalescing policy set.
+     */
+    public KijiWriterOptions setCoalesceIncrements(boolean coalesceIncrements) {
+      mCoalesceIncrements = coalesceIncrements;
+      return this;
+    }
+
+    /**
+     * Reports whether the writer coalesces increments.
+     *
+     * @return whether the writer coalesces increments.
+     */
+    public boolean getCoalesceIncrements() {
+      return mCoalesceIncrements;
+    }
+  }
 }
@@ -0,0 +1,64 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.filter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.KijiColumnName;
+
+/**
+ * A KijiColumnFilter that only allows the cells accepted by all of its filters.
+ *
+ * <p>Filters are evaluated in order.</p>
+ */
+@ApiAudience.Public
+public final class AndColumnFilter extends KijiColumnFilter {
+  private static final long serialVersionUID = 1L;
+
+  /** The filters that must all accept a cell. */
+  private final List<KijiColumnFilter> mFilters;
+
+  /**
+   * Constructor.
+   *
+   * @param filters The filters that must all accept a cell. Null filters are ignored.
+   */
+  public AndColumnFilter(KijiColumnFilter... filters) {
+    mFilters = Arrays.asList(filters);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Filter toHBaseFilter(KijiColumnName kijiColumnName, Context context) throws IOException {
+    final FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ALL);
+    for (KijiColumnFilter filter : mFilters) {
+      if (null != filter) {
+        filterList.addFilter(filter.toHBaseFilter(kijiColumnName, context));
+      }
+    }
+    return filterList;
+  }
+}
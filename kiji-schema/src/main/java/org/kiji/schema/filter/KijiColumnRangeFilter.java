@@ -0,0 +1,81 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.filter;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.filter.ColumnRangeFilter;
+import org.apache.hadoop.hbase.filter.Filter;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.KijiColumnName;
+
+/**
+ * A KijiColumnFilter that only allows qualifiers within a range.
+ *
+ * <p>Qualifiers are compared in the order they are stored in, which is the lexicographic order
+ * of keys for map-type families. The region server seeks directly to the start of the range,
+ * which makes this filter suitable to resume reading a family from a given qualifier.</p>
+ */
+@ApiAudience.Public
+public final class KijiColumnRangeFilter extends KijiColumnFilter {
+  private static final long serialVersionUID = 1L;
+
+  /** Lower bound of the range, or null if unbounded. */
+  private final String mMinQualifier;
+
+  /** Whether the lower bound is included in the range. */
+  private final boolean mMinInclusive;
+
+  /** Upper bound of the range, or null if unbounded. */
+  private final String mMaxQualifier;
+
+  /** Whether the upper bound is included in the range. */
+  private final boolean mMaxInclusive;
+
+  /**
+   * Constructor.
+   *
+   * @param minQualifier Lower bound of the range, or null if unbounded.
+   * @param minInclusive Whether the lower bound is included in the range.
+   * @param maxQualifier Upper bound of the range, or null if unbounded.
+   * @param maxInclusive Whether the upper bound is included in the range.
+   */
+  public KijiColumnRangeFilter(
+      String minQualifier, boolean minInclusive, String maxQualifier, boolean maxInclusive) {
+    mMinQualifier = minQualifier;
+    mMinInclusive = minInclusive;
+    mMaxQualifier = maxQualifier;
+    mMaxInclusive = maxInclusive;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Filter toHBaseFilter(KijiColumnName kijiColumnName, Context context) throws IOException {
+    final String family = kijiColumnName.getFamily();
+    final byte[] minColumn = (null == mMinQualifier)
+        ? null
+        : context.getHBaseColumnName(new KijiColumnName(family, mMinQualifier)).getQualifier();
+    final byte[] maxColumn = (null == mMaxQualifier)
+        ? null
+        : context.getHBaseColumnName(new KijiColumnName(family, mMaxQualifier)).getQualifier();
+    return new ColumnRangeFilter(minColumn, mMinInclusive, maxColumn, mMaxInclusive);
+  }
+}
@@ -0,0 +1,206 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.hbase;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import org.apache.hadoop.conf.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.delegation.Priority;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.impl.DefaultHBaseAdminFactory;
+import org.kiji.schema.impl.DefaultHTableInterfaceFactory;
+import org.kiji.schema.impl.HBaseAdminFactory;
+import org.kiji.schema.impl.HTableInterfaceFactory;
+import org.kiji.schema.util.LocalLockFactory;
+import org.kiji.schema.util.LockFactory;
+import org.kiji.schema.util.ZooKeeperLockFactory;
+import org.kiji.testing.fakehtable.FakeHBase;
+
+/**
+ * Factory for in-process HBase instances, for fast tests and benchmarks.
+ *
+ * <p>
+ *   URIs of the form "kiji://.in-memory.[id]/instance/table" are served by an HBase instance
+ *   that lives entirely in the memory of the current JVM, backed by sorted maps. It supports
+ *   gets, scans, puts, deletes, increments, filters, versions and TTLs. Each distinct id names
+ *   a separate HBase instance that lives until {@link #reset()} is called. Other URIs are
+ *   served by the default HBase factories.
+ * </p>
+ *
+ * <p>
+ *   This factory is disabled unless the <code>fake-hbase</code> library is on the classpath
+ *   and the system property (or runtime hint) {@link #ENABLE_PROPERTY} is set to "true".
+ *   When enabled, it takes precedence over the default factory in
+ *   {@link HBaseFactory.Provider}.
+ * </p>
+ */
+@ApiAudience.Public
+public final class InMemoryHBaseFactory implements HBaseFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(InMemoryHBaseFactory.class);
+
+  /** System property or runtime hint that enables this factory when set to "true". */
+  public static final String ENABLE_PROPERTY = "org.kiji.schema.hbase.in-memory";
+
+  /** URIs for in-memory HBase instances are "kiji://.in-memory.[id]/instance/table". */
+  public static final String IN_MEMORY_HBASE_ID_PREFIX = ".in-memory.";
+
+  /** Class providing the in-memory HBase implementation. */
+  private static final String FAKE_HBASE_CLASS = "org.kiji.testing.fakehtable.FakeHBase";
+
+  /** Prefix of the ZooKeeper host of the URIs served by this factory. */
+  private final String mIdPrefix;
+
+  /** Map from in-memory HBase ID to in-memory HBase instances. */
+  private final Map<String, FakeHBase> mHBase = Maps.newHashMap();
+
+  /** Map from in-memory HBase ID to local lock factories. */
+  private final Map<String, LockFactory> mLock = Maps.newHashMap();
+
+  /**
+   * Public constructor for use by the service loader. Clients should use
+   * HBaseFactory.Provider.get(), which maintains a singleton instance.
+   */
+  public InMemoryHBaseFactory() {
+    this(IN_MEMORY_HBASE_ID_PREFIX);
+  }
+
+  /**
+   * Creates a factory serving in-memory HBase instances for the URIs "kiji://[prefix][id]/...".
+   *
+   * @param idPrefix Prefix of the ZooKeeper host of the URIs served by this factory.
+   */
+  InMemoryHBaseFactory(String idPrefix) {
+    mIdPrefix = idPrefix;
+  }
+
+  /**
+   * Extracts the ID of the in-memory HBase from a Kiji URI.
+   *
+   * @param uri URI to extract an in-memory HBase ID from.
+   * @return the in-memory HBase ID, if any, or null.
+   */
+  private String getInMemoryHBaseID(KijiURI uri) {
+    if (uri.getZookeeperQuorum().size() != 1) {
+      return null;
+    }
+    final String zkHost = uri.getZookeeperQuorum().get(0);
+    if (!zkHost.startsWith(mIdPrefix)) {
+      return null;
+    }
+    return zkHost.substring(mIdPrefix.length());
+  }
+
+  /**
+   * Gets the in-memory HBase instance for a given URI, creating it if necessary.
+   *
+   * @param uri URI of an in-memory HBase instance.
+   * @return the in-memory HBase for the specified URI,
+   *     or null if the URI does not specify an in-memory HBase.
+   */
+  private FakeHBase getInMemoryHBase(KijiURI uri) {
+    final String hbaseID = getInMemoryHBaseID(uri);
+    if (hbaseID == null) {
+      return null;
+    }
+    synchronized (mHBase) {
+      final FakeHBase hbase = mHBase.get(hbaseID);
+      if (hbase != null) {
+        return hbase;
+      }
+      final FakeHBase newHBase = new FakeHBase();
+      mHBase.put(hbaseID, newHBase);
+      return newHBase;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public HTableInterfaceFactory getHTableInterfaceFactory(KijiURI uri) {
+    final FakeHBase hbase = getInMemoryHBase(uri);
+    if (hbase != null) {
+      return hbase.getHTableFactory();
+    }
+    return DefaultHTableInterfaceFactory.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public HBaseAdminFactory getHBaseAdminFactory(KijiURI uri) {
+    final FakeHBase hbase = getInMemoryHBase(uri);
+    if (hbase != null) {
+      return hbase.getAdminFactory();
+    }
+    return DefaultHBaseAdminFactory.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LockFactory getLockFactory(KijiURI uri, Configuration conf) throws IOException {
+    final String hbaseID = getInMemoryHBaseID(uri);
+    if (hbaseID != null) {
+      synchronized (mLock) {
+        final LockFactory factory = mLock.get(hbaseID);
+        if (factory != null) {
+          return factory;
+        }
+        final LockFactory newFactory = new LocalLockFactory();
+        mLock.put(hbaseID, newFactory);
+        return newFactory;
+      }
+    }
+    return new ZooKeeperLockFactory(ZooKeeperLockFactory.zkConnStr(uri));
+  }
+
+  /** Discards all the in-memory HBase instances and their content. */
+  public void reset() {
+    synchronized (mHBase) {
+      mHBase.clear();
+    }
+    synchronized (mLock) {
+      mLock.clear();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int getPriority(Map<String, String> runtimeHints) {
+    final String enabled = (runtimeHints.containsKey(ENABLE_PROPERTY))
+        ? runtimeHints.get(ENABLE_PROPERTY)
+        : System.getProperty(ENABLE_PROPERTY);
+    if (!Boolean.parseBoolean(enabled)) {
+      return Priority.DISABLED;
+    }
+    try {
+      Class.forName(FAKE_HBASE_CLASS);
+    } catch (ClassNotFoundException cnfe) {
+      LOG.warn("In-memory HBase requested with {} but {} is not on the classpath.",
+          ENABLE_PROPERTY, FAKE_HBASE_CLASS);
+      return Priority.DISABLED;
+    }
+    // Higher priority than the default factory.
+    return Priority.HIGH;
+  }
+}
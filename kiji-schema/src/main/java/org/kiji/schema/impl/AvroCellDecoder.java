@@ -21,9 +21,14 @@ package org.kiji.schema.impl;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 
@@ -42,6 +47,9 @@ import org.kiji.schema.util.Hasher;
  * Kiji cells are encoded as Extension records, although for efficiency reasons, this class
  * provides a custom decoder that avoid copying bytes unnecessarily.
  *
+ * Resolving a writer schema against a reader schema is expensive: DatumReaders are therefore
+ * cached process-wide, per decoder class and per (writer schema, reader schema) pair.
+ *
  * @param <T> The type of the decoded cell data.
  */
 @ApiAudience.Private
@@ -56,6 +64,19 @@ public abstract class AvroCellDecoder<T> implements KijiCellDecoder<T> {
   /** Reader Avro schema. */
   private final Schema mReaderSchema;
 
+  /** Maximum number of DatumReaders kept in the shared cache. */
+  private static final int MAX_CACHED_DATUM_READERS = 1024;
+
+  /** DatumReaders shared by all decoders, keyed by decoder class and schema pair. */
+  private static final ConcurrentMap<DatumReaderKey, DatumReader<?>> DATUM_READER_CACHE =
+      new ConcurrentHashMap<DatumReaderKey, DatumReader<?>>();
+
+  /** Per-thread BinaryDecoder, reused across all the cells decoded by a thread. */
+  private static final ThreadLocal<BinaryDecoder> BINARY_DECODER = new ThreadLocal<BinaryDecoder>();
+
+  /** DatumReader used to decode the last cell, with the writer schema it was resolved for. */
+  private volatile ResolvedReader<T> mLastReader = null;
+
   // -----------------------------------------------------------------------------------------------
 
   /** Interface for schema decoders. */
@@ -153,7 +174,7 @@ public abstract class AvroCellDecoder<T> implements KijiCellDecoder<T> {
     switch (cellSpec.getCellSchema().getStorage()) {
     case HASH: return new SchemaHashDecoder(cellSpec.getSchemaTable());
     case UID: return new SchemaIdDecoder(cellSpec.getSchemaTable());
-    case FINAL: return new FinalSchemaDecoder(cellSpec.getAvroSchema());
+    case FINAL: return new FinalSchemaDecoder(cellSpec.getDeclaredSchema());
     default:
       throw new RuntimeException(
           "Unexpected cell schema: " + cellSpec.getCellSchema().getStorage());
@@ -162,6 +183,75 @@ public abstract class AvroCellDecoder<T> implements KijiCellDecoder<T> {
 
   // -----------------------------------------------------------------------------------------------
 
+  /** Key of the shared DatumReader cache. */
+  private static final class DatumReaderKey {
+    /** Class of the decoder that created the DatumReader (specific or generic). */
+    private final Class<?> mDecoderClass;
+
+    /** Writer schema. */
+    private final Schema mWriterSchema;
+
+    /** Reader schema. */
+    private final Schema mReaderSchema;
+
+    /**
+     * Creates a new key for the DatumReader cache.
+     *
+     * @param decoderClass Class of the decoder that creates the DatumReader.
+     * @param writerSchema Writer schema.
+     * @param readerSchema Reader schema.
+     */
+    public DatumReaderKey(Class<?> decoderClass, Schema writerSchema, Schema readerSchema) {
+      mDecoderClass = decoderClass;
+      mWriterSchema = writerSchema;
+      mReaderSchema = readerSchema;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof DatumReaderKey)) {
+        return false;
+      }
+      final DatumReaderKey key = (DatumReaderKey) other;
+      return (mDecoderClass == key.mDecoderClass)
+          && mWriterSchema.equals(key.mWriterSchema)
+          && mReaderSchema.equals(key.mReaderSchema);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(mDecoderClass, mWriterSchema, mReaderSchema);
+    }
+  }
+
+  /**
+   * A DatumReader with the writer schema it was resolved for.
+   *
+   * @param <T> The type of the decoded data.
+   */
+  private static final class ResolvedReader<T> {
+    /** Writer schema the DatumReader was resolved for. */
+    private final Schema mWriterSchema;
+
+    /** The DatumReader. */
+    private final DatumReader<T> mReader;
+
+    /**
+     * Pairs a DatumReader with the writer schema it was resolved for.
+     *
+     * @param writerSchema Writer schema.
+     * @param reader DatumReader.
+     */
+    public ResolvedReader(Schema writerSchema, DatumReader<T> reader) {
+      mWriterSchema = writerSchema;
+      mReader = reader;
+    }
+  }
+
+  // -----------------------------------------------------------------------------------------------
+
   /**
    * Initializes an abstract KijiAvroCellDecoder.
    *
@@ -186,34 +276,100 @@ public abstract class AvroCellDecoder<T> implements KijiCellDecoder<T> {
    */
   protected abstract DatumReader<T> createDatumReader(Schema writer, Schema reader);
 
+  /**
+   * Gets a DatumReader for the specified writer/reader schema combination.
+   *
+   * <p>The DatumReader is looked up in the shared cache, and created with
+   * {@link #createDatumReader(Schema, Schema)} on a cache miss.</p>
+   *
+   * @param writer Writer schema.
+   * @param reader Reader schema.
+   * @return a DatumReader for the specified writer/reader schema combination.
+   */
+  private DatumReader<T> getDatumReader(Schema writer, Schema reader) {
+    // Fast path: consecutive cells are usually encoded with the same writer schema.
+    final ResolvedReader<T> last = mLastReader;
+    if ((null != last) && (last.mWriterSchema == writer) && (reader == mReaderSchema)) {
+      return last.mReader;
+    }
+
+    final DatumReaderKey key = new DatumReaderKey(getClass(), writer, reader);
+    @SuppressWarnings("unchecked")
+    DatumReader<T> datumReader = (DatumReader<T>) DATUM_READER_CACHE.get(key);
+    if (null == datumReader) {
+      datumReader = createDatumReader(writer, reader);
+      if (DATUM_READER_CACHE.size() >= MAX_CACHED_DATUM_READERS) {
+        // Evict an arbitrary entry to keep the cache bounded:
+        final Iterator<DatumReaderKey> it = DATUM_READER_CACHE.keySet().iterator();
+        if (it.hasNext()) {
+          it.next();
+          it.remove();
+        }
+      }
+      DATUM_READER_CACHE.putIfAbsent(key, datumReader);
+    }
+    if (reader == mReaderSchema) {
+      mLastReader = new ResolvedReader<T>(writer, datumReader);
+    }
+    return datumReader;
+  }
+
   /** {@inheritDoc} */
   @Override
   public DecodedCell<T> decodeCell(byte[] encodedBytes) throws IOException {
-    return decode(encodedBytes, null);
+    return decode(encodedBytes, 0, encodedBytes.length);
   }
 
   /** {@inheritDoc} */
   @Override
   public T decodeValue(byte[] bytes) throws IOException {
-    return decodeCell(bytes).getData();
+    return decodeValue(bytes, 0, bytes.length, null);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public DecodedCell<T> decodeCell(byte[] bytes, int offset, int length) throws IOException {
+    return decode(bytes, offset, length);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public T decodeValue(byte[] bytes, int offset, int length) throws IOException {
+    return decodeValue(bytes, offset, length, null);
   }
 
   /**
-   * Decodes the serialized bytes into a KijiCell. If reuse is non-null, the implementation may fill
-   * it and return it as the KijiCell data payload.
+   * {@inheritDoc}
    *
-   * @param bytes The bytes from an HBase table cell.
-   * @param reuse If non-null, may be filled with the decoded data and used as the data payload in
-   *          the return value.
+   * <p>Records, arrays, maps and strings (as Utf8) are recycled by the Avro DatumReader.</p>
+   */
+  @Override
+  public T decodeValue(byte[] bytes, int offset, int length, T reuse) throws IOException {
+    final ByteStreamArray byteStream = new ByteStreamArray(bytes, offset);
+    final Schema writerSchema = mSchemaDecoder.decode(byteStream);
+    final int payloadOffset = byteStream.getOffset();
+    return decodeAvro(bytes, payloadOffset, offset + length - payloadOffset,
+        writerSchema, mReaderSchema, reuse);
+  }
+
+  /**
+   * Decodes the serialized bytes into a KijiCell.
+   *
+   * <p>The bytes are decoded in place: neither the schema prefix nor the Avro payload is
+   * copied.</p>
+   *
+   * @param bytes Byte array holding the encoded cell from an HBase table.
+   * @param offset Offset of the encoded cell in the byte array.
+   * @param length Length, in bytes, of the encoded cell.
    * @return The decoded KijiCell.
    * @throws IOException If there is an error.
    */
-  private DecodedCell<T> decode(byte[] bytes, T reuse) throws IOException {
-    final ByteStreamArray byteStream = new ByteStreamArray(bytes);
+  private DecodedCell<T> decode(byte[] bytes, int offset, int length) throws IOException {
+    final ByteStreamArray byteStream = new ByteStreamArray(bytes, offset);
     final Schema writerSchema = mSchemaDecoder.decode(byteStream);
-    final ByteBuffer binaryData =
-        ByteBuffer.wrap(bytes, byteStream.getOffset(), bytes.length - byteStream.getOffset());
-    final T data = decodeAvro(binaryData, writerSchema, mReaderSchema, reuse);
+    final int payloadOffset = byteStream.getOffset();
+    final T data = decodeAvro(bytes, payloadOffset, offset + length - payloadOffset,
+        writerSchema, mReaderSchema, null);
     return new DecodedCell<T>(writerSchema, data);
   }
 
@@ -250,12 +406,34 @@ public abstract class AvroCellDecoder<T> implements KijiCellDecoder<T> {
       Schema readerSchema,
       T reuse)
       throws IOException {
-    final DatumReader<T> reader = createDatumReader(writerSchema, readerSchema);
-    return reader.read(reuse,
-        DecoderFactory.get().binaryDecoder(
-            encodedData.array(),
-            encodedData.position(),
-            encodedData.limit() - encodedData.position(),
-            null));
+    return decodeAvro(encodedData.array(), encodedData.position(),
+        encodedData.limit() - encodedData.position(), writerSchema, readerSchema, reuse);
+  }
+
+  /**
+   * Decodes an Avro payload from a slice of a byte array, in place.
+   *
+   * @param bytes Byte array holding the avro-encoded data payload.
+   * @param offset Offset of the payload in the byte array.
+   * @param length Length, in bytes, of the payload.
+   * @param writerSchema The schema that was used to encode the data.
+   * @param readerSchema The schema that is expected by the reader.
+   * @param reuse An optional object to be filled and returned (may be null).
+   * @return The decoded avro object.
+   * @throws IOException If there is an error.
+   */
+  private T decodeAvro(
+      byte[] bytes,
+      int offset,
+      int length,
+      Schema writerSchema,
+      Schema readerSchema,
+      T reuse)
+      throws IOException {
+    final DatumReader<T> reader = getDatumReader(writerSchema, readerSchema);
+    final BinaryDecoder decoder =
+        DecoderFactory.get().binaryDecoder(bytes, offset, length, BINARY_DECODER.get());
+    BINARY_DECODER.set(decoder);
+    return reader.read(reuse, decoder);
   }
 }
@@ -53,4 +53,23 @@ public final class CounterCellDecoder implements KijiCellDecoder<Long> {
   public Long decodeValue(byte[] bytes) throws IOException {
     return Bytes.toLong(bytes);
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public DecodedCell<Long> decodeCell(byte[] bytes, int offset, int length) throws IOException {
+    return new DecodedCell<Long>(null, Bytes.toLong(bytes, offset, length));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Long decodeValue(byte[] bytes, int offset, int length) throws IOException {
+    return Bytes.toLong(bytes, offset, length);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Long decodeValue(byte[] bytes, int offset, int length, Long reuse) throws IOException {
+    // Longs are immutable: there is nothing to recycle.
+    return Bytes.toLong(bytes, offset, length);
+  }
 }
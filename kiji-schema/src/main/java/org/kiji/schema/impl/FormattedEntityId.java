@@ -23,7 +23,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -51,9 +50,16 @@ import org.kiji.schema.util.Hasher;
 public final class FormattedEntityId extends EntityId {
   // HBase row key bytes. The encoded components of the row key
   // potentially including a hash prefix, as specified in the row key format.
-  private byte[] mHBaseRowKey;
+  private final byte[] mHBaseRowKey;
 
-  private List<Object> mComponentValues;
+  /** Format of the row key. */
+  private final RowKeyFormat2 mFormat;
+
+  /**
+   * Components of the row key.
+   * Decoded lazily from the HBase row key, for entity IDs built from HBase row keys.
+   */
+  private volatile List<Object> mComponentValues;
 
   private static final Logger LOG = LoggerFactory.getLogger(FormattedEntityId.class);
 
@@ -137,6 +143,9 @@ public final class FormattedEntityId extends EntityId {
   /**
    * Creates a FormattedEntityId from the specified HBase row key.
    *
+   * <p>The components of the row key are decoded lazily, the first time they are requested:
+   * a malformed HBase row key is reported then, with an EntityIdException.</p>
+   *
    * @param hbaseRowKey A byte[] containing the HBase row key.
    * @param format The RowKeyFormat as specified in the layout file.
    * @return a new FormattedEntityId with the specified HBase row key.
@@ -144,11 +153,7 @@ public final class FormattedEntityId extends EntityId {
   public static FormattedEntityId fromHBaseRowKey(byte[] hbaseRowKey, RowKeyFormat2 format) {
     Preconditions.checkNotNull(format);
     Preconditions.checkNotNull(hbaseRowKey);
-    // we modify the hbaseRowKey in the makeKijiRowKey code for integer encoding, so we make
-    // a copy of it to pass to makeKijiRowKey:
-    byte[] cloneHbaseKey = hbaseRowKey.clone();
-    List<Object> kijiRowKey = makeKijiRowKey(format, cloneHbaseKey);
-    return new FormattedEntityId(format, hbaseRowKey, kijiRowKey);
+    return new FormattedEntityId(format, hbaseRowKey, null);
   }
 
   /**
@@ -224,8 +229,10 @@ public final class FormattedEntityId extends EntityId {
     for (pos = 0; pos <= hashUpto; pos++) {
       tohash.write(hbaseKey.get(pos), 0, hbaseKey.get(pos).length);
     }
-    byte[] hashed = Arrays.copyOfRange(Hasher.hash(tohash.toByteArray()), 0,
-        format.getSalt().getHashSize());
+    final byte[] toHashBytes = tohash.toByteArray();
+    final byte[] hashed = new byte[format.getSalt().getHashSize()];
+    Hasher.hash(format.getSalt().getHashType(), toHashBytes, 0, toHashBytes.length,
+        hashed, 0, hashed.length);
     baos.write(hashed, 0, hashed.length);
 
     // to materialize or not to materialize that is the question
@@ -262,11 +269,10 @@ public final class FormattedEntityId extends EntityId {
     if (hbaseRowKey.length == 0) {
       throw new EntityIdException("Invalid hbase row key");
     }
-    List<Object> kijiRowKey = new ArrayList<Object>();
+    List<Object> kijiRowKey = new ArrayList<Object>(format.getComponents().size());
     // skip over the hash
     int pos = format.getSalt().getHashSize();
     int kijiRowElem = 0;
-    ByteBuffer buf;
 
     while (kijiRowElem < format.getComponents().size() && pos < hbaseRowKey.length) {
       switch (format.getComponents().get(kijiRowElem).getType()) {
@@ -288,26 +294,20 @@ public final class FormattedEntityId extends EntityId {
           pos = endpos + 1;
           break;
         case INTEGER:
-          // Toggle highest order bit to return to original 2's complement.
-          hbaseRowKey[pos] =  (byte)((int) hbaseRowKey[pos] ^ (int) Byte.MIN_VALUE);
-          try {
-            buf = ByteBuffer.wrap(hbaseRowKey, pos, Integer.SIZE / Byte.SIZE);
-          } catch (IndexOutOfBoundsException e) {
+          if (pos + Bytes.SIZEOF_INT > hbaseRowKey.length) {
             throw new EntityIdException("Malformed hbase Row Key");
           }
-          kijiRowKey.add(Integer.valueOf(buf.getInt()));
-          pos = pos + Integer.SIZE / Byte.SIZE;
+          // Toggle highest order bit to return to original 2's complement.
+          kijiRowKey.add(Integer.valueOf(Bytes.toInt(hbaseRowKey, pos) ^ Integer.MIN_VALUE));
+          pos = pos + Bytes.SIZEOF_INT;
           break;
         case LONG:
-          // Toggle highest order bit to return to original 2's complement.
-          hbaseRowKey[pos] =  (byte)((int) hbaseRowKey[pos] ^ (int) Byte.MIN_VALUE);
-          try {
-            buf = ByteBuffer.wrap(hbaseRowKey, pos, Long.SIZE / Byte.SIZE);
-          } catch (IndexOutOfBoundsException e) {
+          if (pos + Bytes.SIZEOF_LONG > hbaseRowKey.length) {
             throw new EntityIdException("Malformed hbase Row Key");
           }
-          kijiRowKey.add(Long.valueOf(buf.getLong()));
-          pos = pos + Long.SIZE / Byte.SIZE;
+          // Toggle highest order bit to return to original 2's complement.
+          kijiRowKey.add(Long.valueOf(Bytes.toLong(hbaseRowKey, pos) ^ Long.MIN_VALUE));
+          pos = pos + Bytes.SIZEOF_LONG;
           break;
         default:
           throw new RuntimeException("Invalid code path");
@@ -339,34 +339,63 @@ public final class FormattedEntityId extends EntityId {
    * Creates a new FormattedEntityId.
    * @param format Format of the row key as specified in the layout file.
    * @param hbaseRowKey Byte array containing the hbase row key.
-   * @param kijiRowKey An ordered list of row key components.
+   * @param kijiRowKey An ordered list of row key components,
+   *     or null to decode them lazily from the HBase row key.
    */
   private FormattedEntityId(RowKeyFormat2 format, byte[] hbaseRowKey, List<Object> kijiRowKey) {
     Preconditions.checkNotNull(format);
     Preconditions.checkArgument(format.getEncoding() == RowKeyEncoding.FORMATTED);
+    mFormat = format;
     mHBaseRowKey = hbaseRowKey;
     mComponentValues = kijiRowKey;
   }
 
+  /**
+   * Gets the components of the row key, decoding them from the HBase row key if necessary.
+   *
+   * <p>Concurrent first calls may decode the components more than once, which is harmless.</p>
+   *
+   * @return the components of the row key.
+   */
+  private List<Object> getComponentValues() {
+    List<Object> components = mComponentValues;
+    if (null == components) {
+      components = makeKijiRowKey(mFormat, mHBaseRowKey);
+      mComponentValues = components;
+    }
+    return components;
+  }
+
   /** {@inheritDoc} **/
   @Override
   @SuppressWarnings("unchecked")
   public <T> T getComponentByIndex(int idx) {
-    Preconditions.checkArgument(idx >= 0 && idx < mComponentValues.size());
-    return (T) mComponentValues.get(idx);
+    final List<Object> components = getComponentValues();
+    Preconditions.checkArgument(idx >= 0 && idx < components.size());
+    return (T) components.get(idx);
   }
 
   /** {@inheritDoc} **/
   @Override
   public List<Object> getComponents() {
-    return Collections.unmodifiableList(mComponentValues);
+    return Collections.unmodifiableList(getComponentValues());
   }
 
-  /** {@inheritDoc} */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Only reports the HBase row key if it cannot be decoded into components.</p>
+   */
   @Override
   public String toString() {
-    return Objects.toStringHelper(FormattedEntityId.class)
-        .add("components", Joiner.on(",").join(mComponentValues))
+    final Objects.ToStringHelper helper = Objects.toStringHelper(FormattedEntityId.class);
+    try {
+      helper.add("components", Joiner.on(",").join(getComponentValues()));
+    } catch (EntityIdException eie) {
+      LOG.debug("Unable to decode the components of row key {}: {}",
+          Bytes.toStringBinary(mHBaseRowKey), eie.getMessage());
+    }
+    return helper
         .add("hbase", Bytes.toStringBinary(mHBaseRowKey))
         .toString();
   }
@@ -22,6 +22,7 @@ package org.kiji.schema.impl;
 import java.io.IOException;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.TreeSet;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Scan;
@@ -95,7 +96,8 @@ public class HBaseDataRequestAdapter {
     if (mKijiDataRequest.isEmpty()) {
       return null;
     }
-    Scan scan = new Scan(toGet(new HBaseEntityId(new byte[0]), tableLayout));
+    // Scans are free to extend their columns: build a Get that is not shared with a template.
+    Scan scan = new Scan(buildGet(new byte[0], tableLayout));
     configureScan(scan, scanOptions);
     return scan;
   }
@@ -152,13 +154,60 @@ public class HBaseDataRequestAdapter {
    */
   public Get toGet(EntityId entityId, KijiTableLayout tableLayout)
       throws IOException {
+    return compile(tableLayout).toGet(entityId);
+  }
+
+  /**
+   * Compiles the KijiDataRequest against a table layout into a reusable Get template.
+   *
+   * <p>Translating a data request into HBase columns and filters is the expensive part of
+   * building a Get. A template does it once, so that stamping out a Get for a row only
+   * needs to set the row key.</p>
+   *
+   * @param tableLayout The layout of the Kiji table to read from.  This is required for
+   *     determining the mapping between Kiji columns and HBase columns.
+   * @return A template to build HBase Gets for this data request.
+   * @throws IOException If there is an error.
+   */
+  public GetTemplate compile(KijiTableLayout tableLayout) throws IOException {
+    final ColumnNameTranslator columnTranslator = new ColumnNameTranslator(tableLayout);
+    return new GetTemplate(
+        this, tableLayout, columnTranslator, buildColumns(new byte[0], columnTranslator));
+  }
+
+  /**
+   * Builds an HBase Get that describes the data requested in the KijiDataRequest.
+   *
+   * @param rowKey The HBase row key to build a Get request for.
+   * @param tableLayout The layout of the Kiji table to read from.
+   * @return An HBase Get descriptor, or null if no data was requested.
+   * @throws IOException If there is an error.
+   */
+  private Get buildGet(byte[] rowKey, KijiTableLayout tableLayout) throws IOException {
+    final ColumnNameTranslator columnTranslator = new ColumnNameTranslator(tableLayout);
+    final Get get = buildColumns(rowKey, columnTranslator);
+    if (null != get) {
+      get.setFilter(buildFilter(columnTranslator, tableLayout));
+    }
+    return get;
+  }
+
+  /**
+   * Builds an HBase Get with the columns, time range and maximum number of versions requested
+   * in the KijiDataRequest, but no filter.
+   *
+   * @param rowKey The HBase row key to build a Get request for.
+   * @param columnTranslator Translator for the layout of the Kiji table to read from.
+   * @return An HBase Get descriptor, or null if no data was requested.
+   * @throws IOException If there is an error.
+   */
+  private Get buildColumns(byte[] rowKey, ColumnNameTranslator columnTranslator)
+      throws IOException {
     if (mKijiDataRequest.isEmpty()) {
       return null;
     }
 
-    Get get = new Get(entityId.getHBaseRowKey());
-    FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ONE);
-    ColumnNameTranslator columnTranslator = new ColumnNameTranslator(tableLayout);
+    Get get = new Get(rowKey);
 
     // There's a shortcoming in the HBase API that doesn't allow us to specify per-column
     // filters for timestamp ranges and max versions.  We need to generate a request that
@@ -185,7 +234,6 @@ public class HBaseDataRequestAdapter {
             get.addColumn(hbaseColumnName.getFamily(), hbaseColumnName.getQualifier());
           }
         }
-        filterList.addFilter(toFilter(columnRequest, columnTranslator, tableLayout));
         largestMaxVersions = Math.max(largestMaxVersions, columnRequest.getMaxVersions());
       }
     }
@@ -201,10 +249,6 @@ public class HBaseDataRequestAdapter {
       } else {
         get.addColumn(hbaseColumnName.getFamily(), hbaseColumnName.getQualifier());
       }
-      // If our data request has paging enabled on every column, we need to artificially construct a
-      // Get, so that we have access to the entityId for each row. This will be used to construct
-      // a KijiRowData.
-      filterList.addFilter(new FirstKeyOnlyFilter());
       largestMaxVersions = sampleColumnRequest.getMaxVersions();
     }
 
@@ -214,12 +258,39 @@ public class HBaseDataRequestAdapter {
       return null;
     }
 
-    get.setFilter(filterList);
     get.setTimeRange(mKijiDataRequest.getMinTimestamp(), mKijiDataRequest.getMaxTimestamp());
     get.setMaxVersions(largestMaxVersions);
     return get;
   }
 
+  /**
+   * Builds the HBase filter that selects the data requested in the KijiDataRequest.
+   *
+   * <p>HBase filters hold per-row state while they are evaluated, and user filters may not be
+   * safe to share: a new filter tree is built for every Get.</p>
+   *
+   * @param columnTranslator Translator for the layout of the Kiji table to read from.
+   * @param tableLayout The layout of the Kiji table to read from.
+   * @return the HBase filter for the requested columns.
+   * @throws IOException If there is an error.
+   */
+  private Filter buildFilter(ColumnNameTranslator columnTranslator, KijiTableLayout tableLayout)
+      throws IOException {
+    final FilterList filterList = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+    for (KijiDataRequest.Column columnRequest : mKijiDataRequest.getColumns()) {
+      if (!columnRequest.isPagingEnabled()) {
+        filterList.addFilter(toFilter(columnRequest, columnTranslator, tableLayout));
+      }
+    }
+    if (filterList.getFilters().isEmpty()) {
+      // If our data request has paging enabled on every column, we need to artificially construct a
+      // Get, so that we have access to the entityId for each row. This will be used to construct
+      // a KijiRowData.
+      filterList.addFilter(new FirstKeyOnlyFilter());
+    }
+    return filterList;
+  }
+
   /**
    * Configures a Scan with the options specified on HBaseScanOptions.
    * Whenever an option is not specified on <code>scanOptions</code>,
@@ -297,6 +368,77 @@ public class HBaseDataRequestAdapter {
     return requestFilter;
   }
 
+  /**
+   * A KijiDataRequest compiled against a table layout.
+   *
+   * <p>Templates are immutable and may be shared between threads. The Gets they build are
+   * independent: each has its own column sets and its own filter tree, since HBase filters
+   * are stateful while a row is filtered.</p>
+   */
+  public static final class GetTemplate {
+    /** The data request adapter this template was compiled from. */
+    private final HBaseDataRequestAdapter mAdapter;
+
+    /** The table layout this template was compiled against. */
+    private final KijiTableLayout mTableLayout;
+
+    /** Translator for the column names of the table layout. */
+    private final ColumnNameTranslator mColumnTranslator;
+
+    /** Prototype of the Gets to build, without filter, or null if no get is necessary. */
+    private final Get mPrototype;
+
+    /**
+     * Creates a template from a prototype Get.
+     *
+     * @param adapter The data request adapter the template is compiled from.
+     * @param tableLayout The table layout the template was compiled against.
+     * @param columnTranslator Translator for the column names of the table layout.
+     * @param prototype Prototype of the Gets to build, or null if no get is necessary.
+     */
+    private GetTemplate(
+        HBaseDataRequestAdapter adapter,
+        KijiTableLayout tableLayout,
+        ColumnNameTranslator columnTranslator,
+        Get prototype) {
+      mAdapter = adapter;
+      mTableLayout = tableLayout;
+      mColumnTranslator = columnTranslator;
+      mPrototype = prototype;
+    }
+
+    /** @return the table layout this template was compiled against. */
+    public KijiTableLayout getTableLayout() {
+      return mTableLayout;
+    }
+
+    /**
+     * Builds an HBase Get for a particular entity/row.
+     *
+     * @param entityId The row to build an HBase Get request for.
+     * @return An HBase Get descriptor, or null if no data was requested.
+     * @throws IOException If there is an error.
+     */
+    public Get toGet(EntityId entityId) throws IOException {
+      if (null == mPrototype) {
+        return null;
+      }
+      final Get get = new Get(entityId.getHBaseRowKey());
+      for (Map.Entry<byte[], NavigableSet<byte[]>> entry
+               : mPrototype.getFamilyMap().entrySet()) {
+        // Copy the qualifier sets, so that adding columns to a Get leaves the template intact:
+        final NavigableSet<byte[]> qualifiers = entry.getValue();
+        get.getFamilyMap().put(entry.getKey(),
+            (null == qualifiers) ? null : new TreeSet<byte[]>(qualifiers));
+      }
+      get.setFilter(mAdapter.buildFilter(mColumnTranslator, mTableLayout));
+      get.setTimeRange(
+          mPrototype.getTimeRange().getMin(), mPrototype.getTimeRange().getMax());
+      get.setMaxVersions(mPrototype.getMaxVersions());
+      return get;
+    }
+  }
+
   /**
    * A Context for KijiColumnFilters that translates column names to their HBase
    * representation.
@@ -22,7 +22,10 @@ package org.kiji.schema.impl;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.base.Preconditions;
 import org.apache.commons.io.IOUtils;
@@ -56,6 +59,7 @@ import org.kiji.schema.layout.InvalidLayoutException;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.impl.ColumnId;
 import org.kiji.schema.layout.impl.HTableSchemaTranslator;
+import org.kiji.schema.metrics.KijiMetrics;
 import org.kiji.schema.util.LockFactory;
 import org.kiji.schema.util.VersionInfo;
 import org.kiji.schema.util.ZooKeeperLockFactory;
@@ -72,6 +76,9 @@ public final class HBaseKiji implements Kiji {
   private static final Logger CLEANUP_LOG =
       LoggerFactory.getLogger(HBaseKiji.class.getName() + ".Cleanup");
 
+  /** Source of the identifiers distinguishing HBaseKiji objects in JMX. */
+  private static final AtomicLong NEXT_ID = new AtomicLong();
+
   /** The hadoop configuration. */
   private final Configuration mConf;
 
@@ -84,6 +91,16 @@ public final class HBaseKiji implements Kiji {
   /** URI for this HBaseKiji instance. */
   private final KijiURI mURI;
 
+  /** Identifier of this HBaseKiji object, unique within the JVM. */
+  private final long mId = NEXT_ID.getAndIncrement();
+
+  /** Metrics of this Kiji instance, rolling up the metrics of its tables. */
+  private final KijiMetrics mMetrics = new KijiMetrics(null);
+
+  /** Metrics of the tables opened through this Kiji instance, keyed by table name. */
+  private final ConcurrentMap<String, KijiMetrics> mTableMetrics =
+      new ConcurrentHashMap<String, KijiMetrics>();
+
   /** Admin interface. */
   private HBaseAdmin mAdmin;
 
@@ -206,6 +223,7 @@ public final class HBaseKiji implements Kiji {
         mConstructorStack = StringUtils.stringifyException(e);
       }
     }
+    mMetrics.register(KijiMetrics.getInstanceObjectName(mURI, mId));
     LOG.debug("Opened.");
   }
 
@@ -226,7 +244,7 @@ public final class HBaseKiji implements Kiji {
   public synchronized KijiSchemaTable getSchemaTable() throws IOException {
     Preconditions.checkState(mIsOpen);
     if (null == mSchemaTable) {
-      mSchemaTable = new HBaseSchemaTable(mURI, mConf, mHTableFactory, mLockFactory);
+      mSchemaTable = new HBaseSchemaTable(mURI, mConf, mHTableFactory, mLockFactory, mMetrics);
     }
     return mSchemaTable;
   }
@@ -267,6 +285,40 @@ public final class HBaseKiji implements Kiji {
     return mAdmin;
   }
 
+  /**
+   * Reports the metrics of this Kiji instance.
+   *
+   * <p>These metrics roll up the metrics of all the tables opened through this instance.</p>
+   *
+   * @return the metrics of this Kiji instance.
+   */
+  public KijiMetrics getMetrics() {
+    return mMetrics;
+  }
+
+  /**
+   * Reports the metrics of a table opened through this Kiji instance.
+   *
+   * <p>The metrics are shared by all the KijiTable objects opened with the same name, and are
+   * registered in JMX the first time they are requested.</p>
+   *
+   * @param tableName Name of the table.
+   * @return the metrics of the table.
+   */
+  KijiMetrics getTableMetrics(String tableName) {
+    final KijiMetrics metrics = mTableMetrics.get(tableName);
+    if (null != metrics) {
+      return metrics;
+    }
+    final KijiMetrics newMetrics = new KijiMetrics(mMetrics);
+    final KijiMetrics existing = mTableMetrics.putIfAbsent(tableName, newMetrics);
+    if (null != existing) {
+      return existing;
+    }
+    newMetrics.register(KijiMetrics.getTableObjectName(mURI, mId, tableName));
+    return newMetrics;
+  }
+
   /** {@inheritDoc} */
   @Override
   public KijiTable openTable(String tableName) throws IOException {
@@ -514,6 +566,10 @@ public final class HBaseKiji implements Kiji {
     mMetaTable = null;
     mSystemTable = null;
     mAdmin = null;
+    for (KijiMetrics tableMetrics : mTableMetrics.values()) {
+      tableMetrics.unregister();
+    }
+    mMetrics.unregister();
     LOG.debug(String.format("Kiji instance '%s' closed.", mURI));
   }
 
@@ -20,9 +20,14 @@
 package org.kiji.schema.impl;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,11 +38,28 @@ import org.kiji.schema.KijiDataRequest;
 import org.kiji.schema.KijiDataRequestBuilder;
 import org.kiji.schema.KijiPager;
 import org.kiji.schema.KijiRowData;
+import org.kiji.schema.filter.AndColumnFilter;
+import org.kiji.schema.filter.KijiColumnFilter;
+import org.kiji.schema.filter.KijiColumnRangeFilter;
 import org.kiji.schema.filter.KijiPaginationFilter;
+import org.kiji.schema.hbase.HBaseColumnName;
+import org.kiji.schema.layout.ColumnNameTranslator;
 import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.metrics.KijiMetrics.Operation;
 
 /**
  * <p>Implementation of a KijiPager for HBase.</p>
+ *
+ * <p>The pager keeps a cursor on the last cell returned: its qualifier and timestamp.
+ * Each page resumes from that position, first with the older versions of the last column, then
+ * with the columns that follow it. The region server seeks to the cursor rather than skipping
+ * every cell of the previous pages, so each page costs the same regardless of its position.</p>
+ *
+ * <p>HBase column pagination filters count columns and include a single version of each column,
+ * so they are only used to find the next qualifiers. Their versions are then fetched explicitly,
+ * capped to one more than the cells left in the page, and the page is cut client-side. The cell
+ * after the page tells whether the last column returned has older versions left, so that they
+ * are only fetched if they exist.</p>
  */
 @ApiAudience.Private
 public final class HBaseKijiPager implements KijiPager {
@@ -46,18 +68,28 @@ public final class HBaseKijiPager implements KijiPager {
   private final EntityId mEntityId;
   /** The request used to retrieve this Kiji row data for this paged column. */
   private final KijiDataRequest mColumnDataRequest;
+  /** The request describing the pages returned, without filters. */
+  private final KijiDataRequest mPageDataRequest;
   /** The KijiTable we are reading from. */
   private final HBaseKijiTable mTable;
   /** The layout for the table this row data came from. */
   private final KijiTableLayout mLayout;
   /** This KijiColumnName of the column being paged through. */
   private final KijiColumnName mColumnName;
+  /** The user-defined filter of the paged column, or null. */
+  private final KijiColumnFilter mUserFilter;
   /** The default page size for this column. */
   private final int mDefaultPageSize;
   /** The max number of versions to return from each column. */
   private final int mMaxVersions;
-  /** The offset into cells to begin the page. */
-  private int mOffset;
+  /** Kiji qualifier of the last cell returned, or null before the first page. */
+  private String mLastQualifier;
+  /** Timestamp of the last cell returned. */
+  private long mLastTimestamp;
+  /** Number of versions of the last qualifier returned so far. */
+  private int mLastQualifierVersions;
+  /** Whether every version of the last qualifier within the time range was returned. */
+  private boolean mLastQualifierComplete;
   /** Whether or not an exception will be thrown if .next() is called. */
   private boolean mHasNext;
 
@@ -90,12 +122,19 @@ public final class HBaseKijiPager implements KijiPager {
       .newColumnsDef(columnRequest);
     mColumnName = colName;
     mColumnDataRequest = builder.build();
+    mUserFilter = columnRequest.getFilter();
     mDefaultPageSize = columnRequest.getPageSize();
     mEntityId = entityId;
     mTable = table; //This should also be closed/released once done.
     mLayout = tableLayout;
     mHasNext = true;
     mMaxVersions = columnRequest.getMaxVersions();
+    mLastQualifier = null;
+
+    final KijiDataRequestBuilder pageBuilder = KijiDataRequest.builder();
+    pageBuilder.withTimeRange(dataRequest.getMinTimestamp(), dataRequest.getMaxTimestamp())
+        .newColumnsDef().withMaxVersions(mMaxVersions).add(mColumnName);
+    mPageDataRequest = pageBuilder.build();
   }
 
   /** {@inheritDoc} */
@@ -113,32 +152,149 @@ public final class HBaseKijiPager implements KijiPager {
   /** {@inheritDoc} */
   @Override
   public KijiRowData next(int pageSize) {
-    // Initialize a data request builder from the paged column.
-    KijiDataRequestBuilder builder = KijiDataRequest.builder();
-      builder.withTimeRange(mColumnDataRequest.getMinTimestamp(),
-        mColumnDataRequest.getMaxTimestamp()).newColumnsDef()
-      .withFilter(new KijiPaginationFilter(pageSize, mOffset, // Add a pagination filter.
-        mColumnDataRequest.getColumn(mColumnName.getFamily(),
-        mColumnName.getQualifier()).getFilter())) // Pass in user defined filters.
-      .withMaxVersions(mMaxVersions).add(mColumnName);
-
-    KijiDataRequest nextPageDataRequest = builder.build();
-    LOG.debug("DataRequest in pager is: [{}]", nextPageDataRequest.toString());
-    HBaseDataRequestAdapter adapter = new HBaseDataRequestAdapter(nextPageDataRequest);
+    final List<KeyValue> page = Lists.newArrayList();
     try {
-      Get hbaseGet = adapter.toGet(mEntityId, mLayout);
-      incrementOffset(pageSize);
-      Result nextResultPage = mTable.getHTable().get(hbaseGet);
-      // If we retrieved less results than expected, we are out of pages.
-      if (nextResultPage.size() < pageSize) {
-        mHasNext = false;
+      if ((null != mLastQualifier)
+          && !mLastQualifierComplete
+          && (mLastQualifierVersions < mMaxVersions)
+          && (mLastTimestamp > mColumnDataRequest.getMinTimestamp())) {
+        // Resume with the older versions of the last column returned.
+        final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+        builder.withTimeRange(mColumnDataRequest.getMinTimestamp(), mLastTimestamp)
+            .newColumnsDef()
+            .withFilter(mUserFilter)
+            .withMaxVersions(Math.min(mMaxVersions - mLastQualifierVersions, pageSize + 1))
+            .add(mColumnName.getFamily(), mLastQualifier);
+        fetchPage(builder.build(), pageSize, page);
+      }
+      if ((page.size() < pageSize)
+          && ((null == mLastQualifier) || !mColumnName.isFullyQualified())) {
+        // Continue with the columns following the last column returned.
+        final int limit = pageSize - page.size();
+        final List<String> qualifiers = mColumnName.isFullyQualified()
+            ? Collections.singletonList(mColumnName.getQualifier())
+            : findNextQualifiers(limit + 1);
+        if (!qualifiers.isEmpty()) {
+          final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+          final KijiDataRequestBuilder.ColumnsDef columns = builder
+              .withTimeRange(mColumnDataRequest.getMinTimestamp(),
+                  mColumnDataRequest.getMaxTimestamp())
+              .newColumnsDef()
+              .withFilter(mUserFilter)
+              .withMaxVersions(Math.min(mMaxVersions, limit + 1));
+          for (String qualifier : qualifiers) {
+            columns.add(mColumnName.getFamily(), qualifier);
+          }
+          fetchPage(builder.build(), limit, page);
+        }
       }
-      return new HBaseKijiRowData(mEntityId, nextPageDataRequest, mTable, nextResultPage);
     } catch (IOException ioe) {
       LOG.error("Unable to get next page of results: {}", ioe);
-      return new HBaseKijiRowData(mEntityId, nextPageDataRequest, mTable, new Result());
+      return new HBaseKijiRowData(mEntityId, mPageDataRequest, mTable, new Result());
     }
 
+    // If we retrieved less results than expected, we are out of pages.
+    if (page.size() < pageSize) {
+      mHasNext = false;
+    }
+    return new HBaseKijiRowData(mEntityId, mPageDataRequest, mTable, new Result(page));
+  }
+
+  /**
+   * Finds the qualifiers of the paged family that follow the last qualifier returned.
+   *
+   * <p>A single version of each column is requested: HBase column pagination filters include
+   * at most one version per column, so that the limit holds for columns and cells alike.</p>
+   *
+   * @param count Maximum number of qualifiers to find.
+   * @return the Kiji qualifiers following the last qualifier returned, in HBase order.
+   * @throws IOException on I/O error.
+   */
+  private List<String> findNextQualifiers(int count) throws IOException {
+    final KijiColumnFilter filter = (null == mLastQualifier)
+        ? mUserFilter
+        : new AndColumnFilter(
+            new KijiColumnRangeFilter(mLastQualifier, false, null, false), mUserFilter);
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.withTimeRange(mColumnDataRequest.getMinTimestamp(),
+        mColumnDataRequest.getMaxTimestamp())
+        .newColumnsDef()
+        .withFilter(new KijiPaginationFilter(count, 0, filter))
+        .withMaxVersions(1)
+        .add(mColumnName);
+    final KeyValue[] kvs = get(builder.build());
+    final List<String> qualifiers = Lists.newArrayList();
+    final ColumnNameTranslator translator = mTable.getColumnNameTranslator();
+    for (KeyValue kv : kvs) {
+      final String qualifier = translator.toKijiColumnName(
+          new HBaseColumnName(kv.getFamily(), kv.getQualifier())).getQualifier();
+      if (qualifiers.isEmpty() || !qualifier.equals(qualifiers.get(qualifiers.size() - 1))) {
+        qualifiers.add(qualifier);
+      }
+    }
+    return qualifiers;
+  }
+
+  /**
+   * Sends a Get for the paged row to HBase.
+   *
+   * @param dataRequest Data request describing the cells to get.
+   * @return the cells returned by HBase, possibly empty.
+   * @throws IOException on I/O error.
+   */
+  private KeyValue[] get(KijiDataRequest dataRequest) throws IOException {
+    LOG.debug("DataRequest in pager is: [{}]", dataRequest);
+    final HBaseDataRequestAdapter adapter = new HBaseDataRequestAdapter(dataRequest);
+    final Get hbaseGet = adapter.toGet(mEntityId, mLayout);
+    if (null == hbaseGet) {
+      return new KeyValue[0];
+    }
+    final long startNanos = System.nanoTime();
+    final KeyValue[] kvs = mTable.getHTable().get(hbaseGet).raw();
+    mTable.getMetrics().recordLatency(Operation.GET, System.nanoTime() - startNanos);
+    return (null == kvs) ? new KeyValue[0] : kvs;
+  }
+
+  /**
+   * Fetches cells of the paged column, appends them to a page and moves the cursor
+   * past them.
+   *
+   * <p>The cell limit is enforced here rather than by HBase: the data request may return more
+   * cells than the limit. The cell following the last cell appended only tells whether the last
+   * qualifier appended has more versions.</p>
+   *
+   * @param pageDataRequest Data request for the cells to fetch, capped to limit + 1 versions
+   *     per column.
+   * @param limit Maximum number of cells to append to the page.
+   * @param page Cells of the page, in HBase order, to append the fetched cells to.
+   * @throws IOException on I/O error.
+   */
+  private void fetchPage(KijiDataRequest pageDataRequest, int limit, List<KeyValue> page)
+      throws IOException {
+    final KeyValue[] kvs = get(pageDataRequest);
+    final ColumnNameTranslator translator = mTable.getColumnNameTranslator();
+    KeyValue lastKeyValue = null;
+    for (int i = 0; i < Math.min(kvs.length, limit); ++i) {
+      final KeyValue kv = kvs[i];
+      page.add(kv);
+      if ((null != lastKeyValue) && Bytes.equals(lastKeyValue.getQualifier(), kv.getQualifier())) {
+        mLastQualifierVersions += 1;
+      } else {
+        final KijiColumnName column = translator.toKijiColumnName(
+            new HBaseColumnName(kv.getFamily(), kv.getQualifier()));
+        if (!column.getQualifier().equals(mLastQualifier)) {
+          mLastQualifier = column.getQualifier();
+          mLastQualifierVersions = 0;
+        }
+        mLastQualifierVersions += 1;
+      }
+      mLastTimestamp = kv.getTimestamp();
+      lastKeyValue = kv;
+    }
+    // The last qualifier is complete unless the extra cell is another version of it.
+    mLastQualifierComplete = (kvs.length <= limit)
+        || !Bytes.equals(lastKeyValue.getFamily(), kvs[limit].getFamily())
+        || !Bytes.equals(lastKeyValue.getQualifier(), kvs[limit].getQualifier());
   }
 
    /** {@inheritDoc} */
@@ -152,13 +308,4 @@ public final class HBaseKijiPager implements KijiPager {
   public void close() throws IOException {
     mTable.close();
   }
-
-  /**
-   * Increments the current offset for a page.
-   *
-   * @param pageSize The page size to increment the offset by.
-   */
-  private synchronized void incrementOffset(final int pageSize) {
-    mOffset += pageSize;
-  }
 }
@@ -20,8 +20,11 @@
 package org.kiji.schema.impl;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -34,12 +37,15 @@ import org.apache.avro.Schema;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.DecodedCell;
 import org.kiji.schema.EntityId;
 import org.kiji.schema.EntityIdFactory;
+import org.kiji.schema.GenericCellDecoderFactory;
 import org.kiji.schema.KijiCell;
 import org.kiji.schema.KijiCellDecoder;
 import org.kiji.schema.KijiCellDecoderFactory;
@@ -53,6 +59,7 @@ import org.kiji.schema.SpecificCellDecoderFactory;
 import org.kiji.schema.hbase.HBaseColumnName;
 import org.kiji.schema.layout.ColumnNameTranslator;
 import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.KijiTableLayout.LocalityGroupLayout.FamilyLayout;
 import org.kiji.schema.layout.impl.CellSpec;
 import org.kiji.schema.util.TimestampComparator;
 
@@ -63,8 +70,8 @@ import org.kiji.schema.util.TimestampComparator;
 public final class HBaseKijiRowData implements KijiRowData {
   private static final Logger LOG = LoggerFactory.getLogger(HBaseKijiRowData.class);
 
-  /** The entity id for the row. */
-  private final EntityId mEntityId;
+  /** The entity id for the row. Only changes when the row data is recycled by a scanner. */
+  private EntityId mEntityId;
 
   /** The request used to retrieve this Kiji row data. */
   private final KijiDataRequest mDataRequest;
@@ -84,9 +91,45 @@ public final class HBaseKijiRowData implements KijiRowData {
   /** Schema table to resolve schema hashes or IDs. */
   private final KijiSchemaTable mSchemaTable;
 
-  /** A map from kiji family to kiji qualifier to timestamp to raw encoded cell values. */
+  /**
+   * A map from kiji family to kiji qualifier to timestamp to raw encoded cell values.
+   * Copied lazily from the KeyValues by {@link #getMap()}, null until then.
+   */
   private NavigableMap<String, NavigableMap<String, NavigableMap<Long, byte[]>>> mFilteredMap;
 
+  /**
+   * KeyValues of the HBase result, sorted with KeyValue.COMPARATOR.
+   * Indexed lazily from mResult, null until then.
+   */
+  private KeyValue[] mKeyValues;
+
+  /** Translates Kiji column names into HBase column names. Initialized lazily. */
+  private ColumnNameTranslator mColumnNameTranslator;
+
+  /**
+   * Families filtered so far: Kiji family to qualifier to timestamp to the KeyValue holding the
+   * encoded cell. Families with no data are recorded with an empty qualifier map.
+   *
+   * <p>Cells are decoded in place from the KeyValues: their content is never copied.</p>
+   */
+  private final Map<String, NavigableMap<String, NavigableMap<Long, KeyValue>>> mFamilyMaps =
+      Maps.newHashMap();
+
+  /**
+   * Columns filtered so far, for families that were not filtered as a whole.
+   * Columns with no data are recorded with a null time-series.
+   */
+  private final Map<String, Map<String, NavigableMap<Long, KeyValue>>> mColumnMaps =
+      Maps.newHashMap();
+
+  /**
+   * Cell decoders created so far: Kiji family to qualifier to decoder.
+   * Map-type families share a single decoder, recorded with a null qualifier.
+   *
+   * <p>Decoders only depend on the table layout, and are kept when the row data is recycled.</p>
+   */
+  private final Map<String, Map<String, KijiCellDecoder<?>>> mDecoders = Maps.newHashMap();
+
   /**
    * Initializes a row data.
    *
@@ -149,6 +192,21 @@ public final class HBaseKijiRowData implements KijiRowData {
    */
   public HBaseKijiRowData(EntityId entityId, KijiDataRequest request, HBaseKijiTable table,
       Result result) {
+    this(entityId, request, table, result, true);
+  }
+
+  /**
+   * Initializes a row data.
+   *
+   * @param entityId The entityId of the row.
+   * @param request The requested data.
+   * @param table The Kiji table that this row belongs to.
+   * @param result The HBase result containing the row data.
+   * @param readFromHBase Whether the result was read from HBase, rather than from the row cache,
+   *     and should be recorded in the metrics of the table.
+   */
+  HBaseKijiRowData(EntityId entityId, KijiDataRequest request, HBaseKijiTable table,
+      Result result, boolean readFromHBase) {
     mEntityId = entityId;
     mDataRequest = request;
     mTableLayout = table.getLayout();
@@ -164,6 +222,26 @@ public final class HBaseKijiRowData implements KijiRowData {
     // Compute this lazily.
     mFilteredMap = null;
     mHTable = table;
+
+    if (readFromHBase) {
+      recordRead(result);
+    }
+  }
+
+  /**
+   * Records the cells of an HBase result read from HBase in the metrics of the table.
+   *
+   * @param result HBase result read from HBase.
+   */
+  private void recordRead(Result result) {
+    final KeyValue[] kvs = result.raw();
+    if (null != kvs) {
+      long nbytes = 0;
+      for (KeyValue kv : kvs) {
+        nbytes += kv.getLength();
+      }
+      mHTable.getMetrics().recordRead(kvs.length, nbytes);
+    }
   }
 
   /**
@@ -179,10 +257,58 @@ public final class HBaseKijiRowData implements KijiRowData {
    */
   public HBaseKijiRowData(KijiDataRequest request, HBaseKijiTable table, Result result)
       throws IOException {
-    this(EntityIdFactory.getFactory(table.getLayout()).getEntityIdFromHBaseRowKey(
+    this(table.getEntityIdFactory().getEntityIdFromHBaseRowKey(
         result.getRow()), request, table, result);
   }
 
+  /**
+   * Recycles this row data to hold another row read from HBase with the same data request.
+   *
+   * <p>The internal maps and the cell decoders are kept, so that a scanner can go through rows
+   * without allocating a new row data for each of them. Values previously returned by this row
+   * data remain valid, but the row data itself now describes the new row.</p>
+   *
+   * @param entityId The entityId of the new row.
+   * @param result The HBase result containing the new row data.
+   */
+  synchronized void reset(EntityId entityId, Result result) {
+    mEntityId = entityId;
+    mResult = result;
+    mKeyValues = null;
+    mFilteredMap = null;
+    mFamilyMaps.clear();
+    mColumnMaps.clear();
+    if (null != mHTable) {
+      recordRead(result);
+    }
+  }
+
+  /**
+   * Filters the cells of all the requested columns, and builds their decoders.
+   *
+   * <p>Scanners call this from their prefetching thread, so that the consumer of the row only
+   * has to decode the cells it reads.</p>
+   *
+   * @throws IOException on I/O error.
+   */
+  synchronized void prefetch() throws IOException {
+    for (KijiDataRequest.Column column : mDataRequest.getColumns()) {
+      final String family = column.getFamily();
+      final String qualifier = column.getQualifier();
+      if (null == qualifier) {
+        final NavigableMap<String, NavigableMap<Long, KeyValue>> qmap =
+            getRawQualifierMap(family);
+        if (null != qmap) {
+          for (String familyQualifier : qmap.keySet()) {
+            getDecoder(family, familyQualifier);
+          }
+        }
+      } else if (null != getRawTimestampMap(family, qualifier)) {
+        getDecoder(family, qualifier);
+      }
+    }
+  }
+
   /**
    * Gets the HBase result backing this {@link org.kiji.schema.KijiRowData}.
    *
@@ -252,15 +378,23 @@ public final class HBaseKijiRowData implements KijiRowData {
     List<KeyValue> merged
         = existingKvs != null ? new ArrayList<KeyValue>(existingKvs) : new ArrayList<KeyValue>();
     merged.addAll(keyValues);
+    Collections.sort(merged, KeyValue.COMPARATOR);
     mResult = new Result(merged);
 
-    // Invalidate the cached filtered map.
+    // Invalidate the cached filtered maps.
+    mKeyValues = null;
     mFilteredMap = null;
+    mFamilyMaps.clear();
+    mColumnMaps.clear();
   }
 
   /**
    * Gets a map from kiji family to qualifier to timestamp to raw kiji-encoded bytes of a cell.
    *
+   * <p>This materializes every requested family of the row, and copies the content of every
+   * cell out of the HBase KeyValues. Accessors for a given family or column only filter the cells
+   * they need and decode them in place, and should be preferred.</p>
+   *
    * @return The map.
    */
   public synchronized NavigableMap<String, NavigableMap<String, NavigableMap<Long, byte[]>>>
@@ -270,95 +404,285 @@ public final class HBaseKijiRowData implements KijiRowData {
     }
 
     LOG.debug("Filtering the HBase Result into a map of kiji cells...");
-    final NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> map =
-        mResult.getMap();
     mFilteredMap = new TreeMap<String, NavigableMap<String, NavigableMap<Long, byte[]>>>();
-    if (null == map) {
-      LOG.debug("No result data.");
-      return mFilteredMap;
+    for (String family : mTableLayout.getFamilyMap().keySet()) {
+      final NavigableMap<String, NavigableMap<Long, KeyValue>> qmap = getRawQualifierMap(family);
+      if (null == qmap) {
+        continue;
+      }
+      final NavigableMap<String, NavigableMap<Long, byte[]>> copiedQMap =
+          new TreeMap<String, NavigableMap<Long, byte[]>>();
+      for (Map.Entry<String, NavigableMap<Long, KeyValue>> entry : qmap.entrySet()) {
+        final NavigableMap<Long, byte[]> copiedTMap =
+            new TreeMap<Long, byte[]>(TimestampComparator.INSTANCE);
+        for (Map.Entry<Long, KeyValue> cell : entry.getValue().entrySet()) {
+          copiedTMap.put(cell.getKey(), cell.getValue().getValue());
+        }
+        copiedQMap.put(entry.getKey(), copiedTMap);
+      }
+      mFilteredMap.put(family, copiedQMap);
+    }
+    return mFilteredMap;
+  }
+
+  /**
+   * Gets the KeyValues of the HBase result, sorted with KeyValue.COMPARATOR.
+   *
+   * <p>Results returned by HBase are already sorted, in which case the KeyValues are not copied.
+   * </p>
+   *
+   * @return the sorted KeyValues of the HBase result.
+   */
+  private KeyValue[] getKeyValues() {
+    if (null == mKeyValues) {
+      final KeyValue[] kvs = mResult.raw();
+      if (null == kvs) {
+        mKeyValues = new KeyValue[0];
+      } else if (isSorted(kvs)) {
+        mKeyValues = kvs;
+      } else {
+        mKeyValues = kvs.clone();
+        Arrays.sort(mKeyValues, KeyValue.COMPARATOR);
+      }
+    }
+    return mKeyValues;
+  }
+
+  /**
+   * Reports whether an array of KeyValues is sorted with KeyValue.COMPARATOR.
+   *
+   * @param kvs KeyValues to check.
+   * @return whether the KeyValues are sorted.
+   */
+  private static boolean isSorted(KeyValue[] kvs) {
+    for (int i = 1; i < kvs.length; ++i) {
+      if (KeyValue.COMPARATOR.compare(kvs[i - 1], kvs[i]) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the position of the first KeyValue at or after a given HBase column.
+   *
+   * @param kvs Sorted KeyValues to search.
+   * @param family HBase family to seek to.
+   * @param qualifier HBase qualifier (or qualifier prefix) to seek to.
+   * @return the index of the first KeyValue at or after the given column.
+   */
+  private static int seek(KeyValue[] kvs, byte[] family, byte[] qualifier) {
+    if (kvs.length == 0) {
+      return 0;
+    }
+    final KeyValue searchKey = KeyValue.createFirstOnRow(kvs[0].getRow(), family, qualifier);
+    final int index = Arrays.binarySearch(kvs, searchKey, KeyValue.COMPARATOR);
+    return (index >= 0) ? index : -(index + 1);
+  }
+
+  /**
+   * Reports whether the qualifier of a KeyValue starts with a given prefix.
+   *
+   * @param kv KeyValue to check.
+   * @param prefix Qualifier prefix.
+   * @return whether the qualifier of the KeyValue starts with the prefix.
+   */
+  private static boolean hasQualifierPrefix(KeyValue kv, byte[] prefix) {
+    return (kv.getQualifierLength() >= prefix.length)
+        && (Bytes.compareTo(kv.getBuffer(), kv.getQualifierOffset(), prefix.length,
+            prefix, 0, prefix.length) == 0);
+  }
+
+  /**
+   * Reports whether two KeyValues have the same qualifier.
+   *
+   * @param kv1 First KeyValue.
+   * @param kv2 Second KeyValue.
+   * @return whether the two KeyValues have the same qualifier.
+   */
+  private static boolean hasSameQualifier(KeyValue kv1, KeyValue kv2) {
+    return Bytes.compareTo(
+        kv1.getBuffer(), kv1.getQualifierOffset(), kv1.getQualifierLength(),
+        kv2.getBuffer(), kv2.getQualifierOffset(), kv2.getQualifierLength()) == 0;
+  }
+
+  /**
+   * Gets the column name translator for the layout of this row.
+   *
+   * @return the column name translator for the layout of this row.
+   */
+  private ColumnNameTranslator getColumnNameTranslator() {
+    if (null == mColumnNameTranslator) {
+      mColumnNameTranslator = (null != mHTable)
+          ? mHTable.getColumnNameTranslator()
+          : new ColumnNameTranslator(mTableLayout);
+    }
+    return mColumnNameTranslator;
+  }
+
+  /**
+   * Gets the column request that applies to a column.
+   *
+   * @param family Kiji family of the column.
+   * @param qualifier Kiji qualifier of the column.
+   * @return the column request that applies to the column, or null if it was not requested.
+   */
+  private KijiDataRequest.Column getColumnRequest(String family, String qualifier) {
+    // First check if all columns were requested.
+    final KijiDataRequest.Column columnRequest = mDataRequest.getColumn(family, null);
+    if (null != columnRequest) {
+      return columnRequest;
+    }
+    // Not all columns were requested, so check if this particular column was.
+    return mDataRequest.getColumn(family, qualifier);
+  }
+
+  /**
+   * Filters the versions of a column according to the data request.
+   *
+   * @param kvs Sorted KeyValues of the row.
+   * @param start Index of the first KeyValue of the column.
+   * @param end Index past the last KeyValue of the column.
+   * @param columnRequest Request for the column.
+   * @return the filtered time-series of the column, possibly empty.
+   */
+  private NavigableMap<Long, KeyValue> filterVersions(
+      KeyValue[] kvs, int start, int end, KijiDataRequest.Column columnRequest) {
+    final NavigableMap<Long, KeyValue> versionMap =
+        new TreeMap<Long, KeyValue>(TimestampComparator.INSTANCE);
+    for (int i = start; i < end; ++i) {
+      if (versionMap.size() >= columnRequest.getMaxVersions()) {
+        LOG.debug("Skipping remaining cells because we hit max versions requested: "
+            + columnRequest.getMaxVersions());
+        break;
+      }
+      final long timestamp = kvs[i].getTimestamp();
+      if (mDataRequest.isTimestampInRange(timestamp)) {
+        versionMap.put(timestamp, kvs[i]);
+      } else {
+        LOG.debug("Excluding cell at timestamp " + timestamp + " because it is out of range ["
+            + mDataRequest.getMinTimestamp() + "," + mDataRequest.getMaxTimestamp() + ")");
+      }
+    }
+    return versionMap;
+  }
+
+  /**
+   * Filters the cells of a Kiji family according to the data request.
+   *
+   * <p>Only the range of KeyValues holding the family is visited.</p>
+   *
+   * @param family Kiji family to filter.
+   * @return the filtered map of qualifiers of the family, possibly empty.
+   */
+  private NavigableMap<String, NavigableMap<Long, KeyValue>> filterFamily(String family) {
+    final NavigableMap<String, NavigableMap<Long, KeyValue>> qmap =
+        new TreeMap<String, NavigableMap<Long, KeyValue>>();
+    final FamilyLayout fLayout = mTableLayout.getFamilyMap().get(family);
+    if (null == fLayout) {
+      return qmap;
+    }
+
+    final ColumnNameTranslator translator = getColumnNameTranslator();
+    final HBaseColumnName hbaseFamily;
+    try {
+      hbaseFamily = translator.toHBaseColumnName(new KijiColumnName(family));
+    } catch (NoSuchColumnException nsce) {
+      return qmap;
     }
+    final byte[] hfamily = hbaseFamily.getFamily();
+    final byte[] prefix = hbaseFamily.getQualifier();
 
-    final ColumnNameTranslator columnNameTranslator = new ColumnNameTranslator(mTableLayout);
-    // Loop over the families in the HTable.
-    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry
-             : map.entrySet()) {
-      // Loop over the columns in the family.
-      for (NavigableMap.Entry<byte[], NavigableMap<Long, byte[]>> columnEntry
-               : familyEntry.getValue().entrySet()) {
-        final HBaseColumnName hbaseColumnName =
-            new HBaseColumnName(familyEntry.getKey(), columnEntry.getKey());
+    final KeyValue[] kvs = getKeyValues();
+    int index = seek(kvs, hfamily, prefix);
+    while ((index < kvs.length)
+        && kvs[index].matchingFamily(hfamily)
+        && hasQualifierPrefix(kvs[index], prefix)) {
+      final KeyValue first = kvs[index];
+      int end = index + 1;
+      while ((end < kvs.length)
+          && kvs[end].matchingFamily(hfamily)
+          && hasSameQualifier(first, kvs[end])) {
+        ++end;
+      }
 
-        // Translate the HBase column name to a Kiji column name.
-        KijiColumnName kijiColumnName;
+      String qualifier = null;
+      if (fLayout.isMapType()) {
+        qualifier = Bytes.toString(first.getBuffer(), first.getQualifierOffset() + prefix.length,
+            first.getQualifierLength() - prefix.length);
+      } else {
         try {
-          kijiColumnName = columnNameTranslator.toKijiColumnName(
-              new HBaseColumnName(familyEntry.getKey(), columnEntry.getKey()));
-        } catch (NoSuchColumnException e) {
-          LOG.info("Ignoring HBase family " + hbaseColumnName
+          qualifier = translator.toKijiColumnName(
+              new HBaseColumnName(hfamily, first.getQualifier())).getQualifier();
+        } catch (NoSuchColumnException nsce) {
+          LOG.info("Ignoring HBase column " + Bytes.toStringBinary(first.getQualifier())
               + " because it doesn't contain Kiji data.");
-          continue;
         }
-        LOG.debug("Adding family [{}] to getMap() result.", kijiColumnName.getName());
+      }
 
-        // First check if all columns were requested.
-        KijiDataRequest.Column columnRequest =
-            mDataRequest.getColumn(kijiColumnName.getFamily(), null);
-        if (null == columnRequest) {
-          // Not all columns were requested, so check if this particular column was.
-          columnRequest =
-              mDataRequest.getColumn(kijiColumnName.getFamily(), kijiColumnName.getQualifier());
-        }
+      if (null != qualifier) {
+        final KijiDataRequest.Column columnRequest = getColumnRequest(family, qualifier);
         if (null == columnRequest) {
-          LOG.debug("Ignoring unrequested data: " + kijiColumnName.getFamily() + ":"
-              + kijiColumnName.getQualifier());
-          continue;
-        }
-
-        // Loop over the versions.
-        int numVersions = 0;
-        for (NavigableMap.Entry<Long, byte[]> versionEntry : columnEntry.getValue().entrySet()) {
-          if (numVersions >= columnRequest.getMaxVersions()) {
-            LOG.debug("Skipping remaining cells because we hit max versions requested: "
-                + columnRequest.getMaxVersions());
-            break;
-          }
-
-          // Read the timestamp.
-          final long timestamp = versionEntry.getKey();
-          if (mDataRequest.isTimestampInRange(timestamp)) {
-            // Add the cell to the filtered map.
-            if (!mFilteredMap.containsKey(kijiColumnName.getFamily())) {
-              mFilteredMap.put(kijiColumnName.getFamily(),
-                  new TreeMap<String, NavigableMap<Long, byte[]>>());
-            }
-            final NavigableMap<String, NavigableMap<Long, byte[]>> columnMap =
-                mFilteredMap.get(kijiColumnName.getFamily());
-            if (!columnMap.containsKey(kijiColumnName.getQualifier())) {
-              columnMap.put(kijiColumnName.getQualifier(),
-                  new TreeMap<Long, byte[]>(TimestampComparator.INSTANCE));
-            }
-            final NavigableMap<Long, byte[]> versionMap =
-                columnMap.get(kijiColumnName.getQualifier());
-            versionMap.put(versionEntry.getKey(), versionEntry.getValue());
-            ++numVersions;
-          } else {
-            LOG.debug("Excluding cell at timestamp " + timestamp + " because it is out of range ["
-                + mDataRequest.getMinTimestamp() + "," + mDataRequest.getMaxTimestamp() + ")");
+          LOG.debug("Ignoring unrequested data: " + family + ":" + qualifier);
+        } else {
+          final NavigableMap<Long, KeyValue> versionMap =
+              filterVersions(kvs, index, end, columnRequest);
+          if (!versionMap.isEmpty()) {
+            qmap.put(qualifier, versionMap);
           }
         }
       }
+      index = end;
     }
-    return mFilteredMap;
+    return qmap;
+  }
+
+  /**
+   * Filters the cells of a single Kiji column according to the data request.
+   *
+   * <p>Only the KeyValues holding the column are visited.</p>
+   *
+   * @param family Kiji family of the column.
+   * @param qualifier Kiji qualifier of the column.
+   * @return the filtered time-series of the column, or null if it is empty.
+   */
+  private NavigableMap<Long, KeyValue> filterColumn(String family, String qualifier) {
+    final FamilyLayout fLayout = mTableLayout.getFamilyMap().get(family);
+    if ((null == fLayout) || (null == qualifier)) {
+      return null;
+    }
+    if (fLayout.isGroupType() && !fLayout.getColumnMap().containsKey(qualifier)) {
+      return null;
+    }
+    final KijiDataRequest.Column columnRequest = getColumnRequest(family, qualifier);
+    if (null == columnRequest) {
+      return null;
+    }
+
+    final HBaseColumnName hbaseColumn;
+    try {
+      hbaseColumn =
+          getColumnNameTranslator().toHBaseColumnName(new KijiColumnName(family, qualifier));
+    } catch (NoSuchColumnException nsce) {
+      return null;
+    }
+    final byte[] hfamily = hbaseColumn.getFamily();
+    final byte[] hqualifier = hbaseColumn.getQualifier();
+
+    final KeyValue[] kvs = getKeyValues();
+    final int start = seek(kvs, hfamily, hqualifier);
+    int end = start;
+    while ((end < kvs.length) && kvs[end].matchingColumn(hfamily, hqualifier)) {
+      ++end;
+    }
+    final NavigableMap<Long, KeyValue> versionMap = filterVersions(kvs, start, end, columnRequest);
+    return versionMap.isEmpty() ? null : versionMap;
   }
 
   /** {@inheritDoc} */
   @Override
   public synchronized boolean containsColumn(String family, String qualifier) {
-    final NavigableMap<String, NavigableMap<Long, byte[]>> columnMap = getMap().get(family);
-    if (null == columnMap) {
-      return false;
-    }
-   final  NavigableMap<Long, byte[]> versionMap = columnMap.get(qualifier);
+    final NavigableMap<Long, KeyValue> versionMap = getRawTimestampMap(family, qualifier);
     if (null == versionMap) {
       return false;
     }
@@ -368,12 +692,7 @@ public final class HBaseKijiRowData implements KijiRowData {
   /** {@inheritDoc} */
   @Override
   public synchronized boolean containsColumn(String family) {
-
-    final NavigableMap<String, NavigableMap<Long, byte[]>> columnMap = getMap().get(family);
-        for (Map.Entry<String, NavigableMap<String, NavigableMap<Long, byte[]>>> columnMapEntry
-          : getMap().entrySet()) {
-          LOG.debug("The result return contains family [{}]", columnMapEntry.getKey());
-        }
+    final NavigableMap<String, NavigableMap<Long, KeyValue>> columnMap = getRawQualifierMap(family);
     if (null == columnMap) {
       return false;
     }
@@ -390,7 +709,7 @@ public final class HBaseKijiRowData implements KijiRowData {
   /** {@inheritDoc} */
   @Override
   public synchronized NavigableSet<String> getQualifiers(String family) {
-    final NavigableMap<String, NavigableMap<Long, byte[]>> qmap = getRawQualifierMap(family);
+    final NavigableMap<String, NavigableMap<Long, KeyValue>> qmap = getRawQualifierMap(family);
     if (null == qmap) {
       return Sets.newTreeSet();
     }
@@ -400,14 +719,18 @@ public final class HBaseKijiRowData implements KijiRowData {
   /** {@inheritDoc} */
   @Override
   public synchronized NavigableSet<Long> getTimestamps(String family, String qualifier) {
-    final NavigableMap<Long, byte[]> tmap = getRawTimestampMap(family, qualifier);
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
     if (null == tmap) {
       return Sets.newTreeSet(TimestampComparator.INSTANCE);
     }
     return tmap.navigableKeySet();
   }
 
-  /** {@inheritDoc} */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This is the reader schema projection requested for the column, if any.</p>
+   */
   @Override
   public Schema getReaderSchema(String family, String qualifier) throws IOException {
     final Schema schema = mTableLayout.getSchema(new KijiColumnName(family, qualifier));
@@ -415,56 +738,140 @@ public final class HBaseKijiRowData implements KijiRowData {
       throw new NoSuchColumnException(
           "Cannot retrieve schema for non-existent column: " + family + ":" + qualifier);
     }
+    final KijiDataRequest.Column columnRequest = getColumnRequest(family, qualifier);
+    if ((null != columnRequest) && columnRequest.isProjected()) {
+      return columnRequest.getProjectedSchema(schema);
+    }
     return schema;
   }
 
   /**
-   * Reports the encoded map of qualifiers of a given family.
+   * Reports the KeyValues of the qualifiers of a given family.
    *
    * @param family Family to look up.
-   * @return the encoded map of qualifiers in the specified family, or null.
+   * @return the KeyValues of the qualifiers in the specified family, by timestamp, or null.
    */
-  private NavigableMap<String, NavigableMap<Long, byte[]>> getRawQualifierMap(String family) {
-    return getMap().get(family);
+  private synchronized NavigableMap<String, NavigableMap<Long, KeyValue>> getRawQualifierMap(
+      String family) {
+    NavigableMap<String, NavigableMap<Long, KeyValue>> qmap = mFamilyMaps.get(family);
+    if (null == qmap) {
+      qmap = filterFamily(family);
+      mFamilyMaps.put(family, qmap);
+      // Columns filtered individually are now subsumed by the family map.
+      mColumnMaps.remove(family);
+    }
+    return qmap.isEmpty() ? null : qmap;
   }
 
   /**
-   * Reports the specified raw encoded time-series of a given column.
+   * Reports the KeyValues holding the time-series of a given column.
    *
    * @param family Family to look up.
    * @param qualifier Qualifier to look up.
-   * @return the encoded time-series in the specified family:qualifier column, or null.
+   * @return the KeyValues of the specified family:qualifier column, by timestamp, or null.
    */
-  private NavigableMap<Long, byte[]> getRawTimestampMap(String family, String qualifier) {
-    final NavigableMap<String, NavigableMap<Long, byte[]>> qmap = getRawQualifierMap(family);
-    if (null == qmap) {
-      return null;
+  private synchronized NavigableMap<Long, KeyValue> getRawTimestampMap(
+      String family, String qualifier) {
+    final NavigableMap<String, NavigableMap<Long, KeyValue>> qmap = mFamilyMaps.get(family);
+    if (null != qmap) {
+      return qmap.get(qualifier);
     }
-    return qmap.get(qualifier);
+
+    Map<String, NavigableMap<Long, KeyValue>> columnMaps = mColumnMaps.get(family);
+    if (null == columnMaps) {
+      columnMaps = Maps.newHashMap();
+      mColumnMaps.put(family, columnMaps);
+    }
+    if (columnMaps.containsKey(qualifier)) {
+      return columnMaps.get(qualifier);
+    }
+    final NavigableMap<Long, KeyValue> tmap = filterColumn(family, qualifier);
+    columnMaps.put(qualifier, tmap);
+    return tmap;
   }
 
   /**
-   * Reports the encoded content of a given cell.
+   * Reports the KeyValue holding a given cell.
    *
    * @param family Family to look up.
    * @param qualifier Qualifier to look up.
    * @param timestamp Timestamp to look up.
-   * @return the encoded cell content, or null.
+   * @return the KeyValue holding the encoded cell content, or null.
    */
-  private byte[] getRawCell(String family, String qualifier, long timestamp) {
-    final NavigableMap<Long, byte[]> tmap = getRawTimestampMap(family, qualifier);
+  private KeyValue getRawCell(String family, String qualifier, long timestamp) {
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
     if (null == tmap) {
       return null;
     }
     return tmap.get(timestamp);
   }
 
+  /**
+   * Wraps the encoded content of a cell into a read-only buffer, without copying it.
+   *
+   * @param kv KeyValue holding the encoded cell content. May be null.
+   * @return a read-only view of the encoded cell content, or null if the KeyValue is null.
+   */
+  private static ByteBuffer wrapValue(KeyValue kv) {
+    if (null == kv) {
+      return null;
+    }
+    return ByteBuffer.wrap(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength())
+        .slice()
+        .asReadOnlyBuffer();
+  }
+
+  /**
+   * Decodes the cell held by a KeyValue in place.
+   *
+   * @param decoder Decoder for the column of the cell.
+   * @param kv KeyValue holding the encoded cell content.
+   * @return the decoded cell.
+   * @throws IOException on I/O error.
+   * @param <T> type of the value to decode.
+   */
+  private static <T> DecodedCell<T> decodeCell(KijiCellDecoder<T> decoder, KeyValue kv)
+      throws IOException {
+    return decoder.decodeCell(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ByteBuffer getRawValue(String family, String qualifier, long timestamp) {
+    return wrapValue(getRawCell(family, qualifier, timestamp));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ByteBuffer getMostRecentRawValue(String family, String qualifier) {
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
+    if (null == tmap) {
+      return null;
+    }
+    return wrapValue(tmap.firstEntry().getValue());
+  }
+
   /** {@inheritDoc} */
   @Override
   public <T> T getValue(String family, String qualifier, long timestamp) throws IOException {
     final KijiCellDecoder<T> decoder = getDecoder(family, qualifier);
-    final byte[] bytes = getRawCell(family, qualifier, timestamp);
-    return decoder.decodeValue(bytes);
+    final KeyValue kv = getRawCell(family, qualifier, timestamp);
+    if (null == kv) {
+      return null;
+    }
+    return decoder.decodeValue(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public <T> T getValue(String family, String qualifier, long timestamp, T reuse)
+      throws IOException {
+    final KijiCellDecoder<T> decoder = getDecoder(family, qualifier);
+    final KeyValue kv = getRawCell(family, qualifier, timestamp);
+    if (null == kv) {
+      return null;
+    }
+    return decoder.decodeValue(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength(), reuse);
   }
 
   /** {@inheritDoc} */
@@ -472,20 +879,35 @@ public final class HBaseKijiRowData implements KijiRowData {
   public <T> KijiCell<T> getCell(String family, String qualifier, long timestamp)
       throws IOException {
     final KijiCellDecoder<T> decoder = getDecoder(family, qualifier);
-    final byte[] bytes = getRawCell(family, qualifier, timestamp);
-    return new KijiCell<T>(family, qualifier, timestamp, decoder.decodeCell(bytes));
+    final KeyValue kv = getRawCell(family, qualifier, timestamp);
+    if (null == kv) {
+      return null;
+    }
+    return new KijiCell<T>(family, qualifier, timestamp, decodeCell(decoder, kv));
   }
 
   /** {@inheritDoc} */
   @Override
   public <T> T getMostRecentValue(String family, String qualifier) throws IOException {
     final KijiCellDecoder<T> decoder = getDecoder(family, qualifier);
-    final NavigableMap<Long, byte[]> tmap = getRawTimestampMap(family, qualifier);
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
     if (null == tmap) {
       return null;
     }
-    final byte[] bytes = tmap.values().iterator().next();
-    return decoder.decodeValue(bytes);
+    final KeyValue kv = tmap.firstEntry().getValue();
+    return decoder.decodeValue(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public <T> T getMostRecentValue(String family, String qualifier, T reuse) throws IOException {
+    final KijiCellDecoder<T> decoder = getDecoder(family, qualifier);
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
+    if (null == tmap) {
+      return null;
+    }
+    final KeyValue kv = tmap.firstEntry().getValue();
+    return decoder.decodeValue(kv.getBuffer(), kv.getValueOffset(), kv.getValueLength(), reuse);
   }
 
   /** {@inheritDoc} */
@@ -526,13 +948,13 @@ public final class HBaseKijiRowData implements KijiRowData {
   @Override
   public <T> KijiCell<T> getMostRecentCell(String family, String qualifier) throws IOException {
     final KijiCellDecoder<T> decoder = getDecoder(family,  qualifier);
-    final NavigableMap<Long, byte[]> tmap = getRawTimestampMap(family, qualifier);
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
     if (null == tmap) {
       return null;
     }
-    final byte[] bytes = tmap.values().iterator().next();
-    final long timestamp = tmap.firstKey();
-    return new KijiCell<T>(family, qualifier, timestamp, decoder.decodeCell(bytes));
+    final Map.Entry<Long, KeyValue> mostRecent = tmap.firstEntry();
+    return new KijiCell<T>(
+        family, qualifier, mostRecent.getKey(), decodeCell(decoder, mostRecent.getValue()));
   }
 
   /** {@inheritDoc} */
@@ -554,13 +976,12 @@ public final class HBaseKijiRowData implements KijiRowData {
     final KijiCellDecoder<T> decoder = getDecoder(family,  qualifier);
 
     final NavigableMap<Long, KijiCell<T>> result = Maps.newTreeMap(TimestampComparator.INSTANCE);
-    final NavigableMap<Long, byte[]> tmap = getRawTimestampMap(family, qualifier);
+    final NavigableMap<Long, KeyValue> tmap = getRawTimestampMap(family, qualifier);
     if (tmap != null) {
-      for (Map.Entry<Long, byte[]> entry : tmap.entrySet()) {
+      for (Map.Entry<Long, KeyValue> entry : tmap.entrySet()) {
         final Long timestamp = entry.getKey();
-        final byte[] bytes = entry.getValue();
         final KijiCell<T> cell =
-            new KijiCell<T>(family, qualifier, timestamp, decoder.decodeCell(bytes));
+            new KijiCell<T>(family, qualifier, timestamp, decodeCell(decoder, entry.getValue()));
         result.put(timestamp, cell);
       }
     }
@@ -580,7 +1001,13 @@ public final class HBaseKijiRowData implements KijiRowData {
   }
 
   /**
-   * Creates a decoder for the specified column.
+   * Gets a decoder for the specified column.
+   *
+   * <p>Building a decoder parses a JSON schema or looks up a class by name: decoders are created
+   * once per column (once per family for requests of whole map-type families), and cached.</p>
+   *
+   * <p>Columns requested with a reader schema projection are decoded as generic records:
+   * generated classes cannot hold a subset of their fields.</p>
    *
    * @param family Name of the column family.
    * @param qualifier Column qualifier.
@@ -589,13 +1016,38 @@ public final class HBaseKijiRowData implements KijiRowData {
    *
    * @param <T> type of the value to decode.
    */
-  private <T> KijiCellDecoder<T> getDecoder(String family, String qualifier)
+  @SuppressWarnings("unchecked")
+  private synchronized <T> KijiCellDecoder<T> getDecoder(String family, String qualifier)
       throws IOException {
-    // TODO: there is a need for caching decoders, or at least cell specs, as building the cell
-    //     spec causes parsing a JSON schema or looking up a class by name.
-    final CellSpec cellSpec = mTableLayout.getCellSpec(new KijiColumnName(family, qualifier))
-        .setSchemaTable(mSchemaTable);
-    return mCellDecoderFactory.create(cellSpec);
+    final FamilyLayout fLayout = mTableLayout.getFamilyMap().get(family);
+    // Qualifiers of a map-type family share the cell spec and the request of the family:
+    final boolean sharedByFamily = (null != fLayout) && fLayout.isMapType()
+        && (null != mDataRequest.getColumn(family, null));
+    final String key = sharedByFamily ? null : qualifier;
+    Map<String, KijiCellDecoder<?>> decoders = mDecoders.get(family);
+    if (null == decoders) {
+      decoders = Maps.newHashMap();
+      mDecoders.put(family, decoders);
+    }
+    KijiCellDecoder<T> decoder = (KijiCellDecoder<T>) decoders.get(key);
+    if (null == decoder) {
+      final KijiColumnName column = new KijiColumnName(family, qualifier);
+      final CellSpec cellSpec = mTableLayout.getCellSpec(column).setSchemaTable(mSchemaTable);
+      final KijiDataRequest.Column columnRequest = getColumnRequest(family, qualifier);
+      if ((null != columnRequest) && columnRequest.isProjected() && cellSpec.isAvro()) {
+        // The layout schema instance is shared by all row data, hence so is the projection:
+        cellSpec.setReaderSchema(
+            columnRequest.getProjectedSchema(mTableLayout.getSchema(column)));
+        decoder = GenericCellDecoderFactory.get().create(cellSpec);
+      } else {
+        decoder = mCellDecoderFactory.create(cellSpec);
+      }
+      if (null != mHTable) {
+        decoder = new MeteredCellDecoder<T>(decoder, mHTable.getMetrics());
+      }
+      decoders.put(key, decoder);
+    }
+    return decoder;
   }
 
   /** {@inheritDoc} */
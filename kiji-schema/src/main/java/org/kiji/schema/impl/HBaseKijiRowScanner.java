@@ -19,8 +19,15 @@
 
 package org.kiji.schema.impl;
 
+import java.io.IOException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.slf4j.Logger;
@@ -33,6 +40,7 @@ import org.kiji.schema.KijiCellDecoderFactory;
 import org.kiji.schema.KijiDataRequest;
 import org.kiji.schema.KijiRowData;
 import org.kiji.schema.KijiRowScanner;
+import org.kiji.schema.metrics.KijiMetrics.Operation;
 import org.kiji.schema.util.Debug;
 
 
@@ -57,6 +65,18 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
   /** Cell decoder factory. */
   private final KijiCellDecoderFactory mCellDecoderFactory;
 
+  /** Factory for the entity IDs of the rows being scanned. */
+  private final EntityIdFactory mEntityIdFactory;
+
+  /** Number of rows to prefetch in a background thread, or 0 to disable prefetching. */
+  private final int mPrefetchDepth;
+
+  /** Whether each iterator recycles a single row data for all the rows it returns. */
+  private final boolean mReuseRowData;
+
+  /** The prefetching iterator, if prefetching is enabled and the scan has started. */
+  private PrefetchingRowIterator mPrefetchingIterator = null;
+
   /** Whether the writer is open. */
   private boolean mIsOpen;
   /** For debugging finalize(). */
@@ -70,6 +90,8 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
     private KijiDataRequest mDataRequest;
     private HBaseKijiTable mTable;
     private KijiCellDecoderFactory mCellDecoderFactory;
+    private int mPrefetchDepth = 0;
+    private boolean mReuseRowData = false;
 
     /**
      * Sets the HBase result scanner the KijiRowScanner will wrap.
@@ -115,6 +137,28 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
       return this;
     }
 
+    /**
+     * Sets the number of rows to fetch and decode ahead of the consumer, in a background thread.
+     *
+     * @param prefetchDepth Number of rows to prefetch, or 0 to disable prefetching.
+     * @return This options instance.
+     */
+    public Options withPrefetchDepth(int prefetchDepth) {
+      mPrefetchDepth = prefetchDepth;
+      return this;
+    }
+
+    /**
+     * Sets whether the scanner recycles a single row data for all the rows it returns.
+     *
+     * @param reuseRowData Whether to recycle the row data returned by the scanner.
+     * @return This options instance.
+     */
+    public Options withReuseRowData(boolean reuseRowData) {
+      mReuseRowData = reuseRowData;
+      return this;
+    }
+
     /**
      * Gets the HBase result scanner.
      *
@@ -150,6 +194,24 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
     public KijiCellDecoderFactory getCellDecoderFactory() {
       return mCellDecoderFactory;
     }
+
+    /**
+     * Gets the number of rows to prefetch.
+     *
+     * @return The number of rows to prefetch, or 0 if prefetching is disabled.
+     */
+    public int getPrefetchDepth() {
+      return mPrefetchDepth;
+    }
+
+    /**
+     * Reports whether the scanner recycles a single row data for all the rows it returns.
+     *
+     * @return whether the scanner recycles the row data it returns.
+     */
+    public boolean isReuseRowData() {
+      return mReuseRowData;
+    }
   }
 
   /**
@@ -158,6 +220,8 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
    * @param options The options for this scanner.
    */
   public HBaseKijiRowScanner(Options options) {
+    Preconditions.checkArgument(!(options.isReuseRowData() && (options.getPrefetchDepth() > 0)),
+        "Row data reuse cannot be combined with prefetching.");
     mIsOpen = true;
     if (CLEANUP_LOG.isDebugEnabled()) {
       mConstructorStack = Debug.getStackTrace();
@@ -167,12 +231,27 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
     mKijiDataRequest = options.getDataRequest();
     mTable = options.getTable();
     mCellDecoderFactory = options.getCellDecoderFactory();
+    mEntityIdFactory = mTable.getEntityIdFactory();
+    mPrefetchDepth = options.getPrefetchDepth();
+    mReuseRowData = options.isReuseRowData();
   }
 
-  /** {@inheritDoc} */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When prefetching is enabled, the scan runs in a single background thread:
+   * all the iterators returned by this method share the same position.</p>
+   */
   @Override
-  public KijiRowIterator iterator() {
-    return new KijiRowIterator(mResultScanner.iterator());
+  public synchronized Iterator<KijiRowData> iterator() {
+    if (mPrefetchDepth <= 0) {
+      return new KijiRowIterator(mResultScanner.iterator());
+    }
+    if (null == mPrefetchingIterator) {
+      mPrefetchingIterator =
+          new PrefetchingRowIterator(new KijiRowIterator(mResultScanner.iterator()));
+    }
+    return mPrefetchingIterator;
   }
 
   /** {@inheritDoc} */
@@ -184,6 +263,13 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
 
     mIsOpen = false;
 
+    synchronized (this) {
+      if (null != mPrefetchingIterator) {
+        // The prefetching thread should be done with the HBase scanner before it is closed.
+        // If it is stuck in an RPC past the timeout, closing the scanner makes it exit.
+        mPrefetchingIterator.stop();
+      }
+    }
     mResultScanner.close();
   }
 
@@ -207,6 +293,12 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
     /** The wrapped HBase results. */
     private final Iterator<Result> mResults;
 
+    /** Row data recycled for every row, when row data reuse is enabled. Null until then. */
+    private HBaseKijiRowData mRowData = null;
+
+    /** Time spent in hasNext() since the last row returned, in nanoseconds. */
+    private long mPendingNanos = 0L;
+
     /**
      * Creates a new <code>KijiRowIterator</code> instance.
      *
@@ -217,23 +309,46 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
       mResults = results;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The HBase scanner sends its RPCs from hasNext(): the time spent here is recorded with
+     * the next row returned, or when the end of the scan is reached.</p>
+     */
     @Override
     public boolean hasNext() {
-      return mResults.hasNext();
+      final long startNanos = System.nanoTime();
+      final boolean hasNext = mResults.hasNext();
+      mPendingNanos += System.nanoTime() - startNanos;
+      if (!hasNext && (mPendingNanos > 0)) {
+        mTable.getMetrics().recordLatency(Operation.SCANNER_NEXT, mPendingNanos);
+        mPendingNanos = 0L;
+      }
+      return hasNext;
     }
 
     /** {@inheritDoc} */
     @Override
-    public KijiRowData next() {
+    public HBaseKijiRowData next() {
+      final long startNanos = System.nanoTime();
       final Result result = mResults.next();
+      mTable.getMetrics().recordLatency(
+          Operation.SCANNER_NEXT, mPendingNanos + System.nanoTime() - startNanos);
+      mPendingNanos = 0L;
       if (null == result) {
         return null;
       }
 
       // Read the entity id from the HBase result.
-      final EntityId entityId = EntityIdFactory.getFactory(mTable.getLayout()).
-          getEntityIdFromHBaseRowKey(result.getRow());
+      final EntityId entityId = mEntityIdFactory.getEntityIdFromHBaseRowKey(result.getRow());
+      if (mReuseRowData) {
+        if (null == mRowData) {
+          mRowData = new HBaseKijiRowData(entityId, mKijiDataRequest, mTable, result);
+        } else {
+          mRowData.reset(entityId, result);
+        }
+        return mRowData;
+      }
       // TODO: Inject the cell decoder factory in the row data
       return new HBaseKijiRowData(entityId, mKijiDataRequest, mTable, result);
     }
@@ -244,4 +359,184 @@ public class HBaseKijiRowScanner implements KijiRowScanner {
       throw new UnsupportedOperationException("KijiRowIterator does not support remove().");
     }
   }
+
+  /** Marks the end of the scan in the prefetch queue. */
+  private static final Object END_OF_SCAN = new Object();
+
+  /** Reports an error from the prefetching thread to the consumer of the scan. */
+  private static final class PrefetchFailure {
+    /** The error raised while prefetching rows. */
+    private final Throwable mError;
+
+    /**
+     * Creates a new prefetch failure.
+     *
+     * @param error The error raised while prefetching rows.
+     */
+    private PrefetchFailure(Throwable error) {
+      mError = error;
+    }
+  }
+
+  /** Maximum time to wait for the prefetching thread to terminate when the scanner is closed. */
+  private static final long PREFETCH_STOP_TIMEOUT_MS = 10000;
+
+  /** Interval at which a prefetching thread blocked on a full queue checks if it was stopped. */
+  private static final long PREFETCH_POLL_INTERVAL_MS = 100;
+
+  /**
+   * Iterates over rows fetched and filtered ahead of time by a background thread.
+   *
+   * <p>The background thread fills a bounded queue with rows, so that HBase RPCs overlap with
+   * the processing of the rows by the consumer. The prefetched rows have their requested cells
+   * filtered and their cell decoders built: the consumer only decodes the cells it reads.</p>
+   */
+  private final class PrefetchingRowIterator implements Iterator<KijiRowData>, Runnable {
+    /** Iterator over the rows to prefetch, only accessed by the prefetching thread. */
+    private final KijiRowIterator mRows;
+
+    /** Queue of prefetched rows, terminated by END_OF_SCAN or a PrefetchFailure. */
+    private final BlockingQueue<Object> mQueue;
+
+    /** Thread prefetching the rows. */
+    private final Thread mThread;
+
+    /** Set when the scanner is closed: the prefetching thread must exit. */
+    private volatile boolean mStopped = false;
+
+    /** Next element taken from the queue, or null if not taken yet. */
+    private Object mNext = null;
+
+    /**
+     * Creates a prefetching iterator and starts the prefetching thread.
+     *
+     * @param rows Iterator over the rows to prefetch.
+     */
+    private PrefetchingRowIterator(KijiRowIterator rows) {
+      mRows = rows;
+      mQueue = new ArrayBlockingQueue<Object>(mPrefetchDepth);
+      mThread = new Thread(this, "kiji-scanner-prefetch-" + mTable.getName());
+      mThread.setDaemon(true);
+      mThread.start();
+    }
+
+    /**
+     * Fetches rows into the queue until the end of the scan, a failure, or until stopped.
+     *
+     * <p>The queue is always terminated, by END_OF_SCAN or by a PrefetchFailure, even if the
+     * thread dies from an Error: the consumer never waits for rows that will not come.</p>
+     */
+    @Override
+    public void run() {
+      Object terminal = END_OF_SCAN;
+      try {
+        while (!mStopped && mRows.hasNext()) {
+          final HBaseKijiRowData row = mRows.next();
+          if (null == row) {
+            continue;
+          }
+          try {
+            row.prefetch();
+          } catch (IOException ioe) {
+            // The consumer gets the error if and when it reads the column:
+            LOG.debug("Unable to prefetch the cells of row {}: {}", row.getEntityId(), ioe);
+          }
+          if (!enqueue(row)) {
+            return;
+          }
+        }
+      } catch (InterruptedException ie) {
+        LOG.debug("Row prefetching interrupted.");
+        terminal = null;
+      } catch (Throwable throwable) {
+        terminal = new PrefetchFailure(throwable);
+      } finally {
+        if (null != terminal) {
+          try {
+            enqueue(terminal);
+          } catch (InterruptedException ie) {
+            LOG.debug("Row prefetching interrupted.");
+          }
+        }
+      }
+    }
+
+    /**
+     * Puts an element in the queue, waiting for space if necessary, unless the scanner is closed.
+     *
+     * @param element Element to put in the queue.
+     * @return whether the element was queued, false if the scanner was closed.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private boolean enqueue(Object element) throws InterruptedException {
+      while (!mStopped) {
+        if (mQueue.offer(element, PREFETCH_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Stops the prefetching thread and waits for it to terminate, for a bounded time.
+     * Rows that were not consumed yet are discarded.
+     *
+     * <p>The thread is not interrupted: interrupting a thread in the middle of an HBase RPC may
+     * close the socket of the HConnection it shares with other threads. The thread checks the
+     * stop flag between rows and while waiting for space in the queue. A thread still blocked in
+     * an RPC after the timeout is left behind: the scanner is closed anyway, which makes the
+     * thread exit as soon as its RPC completes.</p>
+     */
+    private void stop() {
+      mStopped = true;
+      try {
+        mThread.join(PREFETCH_STOP_TIMEOUT_MS);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+      if (mThread.isAlive()) {
+        LOG.warn("Row prefetching thread {} did not terminate within {} ms.",
+            mThread.getName(), PREFETCH_STOP_TIMEOUT_MS);
+      }
+      mQueue.clear();
+      mQueue.offer(END_OF_SCAN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean hasNext() {
+      if (null == mNext) {
+        try {
+          mNext = mQueue.take();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(ie);
+        }
+      }
+      if (mNext instanceof PrefetchFailure) {
+        final Throwable error = ((PrefetchFailure) mNext).mError;
+        mNext = END_OF_SCAN;
+        throw Throwables.propagate(error);
+      }
+      return mNext != END_OF_SCAN;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized KijiRowData next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final KijiRowData row = (KijiRowData) mNext;
+      mNext = null;
+      return row;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException(
+          "PrefetchingRowIterator does not support remove().");
+    }
+  }
 }
@@ -43,10 +43,10 @@ import org.kiji.schema.KijiTable;
 import org.kiji.schema.KijiTableNotFoundException;
 import org.kiji.schema.KijiTableReader;
 import org.kiji.schema.KijiTableWriter;
-import org.kiji.schema.avro.RowKeyFormat;
-import org.kiji.schema.avro.RowKeyFormat2;
 import org.kiji.schema.hbase.KijiManagedHBaseTableName;
+import org.kiji.schema.layout.ColumnNameTranslator;
 import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.metrics.KijiMetrics;
 import org.kiji.schema.util.ResourceUtils;
 
 /**
@@ -63,12 +63,30 @@ public class HBaseKijiTable extends AbstractKijiTable {
   /** The underlying HTable that stores this Kiji table's data. */
   private final HTableInterface mHTable;
 
+  /** The factory used to create HTable connections to the underlying HBase table. */
+  private final HTableInterfaceFactory mHTableFactory;
+
+  /** The Hadoop configuration used to create HTable connections. */
+  private final Configuration mConf;
+
+  /** The name of the underlying HBase table. */
+  private final String mHBaseTableName;
+
   /** The layout of the Kiji table. */
   private final KijiTableLayout mTableLayout;
 
-  /** The factory for EntityIds. */
+  /** The factory for EntityIds, built once for the layout of this table. */
   private final EntityIdFactory mEntityIdFactory;
 
+  /** Translates between Kiji and HBase column names, for the layout of this table. */
+  private final ColumnNameTranslator mColumnNameTranslator;
+
+  /** Metrics of this table, shared by the KijiTable objects opened with the same name. */
+  private final KijiMetrics mMetrics;
+
+  /** Cache of the rows fetched by the point lookups of the readers of this table, or null. */
+  private final HBaseRowCache mRowCache;
+
   /**
    * Construct an opened Kiji table stored in HBase.
    *
@@ -95,23 +113,23 @@ public class HBaseKijiTable extends AbstractKijiTable {
   HBaseKijiTable(Kiji kiji, String name, Configuration conf, HTableInterfaceFactory htableFactory)
       throws IOException {
     super(kiji, name);
+    mHTableFactory = htableFactory;
+    mConf = conf;
+    mHBaseTableName =
+        KijiManagedHBaseTableName.getKijiTableName(kiji.getURI().getInstance(), name).toString();
     try {
-      mHTable = htableFactory.create(conf,
-          KijiManagedHBaseTableName.getKijiTableName(kiji.getURI().getInstance(), name).toString());
+      mHTable = htableFactory.create(conf, mHBaseTableName);
     } catch (TableNotFoundException e) {
       super.close();
       throw new KijiTableNotFoundException(name);
     }
     mTableLayout = kiji.getMetaTable().getTableLayout(name);
-    if (mTableLayout.getDesc().getKeysFormat() instanceof RowKeyFormat) {
-      mEntityIdFactory = EntityIdFactory.getFactory((RowKeyFormat) mTableLayout.getDesc()
-          .getKeysFormat());
-    } else if (mTableLayout.getDesc().getKeysFormat() instanceof RowKeyFormat2) {
-      mEntityIdFactory = EntityIdFactory.getFactory((RowKeyFormat2) mTableLayout.getDesc()
-          .getKeysFormat());
-    } else {
-      throw new RuntimeException("Invalid Row Key format found in Kiji Table");
-    }
+    mEntityIdFactory = EntityIdFactory.getFactory(mTableLayout);
+    mColumnNameTranslator = new ColumnNameTranslator(mTableLayout);
+    mMetrics = (kiji instanceof HBaseKiji)
+        ? ((HBaseKiji) kiji).getTableMetrics(name)
+        : new KijiMetrics(null);
+    mRowCache = HBaseRowCache.create(conf, name, mMetrics);
   }
 
   /** {@inheritDoc} **/
@@ -120,6 +138,17 @@ public class HBaseKijiTable extends AbstractKijiTable {
     return mEntityIdFactory.getEntityId(kijiRowKey);
   }
 
+  /**
+   * Gets the entity ID factory for the layout of this table.
+   *
+   * <p>Read paths should use this factory rather than build a new one for each row.</p>
+   *
+   * @return the entity ID factory for the layout of this table.
+   */
+  public EntityIdFactory getEntityIdFactory() {
+    return mEntityIdFactory;
+  }
+
   /**
    * We know that all KijiTables are really HBaseKijiTables
    * instances.  This is a convenience method for downcasting, which
@@ -143,12 +172,56 @@ public class HBaseKijiTable extends AbstractKijiTable {
     return mHTable;
   }
 
+  /**
+   * Opens a new connection to the underlying HBase table.
+   *
+   * <p>HTable instances are not thread-safe: threads that access the table concurrently
+   * must each use their own connection. The caller is responsible for closing it.</p>
+   *
+   * @return a new HTable connection to the underlying HBase table.
+   * @throws IOException on I/O error.
+   */
+  public HTableInterface openHTableConnection() throws IOException {
+    return mHTableFactory.create(mConf, mHBaseTableName);
+  }
+
+  /**
+   * Reports the metrics of this table.
+   *
+   * <p>Readers and writers of this table record their operations in these metrics.</p>
+   *
+   * @return the metrics of this table.
+   */
+  public KijiMetrics getMetrics() {
+    return mMetrics;
+  }
+
+  /**
+   * Gets the cache of the rows fetched by the point lookups of the readers of this table.
+   *
+   * <p>Writers of this table invalidate the rows they modify.</p>
+   *
+   * @return the row cache of this table, or null if it is not enabled for this table.
+   */
+  HBaseRowCache getRowCache() {
+    return mRowCache;
+  }
+
   /** {@inheritDoc} */
   @Override
   public KijiTableLayout getLayout() {
     return mTableLayout;
   }
 
+  /**
+   * Gets the column name translator for the layout of this table.
+   *
+   * @return the column name translator for the layout of this table.
+   */
+  public ColumnNameTranslator getColumnNameTranslator() {
+    return mColumnNameTranslator;
+  }
+
   /** {@inheritDoc} */
   @Override
   public KijiTableReader openTableReader() {
@@ -161,6 +234,13 @@ public class HBaseKijiTable extends AbstractKijiTable {
     return new HBaseKijiTableWriter(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public KijiTableWriter openTableWriter(KijiTableWriter.KijiWriterOptions writerOptions)
+      throws IOException {
+    return new HBaseKijiTableWriter(this, writerOptions);
+  }
+
   /**
    * Return the regions in this table as a list.
    *
@@ -173,30 +253,30 @@ public class HBaseKijiTable extends AbstractKijiTable {
   @Override
   public List<KijiRegion> getRegions() throws IOException {
     final HBaseAdmin hbaseAdmin = ((HBaseKiji) getKiji()).getHBaseAdmin();
-    final HTableInterface hbaseTable = getHTable();
-
-    final List<HRegionInfo> regions = hbaseAdmin.getTableRegions(hbaseTable.getTableName());
+    // Use a dedicated connection rather than the table's own, as it is closed below.
+    final HTableInterface hbaseTable = openHTableConnection();
     final List<KijiRegion> result = Lists.newArrayList();
+    try {
+      final List<HRegionInfo> regions = hbaseAdmin.getTableRegions(hbaseTable.getTableName());
 
-    // If we can get the concrete HTable, we can get location information.
-    if (hbaseTable instanceof HTable) {
-      LOG.debug("Casting HTableInterface to an HTable.");
-      final HTable concreteHBaseTable = (HTable) hbaseTable;
-      try {
+      // If we can get the concrete HTable, we can get location information.
+      if (hbaseTable instanceof HTable) {
+        LOG.debug("Casting HTableInterface to an HTable.");
+        final HTable concreteHBaseTable = (HTable) hbaseTable;
         for (HRegionInfo region: regions) {
           List<HRegionLocation> hLocations =
               concreteHBaseTable.getRegionsInRange(region.getStartKey(), region.getEndKey());
           result.add(new HBaseKijiRegion(region, hLocations));
         }
-      } finally {
-        ResourceUtils.closeOrLog(concreteHBaseTable);
-      }
-    } else {
-      LOG.warn("Unable to cast HTableInterface {} to an HTable.  "
-          + "Creating Kiji regions without location info.", getURI());
-      for (HRegionInfo region: regions) {
-        result.add(new HBaseKijiRegion(region));
+      } else {
+        LOG.warn("Unable to cast HTableInterface {} to an HTable.  "
+            + "Creating Kiji regions without location info.", getURI());
+        for (HRegionInfo region: regions) {
+          result.add(new HBaseKijiRegion(region));
+        }
       }
+    } finally {
+      ResourceUtils.closeOrLog(hbaseTable);
     }
 
     return result;
@@ -20,13 +20,43 @@
 package org.kiji.schema.impl;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +65,8 @@ import org.kiji.schema.EntityId;
 import org.kiji.schema.InternalKijiError;
 import org.kiji.schema.KijiDataRequest;
 import org.kiji.schema.KijiDataRequestValidator;
+import org.kiji.schema.KijiRegion;
+import org.kiji.schema.KijiRowConsumer;
 import org.kiji.schema.KijiRowData;
 import org.kiji.schema.KijiRowScanner;
 import org.kiji.schema.KijiTableReader;
@@ -42,8 +74,12 @@ import org.kiji.schema.SpecificCellDecoderFactory;
 import org.kiji.schema.filter.KijiRowFilter;
 import org.kiji.schema.filter.KijiRowFilterApplicator;
 import org.kiji.schema.hbase.HBaseScanOptions;
+import org.kiji.schema.impl.HBaseDataRequestAdapter.GetTemplate;
 import org.kiji.schema.layout.InvalidLayoutException;
 import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.metrics.KijiMetrics;
+import org.kiji.schema.metrics.KijiMetrics.Operation;
+import org.kiji.schema.util.ResourceUtils;
 
 /**
  * Reads from a kiji table by sending the requests directly to the HBase tables.
@@ -55,6 +91,28 @@ public class HBaseKijiTableReader implements KijiTableReader {
   /** The kiji table instance. */
   private final HBaseKijiTable mTable;
 
+  /** Metrics of the table, recording the latencies of the gets. */
+  private final KijiMetrics mMetrics;
+
+  /** Row cache of the table, serving the point lookups. May be null. */
+  private final HBaseRowCache mRowCache;
+
+  /** Maximum number of Get templates cached by a reader. */
+  private static final int MAX_CACHED_GET_TEMPLATES = 128;
+
+  /** Get templates compiled from the data requests, keyed by data request. */
+  private final ConcurrentMap<KijiDataRequest, GetTemplate> mGetTemplates =
+      new ConcurrentHashMap<KijiDataRequest, GetTemplate>();
+
+  /** Maximum number of threads running the asynchronous bulk gets of a reader. */
+  private static final int MAX_BULK_GET_THREADS = 32;
+
+  /** Time after which an idle bulk get thread terminates, in milliseconds. */
+  private static final long BULK_GET_THREAD_KEEP_ALIVE_MS = 60000L;
+
+  /** Executor running the asynchronous bulk gets. Created lazily. */
+  private ExecutorService mExecutor = null;
+
   /**
    * Creates a new <code>HBaseKijiTableReader</code> instance that sends the read requests
    * directly to HBase.
@@ -63,6 +121,8 @@ public class HBaseKijiTableReader implements KijiTableReader {
    */
   public HBaseKijiTableReader(HBaseKijiTable table) {
     mTable = table;
+    mMetrics = table.getMetrics();
+    mRowCache = table.getRowCache();
   }
 
   /** {@inheritDoc} */
@@ -70,26 +130,34 @@ public class HBaseKijiTableReader implements KijiTableReader {
   public KijiRowData get(EntityId entityId, KijiDataRequest dataRequest)
       throws IOException {
 
-    // Make sure the request validates against the layout of the table.
-    KijiTableLayout tableLayout = getTableLayout(dataRequest);
-
     // Construct an HBase Get to send to the HTable.
-    HBaseDataRequestAdapter hbaseRequestAdapter = new HBaseDataRequestAdapter(dataRequest);
-    Get hbaseGet;
-    try {
-      hbaseGet = hbaseRequestAdapter.toGet(entityId, tableLayout);
-    } catch (InvalidLayoutException e) {
-      // The table layout should never be invalid at this point, since we got it from a valid
-      // opened table.  If it is, there's something seriously wrong.
-      throw new InternalKijiError(e);
+    final Get hbaseGet = getGetTemplate(dataRequest).toGet(entityId);
+
+    // Serve the row from the row cache, if enabled and applicable.
+    final String cacheKey = ((null == mRowCache) || (null == hbaseGet))
+        ? null
+        : HBaseRowCache.getRequestKey(dataRequest);
+    long cacheStamp = 0L;
+    if (null != cacheKey) {
+      final Result cached = mRowCache.get(hbaseGet.getRow(), cacheKey);
+      if (null != cached) {
+        return new HBaseKijiRowData(entityId, dataRequest, mTable, cached, false);
+      }
+      cacheStamp = mRowCache.getStamp(hbaseGet.getRow());
     }
+
     // Send the HTable Get.
     LOG.debug("Sending HBase Get: " + hbaseGet);
     Result result;
     if (null == hbaseGet) {
       result = new Result();
     } else {
+      final long startNanos = System.nanoTime();
       result = mTable.getHTable().get(hbaseGet);
+      mMetrics.recordLatency(Operation.GET, System.nanoTime() - startNanos);
+    }
+    if (null != cacheKey) {
+      mRowCache.put(hbaseGet.getRow(), cacheKey, result, cacheStamp);
     }
 
     // Parse the result.
@@ -106,23 +174,238 @@ public class HBaseKijiTableReader implements KijiTableReader {
       return Collections.singletonList(this.get(entityIds.get(0), dataRequest));
     }
 
-    KijiTableLayout tableLayout = getTableLayout(dataRequest);
-    HBaseDataRequestAdapter hbaseRequestAdapter = new HBaseDataRequestAdapter(dataRequest);
-
     // Construct a list of hbase Gets to send to the HTable.
-    List<Get> hbaseGetList = makeGetList(entityIds, tableLayout, hbaseRequestAdapter);
+    List<Get> hbaseGetList = makeGetList(entityIds, getGetTemplate(dataRequest));
 
     // Send the HTable Gets.
+    final long startNanos = System.nanoTime();
     Result[] results = mTable.getHTable().get(hbaseGetList);
+    mMetrics.recordLatency(Operation.BULK_GET, System.nanoTime() - startNanos);
     assert entityIds.size() == results.length;
 
     // Parse the results.  If a Result is null, then the corresponding KijiRowData should also
     // be null.  This indicates that there was an error retrieving this row.
-    List<KijiRowData> rowDataList = parseResults(results, entityIds, dataRequest, tableLayout);
+    List<KijiRowData> rowDataList = parseResults(results, entityIds, dataRequest);
 
     return rowDataList;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public List<Future<KijiRowData>> bulkGetAsync(
+      List<EntityId> entityIds,
+      KijiDataRequest dataRequest,
+      KijiBulkGetOptions bulkGetOptions)
+      throws IOException {
+    final List<Get> hbaseGetList = makeGetList(entityIds, getGetTemplate(dataRequest));
+
+    final List<SettableFuture<KijiRowData>> futures =
+        Lists.newArrayListWithCapacity(entityIds.size());
+    for (int i = 0; i < entityIds.size(); ++i) {
+      final SettableFuture<KijiRowData> future = SettableFuture.create();
+      if (null == hbaseGetList.get(i)) {
+        // Nothing to fetch for this row.
+        future.set(new HBaseKijiRowData(entityIds.get(i), dataRequest, mTable, new Result()));
+      }
+      futures.add(future);
+    }
+
+    final Map<String, List<List<Integer>>> batchesByServer =
+        partitionGets(hbaseGetList, bulkGetOptions.getMaxBatchSize());
+    for (Map.Entry<String, List<List<Integer>>> entry : batchesByServer.entrySet()) {
+      final Queue<List<Integer>> batches =
+          new ConcurrentLinkedQueue<List<Integer>>(entry.getValue());
+      final int nworkers = Math.min(bulkGetOptions.getMaxParallelism(), batches.size());
+      LOG.debug("Fetching {} batches of rows from server '{}' with {} workers.",
+          new Object[] {batches.size(), entry.getKey(), nworkers});
+      for (int i = 0; i < nworkers; ++i) {
+        getExecutor().execute(
+            new BulkGetWorker(batches, hbaseGetList, entityIds, dataRequest, futures));
+      }
+    }
+    return ImmutableList.<Future<KijiRowData>>copyOf(futures);
+  }
+
+  /**
+   * Groups the gets of a bulk get by the region server hosting their rows.
+   *
+   * <p>Gets are located in row key order, so that the location of a region is only looked up
+   * once, for the first of its rows. Gets for the same region server are split into batches of
+   * at most maxBatchSize gets. When region locations are not available, gets are only split
+   * into batches.</p>
+   *
+   * @param hbaseGetList Gets to group. Null entries are skipped.
+   * @param maxBatchSize Maximum number of gets per batch.
+   * @return batches of indexes into hbaseGetList, keyed by region server "host:port".
+   * @throws IOException on I/O error.
+   */
+  private Map<String, List<List<Integer>>> partitionGets(
+      final List<Get> hbaseGetList, int maxBatchSize)
+      throws IOException {
+    final List<Integer> sorted = Lists.newArrayListWithCapacity(hbaseGetList.size());
+    for (int i = 0; i < hbaseGetList.size(); ++i) {
+      if (null != hbaseGetList.get(i)) {
+        sorted.add(i);
+      }
+    }
+
+    final Map<String, List<Integer>> servers = Maps.newLinkedHashMap();
+    final HTableInterface htable = mTable.getHTable();
+    if (htable instanceof HTable) {
+      Collections.sort(sorted, new Comparator<Integer>() {
+        /** {@inheritDoc} */
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+          return Bytes.compareTo(hbaseGetList.get(lhs).getRow(), hbaseGetList.get(rhs).getRow());
+        }
+      });
+      HRegionLocation location = null;
+      List<Integer> indexes = null;
+      for (int index : sorted) {
+        final byte[] row = hbaseGetList.get(index).getRow();
+        if ((null == location) || !location.getRegionInfo().containsRow(row)) {
+          location = ((HTable) htable).getRegionLocation(row);
+          final String server = location.getHostnamePort();
+          indexes = servers.get(server);
+          if (null == indexes) {
+            indexes = Lists.newArrayList();
+            servers.put(server, indexes);
+          }
+        }
+        indexes.add(index);
+      }
+    } else {
+      servers.put("", sorted);
+    }
+
+    final Map<String, List<List<Integer>>> batches = Maps.newLinkedHashMap();
+    for (Map.Entry<String, List<Integer>> entry : servers.entrySet()) {
+      batches.put(entry.getKey(), Lists.partition(entry.getValue(), maxBatchSize));
+    }
+    return batches;
+  }
+
+  /**
+   * Gets the executor running asynchronous bulk gets, creating it if necessary.
+   *
+   * <p>The executor runs at most {@link #MAX_BULK_GET_THREADS} workers at a time; the other
+   * workers wait in its queue. Idle threads terminate after {@link #BULK_GET_THREAD_KEEP_ALIVE_MS}
+   * milliseconds.</p>
+   *
+   * @return the executor running asynchronous bulk gets.
+   */
+  private synchronized ExecutorService getExecutor() {
+    if (null == mExecutor) {
+      final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+          MAX_BULK_GET_THREADS, MAX_BULK_GET_THREADS,
+          BULK_GET_THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          new ThreadFactoryBuilder()
+              .setNameFormat("kiji-bulk-get-" + mTable.getName() + "-%d")
+              .setDaemon(true)
+              .build());
+      executor.allowCoreThreadTimeOut(true);
+      mExecutor = executor;
+    }
+    return mExecutor;
+  }
+
+  /**
+   * Fetches batches of rows for an asynchronous bulk get, until no batch is left.
+   *
+   * <p>Each worker uses its own HTable connection, as HTable instances are not thread-safe.</p>
+   */
+  private final class BulkGetWorker implements Runnable {
+    /** Batches of indexes of rows left to fetch, shared by all the workers of a bulk get. */
+    private final Queue<List<Integer>> mBatches;
+
+    /** HBase gets for all the rows of the bulk get. */
+    private final List<Get> mGets;
+
+    /** Entity IDs of all the rows of the bulk get. */
+    private final List<EntityId> mEntityIds;
+
+    /** Data request of the bulk get. */
+    private final KijiDataRequest mDataRequest;
+
+    /** Futures for all the rows of the bulk get. */
+    private final List<SettableFuture<KijiRowData>> mFutures;
+
+    /**
+     * Creates a worker for an asynchronous bulk get.
+     *
+     * @param batches Batches of indexes of rows left to fetch.
+     * @param gets HBase gets for all the rows.
+     * @param entityIds Entity IDs of all the rows.
+     * @param dataRequest Data request of the bulk get.
+     * @param futures Futures for all the rows.
+     */
+    private BulkGetWorker(
+        Queue<List<Integer>> batches,
+        List<Get> gets,
+        List<EntityId> entityIds,
+        KijiDataRequest dataRequest,
+        List<SettableFuture<KijiRowData>> futures) {
+      mBatches = batches;
+      mGets = gets;
+      mEntityIds = entityIds;
+      mDataRequest = dataRequest;
+      mFutures = futures;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void run() {
+      HTableInterface htable = null;
+      try {
+        List<Integer> batch;
+        while (null != (batch = mBatches.poll())) {
+          try {
+            if (null == htable) {
+              htable = mTable.openHTableConnection();
+            }
+            fetch(htable, batch);
+          } catch (Throwable thr) {
+            LOG.warn("Bulk get of {} rows failed: {}", batch.size(), thr.getMessage());
+            for (int index : batch) {
+              mFutures.get(index).setException(thr);
+            }
+          }
+        }
+      } finally {
+        if (null != htable) {
+          ResourceUtils.closeOrLog(htable);
+        }
+      }
+    }
+
+    /**
+     * Fetches and decodes a batch of rows.
+     *
+     * @param htable HTable connection to fetch the rows from.
+     * @param batch Indexes of the rows to fetch.
+     * @throws IOException on I/O error.
+     */
+    private void fetch(HTableInterface htable, List<Integer> batch) throws IOException {
+      final List<Get> gets = Lists.newArrayListWithCapacity(batch.size());
+      for (int index : batch) {
+        gets.add(mGets.get(index));
+      }
+      final long startNanos = System.nanoTime();
+      final Result[] results = htable.get(gets);
+      mMetrics.recordLatency(Operation.BULK_GET, System.nanoTime() - startNanos);
+      assert batch.size() == results.length;
+      for (int i = 0; i < results.length; ++i) {
+        final int index = batch.get(i);
+        // A null result indicates that there was an error retrieving this row.
+        final KijiRowData rowData = (null == results[i])
+            ? null
+            : new HBaseKijiRowData(mEntityIds.get(index), mDataRequest, mTable, results[i]);
+        mFutures.get(index).set(rowData);
+      }
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public KijiRowScanner getScanner(KijiDataRequest dataRequest) throws IOException {
@@ -133,6 +416,30 @@ public class HBaseKijiTableReader implements KijiTableReader {
   @Override
   public KijiRowScanner getScanner(KijiDataRequest dataRequest,
       KijiScannerOptions kijiScannerOptions) throws IOException {
+    // Validate the options before opening the HBase scanner, so that it cannot leak:
+    Preconditions.checkArgument(
+        !(kijiScannerOptions.isReuseRowData() && (kijiScannerOptions.getPrefetchDepth() > 0)),
+        "Row data reuse cannot be combined with prefetching.");
+    final Scan scan = makeScan(dataRequest, kijiScannerOptions);
+    return new HBaseKijiRowScanner(new HBaseKijiRowScanner.Options()
+        .withHBaseResultScanner(mTable.getHTable().getScanner(scan))
+        .withDataRequest(dataRequest)
+        .withTable(mTable)
+        .withCellDecoderFactory(SpecificCellDecoderFactory.get())
+        .withPrefetchDepth(kijiScannerOptions.getPrefetchDepth())
+        .withReuseRowData(kijiScannerOptions.isReuseRowData()));
+  }
+
+  /**
+   * Creates the HBase scan for a data request and scanner options.
+   *
+   * @param dataRequest The data request to scan for.
+   * @param kijiScannerOptions Options for the scan.
+   * @return the HBase scan.
+   * @throws IOException on I/O error.
+   */
+  private Scan makeScan(KijiDataRequest dataRequest, KijiScannerOptions kijiScannerOptions)
+      throws IOException {
     try {
       EntityId startRow = kijiScannerOptions.getStartRow();
       EntityId stopRow = kijiScannerOptions.getStopRow();
@@ -155,12 +462,7 @@ public class HBaseKijiTableReader implements KijiTableReader {
             rowFilter, tableLayout, mTable.getKiji().getSchemaTable());
         applicator.applyTo(scan);
       }
-
-      return new HBaseKijiRowScanner(new HBaseKijiRowScanner.Options()
-          .withHBaseResultScanner(mTable.getHTable().getScanner(scan))
-          .withDataRequest(dataRequest)
-          .withTable(mTable)
-          .withCellDecoderFactory(SpecificCellDecoderFactory.get()));
+      return scan;
     } catch (InvalidLayoutException e) {
       // The table layout should never be invalid at this point, since we got it from a valid
       // opened table.  If it is, there's something seriously wrong.
@@ -168,6 +470,279 @@ public class HBaseKijiTableReader implements KijiTableReader {
     }
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void parallelScan(
+      KijiDataRequest dataRequest,
+      KijiParallelScanOptions parallelScanOptions,
+      KijiRowConsumer consumer)
+      throws IOException {
+    final KijiScannerOptions scannerOptions = parallelScanOptions.getScannerOptions();
+    final List<Scan> regionScans =
+        makeRegionScans(makeScan(dataRequest, scannerOptions), mTable.getRegions());
+    final boolean ordered = parallelScanOptions.isOrdered();
+
+    ExecutorService executor = parallelScanOptions.getExecutorService();
+    final boolean ownsExecutor = (null == executor);
+    if (ownsExecutor) {
+      executor = Executors.newFixedThreadPool(
+          Math.max(1, Math.min(parallelScanOptions.getMaxParallelism(), regionScans.size())),
+          new ThreadFactoryBuilder()
+              .setNameFormat("kiji-parallel-scan-" + mTable.getName() + "-%d")
+              .setDaemon(true)
+              .build());
+    }
+    LOG.debug("Scanning {} regions in parallel.", regionScans.size());
+
+    final CompletionService<Void> completionService =
+        new ExecutorCompletionService<Void>(executor);
+    final AtomicBoolean stopped = new AtomicBoolean(false);
+    final List<BlockingQueue<Object>> queues = Lists.newArrayList();
+    final List<Future<Void>> futures = Lists.newArrayList();
+    try {
+      for (Scan regionScan : regionScans) {
+        final BlockingQueue<Object> queue = ordered
+            ? new ArrayBlockingQueue<Object>(parallelScanOptions.getOrderedBufferSize())
+            : null;
+        queues.add(queue);
+        futures.add(completionService.submit(new RegionScanTask(
+            regionScan, dataRequest, scannerOptions.getPrefetchDepth(), consumer, queue,
+            stopped)));
+      }
+
+      if (ordered) {
+        // Regions are disjoint and sorted: draining them in sequence yields rows in key order.
+        for (BlockingQueue<Object> queue : queues) {
+          Object next;
+          while (END_OF_REGION != (next = queue.take())) {
+            if (next instanceof RegionScanFailure) {
+              throw toIOException(((RegionScanFailure) next).mCause);
+            }
+            consumer.consume((KijiRowData) next);
+          }
+        }
+      }
+      // Report the first region scan to fail, as soon as it fails.
+      for (int i = 0; i < futures.size(); ++i) {
+        try {
+          completionService.take().get();
+        } catch (ExecutionException ee) {
+          throw toIOException(ee.getCause());
+        }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Parallel scan interrupted.");
+    } finally {
+      // Aborts the region scans left, if any. Running scans are not interrupted, as
+      // interrupting an HBase RPC may close the socket of the shared HConnection:
+      // they check the stop flag between rows instead.
+      stopped.set(true);
+      for (Future<Void> future : futures) {
+        future.cancel(false);
+      }
+      if (ownsExecutor) {
+        executor.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Splits a scan into one scan per region.
+   *
+   * @param scan Scan to split.
+   * @param regions Regions of the table.
+   * @return scans restricted to the regions that intersect the range of the scan,
+   *     in row key order.
+   * @throws IOException on I/O error.
+   */
+  private static List<Scan> makeRegionScans(Scan scan, List<KijiRegion> regions)
+      throws IOException {
+    final List<KijiRegion> sortedRegions = Lists.newArrayList(regions);
+    Collections.sort(sortedRegions, new Comparator<KijiRegion>() {
+      @Override
+      public int compare(KijiRegion region1, KijiRegion region2) {
+        return Bytes.compareTo(region1.getStartKey(), region2.getStartKey());
+      }
+    });
+
+    final byte[] scanStart = scan.getStartRow();
+    final byte[] scanStop = scan.getStopRow();
+    final List<Scan> regionScans = Lists.newArrayList();
+    for (KijiRegion region : sortedRegions) {
+      // An empty start or stop key means the range is unbounded.
+      final byte[] start = (Bytes.compareTo(region.getStartKey(), scanStart) >= 0)
+          ? region.getStartKey()
+          : scanStart;
+      final byte[] stop;
+      if (scanStop.length == 0) {
+        stop = region.getEndKey();
+      } else if (region.getEndKey().length == 0) {
+        stop = scanStop;
+      } else {
+        stop = (Bytes.compareTo(region.getEndKey(), scanStop) <= 0)
+            ? region.getEndKey()
+            : scanStop;
+      }
+      if ((stop.length != 0) && (Bytes.compareTo(start, stop) >= 0)) {
+        continue;  // The region does not intersect the scan.
+      }
+      final Scan regionScan = new Scan(scan);
+      regionScan.setStartRow(start);
+      regionScan.setStopRow(stop);
+      regionScans.add(regionScan);
+    }
+    return regionScans;
+  }
+
+  /**
+   * Wraps an error from a region scan into an IOException.
+   *
+   * @param cause Error from a region scan.
+   * @return an IOException reporting the error.
+   */
+  private static IOException toIOException(Throwable cause) {
+    if (cause instanceof IOException) {
+      return (IOException) cause;
+    }
+    return new IOException(cause);
+  }
+
+  /** Interval at which a region scan blocked on a full queue checks if it was aborted. */
+  private static final long REGION_SCAN_POLL_INTERVAL_MS = 100;
+
+  /** Marks the end of a region in the queue of an ordered parallel scan. */
+  private static final Object END_OF_REGION = new Object();
+
+  /** Reports the failure of a region scan in the queue of an ordered parallel scan. */
+  private static final class RegionScanFailure {
+    /** The error that caused the region scan to fail. */
+    private final Throwable mCause;
+
+    /**
+     * Creates a region scan failure.
+     *
+     * @param cause The error that caused the region scan to fail.
+     */
+    private RegionScanFailure(Throwable cause) {
+      mCause = cause;
+    }
+  }
+
+  /**
+   * Scans a single region for a parallel scan.
+   *
+   * <p>Rows are either fed directly to the consumer, or to a queue drained by the thread
+   * running an ordered scan. Each task uses its own HTable connection, as HTable instances
+   * are not thread-safe.</p>
+   */
+  private final class RegionScanTask implements Callable<Void> {
+    /** HBase scan restricted to the region. */
+    private final Scan mScan;
+
+    /** Data request of the parallel scan. */
+    private final KijiDataRequest mDataRequest;
+
+    /** Number of rows to prefetch, or 0 to disable prefetching. */
+    private final int mPrefetchDepth;
+
+    /** Consumer for the rows, when the scan is not ordered. */
+    private final KijiRowConsumer mConsumer;
+
+    /** Queue for the rows when the scan is ordered, null otherwise. */
+    private final BlockingQueue<Object> mQueue;
+
+    /** Set when the parallel scan is aborted: the task must exit. */
+    private final AtomicBoolean mStopped;
+
+    /**
+     * Creates a task scanning a single region.
+     *
+     * @param scan HBase scan restricted to the region.
+     * @param dataRequest Data request of the parallel scan.
+     * @param prefetchDepth Number of rows to prefetch, or 0 to disable prefetching.
+     * @param consumer Consumer for the rows, when the scan is not ordered.
+     * @param queue Queue for the rows when the scan is ordered, null otherwise.
+     * @param stopped Set when the parallel scan is aborted.
+     */
+    private RegionScanTask(
+        Scan scan,
+        KijiDataRequest dataRequest,
+        int prefetchDepth,
+        KijiRowConsumer consumer,
+        BlockingQueue<Object> queue,
+        AtomicBoolean stopped) {
+      mScan = scan;
+      mDataRequest = dataRequest;
+      mPrefetchDepth = prefetchDepth;
+      mConsumer = consumer;
+      mQueue = queue;
+      mStopped = stopped;
+    }
+
+    /**
+     * Puts an element in the queue, waiting for space if necessary, unless the scan is aborted.
+     *
+     * @param element Element to put in the queue.
+     * @return whether the element was queued, false if the scan was aborted.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    private boolean enqueue(Object element) throws InterruptedException {
+      while (!mStopped.get()) {
+        if (mQueue.offer(element, REGION_SCAN_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Void call() throws Exception {
+      try {
+        final HTableInterface htable = mTable.openHTableConnection();
+        try {
+          final KijiRowScanner scanner = new HBaseKijiRowScanner(new HBaseKijiRowScanner.Options()
+              .withHBaseResultScanner(htable.getScanner(mScan))
+              .withDataRequest(mDataRequest)
+              .withTable(mTable)
+              .withCellDecoderFactory(SpecificCellDecoderFactory.get())
+              .withPrefetchDepth(mPrefetchDepth));
+          try {
+            for (KijiRowData row : scanner) {
+              if (mStopped.get()) {
+                return null;
+              }
+              if (null != mQueue) {
+                if (!enqueue(row)) {
+                  return null;
+                }
+              } else {
+                mConsumer.consume(row);
+              }
+            }
+          } finally {
+            scanner.close();
+          }
+        } finally {
+          ResourceUtils.closeOrLog(htable);
+        }
+        if (null != mQueue) {
+          enqueue(END_OF_REGION);
+        }
+        return null;
+      } catch (InterruptedException ie) {
+        // The thread running the region scan was interrupted, eg. by a user-supplied executor.
+        throw ie;
+      } catch (Exception exn) {
+        if (null != mQueue) {
+          enqueue(new RegionScanFailure(exn));
+        }
+        throw exn;
+      }
+    }
+  }
+
   /**
    * Parses an array of hbase Results, returned from a bulk get, to a List of
    * KijiRowData.
@@ -175,12 +750,11 @@ public class HBaseKijiTableReader implements KijiTableReader {
    * @param results The results to parse.
    * @param entityIds The matching set of EntityIds.
    * @param dataRequest The KijiDataRequest.
-   * @param tableLayout The table layout.
    * @return The list of KijiRowData returned by these results.
    * @throws IOException If there is an error.
    */
   private List<KijiRowData> parseResults(Result[] results, List<EntityId> entityIds,
-      KijiDataRequest dataRequest, KijiTableLayout tableLayout) throws IOException {
+      KijiDataRequest dataRequest) throws IOException {
     List<KijiRowData> rowDataList = new ArrayList<KijiRowData>(results.length);
 
     for (int i = 0; i < results.length; i++) {
@@ -199,25 +773,72 @@ public class HBaseKijiTableReader implements KijiTableReader {
    * Creates a list of hbase Gets for a set of entityIds.
    *
    * @param entityIds The set of entityIds to collect.
-   * @param tableLayout The table layout specifying constraints on what data to return for a row.
-   * @param hbaseRequestAdapter The HBaseDataRequestAdapter.
+   * @param template The compiled data request to build the Gets from.
    * @return A list of hbase Gets-- one for each entity id.
    * @throws IOException If there is an error.
    */
-  private static List<Get> makeGetList(List<EntityId> entityIds, KijiTableLayout tableLayout,
-      HBaseDataRequestAdapter hbaseRequestAdapter)
+  private static List<Get> makeGetList(List<EntityId> entityIds, GetTemplate template)
       throws IOException {
-    List<Get> hbaseGetList = new ArrayList<Get>(entityIds.size());
+    final List<Get> hbaseGetList = new ArrayList<Get>(entityIds.size());
+    for (EntityId entityId : entityIds) {
+      hbaseGetList.add(template.toGet(entityId));
+    }
+    return hbaseGetList;
+  }
+
+  /**
+   * Returns the Get template for a data request against the current table layout.
+   *
+   * <p>Templates are compiled once per data request and table layout, and cached
+   * in this reader. Requests with column filters are compiled on every call: data requests
+   * are compared regardless of their column filters, which do not implement equality.</p>
+   *
+   * @param dataRequest A KijiDataRequest.
+   * @return the Get template for the data request.
+   * @throws IOException If there is an error.
+   */
+  private GetTemplate getGetTemplate(KijiDataRequest dataRequest) throws IOException {
+    final KijiTableLayout tableLayout = mTable.getLayout();
+    final boolean cacheable = !hasColumnFilter(dataRequest);
+    final GetTemplate cached = cacheable ? mGetTemplates.get(dataRequest) : null;
+    if ((null != cached) && (cached.getTableLayout() == tableLayout)) {
+      return cached;
+    }
+
+    // Make sure the request validates against the layout of the table.
+    getTableLayout(dataRequest);
+    final GetTemplate template;
     try {
-      for (EntityId entityId : entityIds) {
-        hbaseGetList.add(hbaseRequestAdapter.toGet(entityId, tableLayout));
-      }
-      return hbaseGetList;
+      template = new HBaseDataRequestAdapter(dataRequest).compile(tableLayout);
     } catch (InvalidLayoutException e) {
       // The table layout should never be invalid at this point, since we got it from a valid
       // opened table.  If it is, there's something seriously wrong.
       throw new InternalKijiError(e);
     }
+    if (!cacheable) {
+      return template;
+    }
+    if (mGetTemplates.size() >= MAX_CACHED_GET_TEMPLATES) {
+      // Requests built on the fly for every get would grow the cache without bound.
+      mGetTemplates.clear();
+    }
+    mGetTemplates.put(dataRequest, template);
+    return template;
+  }
+
+  /**
+   * Reports whether a data request has a column with a filter.
+   *
+   * @param dataRequest A KijiDataRequest.
+   * @return whether a column of the data request has a filter.
+   */
+  private static boolean hasColumnFilter(KijiDataRequest dataRequest) {
+    for (KijiDataRequest.Column column : dataRequest.getColumns()) {
+      if (null != column.getFilter()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -235,7 +856,11 @@ public class HBaseKijiTableReader implements KijiTableReader {
 
   /** {@inheritDoc} */
   @Override
-  public void close() {
-    // No-op for now.
+  public synchronized void close() {
+    if (null != mExecutor) {
+      // Pending bulk gets are allowed to complete.
+      mExecutor.shutdown();
+      mExecutor = null;
+    }
   }
 }
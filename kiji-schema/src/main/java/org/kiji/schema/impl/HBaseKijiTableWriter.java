@@ -20,10 +20,13 @@
 package org.kiji.schema.impl;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
@@ -46,16 +49,38 @@ import org.kiji.schema.KijiCellEncoder;
 import org.kiji.schema.KijiColumnName;
 import org.kiji.schema.KijiTable;
 import org.kiji.schema.KijiTableWriter;
+import org.kiji.schema.KijiTableWriter.KijiWriterOptions;
 import org.kiji.schema.NoSuchColumnException;
-import org.kiji.schema.avro.SchemaType;
 import org.kiji.schema.hbase.HBaseColumnName;
 import org.kiji.schema.layout.ColumnNameTranslator;
+import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayout.LocalityGroupLayout.FamilyLayout;
 import org.kiji.schema.layout.KijiTableLayout.LocalityGroupLayout.FamilyLayout.ColumnLayout;
 import org.kiji.schema.layout.impl.CellSpec;
+import org.kiji.schema.metrics.KijiMetrics;
+import org.kiji.schema.metrics.KijiMetrics.Operation;
+import org.kiji.schema.util.BytesKey;
+import org.kiji.schema.util.Clock;
 
 /**
  * Makes modifications to a Kiji table by sending requests directly to HBase from the local client.
+ *
+ * <p>When configured with a buffering policy (see {@link KijiWriterOptions}), puts and deletes
+ * are grouped into one HBase mutation per row and sent in batches. Modifications to a row that
+ * cannot be merged with the pending mutation for this row (eg. a put following a delete) cause
+ * the buffer to be flushed first, so that modifications are always applied in order.
+ * Map-type family deletes are never buffered.</p>
+ *
+ * <p>Increments are sent immediately, unless the writer coalesces increments. A coalescing
+ * writer sums the increments to each counter, and sends one HBase Increment per row when the
+ * buffer is flushed. Pending increments are flushed before a put to the same counter or a delete
+ * on the same row.</p>
+ *
+ * <p>The writer caches the translated HBase column name and the cell encoder of every column
+ * it writes to. A writer is bound to the layout of its table object: a {@link KijiTable}
+ * instance does not observe layout updates, so open a new table to write with a new layout.</p>
+ *
+ * <p>This class is not thread-safe.</p>
  */
 @ApiAudience.Private
 public final class HBaseKijiTableWriter implements KijiTableWriter {
@@ -64,9 +89,48 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   /** The kiji table instance. */
   private final HBaseKijiTable mTable;
 
+  /** Metrics of the table, recording the cells written and the latencies of the writes. */
+  private final KijiMetrics mMetrics;
+
+  /** Row cache of the table, invalidated for the rows modified by this writer. May be null. */
+  private final HBaseRowCache mRowCache;
+
+  /** Layout of the table the column name translator and the column cache are built from. */
+  private final KijiTableLayout mLayout;
+
   /** The column name translator to use. */
   private final ColumnNameTranslator mTranslator;
 
+  /** Cache of the group-type columns written to, keyed by family, then by qualifier. */
+  private final Map<String, Map<String, WriterColumn>> mColumnCache = Maps.newHashMap();
+
+  /** Cache of the map-type families written to, keyed by family. */
+  private final Map<String, WriterColumn> mMapFamilyCache = Maps.newHashMap();
+
+  /** Options describing the buffering policy of this writer. */
+  private final KijiWriterOptions mOptions;
+
+  /** Clock used to evaluate the flush interval. */
+  private final Clock mClock;
+
+  /** Buffered puts, keyed by HBase row key. Null if this writer is not buffered. */
+  private final Map<BytesKey, Put> mPutBuffer;
+
+  /** Buffered deletes, keyed by HBase row key. Null if this writer is not buffered. */
+  private final Map<BytesKey, Delete> mDeleteBuffer;
+
+  /** Coalesced increments, keyed by HBase row key. Null if increments are not coalesced. */
+  private final Map<BytesKey, Increment> mIncrementBuffer;
+
+  /** Estimated size, in bytes, of the buffered modifications. */
+  private long mBufferedBytes = 0L;
+
+  /** Number of buffered cell modifications. */
+  private int mBufferedCells = 0;
+
+  /** Time at which the oldest buffered modification was issued. */
+  private long mBufferStartTime = 0L;
+
   /**
    * Creates a non-buffered kiji table writer that sends modifications directly to Kiji.
    *
@@ -75,10 +139,134 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
    */
   public HBaseKijiTableWriter(KijiTable table)
       throws IOException {
+    this(table, new KijiWriterOptions());
+  }
+
+  /**
+   * Creates a kiji table writer that sends modifications to Kiji according to the
+   * buffering policy described by the specified options.
+   *
+   * @param table A kiji table.
+   * @param options Options for the writer.
+   * @throws IOException If there is an error creating the writer.
+   */
+  public HBaseKijiTableWriter(KijiTable table, KijiWriterOptions options)
+      throws IOException {
+    this(table, options, Clock.getDefaultClock());
+  }
+
+  /**
+   * Creates a kiji table writer that sends modifications to Kiji according to the
+   * buffering policy described by the specified options.
+   *
+   * @param table A kiji table.
+   * @param options Options for the writer.
+   * @param clock Clock used to evaluate the flush interval.
+   * @throws IOException If there is an error creating the writer.
+   */
+  HBaseKijiTableWriter(KijiTable table, KijiWriterOptions options, Clock clock)
+      throws IOException {
     mTable = HBaseKijiTable.downcast(table);
-    mTranslator = new ColumnNameTranslator(mTable.getLayout());
+    mMetrics = mTable.getMetrics();
+    mRowCache = mTable.getRowCache();
+    mLayout = mTable.getLayout();
+    mTranslator = new ColumnNameTranslator(mLayout);
+    mOptions = Preconditions.checkNotNull(options);
+    mClock = Preconditions.checkNotNull(clock);
+    if (mOptions.isBuffered()) {
+      mPutBuffer = Maps.newLinkedHashMap();
+      mDeleteBuffer = Maps.newLinkedHashMap();
+    } else {
+      mPutBuffer = null;
+      mDeleteBuffer = null;
+    }
+    mIncrementBuffer = mOptions.getCoalesceIncrements()
+        ? Maps.<BytesKey, Increment>newLinkedHashMap()
+        : null;
   }
 
+  // ----------------------------------------------------------------------------------------------
+  // Column cache
+
+  /** Resolved state of a column written to by this writer. */
+  private static final class WriterColumn {
+    /** HBase family the column is stored in. */
+    private final byte[] mHBaseFamily;
+
+    /** HBase qualifier the column is stored in. */
+    private final byte[] mHBaseQualifier;
+
+    /** Specification of the cells in the column. */
+    private final CellSpec mCellSpec;
+
+    /** Encoder for the cells in the column. */
+    private final KijiCellEncoder mEncoder;
+
+    /**
+     * Creates the resolved state of a column.
+     *
+     * @param hbaseColumnName HBase column name the Kiji column is translated to.
+     * @param cellSpec Specification of the cells in the column.
+     * @param encoder Encoder for the cells in the column.
+     */
+    WriterColumn(HBaseColumnName hbaseColumnName, CellSpec cellSpec, KijiCellEncoder encoder) {
+      mHBaseFamily = hbaseColumnName.getFamily();
+      mHBaseQualifier = hbaseColumnName.getQualifier();
+      mCellSpec = cellSpec;
+      mEncoder = encoder;
+    }
+  }
+
+  /**
+   * Gets the resolved state of a column, resolving it if necessary.
+   *
+   * <p>Columns from group-type families are cached individually. Columns from map-type families
+   * share the cell specification and the encoder of their family, and only their qualifier is
+   * translated on every call, so that the cache remains bounded by the size of the layout.</p>
+   *
+   * @param family Kiji family of the column.
+   * @param qualifier Kiji qualifier of the column.
+   * @return the resolved state of the specified column.
+   * @throws IOException if the column does not exist or on I/O error.
+   */
+  private WriterColumn getColumn(String family, String qualifier) throws IOException {
+    final WriterColumn mapFamily = mMapFamilyCache.get(family);
+    if (null != mapFamily) {
+      final HBaseColumnName hbaseColumnName =
+          mTranslator.toHBaseColumnName(new KijiColumnName(family, qualifier));
+      return new WriterColumn(hbaseColumnName, mapFamily.mCellSpec, mapFamily.mEncoder);
+    }
+
+    Map<String, WriterColumn> familyCache = mColumnCache.get(family);
+    if (null != familyCache) {
+      final WriterColumn cached = familyCache.get(qualifier);
+      if (null != cached) {
+        return cached;
+      }
+    }
+
+    final KijiColumnName columnName = new KijiColumnName(family, qualifier);
+    final HBaseColumnName hbaseColumnName = mTranslator.toHBaseColumnName(columnName);
+    final CellSpec cellSpec = mLayout.getCellSpec(columnName)
+        .setSchemaTable(mTable.getKiji().getSchemaTable());
+    final KijiCellEncoder cellEncoder = DefaultKijiCellEncoderFactory.get().create(cellSpec);
+    final WriterColumn column = new WriterColumn(hbaseColumnName, cellSpec, cellEncoder);
+
+    if (mLayout.getFamilyMap().get(family).isMapType()) {
+      mMapFamilyCache.put(family, column);
+    } else {
+      if (null == familyCache) {
+        familyCache = Maps.newHashMap();
+        mColumnCache.put(family, familyCache);
+      }
+      familyCache.put(qualifier, column);
+    }
+    return column;
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // Puts
+
   /** {@inheritDoc} */
   @Override
   public <T> void put(EntityId entityId, String family, String qualifier, T value)
@@ -90,17 +278,19 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   @Override
   public <T> void put(EntityId entityId, String family, String qualifier, long timestamp, T value)
       throws IOException {
-    final KijiColumnName columnName = new KijiColumnName(family, qualifier);
-    final HBaseColumnName hbaseColumnName = mTranslator.toHBaseColumnName(columnName);
-
-    final CellSpec cellSpec = mTable.getLayout().getCellSpec(columnName)
-        .setSchemaTable(mTable.getKiji().getSchemaTable());
-    final KijiCellEncoder cellEncoder = DefaultKijiCellEncoderFactory.get().create(cellSpec);
-    final byte[] encoded = cellEncoder.encode(value);
+    final WriterColumn column = getColumn(family, qualifier);
+    final byte[] encoded = column.mEncoder.encode(value);
 
-    final Put put = new Put(entityId.getHBaseRowKey())
-        .add(hbaseColumnName.getFamily(), hbaseColumnName.getQualifier(), timestamp, encoded);
-    mTable.getHTable().put(put);
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    if (column.mCellSpec.isCounter()) {
+      // Setting a counter overrides the pending increments to this counter.
+      flushIfIncrementPending(rowKey, column);
+    }
+    final Put put = getPut(rowKey)
+        .add(column.mHBaseFamily, column.mHBaseQualifier, timestamp, encoded);
+    writePut(put, 1, rowKey.length + column.mHBaseFamily.length
+        + column.mHBaseQualifier.length + encoded.length + Bytes.SIZEOF_LONG);
+    mMetrics.recordWrite(1, encoded.length);
   }
 
   // ----------------------------------------------------------------------------------------------
@@ -111,21 +301,38 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   public KijiCell<Long> increment(EntityId entityId, String family, String qualifier, long amount)
       throws IOException {
 
-    verifyIsCounter(family, qualifier);
-
     // Translate the Kiji column name to an HBase column name.
-    final HBaseColumnName hbaseColumnName =
-        mTranslator.toHBaseColumnName(new KijiColumnName(family, qualifier));
+    final WriterColumn column = getColumn(family, qualifier);
+    if (!column.mCellSpec.isCounter()) {
+      throw new IOException(String.format("Column '%s:%s' is not a counter", family, qualifier));
+    }
+
+    mMetrics.recordIncrementIssued();
+    if (null != mIncrementBuffer) {
+      coalesceIncrement(entityId.getHBaseRowKey(), column, amount);
+      return null;
+    }
+
+    // Increments are not buffered: pending modifications to the row must be applied first.
+    flushRowIfBuffered(entityId.getHBaseRowKey());
 
     // Send the increment to the HBase HTable.
     final Increment increment = new Increment(entityId.getHBaseRowKey());
     increment.addColumn(
-        hbaseColumnName.getFamily(),
-        hbaseColumnName.getQualifier(),
+        column.mHBaseFamily,
+        column.mHBaseQualifier,
         amount);
-    final Result result = mTable.getHTable().increment(increment);
+    final long startNanos = System.nanoTime();
+    final Result result;
+    try {
+      result = mTable.getHTable().increment(increment);
+    } finally {
+      invalidateRowCache(increment.getRow());
+    }
+    mMetrics.recordLatency(Operation.INCREMENT, System.nanoTime() - startNanos);
+    mMetrics.recordIncrementsSent(1);
     final NavigableMap<Long, byte[]> counterEntries =
-        result.getMap().get(hbaseColumnName.getFamily()).get(hbaseColumnName.getQualifier());
+        result.getMap().get(column.mHBaseFamily).get(column.mHBaseQualifier);
     assert null != counterEntries;
     assert 1 == counterEntries.size();
 
@@ -136,16 +343,68 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   }
 
   /**
-   * Verifies that a column is a counter.
+   * Adds an increment to the pending increment of a counter.
+   *
+   * @param rowKey HBase row key of the counter.
+   * @param column Counter column.
+   * @param amount Amount to increment the counter by.
+   * @throws IOException on I/O error.
+   */
+  private void coalesceIncrement(byte[] rowKey, WriterColumn column, long amount)
+      throws IOException {
+    final BytesKey key = new BytesKey(rowKey);
+    if (null != mPutBuffer) {
+      // Pending deletes on the row and pending puts to the counter must be applied first.
+      final Put put = mPutBuffer.get(key);
+      if (mDeleteBuffer.containsKey(key)
+          || ((null != put) && put.has(column.mHBaseFamily, column.mHBaseQualifier))) {
+        flushBuffer();
+      }
+    }
+
+    Increment increment = mIncrementBuffer.get(key);
+    if (null == increment) {
+      increment = new Increment(rowKey);
+      mIncrementBuffer.put(key, increment);
+    }
+    final Long pending = getPendingIncrement(increment, column);
+    increment.addColumn(column.mHBaseFamily, column.mHBaseQualifier,
+        (null == pending) ? amount : pending + amount);
+    if (null == pending) {
+      updateBuffer(1, rowKey.length + column.mHBaseFamily.length
+          + column.mHBaseQualifier.length + Bytes.SIZEOF_LONG);
+    } else {
+      updateBuffer(0, 0L);
+    }
+  }
+
+  /**
+   * Gets the pending increment to a counter.
+   *
+   * @param increment Pending Increment of the row.
+   * @param column Counter column.
+   * @return the pending increment to the counter, or null if there is none.
+   */
+  private static Long getPendingIncrement(Increment increment, WriterColumn column) {
+    final NavigableMap<byte[], Long> qualifiers =
+        increment.getFamilyMap().get(column.mHBaseFamily);
+    return (null == qualifiers) ? null : qualifiers.get(column.mHBaseQualifier);
+  }
+
+  /**
+   * Flushes the buffer if there is a pending increment to the specified counter.
    *
-   * @param family A column family.
-   * @param qualifier A column qualifier.
-   * @throws IOException If the column is not a counter, or it does not exist.
+   * @param rowKey HBase row key of the counter.
+   * @param column Counter column.
+   * @throws IOException on I/O error.
    */
-  private void verifyIsCounter(String family, String qualifier) throws IOException {
-    final KijiColumnName column = new KijiColumnName(family, qualifier);
-    if (mTable.getLayout().getCellSchema(column).getType() != SchemaType.COUNTER) {
-      throw new IOException(String.format("Column '%s' is not a counter", column));
+  private void flushIfIncrementPending(byte[] rowKey, WriterColumn column) throws IOException {
+    if (null == mIncrementBuffer) {
+      return;
+    }
+    final Increment increment = mIncrementBuffer.get(new BytesKey(rowKey));
+    if ((null != increment) && (null != getPendingIncrement(increment, column))) {
+      flushBuffer();
     }
   }
 
@@ -161,8 +420,14 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   /** {@inheritDoc} */
   @Override
   public void deleteRow(EntityId entityId, long upToTimestamp) throws IOException {
-    final Delete delete = new Delete(entityId.getHBaseRowKey(), upToTimestamp, null);
-    mTable.getHTable().delete(delete);
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    // A row delete cannot be merged with other modifications to the same row:
+    flushRowIfBuffered(rowKey);
+    final Delete delete = new Delete(rowKey, upToTimestamp, null);
+    if (null != mDeleteBuffer) {
+      mDeleteBuffer.put(new BytesKey(rowKey), delete);
+    }
+    writeDelete(delete, 1, rowKey.length + Bytes.SIZEOF_LONG);
   }
 
   /** {@inheritDoc} */
@@ -176,7 +441,7 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
   public void deleteFamily(EntityId entityId, String family, long upToTimestamp)
       throws IOException {
 
-    final FamilyLayout familyLayout = mTable.getLayout().getFamilyMap().get(family);
+    final FamilyLayout familyLayout = mTranslator.getTableLayout().getFamilyMap().get(family);
     if (null == familyLayout) {
       throw new NoSuchColumnException(String.format("Family '%s' not found.", family));
     }
@@ -196,11 +461,12 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
     // The only data in this HBase family is the one Kiji family, so we can delete everything.
     final HBaseColumnName hbaseColumnName =
         mTranslator.toHBaseColumnName(new KijiColumnName(family));
-    final Delete delete = new Delete(entityId.getHBaseRowKey());
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    final Delete delete = getDelete(rowKey);
     delete.deleteFamily(hbaseColumnName.getFamily(), upToTimestamp);
 
     // Send the delete to the HBase HTable.
-    mTable.getHTable().delete(delete);
+    writeDelete(delete, 1, rowKey.length + hbaseColumnName.getFamily().length + Bytes.SIZEOF_LONG);
   }
   /**
    * Deletes all cells from a group-type family with a timestamp less than or equal to a
@@ -217,18 +483,27 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
       long upToTimestamp)
       throws IOException {
     final String familyName = Preconditions.checkNotNull(familyLayout.getName());
+    if (familyLayout.getColumnMap().isEmpty()) {
+      // An empty HBase Delete would delete the entire row.
+      LOG.debug("No columns to delete in group family: " + familyName);
+      return;
+    }
     // Delete each column in the group according to the layout.
-    final Delete delete = new Delete(entityId.getHBaseRowKey());
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    final Delete delete = getDelete(rowKey);
+    long bytes = 0;
     for (ColumnLayout columnLayout : familyLayout.getColumnMap().values()) {
       final String qualifier = columnLayout.getName();
       final KijiColumnName column = new KijiColumnName(familyName, qualifier);
       final HBaseColumnName hbaseColumnName = mTranslator.toHBaseColumnName(column);
       delete.deleteColumns(
           hbaseColumnName.getFamily(), hbaseColumnName.getQualifier(), upToTimestamp);
+      bytes += rowKey.length + hbaseColumnName.getFamily().length
+          + hbaseColumnName.getQualifier().length + Bytes.SIZEOF_LONG;
     }
 
     // Send the delete to the HBase HTable.
-    mTable.getHTable().delete(delete);
+    writeDelete(delete, familyLayout.getColumnMap().size(), bytes);
   }
 
   /**
@@ -256,6 +531,9 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
         mTranslator.toHBaseColumnName(new KijiColumnName(familyName));
     final byte[] hbaseRow = entityId.getHBaseRowKey();
 
+    // This delete is a read-modify-write: pending modifications to the row must be applied first.
+    flushRowIfBuffered(hbaseRow);
+
     // Lock the row.
     final RowLock rowLock = mTable.getHTable().lockRow(hbaseRow);
     try {
@@ -281,7 +559,13 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
               + ":" + Bytes.toString(hbaseQualifier));
           delete.deleteColumns(hbaseColumnName.getFamily(), hbaseQualifier, upToTimestamp);
         }
-        mTable.getHTable().delete(delete);
+        final long startNanos = System.nanoTime();
+        try {
+          mTable.getHTable().delete(delete);
+        } finally {
+          invalidateRowCache(hbaseRow);
+        }
+        mMetrics.recordLatency(Operation.DELETE, System.nanoTime() - startNanos);
       }
     } finally {
       // Make sure to unlock the row!
@@ -301,9 +585,11 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
       throws IOException {
     final HBaseColumnName hbaseColumnName =
         mTranslator.toHBaseColumnName(new KijiColumnName(family, qualifier));
-    final Delete delete = new Delete(entityId.getHBaseRowKey())
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    final Delete delete = getDelete(rowKey)
         .deleteColumns(hbaseColumnName.getFamily(), hbaseColumnName.getQualifier(), upToTimestamp);
-    mTable.getHTable().delete(delete);
+    writeDelete(delete, 1, rowKey.length + hbaseColumnName.getFamily().length
+        + hbaseColumnName.getQualifier().length + Bytes.SIZEOF_LONG);
   }
 
   /** {@inheritDoc} */
@@ -318,15 +604,257 @@ public final class HBaseKijiTableWriter implements KijiTableWriter {
       throws IOException {
     final HBaseColumnName hbaseColumnName =
         mTranslator.toHBaseColumnName(new KijiColumnName(family, qualifier));
-    final Delete delete = new Delete(entityId.getHBaseRowKey())
+    final byte[] rowKey = entityId.getHBaseRowKey();
+    final Delete delete = getDelete(rowKey)
         .deleteColumn(hbaseColumnName.getFamily(), hbaseColumnName.getQualifier(), timestamp);
-    mTable.getHTable().delete(delete);
+    writeDelete(delete, 1, rowKey.length + hbaseColumnName.getFamily().length
+        + hbaseColumnName.getQualifier().length + Bytes.SIZEOF_LONG);
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // Buffering
+
+  /**
+   * Gets the Put to which cells written to a row should be added.
+   *
+   * <p>For a buffered writer, this is the pending Put for the row, if any.
+   * Pending deletes on the same row are flushed first.</p>
+   *
+   * @param rowKey HBase row key.
+   * @return the Put to which cells written to the row should be added.
+   * @throws IOException on I/O error.
+   */
+  private Put getPut(byte[] rowKey) throws IOException {
+    if (null == mPutBuffer) {
+      return new Put(rowKey);
+    }
+    final BytesKey key = new BytesKey(rowKey);
+    if (mDeleteBuffer.containsKey(key)) {
+      flushBuffer();
+    }
+    Put put = mPutBuffer.get(key);
+    if (null == put) {
+      put = new Put(rowKey);
+      mPutBuffer.put(key, put);
+    }
+    return put;
+  }
+
+  /**
+   * Gets the Delete to which column deletes on a row should be added.
+   *
+   * <p>For a buffered writer, this is the pending Delete for the row, if any.
+   * Pending puts and row deletes on the same row are flushed first.</p>
+   *
+   * @param rowKey HBase row key.
+   * @return the Delete to which column deletes on the row should be added.
+   * @throws IOException on I/O error.
+   */
+  private Delete getDelete(byte[] rowKey) throws IOException {
+    final BytesKey key = new BytesKey(rowKey);
+    if ((null != mIncrementBuffer) && mIncrementBuffer.containsKey(key)) {
+      flushBuffer();
+    }
+    if (null == mDeleteBuffer) {
+      return new Delete(rowKey);
+    }
+    Delete delete = mDeleteBuffer.get(key);
+    if (mPutBuffer.containsKey(key) || ((null != delete) && delete.getFamilyMap().isEmpty())) {
+      flushBuffer();
+      delete = null;
+    }
+    if (null == delete) {
+      delete = new Delete(rowKey);
+      mDeleteBuffer.put(key, delete);
+    }
+    return delete;
+  }
+
+  /**
+   * Sends a Put to HBase, or accounts for the cells added to a buffered Put.
+   *
+   * @param put Put obtained through {@link #getPut(byte[])}.
+   * @param ncells Number of cells added to the Put.
+   * @param nbytes Estimated size, in bytes, of the cells added to the Put.
+   * @throws IOException on I/O error.
+   */
+  private void writePut(Put put, int ncells, long nbytes) throws IOException {
+    if (null == mPutBuffer) {
+      final long startNanos = System.nanoTime();
+      try {
+        mTable.getHTable().put(put);
+      } finally {
+        invalidateRowCache(put.getRow());
+      }
+      mMetrics.recordLatency(Operation.PUT, System.nanoTime() - startNanos);
+    } else {
+      updateBuffer(ncells, nbytes);
+    }
+  }
+
+  /**
+   * Sends a Delete to HBase, or accounts for the cells added to a buffered Delete.
+   *
+   * @param delete Delete obtained through {@link #getDelete(byte[])}.
+   * @param ncells Number of cell deletes added to the Delete.
+   * @param nbytes Estimated size, in bytes, of the cell deletes added to the Delete.
+   * @throws IOException on I/O error.
+   */
+  private void writeDelete(Delete delete, int ncells, long nbytes) throws IOException {
+    if (null == mDeleteBuffer) {
+      final long startNanos = System.nanoTime();
+      try {
+        mTable.getHTable().delete(delete);
+      } finally {
+        invalidateRowCache(delete.getRow());
+      }
+      mMetrics.recordLatency(Operation.DELETE, System.nanoTime() - startNanos);
+    } else {
+      updateBuffer(ncells, nbytes);
+    }
+  }
+
+  /**
+   * Accounts for newly buffered modifications, and flushes the buffer if any of the
+   * thresholds configured for this writer is reached.
+   *
+   * @param ncells Number of buffered cell modifications.
+   * @param nbytes Estimated size, in bytes, of the buffered cell modifications.
+   * @throws IOException on I/O error.
+   */
+  private void updateBuffer(int ncells, long nbytes) throws IOException {
+    final long now = mClock.getTime();
+    if (0 == mBufferedCells) {
+      mBufferStartTime = now;
+    }
+    mBufferedCells += ncells;
+    mBufferedBytes += nbytes;
+
+    final long maxBytes = mOptions.getMaxBufferedBytes();
+    final int maxCells = mOptions.getMaxBufferedCells();
+    final long flushInterval = mOptions.getFlushIntervalMillis();
+    if (((maxBytes > 0) && (mBufferedBytes >= maxBytes))
+        || ((maxCells > 0) && (mBufferedCells >= maxCells))
+        || ((flushInterval > 0) && (now - mBufferStartTime >= flushInterval))) {
+      flushBuffer();
+    }
+  }
+
+  /**
+   * Flushes the buffer if there are pending modifications to the specified row.
+   *
+   * @param rowKey HBase row key.
+   * @throws IOException on I/O error.
+   */
+  private void flushRowIfBuffered(byte[] rowKey) throws IOException {
+    final BytesKey key = new BytesKey(rowKey);
+    if (((null != mPutBuffer) && (mPutBuffer.containsKey(key) || mDeleteBuffer.containsKey(key)))
+        || ((null != mIncrementBuffer) && mIncrementBuffer.containsKey(key))) {
+      flushBuffer();
+    }
+  }
+
+  /**
+   * Sends the buffered modifications to HBase.
+   *
+   * <p>Puts and deletes are sent as two batches. Since a row never has both a pending Put and
+   * a pending Delete, the order in which the batches are sent does not matter.
+   * If a batch fails, it remains buffered so that the flush may be retried.</p>
+   *
+   * <p>Coalesced increments are sent last, one row at a time: a row never has a pending Delete
+   * and a pending Increment, and a counter never has both a pending Put and a pending increment.
+   * Increments are removed from the buffer as soon as they are applied, so that a retried flush
+   * does not apply them twice. HBase increments are not idempotent: the increment that failed may
+   * or may not have been applied.</p>
+   *
+   * <p>The rows of a batch are invalidated in the row cache of the table even if the batch
+   * fails, as some of its modifications may have been applied.</p>
+   *
+   * <p>The latency of each batch, and of each coalesced row increment, is recorded in the
+   * metrics of the table.</p>
+   *
+   * @throws IOException on I/O error.
+   */
+  private void flushBuffer() throws IOException {
+    if (0 == mBufferedCells) {
+      return;
+    }
+    LOG.debug("Flushing {} buffered cell modifications ({} bytes) to {}.",
+        new Object[] {mBufferedCells, mBufferedBytes, mTable.getURI()});
+    if ((null != mPutBuffer) && !mPutBuffer.isEmpty()) {
+      final long startNanos = System.nanoTime();
+      try {
+        mTable.getHTable().put(Lists.newArrayList(mPutBuffer.values()));
+      } finally {
+        invalidateRowCache(mPutBuffer);
+      }
+      mMetrics.recordLatency(Operation.PUT, System.nanoTime() - startNanos);
+      mPutBuffer.clear();
+    }
+    if ((null != mDeleteBuffer) && !mDeleteBuffer.isEmpty()) {
+      final long startNanos = System.nanoTime();
+      try {
+        mTable.getHTable().delete(Lists.newArrayList(mDeleteBuffer.values()));
+      } finally {
+        invalidateRowCache(mDeleteBuffer);
+      }
+      mMetrics.recordLatency(Operation.DELETE, System.nanoTime() - startNanos);
+      mDeleteBuffer.clear();
+    }
+    if (null != mIncrementBuffer) {
+      final Iterator<Increment> it = mIncrementBuffer.values().iterator();
+      while (it.hasNext()) {
+        final Increment increment = it.next();
+        final long startNanos = System.nanoTime();
+        try {
+          mTable.getHTable().increment(increment);
+        } finally {
+          invalidateRowCache(increment.getRow());
+        }
+        mMetrics.recordLatency(Operation.INCREMENT, System.nanoTime() - startNanos);
+        it.remove();
+        int ncounters = 0;
+        for (NavigableMap<byte[], Long> qualifiers : increment.getFamilyMap().values()) {
+          ncounters += qualifiers.size();
+        }
+        mMetrics.recordIncrementsSent(ncounters);
+      }
+      LOG.debug("Increment coalescing ratio for {}: {}.",
+          mTable.getURI(), mMetrics.getIncrementCoalescingRatio());
+    }
+    mBufferedCells = 0;
+    mBufferedBytes = 0L;
+  }
+
+  /**
+   * Invalidates a row modified by this writer in the row cache of the table, if enabled.
+   *
+   * @param rowKey HBase row key.
+   */
+  private void invalidateRowCache(byte[] rowKey) {
+    if (null != mRowCache) {
+      mRowCache.invalidate(rowKey);
+    }
+  }
+
+  /**
+   * Invalidates the rows of a batch of modifications in the row cache of the table, if enabled.
+   *
+   * @param buffer Buffered modifications, keyed by HBase row key.
+   */
+  private void invalidateRowCache(Map<BytesKey, ?> buffer) {
+    if (null != mRowCache) {
+      for (BytesKey key : buffer.keySet()) {
+        mRowCache.invalidate(key.getBytes());
+      }
+    }
   }
 
   // ----------------------------------------------------------------------------------------------
 
   @Override
   public void flush() throws IOException {
+    flushBuffer();
     mTable.getHTable().flushCommits();
   }
 
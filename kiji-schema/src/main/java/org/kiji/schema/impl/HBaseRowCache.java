@@ -0,0 +1,342 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.impl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.metrics.KijiMetrics;
+import org.kiji.schema.util.BytesKey;
+import org.kiji.schema.util.Clock;
+
+/**
+ * Client-side cache of the HBase results fetched by the point lookups of the readers of a table.
+ *
+ * <p>
+ *   The cache is opt-in: it is enabled for a table when {@link #CONF_MAX_BYTES} is set to a
+ *   positive size in the configuration of the Kiji instance. Both settings may be overridden
+ *   for a given table by suffixing the configuration key with ".&lt;table name&gt;".
+ * </p>
+ *
+ * <p>
+ *   Results are keyed by HBase row key and by a normalized form of the data request. The cache
+ *   is bounded by the estimated size of the results it holds, and evicts the least recently
+ *   used rows first. Cached results expire after {@link #CONF_TTL_MILLIS} milliseconds.
+ * </p>
+ *
+ * <p>
+ *   Writers of the table invalidate the rows they modify once the modifications are sent to
+ *   HBase. Modifications made through other KijiTable objects, or by other processes, are only
+ *   observed once the cached results expire. Requests with paged columns or column filters are
+ *   never cached.
+ * </p>
+ */
+@ApiAudience.Private
+public final class HBaseRowCache {
+  /** Maximum estimated size, in bytes, of the results cached for a table. 0 disables caching. */
+  public static final String CONF_MAX_BYTES = "kiji.schema.row.cache.max.bytes";
+
+  /** Time, in milliseconds, cached results remain valid for. 0 means results never expire. */
+  public static final String CONF_TTL_MILLIS = "kiji.schema.row.cache.ttl.millis";
+
+  /** Default time, in milliseconds, cached results remain valid for. */
+  public static final long DEFAULT_TTL_MILLIS = 60000L;
+
+  /** Estimated memory overhead, in bytes, of a cached result. */
+  private static final long RESULT_OVERHEAD_BYTES = 128L;
+
+  /** Number of invalidation stamps the rows are spread across. Must be a power of two. */
+  private static final int NUM_STAMPS = 64;
+
+  /** Maximum estimated size, in bytes, of the cached results. */
+  private final long mMaxBytes;
+
+  /** Time, in milliseconds, cached results remain valid for. 0 means no expiration. */
+  private final long mTtlMillis;
+
+  /** Clock used to expire the cached results. */
+  private final Clock mClock;
+
+  /** Metrics to record the cache hits and misses in. */
+  private final KijiMetrics mMetrics;
+
+  /**
+   * Invalidation stamps, incremented every time a row is invalidated. Results fetched from
+   * HBase are only cached if the stamp of their row did not change while they were fetched.
+   */
+  private final AtomicLongArray mStamps = new AtomicLongArray(NUM_STAMPS);
+
+  /** Cached rows, from the least to the most recently used. Guarded by this. */
+  private final LinkedHashMap<BytesKey, CachedRow> mRows =
+      new LinkedHashMap<BytesKey, CachedRow>(16, 0.75f, true);
+
+  /** Estimated size, in bytes, of the cached results. Guarded by this. */
+  private long mBytes = 0L;
+
+  /** Results cached for a row, keyed by normalized data request. Immutable. */
+  private static final class CachedRow {
+    /** Cached results, keyed by normalized data request. */
+    private final Map<String, Result> mResults;
+
+    /** Estimated size, in bytes, of the cached results. */
+    private final long mBytes;
+
+    /** Time, in milliseconds, after which the results expire. */
+    private final long mExpirationTime;
+
+    /**
+     * Creates a cached row.
+     *
+     * @param results Cached results, keyed by normalized data request.
+     * @param bytes Estimated size, in bytes, of the cached results.
+     * @param expirationTime Time, in milliseconds, after which the results expire.
+     */
+    private CachedRow(Map<String, Result> results, long bytes, long expirationTime) {
+      mResults = results;
+      mBytes = bytes;
+      mExpirationTime = expirationTime;
+    }
+  }
+
+  /**
+   * Creates a row cache.
+   *
+   * @param maxBytes Maximum estimated size, in bytes, of the cached results.
+   * @param ttlMillis Time, in milliseconds, cached results remain valid for. 0 means forever.
+   * @param clock Clock used to expire the cached results.
+   * @param metrics Metrics to record the cache hits and misses in.
+   */
+  HBaseRowCache(long maxBytes, long ttlMillis, Clock clock, KijiMetrics metrics) {
+    Preconditions.checkArgument(maxBytes > 0, "Invalid row cache size: %s", maxBytes);
+    Preconditions.checkArgument(ttlMillis >= 0, "Invalid row cache TTL: %s", ttlMillis);
+    mMaxBytes = maxBytes;
+    mTtlMillis = ttlMillis;
+    mClock = Preconditions.checkNotNull(clock);
+    mMetrics = Preconditions.checkNotNull(metrics);
+  }
+
+  /**
+   * Creates the row cache of a table, as configured.
+   *
+   * @param conf Configuration of the Kiji instance.
+   * @param tableName Name of the Kiji table.
+   * @param metrics Metrics of the table.
+   * @return the row cache of the table, or null if the cache is not enabled for the table.
+   */
+  static HBaseRowCache create(Configuration conf, String tableName, KijiMetrics metrics) {
+    final long maxBytes = conf.getLong(CONF_MAX_BYTES + "." + tableName,
+        conf.getLong(CONF_MAX_BYTES, 0L));
+    if (maxBytes <= 0) {
+      return null;
+    }
+    final long ttlMillis = conf.getLong(CONF_TTL_MILLIS + "." + tableName,
+        conf.getLong(CONF_TTL_MILLIS, DEFAULT_TTL_MILLIS));
+    return new HBaseRowCache(maxBytes, ttlMillis, Clock.getDefaultClock(), metrics);
+  }
+
+  /**
+   * Normalizes a data request into a cache key.
+   *
+   * <p>Requests for the same columns, maximum numbers of versions and time range are mapped
+   * to the same key, regardless of the order in which their columns were added.</p>
+   *
+   * @param dataRequest Data request to normalize.
+   * @return the cache key of the data request, or null if its results may not be cached.
+   */
+  static String getRequestKey(KijiDataRequest dataRequest) {
+    final List<String> columns = Lists.newArrayListWithCapacity(dataRequest.getColumns().size());
+    for (KijiDataRequest.Column column : dataRequest.getColumns()) {
+      if (column.isPagingEnabled() || (null != column.getFilter())) {
+        return null;
+      }
+      columns.add(column.getName() + "/" + column.getMaxVersions());
+    }
+    Collections.sort(columns);
+    return Joiner.on(',').join(columns)
+        + "@" + dataRequest.getMinTimestamp() + "-" + dataRequest.getMaxTimestamp();
+  }
+
+  /**
+   * Estimates the memory footprint of a result.
+   *
+   * @param result HBase result.
+   * @return the estimated size of the result, in bytes.
+   */
+  private static long getSize(Result result) {
+    long bytes = RESULT_OVERHEAD_BYTES;
+    final KeyValue[] kvs = result.raw();
+    if (null != kvs) {
+      for (KeyValue kv : kvs) {
+        bytes += kv.getLength();
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Gets the invalidation stamp of a row.
+   *
+   * <p>Readers get the stamp of a row before fetching it from HBase, and hand it back to
+   * {@link #put(byte[], String, Result, long)}.</p>
+   *
+   * @param rowKey HBase row key.
+   * @return the invalidation stamp of the row.
+   */
+  long getStamp(byte[] rowKey) {
+    return mStamps.get(Bytes.hashCode(rowKey) & (NUM_STAMPS - 1));
+  }
+
+  /**
+   * Looks up a cached result.
+   *
+   * @param rowKey HBase row key.
+   * @param requestKey Normalized data request, from {@link #getRequestKey(KijiDataRequest)}.
+   * @return a copy of the cached result, or null if the result is not cached.
+   */
+  Result get(byte[] rowKey, String requestKey) {
+    final Result result;
+    synchronized (this) {
+      final BytesKey key = new BytesKey(rowKey);
+      final CachedRow row = mRows.get(key);
+      if ((null != row) && isExpired(row)) {
+        remove(key);
+        result = null;
+      } else {
+        result = (null == row) ? null : row.mResults.get(requestKey);
+      }
+    }
+    if (null == result) {
+      mMetrics.recordRowCacheMiss();
+      return null;
+    }
+    mMetrics.recordRowCacheHit();
+    // Results build their family maps lazily and without synchronization: each caller gets its
+    // own Result, backed by the same immutable KeyValues.
+    return new Result(result.raw());
+  }
+
+  /**
+   * Caches a result fetched from HBase.
+   *
+   * <p>The result is not cached if the row was invalidated since the stamp was obtained.</p>
+   *
+   * @param rowKey HBase row key.
+   * @param requestKey Normalized data request, from {@link #getRequestKey(KijiDataRequest)}.
+   * @param result Result fetched from HBase.
+   * @param stamp Invalidation stamp of the row, obtained before the result was fetched.
+   */
+  void put(byte[] rowKey, String requestKey, Result result, long stamp) {
+    final long resultBytes = getSize(result) + rowKey.length + requestKey.length();
+    if (resultBytes > mMaxBytes) {
+      return;
+    }
+    synchronized (this) {
+      // Invalidations increment the stamp before removing the row, under this lock.
+      if (getStamp(rowKey) != stamp) {
+        return;
+      }
+      final BytesKey key = new BytesKey(rowKey);
+      final CachedRow existing = remove(key);
+      final CachedRow row;
+      if ((null == existing) || isExpired(existing)) {
+        row = new CachedRow(ImmutableMap.of(requestKey, result), resultBytes,
+            mClock.getTime() + mTtlMillis);
+      } else {
+        final Map<String, Result> results = new LinkedHashMap<String, Result>(existing.mResults);
+        final Result replaced = results.put(requestKey, result);
+        final long replacedBytes = (null == replaced)
+            ? 0L
+            : getSize(replaced) + rowKey.length + requestKey.length();
+        row = new CachedRow(Collections.unmodifiableMap(results),
+            existing.mBytes - replacedBytes + resultBytes, existing.mExpirationTime);
+      }
+      mRows.put(key, row);
+      mBytes += row.mBytes;
+
+      final Iterator<CachedRow> it = mRows.values().iterator();
+      while ((mBytes > mMaxBytes) && it.hasNext()) {
+        mBytes -= it.next().mBytes;
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Invalidates the cached results of a row.
+   *
+   * <p>Writers call this method once a modification to the row was sent to HBase.</p>
+   *
+   * @param rowKey HBase row key.
+   */
+  void invalidate(byte[] rowKey) {
+    mStamps.incrementAndGet(Bytes.hashCode(rowKey) & (NUM_STAMPS - 1));
+    synchronized (this) {
+      remove(new BytesKey(rowKey));
+    }
+  }
+
+  /**
+   * Reports the estimated size of the cached results.
+   *
+   * @return the estimated size of the cached results, in bytes.
+   */
+  synchronized long getSizeBytes() {
+    return mBytes;
+  }
+
+  /**
+   * Removes a row from the cache. Must be called while holding the lock on this.
+   *
+   * @param key HBase row key.
+   * @return the row removed, or null if the row was not cached.
+   */
+  private CachedRow remove(BytesKey key) {
+    final CachedRow row = mRows.remove(key);
+    if (null != row) {
+      mBytes -= row.mBytes;
+    }
+    return row;
+  }
+
+  /**
+   * Reports whether the results cached for a row expired.
+   *
+   * @param row Cached row.
+   * @return whether the results cached for the row expired.
+   */
+  private boolean isExpired(CachedRow row) {
+    return (mTtlMillis > 0) && (mClock.getTime() >= row.mExpirationTime);
+  }
+}
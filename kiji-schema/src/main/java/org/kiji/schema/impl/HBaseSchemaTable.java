@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -67,6 +68,7 @@ import org.kiji.schema.KijiURI;
 import org.kiji.schema.avro.MD5Hash;
 import org.kiji.schema.avro.SchemaTableEntry;
 import org.kiji.schema.hbase.KijiManagedHBaseTableName;
+import org.kiji.schema.metrics.KijiMetrics;
 import org.kiji.schema.platform.SchemaPlatformBridge;
 import org.kiji.schema.util.ByteStreamArray;
 import org.kiji.schema.util.ByteStreamArray.EncodingException;
@@ -89,6 +91,12 @@ import org.kiji.schema.util.LockFactory;
  *
  * There may be multiple schema IDs for a single schema.
  * </p>
+ *
+ * <p>
+ * Schema entries are cached in memory once known. Lookups of cached entries do not take any lock;
+ * only lookup misses and new schema registrations synchronize on the schema table (and then
+ * acquire the ZooKeeper lock, when registering a new schema).
+ * </p>
  */
 @ApiAudience.Private
 public class HBaseSchemaTable extends KijiSchemaTable {
@@ -119,14 +127,24 @@ public class HBaseSchemaTable extends KijiSchemaTable {
   /** Lock for the kiji instance schema table. */
   private final Lock mZKLock;
 
-  /** Maps schema MD5 hashes to schema entries. */
-  private final Map<BytesKey, SchemaEntry> mSchemaHashMap = new HashMap<BytesKey, SchemaEntry>();
+  /** Metrics recording the schema cache misses, or null. */
+  private final KijiMetrics mMetrics;
 
-  /** Maps schema IDs to schema entries. */
-  private final Map<Long, SchemaEntry> mSchemaIdMap = new HashMap<Long, SchemaEntry>();
+  /**
+   * Maps schema MD5 hashes to schema entries.
+   * Read without synchronization, updated while holding the schema table monitor.
+   */
+  private final Map<BytesKey, SchemaEntry> mSchemaHashMap =
+      new ConcurrentHashMap<BytesKey, SchemaEntry>();
+
+  /**
+   * Maps schema IDs to schema entries.
+   * Read without synchronization, updated while holding the schema table monitor.
+   */
+  private final Map<Long, SchemaEntry> mSchemaIdMap = new ConcurrentHashMap<Long, SchemaEntry>();
 
   /** Whether this schema table is open. */
-  private boolean mIsOpen = false;
+  private volatile boolean mIsOpen = false;
 
   /** Used for testing finalize() behavior. */
   private String mConstructorStack = "";
@@ -255,9 +273,30 @@ public class HBaseSchemaTable extends KijiSchemaTable {
       HTableInterfaceFactory tableFactory,
       LockFactory lockFactory)
       throws IOException {
+    this(kijiURI, conf, tableFactory, lockFactory, null);
+  }
+
+  /**
+   * Open a connection to the HBase schema table for a Kiji instance.
+   *
+   * @param kijiURI the KijiURI
+   * @param conf The Hadoop configuration.
+   * @param tableFactory HTableInterface factory.
+   * @param lockFactory Factory for locks.
+   * @param metrics Metrics recording the schema cache misses. May be null.
+   * @throws IOException on I/O error.
+   */
+  public HBaseSchemaTable(
+      KijiURI kijiURI,
+      Configuration conf,
+      HTableInterfaceFactory tableFactory,
+      LockFactory lockFactory,
+      KijiMetrics metrics)
+      throws IOException {
     this(newSchemaHashTable(kijiURI, conf, tableFactory),
         newSchemaIdTable(kijiURI, conf, tableFactory),
-        newLock(kijiURI, lockFactory));
+        newLock(kijiURI, lockFactory),
+        metrics);
   }
 
   /**
@@ -270,6 +309,25 @@ public class HBaseSchemaTable extends KijiSchemaTable {
    */
   public HBaseSchemaTable(HTableInterface hashTable, HTableInterface idTable, Lock zkLock)
       throws IOException {
+    this(hashTable, idTable, zkLock, null);
+  }
+
+  /**
+   * Wrap an existing HBase table assumed to be where the schema data is stored.
+   *
+   * @param hashTable The HTable that maps schema hashes to schema entries.
+   * @param idTable The HTable that maps schema IDs to schema entries.
+   * @param zkLock Lock protecting the schema tables.
+   * @param metrics Metrics recording the schema cache misses. May be null.
+   * @throws IOException on I/O error.
+   */
+  public HBaseSchemaTable(
+      HTableInterface hashTable,
+      HTableInterface idTable,
+      Lock zkLock,
+      KijiMetrics metrics)
+      throws IOException {
+    mMetrics = metrics;
     mSchemaHashTable = Preconditions.checkNotNull(hashTable);
     mSchemaIdTable = Preconditions.checkNotNull(idTable);
     mZKLock = Preconditions.checkNotNull(zkLock);
@@ -290,10 +348,31 @@ public class HBaseSchemaTable extends KijiSchemaTable {
    * @return Either the pre-existing entry for the specified schema, or a newly created entry.
    * @throws IOException on I/O error.
    */
-  private synchronized SchemaEntry getOrCreateSchemaEntry(final Schema schema) throws IOException {
+  private SchemaEntry getOrCreateSchemaEntry(final Schema schema) throws IOException {
     Preconditions.checkState(mIsOpen, "Schema tables are closed");
 
     final BytesKey schemaHash = getSchemaHash(schema);
+    final SchemaEntry cachedEntry = mSchemaHashMap.get(schemaHash);
+    if (cachedEntry != null) {
+      return cachedEntry;
+    }
+    return getOrCreateSchemaEntry(schema, schemaHash);
+  }
+
+  /**
+   * Looks up a schema entry given an Avro schema object that is not known in-memory.
+   *
+   * Looks in the HTables, and registers the schema if it is not found.
+   *
+   * @param schema Avro schema to look up.
+   * @param schemaHash Hash of the schema.
+   * @return Either the pre-existing entry for the specified schema, or a newly created entry.
+   * @throws IOException on I/O error.
+   */
+  private synchronized SchemaEntry getOrCreateSchemaEntry(
+      final Schema schema,
+      final BytesKey schemaHash)
+      throws IOException {
     final SchemaEntry knownEntry = getSchemaEntry(schemaHash);
     if (knownEntry != null) {
       return knownEntry;
@@ -452,8 +531,13 @@ public class HBaseSchemaTable extends KijiSchemaTable {
 
   /** {@inheritDoc} */
   @Override
-  public synchronized Schema getSchema(long schemaId) throws IOException {
-    final SchemaEntry entry = getSchemaEntry(schemaId);
+  public Schema getSchema(long schemaId) throws IOException {
+    Preconditions.checkState(mIsOpen, "Schema table is closed");
+    // Lock-free lookup of already-known schemas:
+    SchemaEntry entry = mSchemaIdMap.get(schemaId);
+    if (entry == null) {
+      entry = getSchemaEntry(schemaId);
+    }
     return (entry == null) ? null : entry.getSchema();
   }
 
@@ -473,6 +557,9 @@ public class HBaseSchemaTable extends KijiSchemaTable {
     if (existingEntry != null) {
       return existingEntry;
     }
+    if (null != mMetrics) {
+      mMetrics.recordSchemaTableMiss();
+    }
 
     // On a lookup miss from the local schema cache, check to see if we can get the schema
     // from the original HBase table, cache it locally, and return it.
@@ -486,7 +573,12 @@ public class HBaseSchemaTable extends KijiSchemaTable {
   /** {@inheritDoc} */
   @Override
   public Schema getSchema(BytesKey schemaHash) throws IOException {
-    final SchemaEntry entry = getSchemaEntry(schemaHash);
+    Preconditions.checkState(mIsOpen, "Schema table is closed");
+    // Lock-free lookup of already-known schemas:
+    SchemaEntry entry = mSchemaHashMap.get(schemaHash);
+    if (entry == null) {
+      entry = getSchemaEntry(schemaHash);
+    }
     return (entry == null) ? null : entry.getSchema();
   }
 
@@ -506,6 +598,9 @@ public class HBaseSchemaTable extends KijiSchemaTable {
     if (existingEntry != null) {
       return existingEntry;
     }
+    if (null != mMetrics) {
+      mMetrics.recordSchemaTableMiss();
+    }
 
     // On a lookup miss from the local schema cache, check to see if we can get the schema
     // from the original HBase table, cache it locally, and return it.
@@ -534,18 +629,13 @@ public class HBaseSchemaTable extends KijiSchemaTable {
    * Stores the specified schema entry in memory.
    *
    * External synchronization required.
+   * The ID mapping is published before the hash mapping, so that a concurrent lock-free reader
+   * that sees a schema hash can always resolve the corresponding schema ID.
    *
    * @param entry the SchemaEntry to store in memory.
    * @return the SchemaEntry stored in memory.
    */
   private SchemaEntry storeInMemory(final SchemaEntry entry) {
-    // Replacing an hash-mapped entry may happen, if two different IDs were assigned to one schema.
-    final SchemaEntry oldHashEntry = mSchemaHashMap.put(entry.getHash(), entry);
-    if (oldHashEntry != null) {
-      LOG.info(String.format(
-          "Replacing hash-mapped schema entry:%n%s%nwith:%n%s", oldHashEntry, entry));
-    }
-
     // Replacing an ID-mapped entry should never happen:
     // IDs are associated to at most one schema/hash.
     final SchemaEntry oldIdEntry = mSchemaIdMap.put(entry.getId(), entry);
@@ -553,6 +643,13 @@ public class HBaseSchemaTable extends KijiSchemaTable {
       throw new AssertionError(String.format(
           "Attempting to replace ID-mapped schema entry:%n%s%nwith:%n%s", oldIdEntry, entry));
     }
+
+    // Replacing an hash-mapped entry may happen, if two different IDs were assigned to one schema.
+    final SchemaEntry oldHashEntry = mSchemaHashMap.put(entry.getHash(), entry);
+    if (oldHashEntry != null) {
+      LOG.info(String.format(
+          "Replacing hash-mapped schema entry:%n%s%nwith:%n%s", oldHashEntry, entry));
+    }
     return entry;
   }
 
@@ -25,10 +25,12 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.layout.impl.HTableSchemaTranslator;
 
 /**
  * Comparator for HColumnDescriptors.  They are sorted by name, then
- * by max versions, ttl, and whether it is in memory.
+ * by max versions, ttl, whether it is in memory, compression, bloom filter,
+ * block size, block cache and data block encoding.
  */
 @ApiAudience.Private
 public class HColumnDescriptorComparator implements Comparator<HColumnDescriptor> {
@@ -50,7 +52,36 @@ public class HColumnDescriptorComparator implements Comparator<HColumnDescriptor
     if (inMemoryResult != 0) {
       return inMemoryResult;
     }
-    // TODO: Add things like bloomfiltertype as necessary.
-    return o1.getCompressionType().toString().compareTo(o2.getCompressionType().toString());
+    int compressionResult =
+        o1.getCompressionType().toString().compareTo(o2.getCompressionType().toString());
+    if (compressionResult != 0) {
+      return compressionResult;
+    }
+    int bloomResult =
+        o1.getBloomFilterType().toString().compareTo(o2.getBloomFilterType().toString());
+    if (bloomResult != 0) {
+      return bloomResult;
+    }
+    int blockSizeResult = Integer.valueOf(o1.getBlocksize()).compareTo(o2.getBlocksize());
+    if (blockSizeResult != 0) {
+      return blockSizeResult;
+    }
+    int blockCacheResult =
+        Boolean.valueOf(o1.isBlockCacheEnabled()).compareTo(o2.isBlockCacheEnabled());
+    if (blockCacheResult != 0) {
+      return blockCacheResult;
+    }
+    return getDataBlockEncoding(o1).compareTo(getDataBlockEncoding(o2));
+  }
+
+  /**
+   * Reports the data block encoding of a column descriptor.
+   *
+   * @param descriptor Column descriptor.
+   * @return the data block encoding of the column descriptor, NONE if unset.
+   */
+  private static String getDataBlockEncoding(HColumnDescriptor descriptor) {
+    final String encoding = descriptor.getValue(HTableSchemaTranslator.DATA_BLOCK_ENCODING);
+    return (null != encoding) ? encoding : "NONE";
   }
 }
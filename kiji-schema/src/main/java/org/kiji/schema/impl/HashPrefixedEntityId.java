@@ -52,11 +52,10 @@ public final class HashPrefixedEntityId extends EntityId {
   public static HashPrefixedEntityId getEntityId(byte[] kijiRowKey, RowKeyFormat format) {
     Preconditions.checkNotNull(format);
     Preconditions.checkArgument(format.getEncoding() == RowKeyEncoding.HASH_PREFIX);
-    final byte[] hash = hashKijiRowKey(format, kijiRowKey);
     final int hashSize = format.getHashSize();
     // Prepend a subset of the hash to the Kiji row key:
     final byte[] hbaseRowKey = new byte[hashSize + kijiRowKey.length];
-    System.arraycopy(hash, 0, hbaseRowKey, 0, hashSize);
+    Hasher.hash(format.getHashType(), kijiRowKey, 0, kijiRowKey.length, hbaseRowKey, 0, hashSize);
     System.arraycopy(kijiRowKey, 0, hbaseRowKey, hashSize, kijiRowKey.length);
     return new HashPrefixedEntityId(kijiRowKey, hbaseRowKey, format);
   }
@@ -86,12 +85,7 @@ public final class HashPrefixedEntityId extends EntityId {
    * @return a hash of the Kiji row key.
    */
   public static byte[] hashKijiRowKey(RowKeyFormat format, byte[] kijiRowKey) {
-    // TODO refactor into hash factories:
-    switch (format.getHashType()) {
-    case MD5: return Hasher.hash(kijiRowKey);
-    default:
-      throw new RuntimeException(String.format("Unexpected hashing type: '%s'.", format));
-    }
+    return Hasher.hash(format.getHashType(), kijiRowKey);
   }
 
   /**
@@ -76,12 +76,7 @@ public final class HashedEntityId extends EntityId {
    * @return a hash of the given Kiji row key.
    */
   public static byte[] hashKijiRowKey(RowKeyFormat format, byte[] kijiRowKey) {
-    // TODO refactor into hash factories:
-    switch (format.getHashType()) {
-    case MD5: return Hasher.hash(kijiRowKey);
-    default:
-      throw new RuntimeException(String.format("Unexpected hashing type: '%s'.", format));
-    }
+    return Hasher.hash(format.getHashType(), kijiRowKey);
   }
 
   /**
@@ -0,0 +1,107 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.impl;
+
+import java.io.IOException;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.DecodedCell;
+import org.kiji.schema.KijiCellDecoder;
+import org.kiji.schema.metrics.KijiMetrics;
+
+/**
+ * Cell decoder recording the time spent decoding cells in the metrics of a table.
+ *
+ * @param <T> Type of the values being decoded.
+ */
+@ApiAudience.Private
+final class MeteredCellDecoder<T> implements KijiCellDecoder<T> {
+  /** Wrapped cell decoder. */
+  private final KijiCellDecoder<T> mDecoder;
+
+  /** Metrics to record the decoding times in. */
+  private final KijiMetrics mMetrics;
+
+  /**
+   * Wraps a cell decoder.
+   *
+   * @param decoder Cell decoder to wrap.
+   * @param metrics Metrics to record the decoding times in.
+   */
+  MeteredCellDecoder(KijiCellDecoder<T> decoder, KijiMetrics metrics) {
+    mDecoder = decoder;
+    mMetrics = metrics;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public DecodedCell<T> decodeCell(byte[] bytes) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      return mDecoder.decodeCell(bytes);
+    } finally {
+      mMetrics.recordDecode(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public T decodeValue(byte[] bytes) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      return mDecoder.decodeValue(bytes);
+    } finally {
+      mMetrics.recordDecode(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public DecodedCell<T> decodeCell(byte[] bytes, int offset, int length) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      return mDecoder.decodeCell(bytes, offset, length);
+    } finally {
+      mMetrics.recordDecode(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public T decodeValue(byte[] bytes, int offset, int length) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      return mDecoder.decodeValue(bytes, offset, length);
+    } finally {
+      mMetrics.recordDecode(System.nanoTime() - startNanos);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public T decodeValue(byte[] bytes, int offset, int length, T reuse) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      return mDecoder.decodeValue(bytes, offset, length, reuse);
+    } finally {
+      mMetrics.recordDecode(System.nanoTime() - startNanos);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
@@ -51,6 +52,7 @@ import org.kiji.schema.NoSuchColumnException;
 import org.kiji.schema.avro.CellSchema;
 import org.kiji.schema.avro.ColumnDesc;
 import org.kiji.schema.avro.FamilyDesc;
+import org.kiji.schema.avro.HashType;
 import org.kiji.schema.avro.LocalityGroupDesc;
 import org.kiji.schema.avro.RowKeyComponent;
 import org.kiji.schema.avro.RowKeyEncoding;
@@ -259,11 +261,21 @@ public final class KijiTableLayout {
   // ProtocolVersions specifying when different features were added to layout functionality.
 
   /** Maximum layout version we can recognize. */
-  private static final ProtocolVersion MAX_LAYOUT_VER = ProtocolVersion.parse("layout-1.1.0");
+  private static final ProtocolVersion MAX_LAYOUT_VER = ProtocolVersion.parse("layout-1.2.0");
 
   /** First version where {@link RowKeyFormat2} was supported. */
   private static final ProtocolVersion RKF2_LAYOUT_VER = ProtocolVersion.parse("layout-1.1.0");
 
+  /** First version where the MURMUR3 hash type was supported. */
+  private static final ProtocolVersion MURMUR3_LAYOUT_VER = ProtocolVersion.parse("layout-1.2.0");
+
+  /**
+   * First version where the bloom filter, block size, block cache and data block encoding
+   * of locality groups were supported.
+   */
+  private static final ProtocolVersion LG_STORAGE_LAYOUT_VER =
+      ProtocolVersion.parse("layout-1.2.0");
+
   /** Minimum layout version we can recognize. */
   private static final ProtocolVersion MIN_LAYOUT_VER = ProtocolVersion.parse("layout-1.0.0");
 
@@ -716,6 +728,11 @@ public final class KijiTableLayout {
             "Invalid max versions for locality group '%s': max versions must be positive, got %d.",
             getName(), mDesc.getMaxVersions()));
       }
+      if ((null != mDesc.getBlockSize()) && (mDesc.getBlockSize() <= 0)) {
+        throw new InvalidLayoutException(String.format(
+            "Invalid block size for locality group '%s': block size must be positive, got %d.",
+            getName(), mDesc.getBlockSize()));
+      }
 
       if (reference != null) {
         if ((mId != null) && !mId.equals(reference.getId())) {
@@ -900,6 +917,12 @@ public final class KijiTableLayout {
   /** All primary column names in the table (including names for map-type families). */
   private final ImmutableSet<KijiColumnName> mColumnNames;
 
+  /**
+   * Avro schemas of the columns, parsed on first use. Keyed by family name for map-type
+   * families, and by column name for group-type families.
+   */
+  private final ConcurrentMap<String, Schema> mSchemas = Maps.newConcurrentMap();
+
   /**
    * Ensure a row key format (version 1) specified in a layout file is sane.
    * @param format The RowKeyFormat created from the layout file for a table.
@@ -983,6 +1006,23 @@ public final class KijiTableLayout {
     }
   }
 
+  /**
+   * Reports the hashing method of a row key format.
+   *
+   * @param keysFormat Row key format, either a RowKeyFormat or a RowKeyFormat2.
+   * @return the hashing method of the row keys, or null if the row keys are not hashed.
+   */
+  private static HashType getRowKeyHashType(Object keysFormat) {
+    if (keysFormat instanceof RowKeyFormat) {
+      return ((RowKeyFormat) keysFormat).getHashType();
+    } else if ((keysFormat instanceof RowKeyFormat2)
+        && (null != ((RowKeyFormat2) keysFormat).getSalt())) {
+      return ((RowKeyFormat2) keysFormat).getSalt().getHashType();
+    } else {
+      return null;
+    }
+  }
+
   // CSOFF: MethodLengthCheck
   /**
    * Constructs a KijiTableLayout from an Avro descriptor and an optional reference layout.
@@ -1045,6 +1085,29 @@ public final class KijiTableLayout {
           + RKF2_LAYOUT_VER.toString());
     }
 
+    // MurmurHash3 hashing of row keys was introduced in version 1.2.
+    if (MURMUR3_LAYOUT_VER.compareTo(layoutVersion) > 0
+        && getRowKeyHashType(mDesc.getKeysFormat()) == HashType.MURMUR3) {
+      throw new InvalidLayoutException(
+          "Support for the MURMUR3 row key hash type begins with layout version "
+          + MURMUR3_LAYOUT_VER.toString());
+    }
+
+    // Locality group storage settings were introduced in version 1.2.
+    if (LG_STORAGE_LAYOUT_VER.compareTo(layoutVersion) > 0) {
+      for (LocalityGroupDesc lgDesc : mDesc.getLocalityGroups()) {
+        if ((null != lgDesc.getBloomType())
+            || (null != lgDesc.getBlockSize())
+            || (null != lgDesc.getBlockCacheEnabled())
+            || (null != lgDesc.getDataBlockEncoding())) {
+          throw new InvalidLayoutException(String.format(
+              "Support for the bloom_type, block_size, block_cache_enabled and "
+              + "data_block_encoding of locality group '%s' begins with layout version %s",
+              lgDesc.getName(), LG_STORAGE_LAYOUT_VER));
+        }
+      }
+    }
+
     if (!isValidName(getName())) {
       throw new InvalidLayoutException(String.format("Invalid table name: '%s'.", getName()));
     }
@@ -1295,6 +1358,9 @@ public final class KijiTableLayout {
   /**
    * Reports the schema of the specified column.
    *
+   * <p>Schemas are parsed once: the same instance is returned for all the qualifiers of a
+   * map-type family, and for repeated calls on a column. Callers must not modify it.</p>
+   *
    * @param columnName Column name.
    * @return the schema of the column.
    * @throws InvalidLayoutException if the layout is invalid.
@@ -1302,7 +1368,20 @@ public final class KijiTableLayout {
    */
   public Schema getSchema(KijiColumnName columnName)
       throws InvalidLayoutException, NoSuchColumnException {
-    return readAvroSchema(getCellSchema(columnName));
+    final FamilyLayout fLayout = mFamilyMap.get(columnName.getFamily());
+    final String key = ((null != fLayout) && fLayout.isMapType())
+        ? fLayout.getName()
+        : columnName.getName();
+    final Schema cached = mSchemas.get(key);
+    if (null != cached) {
+      return cached;
+    }
+    final Schema schema = readAvroSchema(getCellSchema(columnName));
+    if (null == schema) {
+      return null;
+    }
+    final Schema existing = mSchemas.putIfAbsent(key, schema);
+    return (null != existing) ? existing : schema;
   }
 
   /**
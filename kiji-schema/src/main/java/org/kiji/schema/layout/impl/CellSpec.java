@@ -47,6 +47,9 @@ public final class CellSpec {
   /** For Avro encoded cells, decode the cell content in this reader schema. */
   private Schema mReaderSchema;
 
+  /** For Avro encoded cells, the schema declared by the cell schema. Null until it is set. */
+  private Schema mDeclaredSchema;
+
   /** Schema table to resolve schema hashes or UIDs. */
   private KijiSchemaTable mSchemaTable;
 
@@ -95,7 +98,8 @@ public final class CellSpec {
   public CellSpec setCellSchema(CellSchema cellSchema) throws InvalidLayoutException {
     mCellSchema = cellSchema;
     if (isAvro()) {
-      setReaderSchema(readAvroSchema(cellSchema));
+      mDeclaredSchema = readAvroSchema(cellSchema);
+      setReaderSchema(mDeclaredSchema);
     }
     return this;
   }
@@ -188,6 +192,19 @@ public final class CellSpec {
     return mReaderSchema;
   }
 
+  /**
+   * Reports the Avro schema declared by the cell schema, even if the reader schema was
+   * overridden. Cells of final columns are always encoded with this schema.
+   * Valid for Avro cells only.
+   *
+   * @return the Avro schema declared by the cell schema, or the reader schema if this
+   *     specification was not initialized from a cell schema.
+   */
+  public Schema getDeclaredSchema() {
+    Preconditions.checkState(isAvro());
+    return (null != mDeclaredSchema) ? mDeclaredSchema : mReaderSchema;
+  }
+
   /**
    * Reads the Avro schema from the table layout.
    *
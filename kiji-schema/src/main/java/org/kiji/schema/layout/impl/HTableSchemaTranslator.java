@@ -23,6 +23,7 @@ import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
 
 import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.avro.LocalityGroupDesc;
 import org.kiji.schema.hbase.KijiManagedHBaseTableName;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayout.LocalityGroupLayout;
@@ -37,6 +38,14 @@ import org.kiji.schema.layout.KijiTableLayout.LocalityGroupLayout;
  */
 @ApiAudience.Private
 public final class HTableSchemaTranslator {
+  /**
+   * HColumnDescriptor key of the data block encoding.
+   *
+   * <p>Set as a raw value so that descriptors can be built against HBase 0.92,
+   * which does not know about data block encodings and ignores the key.</p>
+   */
+  public static final String DATA_BLOCK_ENCODING = "DATA_BLOCK_ENCODING";
+
   /**
    * Creates a new <code>HTableSchemaTranslator</code> instance.
    */
@@ -72,13 +81,23 @@ public final class HTableSchemaTranslator {
    * @return The HColumnDescriptor to use for storing the data in the locality group.
    */
   private static HColumnDescriptor toHColumnDescriptor(LocalityGroupLayout localityGroup) {
-    return new HColumnDescriptor(
+    final LocalityGroupDesc desc = localityGroup.getDesc();
+    final HColumnDescriptor columnDescriptor = new HColumnDescriptor(
         localityGroup.getId().toByteArray(),  // HBase family name
-        localityGroup.getDesc().getMaxVersions(),
-        localityGroup.getDesc().getCompressionType().toString(),
-        localityGroup.getDesc().getInMemory(),
-        true,  // block cache
-        localityGroup.getDesc().getTtlSeconds(),
-        HColumnDescriptor.DEFAULT_BLOOMFILTER);
+        desc.getMaxVersions(),
+        desc.getCompressionType().toString(),
+        desc.getInMemory(),
+        (null != desc.getBlockCacheEnabled()) ? desc.getBlockCacheEnabled() : true,
+        desc.getTtlSeconds(),
+        (null != desc.getBloomType())
+            ? desc.getBloomType().toString()
+            : HColumnDescriptor.DEFAULT_BLOOMFILTER);
+    if (null != desc.getBlockSize()) {
+      columnDescriptor.setBlocksize(desc.getBlockSize());
+    }
+    if (null != desc.getDataBlockEncoding()) {
+      columnDescriptor.setValue(DATA_BLOCK_ENCODING, desc.getDataBlockEncoding().toString());
+    }
+    return columnDescriptor;
   }
 }
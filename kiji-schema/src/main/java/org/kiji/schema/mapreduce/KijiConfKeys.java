@@ -32,6 +32,31 @@ public final class KijiConfKeys {
   /** Serialized input data request. */
   public static final String INPUT_DATA_REQUEST = "kiji.input.request";
 
+  /**
+   * Target number of bytes per input split. Regions larger than this are cut into several
+   * splits, when the row keys of the input table are hashed. 0 means one split per region.
+   */
+  public static final String INPUT_SPLIT_TARGET_BYTES = "kiji.input.split.target.bytes";
+
+  /** Maximum number of input splits to cut a single region into. */
+  public static final String INPUT_SPLIT_MAX_PER_REGION = "kiji.input.split.max.per.region";
+
+  /** Number of rows region servers return with each scanner RPC (HBase scan caching). */
+  public static final String INPUT_SCAN_PREFETCH_SIZE = "kiji.input.scan.prefetch.size";
+
+  /**
+   * Maximum number of cells per row returned by each scanner RPC (HBase scan batching).
+   *
+   * <p>Rows with more cells than this are split across several HBase results: mappers then
+   * receive several partial KijiRowData with the same entity ID, one per batch, rather than
+   * one row with all its cells. Only set this for jobs that process cells independently of the
+   * row they belong to. Unset by default.</p>
+   */
+  public static final String INPUT_SCAN_BATCH_SIZE = "kiji.input.scan.batch.size";
+
+  /** Whether region servers cache the blocks read by input scans. False by default. */
+  public static final String INPUT_SCAN_CACHE_BLOCKS = "kiji.input.scan.cache.blocks";
+
   /** Utility class may not be instantiated. */
   private KijiConfKeys() {
   }
@@ -0,0 +1,233 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.mapreduce;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.HFileOutputFormat;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.EntityId;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiCellEncoder;
+import org.kiji.schema.KijiColumnName;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.KijiURIException;
+import org.kiji.schema.hbase.HBaseColumnName;
+import org.kiji.schema.impl.DefaultKijiCellEncoderFactory;
+import org.kiji.schema.impl.HBaseKijiTable;
+import org.kiji.schema.layout.ColumnNameTranslator;
+import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.impl.CellSpec;
+import org.kiji.schema.util.ResourceUtils;
+
+/**
+ * OutputFormat for Hadoop MapReduce jobs writing HFiles to bulk-load into a Kiji table.
+ *
+ * <p>Jobs configured with {@link #configureJob(Job, KijiURI, Path)} have one reducer per region
+ * of the output table, and write one sorted HFile per region and locality group. Mappers emit
+ * HBase KeyValues keyed by their HBase row key, and encode the Kiji cells with a
+ * {@link KeyValueEncoder}:</p>
+ * <pre>
+ *   final KeyValue kv = mEncoder.encode(entityId, "info", "name", timestamp, name);
+ *   context.write(new ImmutableBytesWritable(kv.getRow()), kv);
+ * </pre>
+ *
+ * <p>Once the job completes, load the HFiles into the table with the <tt>bulk-load</tt> tool.
+ * </p>
+ */
+@ApiAudience.Public
+@Deprecated
+public class KijiHFileOutputFormat extends FileOutputFormat<ImmutableBytesWritable, KeyValue> {
+  /** Writes the HFiles: this output format only adds the Kiji-specific configuration. */
+  private final HFileOutputFormat mHFileOutputFormat = new HFileOutputFormat();
+
+  /** {@inheritDoc} */
+  @Override
+  public RecordWriter<ImmutableBytesWritable, KeyValue> getRecordWriter(
+      TaskAttemptContext context) throws IOException, InterruptedException {
+    return mHFileOutputFormat.getRecordWriter(context);
+  }
+
+  /**
+   * Configures a Hadoop M/R job to write HFiles for a given table.
+   *
+   * <p>The job is partitioned according to the current region boundaries of the table, with
+   * one reducer per region. Regions split after the job is configured are handled by the bulk
+   * load, at the cost of splitting the HFiles.</p>
+   *
+   * @param job Job to configure.
+   * @param tableURI URI of the table to write HFiles for.
+   * @param outputDir Directory to write the HFiles to.
+   * @throws IOException on I/O error.
+   */
+  public static void configureJob(Job job, KijiURI tableURI, Path outputDir) throws IOException {
+    final Configuration conf = job.getConfiguration();
+    final Kiji kiji = Kiji.Factory.open(tableURI, conf);
+    try {
+      final KijiTable table = kiji.openTable(tableURI.getTable());
+      try {
+        final HTableInterface htable = HBaseKijiTable.downcast(table).openHTableConnection();
+        try {
+          Preconditions.checkState(htable instanceof HTable,
+              "Cannot get the region boundaries of table %s.", tableURI);
+          job.setMapOutputKeyClass(ImmutableBytesWritable.class);
+          job.setMapOutputValueClass(KeyValue.class);
+          // Sets up the total order partitioner over the region boundaries, the sort reducer
+          // and the compression of each locality group.
+          HFileOutputFormat.configureIncrementalLoad(job, (HTable) htable);
+        } finally {
+          ResourceUtils.closeOrLog(htable);
+        }
+      } finally {
+        IOUtils.closeQuietly(table);
+      }
+    } finally {
+      kiji.release();
+    }
+
+    job.setOutputFormatClass(KijiHFileOutputFormat.class);
+    FileOutputFormat.setOutputPath(job, outputDir);
+    conf.set(KijiConfKeys.OUTPUT_KIJI_TABLE_URI, tableURI.toString());
+  }
+
+  /**
+   * Encodes Kiji cells into HBase KeyValues, for the output table of a job.
+   *
+   * <p>Cells are encoded with the cell encoders and the column names of the current layout of
+   * the table, as the KijiTableWriter does. Encoders are not thread-safe.</p>
+   */
+  @ApiAudience.Public
+  public static final class KeyValueEncoder implements Closeable {
+    /** Kiji instance of the output table. */
+    private final Kiji mKiji;
+
+    /** Output table. */
+    private final KijiTable mTable;
+
+    /** Layout of the output table. */
+    private final KijiTableLayout mLayout;
+
+    /** Translates Kiji column names into HBase column names. */
+    private final ColumnNameTranslator mTranslator;
+
+    /** Cell encoders, by family for map-type families, and by column for group-type families. */
+    private final Map<String, KijiCellEncoder> mEncoders = Maps.newHashMap();
+
+    /**
+     * Opens an encoder for the output table of a job.
+     *
+     * @param conf Configuration of the job, as set by
+     *     {@link KijiHFileOutputFormat#configureJob(Job, KijiURI, Path)}.
+     * @throws IOException on I/O error.
+     */
+    public KeyValueEncoder(Configuration conf) throws IOException {
+      final KijiURI tableURI;
+      try {
+        tableURI = KijiURI.newBuilder(conf.get(KijiConfKeys.OUTPUT_KIJI_TABLE_URI)).build();
+      } catch (KijiURIException kue) {
+        throw new IOException(kue);
+      }
+      mKiji = Kiji.Factory.open(tableURI, conf);
+      mTable = mKiji.openTable(tableURI.getTable());
+      mLayout = mTable.getLayout();
+      mTranslator = new ColumnNameTranslator(mLayout);
+    }
+
+    /**
+     * Creates an entity ID for a row of the output table.
+     *
+     * @param components Components of the entity ID.
+     * @return the entity ID for the row.
+     */
+    public EntityId getEntityId(Object... components) {
+      return mTable.getEntityId(components);
+    }
+
+    /**
+     * Encodes a Kiji cell into an HBase KeyValue.
+     *
+     * @param entityId Entity ID of the row to write the cell to.
+     * @param family Kiji family of the cell.
+     * @param qualifier Kiji qualifier of the cell.
+     * @param timestamp Timestamp of the cell.
+     * @param value Value of the cell.
+     * @param <T> Type of the value.
+     * @return the HBase KeyValue for the cell.
+     * @throws IOException if the column does not exist or on encoding error.
+     */
+    public <T> KeyValue encode(
+        EntityId entityId, String family, String qualifier, long timestamp, T value)
+        throws IOException {
+      final KijiColumnName columnName = new KijiColumnName(family, qualifier);
+      final HBaseColumnName hbaseColumnName = mTranslator.toHBaseColumnName(columnName);
+      return new KeyValue(
+          entityId.getHBaseRowKey(),
+          hbaseColumnName.getFamily(),
+          hbaseColumnName.getQualifier(),
+          timestamp,
+          getEncoder(columnName).encode(value));
+    }
+
+    /**
+     * Gets the cell encoder for a column, creating it if necessary.
+     *
+     * @param columnName Kiji column to get the cell encoder of.
+     * @return the cell encoder for the column.
+     * @throws IOException on I/O error.
+     */
+    private KijiCellEncoder getEncoder(KijiColumnName columnName) throws IOException {
+      final String key = mLayout.getFamilyMap().get(columnName.getFamily()).isMapType()
+          ? columnName.getFamily()
+          : columnName.getName();
+      KijiCellEncoder encoder = mEncoders.get(key);
+      if (null == encoder) {
+        final CellSpec cellSpec = mLayout.getCellSpec(columnName)
+            .setSchemaTable(mKiji.getSchemaTable());
+        encoder = DefaultKijiCellEncoderFactory.get().create(cellSpec);
+        mEncoders.put(key, encoder);
+      }
+      return encoder;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+      IOUtils.closeQuietly(mTable);
+      mKiji.release();
+    }
+  }
+}
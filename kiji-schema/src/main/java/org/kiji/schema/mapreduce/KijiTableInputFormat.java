@@ -22,8 +22,12 @@ package org.kiji.schema.mapreduce;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.codec.binary.Base64;
@@ -31,7 +35,12 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.SerializationUtils;
 import org.apache.hadoop.conf.Configurable;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.ClusterStatus;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HServerLoad;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
 import org.apache.hadoop.hbase.mapreduce.TableSplit;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.mapreduce.InputFormat;
@@ -48,15 +57,19 @@ import org.kiji.schema.Kiji;
 import org.kiji.schema.KijiDataRequest;
 import org.kiji.schema.KijiRegion;
 import org.kiji.schema.KijiRowData;
+import org.kiji.schema.KijiRowKeySplitter;
 import org.kiji.schema.KijiRowScanner;
 import org.kiji.schema.KijiTable;
 import org.kiji.schema.KijiTableReader;
 import org.kiji.schema.KijiTableReader.KijiScannerOptions;
 import org.kiji.schema.KijiURI;
 import org.kiji.schema.KijiURIException;
+import org.kiji.schema.hbase.HBaseScanOptions;
 import org.kiji.schema.impl.HBaseEntityId;
+import org.kiji.schema.impl.HBaseKiji;
 import org.kiji.schema.impl.HBaseKijiRowData;
 import org.kiji.schema.impl.HBaseKijiTable;
+import org.kiji.schema.platform.SchemaPlatformBridge;
 
 /** InputFormat for Hadoop MapReduce jobs reading from a Kiji table. */
 @Deprecated
@@ -65,6 +78,21 @@ public class KijiTableInputFormat
     implements Configurable {
   private static final Logger LOG = LoggerFactory.getLogger(KijiTableInputFormat.class);
 
+  /** Default maximum number of input splits per region. */
+  private static final int DEFAULT_MAX_SPLITS_PER_REGION = 16;
+
+  /** Hadoop counters reported by the Kiji table record readers. */
+  public static enum Counters {
+    /** Number of rows read. */
+    ROWS_READ,
+
+    /** Number of bytes of cells read. */
+    BYTES_READ,
+
+    /** Time spent reading rows, in milliseconds. Rows per second is ROWS_READ / SCAN_MILLIS. */
+    SCAN_MILLIS
+  }
+
   /** Configuration of this input format. */
   private Configuration mConf;
 
@@ -93,23 +121,151 @@ public class KijiTableInputFormat
     final Configuration conf = context.getConfiguration();
     final KijiURI inputTableURI = getInputTableURI(conf);
     final Kiji kiji = Kiji.Factory.open(inputTableURI, conf);
-    final KijiTable table = kiji.openTable(inputTableURI.getTable());
+    try {
+      final KijiTable table = kiji.openTable(inputTableURI.getTable());
+      try {
+        return getSplits(conf, kiji, table);
+      } finally {
+        IOUtils.closeQuietly(table);
+      }
+    } finally {
+      kiji.release();
+    }
+  }
+
+  /**
+   * Computes the input splits of a Kiji table.
+   *
+   * <p>By default, there is one split per region. When a target number of bytes per split is
+   * configured and the row keys of the table are hashed, large regions are cut into several
+   * splits of about the target size, based on the region sizes reported by the cluster.</p>
+   *
+   * @param conf Configuration of the job.
+   * @param kiji Kiji instance the table belongs to.
+   * @param table Kiji table to compute the input splits of.
+   * @return the input splits of the table.
+   * @throws IOException on I/O error.
+   */
+  private static List<InputSplit> getSplits(Configuration conf, Kiji kiji, KijiTable table)
+      throws IOException {
+    final byte[] tableName = HBaseKijiTable.downcast(table).getHTable().getTableName();
+
+    final long targetBytes = conf.getLong(KijiConfKeys.INPUT_SPLIT_TARGET_BYTES, 0L);
+    final int maxSplitsPerRegion = Math.max(1,
+        conf.getInt(KijiConfKeys.INPUT_SPLIT_MAX_PER_REGION, DEFAULT_MAX_SPLITS_PER_REGION));
+    Map<byte[], Long> regionSizes = Collections.emptyMap();
+    if (targetBytes > 0) {
+      if (KijiRowKeySplitter.hasHashedRowKeys(table.getLayout())) {
+        regionSizes = getRegionSizes(((HBaseKiji) kiji).getHBaseAdmin(), tableName);
+      } else {
+        LOG.info("Row keys of table {} are not hashed: using one input split per region.",
+            table.getURI());
+      }
+    }
 
-    final HTableInterface htable = HBaseKijiTable.downcast(table).getHTable();
+    return getSplits(tableName, table.getRegions(), regionSizes, targetBytes, maxSplitsPerRegion);
+  }
 
+  /**
+   * Computes the input splits of a table from its regions.
+   *
+   * <p>Regions with a known size are cut into splits of about targetBytes bytes each, up to
+   * maxSplitsPerRegion splits. The other regions each make one split.</p>
+   *
+   * @param tableName HBase name of the table.
+   * @param regions Regions of the table.
+   * @param regionSizes Map from region start keys to region sizes, in bytes, ordered by
+   *     {@link Bytes#BYTES_COMPARATOR}.
+   * @param targetBytes Target number of bytes per split.
+   * @param maxSplitsPerRegion Maximum number of splits per region.
+   * @return the input splits of the table.
+   */
+  static List<InputSplit> getSplits(
+      byte[] tableName,
+      List<KijiRegion> regions,
+      Map<byte[], Long> regionSizes,
+      long targetBytes,
+      int maxSplitsPerRegion) {
     final List<InputSplit> splits = Lists.newArrayList();
-    for (KijiRegion region : table.getRegions()) {
+    for (KijiRegion region : regions) {
       final byte[] startKey = region.getStartKey();
-      // TODO: a smart way to get which location is most relevant.
-      final String location =
-          region.getLocations().isEmpty() ? null : region.getLocations().iterator().next();
-      final TableSplit tableSplit = new TableSplit(
-          htable.getTableName(), startKey, region.getEndKey(), location);
-      splits.add(new KijiTableSplit(tableSplit, startKey));
+      final String location = getSplitLocation(region);
+      final Long regionSize = regionSizes.get(startKey);
+      if (null == regionSize) {
+        final TableSplit tableSplit =
+            new TableSplit(tableName, startKey, region.getEndKey(), location);
+        splits.add(new KijiTableSplit(tableSplit, startKey));
+        continue;
+      }
+
+      final long idealNumSplits = Math.max(1L, (regionSize + targetBytes - 1) / targetBytes);
+      final int numSplits = (int) Math.min(maxSplitsPerRegion, idealNumSplits);
+      final byte[][] splitKeys =
+          KijiRowKeySplitter.getSplitKeys(startKey, region.getEndKey(), numSplits);
+      final long splitSize = Math.max(1L, regionSize / (splitKeys.length + 1));
+      byte[] splitStart = startKey;
+      for (int i = 0; i <= splitKeys.length; ++i) {
+        final byte[] splitEnd = (i < splitKeys.length) ? splitKeys[i] : region.getEndKey();
+        final TableSplit tableSplit = new TableSplit(tableName, splitStart, splitEnd, location);
+        splits.add(new KijiTableSplit(tableSplit, startKey, splitSize));
+        splitStart = splitEnd;
+      }
     }
     return splits;
   }
 
+  /**
+   * Reports the host the input splits of a region should preferably run on.
+   *
+   * <p>A region is served by a single region server: splits are best run on its host.</p>
+   *
+   * @param region Region to report the preferred host of.
+   * @return the host name of the region server, or null if the location is unknown.
+   */
+  private static String getSplitLocation(KijiRegion region) {
+    if (region.getLocations().isEmpty()) {
+      return null;
+    }
+    // Locations are reported as hostname:port, Hadoop schedules tasks by host name.
+    final String location = region.getLocations().iterator().next();
+    final int colon = location.lastIndexOf(':');
+    return (colon < 0) ? location : location.substring(0, colon);
+  }
+
+  /**
+   * Reports the sizes of the regions of a table, as reported by the region servers.
+   *
+   * @param admin HBase admin of the cluster hosting the table.
+   * @param tableName HBase name of the table.
+   * @return the map from region start keys to region sizes, in bytes. Regions whose size is not
+   *     known are omitted.
+   */
+  private static Map<byte[], Long> getRegionSizes(HBaseAdmin admin, byte[] tableName) {
+    final Map<byte[], Long> sizes = new TreeMap<byte[], Long>(Bytes.BYTES_COMPARATOR);
+    try {
+      final Map<byte[], Long> regionNameSizes =
+          new TreeMap<byte[], Long>(Bytes.BYTES_COMPARATOR);
+      final ClusterStatus status = admin.getClusterStatus();
+      for (ServerName server : status.getServers()) {
+        for (HServerLoad.RegionLoad load : status.getLoad(server).getRegionsLoad().values()) {
+          final long sizeMB = load.getStorefileSizeMB() + load.getMemStoreSizeMB();
+          regionNameSizes.put(load.getName(), sizeMB * 1024L * 1024L);
+        }
+      }
+      for (HRegionInfo region : admin.getTableRegions(tableName)) {
+        final Long size = regionNameSizes.get(region.getRegionName());
+        if (null != size) {
+          sizes.put(region.getStartKey(), size);
+        }
+      }
+    } catch (IOException ioe) {
+      LOG.warn("Unable to get region sizes, using one input split per region: {}",
+          ioe.getMessage());
+      sizes.clear();
+    }
+    return sizes;
+  }
+
   /**
    * Configures a Hadoop M/R job to read from a given table.
    *
@@ -127,6 +283,31 @@ public class KijiTableInputFormat
       String startRow,
       String endRow)
       throws IOException {
+    configureJob(job, tableURI, dataRequest, startRow, endRow, new HBaseScanOptions());
+  }
+
+  /**
+   * Configures a Hadoop M/R job to read from a given table.
+   *
+   * <p>Scan options that are not set use the HBase defaults, except for block caching:
+   * full table scans do not cache blocks unless requested explicitly.</p>
+   *
+   * @param job Job to configure.
+   * @param tableURI URI of the table to read from.
+   * @param dataRequest Data request.
+   * @param startRow Minimum row key to process.
+   * @param endRow Maximum row Key to process.
+   * @param scanOptions Options for the HBase scans reading the table.
+   * @throws IOException on I/O error.
+   */
+  public static void configureJob(
+      Job job,
+      KijiURI tableURI,
+      KijiDataRequest dataRequest,
+      String startRow,
+      String endRow,
+      HBaseScanOptions scanOptions)
+      throws IOException {
 
     final Configuration conf = job.getConfiguration();
     // As a precaution, be sure the table exists and can be opened.
@@ -146,6 +327,15 @@ public class KijiTableInputFormat
         Base64.encodeBase64String(SerializationUtils.serialize(dataRequest));
     conf.set(KijiConfKeys.INPUT_DATA_REQUEST, serializedRequest);
     conf.set(KijiConfKeys.INPUT_TABLE_URI, tableURI.toString());
+    if (null != scanOptions.getServerPrefetchSize()) {
+      conf.setInt(KijiConfKeys.INPUT_SCAN_PREFETCH_SIZE, scanOptions.getServerPrefetchSize());
+    }
+    if (null != scanOptions.getClientBufferSize()) {
+      conf.setInt(KijiConfKeys.INPUT_SCAN_BATCH_SIZE, scanOptions.getClientBufferSize());
+    }
+    if (null != scanOptions.getCacheBlocks()) {
+      conf.setBoolean(KijiConfKeys.INPUT_SCAN_CACHE_BLOCKS, scanOptions.getCacheBlocks());
+    }
   }
 
   /** Hadoop record reader for Kiji table rows. */
@@ -168,6 +358,18 @@ public class KijiTableInputFormat
 
     private HBaseKijiRowData mCurrentRow = null;
 
+    /** Context of the task reading rows, used to report counters. */
+    private TaskAttemptContext mContext = null;
+
+    /** Platform bridge to report counters with, resolved once when the reader is initialized. */
+    private SchemaPlatformBridge mBridge = null;
+
+    /** Number of rows read so far. */
+    private long mRowsRead = 0;
+
+    /** Time spent reading rows so far, in nanoseconds. */
+    private long mScanNanos = 0;
+
     /**
      * Creates a new RecordReader for this input format. This RecordReader will perform the actual
      * reads from Kiji.
@@ -198,10 +400,39 @@ public class KijiTableInputFormat
       final KijiScannerOptions scannerOptions =
           new KijiScannerOptions()
           .setStartRow(new HBaseEntityId(mSplit.getStartRow()))
-          .setStopRow(new HBaseEntityId(mSplit.getEndRow()));
+          .setStopRow(new HBaseEntityId(mSplit.getEndRow()))
+          .setHBaseScanOptions(getScanOptions(conf));
       mScanner = mReader.getScanner(mDataRequest, scannerOptions);
       mIterator = mScanner.iterator();
       mCurrentRow = null;
+      mContext = context;
+      mBridge = SchemaPlatformBridge.get();
+      mRowsRead = 0;
+      mScanNanos = 0;
+    }
+
+    /**
+     * Reads the HBase scan options configured for the job.
+     *
+     * @param conf Configuration of the job.
+     * @return the HBase scan options configured for the job.
+     */
+    static HBaseScanOptions getScanOptions(Configuration conf) {
+      final HBaseScanOptions scanOptions = new HBaseScanOptions();
+      final int prefetchSize = conf.getInt(KijiConfKeys.INPUT_SCAN_PREFETCH_SIZE, 0);
+      if (prefetchSize > 0) {
+        scanOptions.setServerPrefetchSize(prefetchSize);
+      }
+      final int batchSize = conf.getInt(KijiConfKeys.INPUT_SCAN_BATCH_SIZE, 0);
+      if (batchSize > 0) {
+        LOG.warn("Scan batch size is {}: rows with more cells are split into several partial rows"
+            + " with the same entity ID.", batchSize);
+        scanOptions.setClientBufferSize(batchSize);
+      }
+      // Blocks read by a full table scan are unlikely to be read again soon:
+      // caching them would only evict the blocks of the online workload.
+      scanOptions.setCacheBlocks(conf.getBoolean(KijiConfKeys.INPUT_SCAN_CACHE_BLOCKS, false));
+      return scanOptions;
     }
 
     /** {@inheritDoc} */
@@ -226,18 +457,38 @@ public class KijiTableInputFormat
     /** {@inheritDoc} */
     @Override
     public boolean nextKeyValue() throws IOException {
-      if (mIterator.hasNext()) {
-        mCurrentRow = (HBaseKijiRowData) mIterator.next();
-        return true;
-      } else {
-        mCurrentRow = null;
+      final long startTime = System.nanoTime();
+      final boolean hasNext = mIterator.hasNext();
+      mCurrentRow = hasNext ? (HBaseKijiRowData) mIterator.next() : null;
+      mScanNanos += System.nanoTime() - startTime;
+      if (!hasNext) {
         return false;
       }
+
+      mRowsRead += 1;
+      long bytesRead = 0;
+      final KeyValue[] kvs = mCurrentRow.getHBaseResult().raw();
+      if (null != kvs) {
+        for (KeyValue kv : kvs) {
+          bytesRead += kv.getLength();
+        }
+      }
+      mBridge.incrementCounter(mContext, Counters.ROWS_READ, 1);
+      mBridge.incrementCounter(mContext, Counters.BYTES_READ, bytesRead);
+      return true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void close() throws IOException {
+      if (null != mContext) {
+        final long scanMillis = TimeUnit.NANOSECONDS.toMillis(mScanNanos);
+        mBridge.incrementCounter(mContext, Counters.SCAN_MILLIS, scanMillis);
+        LOG.info("Read {} rows in {} ms ({} rows/s).", new Object[] {
+            mRowsRead, scanMillis, (scanMillis > 0) ? (mRowsRead * 1000L / scanMillis) : "-"});
+      }
+      mContext = null;
+      mBridge = null;
       IOUtils.closeQuietly(mScanner);
       IOUtils.closeQuietly(mReader);
       IOUtils.closeQuietly(mTable);
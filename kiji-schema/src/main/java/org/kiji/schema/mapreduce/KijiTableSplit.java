@@ -57,6 +57,18 @@ class KijiTableSplit extends TableSplit {
     mRegionStartKey = regionStartKey;
   }
 
+  /**
+   * Create a new KijiTableSplit instance from an HBase TableSplit, with an estimated length.
+   *
+   * @param tableSplit the HBase TableSplit to clone.
+   * @param regionStartKey the starting key of the region associated with this split.
+   * @param length the estimated length of the split, in bytes, or 0 to use the default estimate.
+   */
+  public KijiTableSplit(TableSplit tableSplit, byte[] regionStartKey, long length) {
+    this(tableSplit, regionStartKey);
+    mSplitSize = length;
+  }
+
   /**
    * Returns the start key of the region associated with this split.  If this split
    * is the first in the total scan, this may differ from the value returned by
@@ -71,8 +83,8 @@ class KijiTableSplit extends TableSplit {
   /**
    * Returns the length of the split.
    *
-   * This method does not currently examine the data in the region
-   * represented by the split. We assume that each split is 3/4 full (where
+   * Unless the split was created with a length estimate, this method does not examine the
+   * data in the region represented by the split. We assume that each split is 3/4 full (where
    * "full" is defined as hbase.hregion.max.filesize). If the region had
    * that many bytes in it, it would split in two, each containing 1/2 that
    * many bytes. So we expect, on average, regions to be halfway between
@@ -103,6 +115,7 @@ class KijiTableSplit extends TableSplit {
   public void readFields(DataInput in) throws IOException {
     super.readFields(in); // read all superclass fields.
     mRegionStartKey = Bytes.readByteArray(in);
+    mSplitSize = in.readLong();
   }
 
   /** {@inheritDoc} */
@@ -110,5 +123,6 @@ class KijiTableSplit extends TableSplit {
   public void write(DataOutput out) throws IOException {
     super.write(out); // write all superclass fields.
     Bytes.writeByteArray(out, mRegionStartKey);
+    out.writeLong(mSplitSize);
   }
 }
@@ -0,0 +1,404 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.KijiURI;
+
+/**
+ * Registry of the metrics of a Kiji instance or of a Kiji table.
+ *
+ * <p>
+ *   Recording is lock-free and costs a few atomic increments, so that it can stay enabled on
+ *   the read and write paths. A registry may have a parent: metrics recorded in the registry
+ *   of a table are also recorded in the registry of its Kiji instance.
+ * </p>
+ *
+ * <p>Registries are exposed through JMX once {@link #register(ObjectName)} is called.</p>
+ */
+@ApiAudience.Private
+public final class KijiMetrics implements KijiMetricsMXBean {
+  private static final Logger LOG = LoggerFactory.getLogger(KijiMetrics.class);
+
+  /** JMX domain of the Kiji metrics. */
+  public static final String JMX_DOMAIN = "org.kiji.schema";
+
+  /** Operations whose latencies are recorded. */
+  public static enum Operation {
+    GET,
+    BULK_GET,
+    SCANNER_NEXT,
+    PUT,
+    INCREMENT,
+    DELETE
+  }
+
+  /** Parent registry, or null. */
+  private final KijiMetrics mParent;
+
+  /** Latency histograms, indexed by operation ordinal. */
+  private final LatencyHistogram[] mLatencies;
+
+  private final AtomicLong mCellsRead = new AtomicLong();
+  private final AtomicLong mBytesRead = new AtomicLong();
+  private final AtomicLong mCellsWritten = new AtomicLong();
+  private final AtomicLong mBytesWritten = new AtomicLong();
+  private final AtomicLong mIncrementsIssued = new AtomicLong();
+  private final AtomicLong mIncrementsSent = new AtomicLong();
+  private final AtomicLong mCellsDecoded = new AtomicLong();
+  private final AtomicLong mDecodeNanos = new AtomicLong();
+  private final AtomicLong mSchemaTableMisses = new AtomicLong();
+  private final AtomicLong mRowCacheHits = new AtomicLong();
+  private final AtomicLong mRowCacheMisses = new AtomicLong();
+
+  /** Name this registry is registered with in JMX, or null. */
+  private ObjectName mObjectName = null;
+
+  /**
+   * Creates a new metrics registry.
+   *
+   * @param parent Registry in which all the metrics are also recorded. May be null.
+   */
+  public KijiMetrics(KijiMetrics parent) {
+    mParent = parent;
+    mLatencies = new LatencyHistogram[Operation.values().length];
+    for (int i = 0; i < mLatencies.length; ++i) {
+      mLatencies[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Builds the JMX name of the metrics of a Kiji instance.
+   *
+   * @param uri URI of the Kiji instance.
+   * @param id Identifier distinguishing the Kiji instances opened with the same URI.
+   * @return the JMX name of the metrics of the Kiji instance.
+   */
+  public static ObjectName getInstanceObjectName(KijiURI uri, long id) {
+    return newObjectName(String.format("%s:type=Kiji,instance=%s,id=%d",
+        JMX_DOMAIN, ObjectName.quote(uri.toString()), id));
+  }
+
+  /**
+   * Builds the JMX name of the metrics of a Kiji table.
+   *
+   * @param uri URI of the Kiji instance.
+   * @param id Identifier distinguishing the Kiji instances opened with the same URI.
+   * @param tableName Name of the Kiji table.
+   * @return the JMX name of the metrics of the Kiji table.
+   */
+  public static ObjectName getTableObjectName(KijiURI uri, long id, String tableName) {
+    return newObjectName(String.format("%s:type=KijiTable,instance=%s,id=%d,table=%s",
+        JMX_DOMAIN, ObjectName.quote(uri.toString()), id, ObjectName.quote(tableName)));
+  }
+
+  /**
+   * Parses a JMX name.
+   *
+   * @param name JMX name to parse.
+   * @return the parsed JMX name.
+   */
+  private static ObjectName newObjectName(String name) {
+    try {
+      return new ObjectName(name);
+    } catch (MalformedObjectNameException mone) {
+      throw new IllegalArgumentException(mone);
+    }
+  }
+
+  /**
+   * Registers this metrics registry in the platform MBean server.
+   *
+   * <p>Registration failures are logged and otherwise ignored.</p>
+   *
+   * @param name JMX name to register this registry with.
+   */
+  public synchronized void register(ObjectName name) {
+    if (null != mObjectName) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+      mObjectName = name;
+    } catch (JMException jme) {
+      LOG.warn("Unable to register Kiji metrics {} in JMX: {}", name, jme.getMessage());
+    }
+  }
+
+  /** Unregisters this metrics registry from the platform MBean server, if registered. */
+  public synchronized void unregister() {
+    if (null == mObjectName) {
+      return;
+    }
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.unregisterMBean(mObjectName);
+    } catch (JMException jme) {
+      LOG.warn("Unable to unregister Kiji metrics {} from JMX: {}", mObjectName, jme.getMessage());
+    }
+    mObjectName = null;
+  }
+
+  /**
+   * Records the latency of an operation.
+   *
+   * @param operation Operation to record the latency of.
+   * @param nanos Latency of the operation, in nanoseconds.
+   */
+  public void recordLatency(Operation operation, long nanos) {
+    mLatencies[operation.ordinal()].record(nanos);
+    if (null != mParent) {
+      mParent.recordLatency(operation, nanos);
+    }
+  }
+
+  /**
+   * Records cells read from HBase.
+   *
+   * @param ncells Number of HBase cells read.
+   * @param nbytes Total size of the HBase cells read, in bytes.
+   */
+  public void recordRead(int ncells, long nbytes) {
+    mCellsRead.addAndGet(ncells);
+    mBytesRead.addAndGet(nbytes);
+    if (null != mParent) {
+      mParent.recordRead(ncells, nbytes);
+    }
+  }
+
+  /**
+   * Records cells written.
+   *
+   * @param ncells Number of cells written.
+   * @param nbytes Total size of the encoded cells written, in bytes.
+   */
+  public void recordWrite(int ncells, long nbytes) {
+    mCellsWritten.addAndGet(ncells);
+    mBytesWritten.addAndGet(nbytes);
+    if (null != mParent) {
+      mParent.recordWrite(ncells, nbytes);
+    }
+  }
+
+  /** Records a counter increment issued to a table writer. */
+  public void recordIncrementIssued() {
+    mIncrementsIssued.incrementAndGet();
+    if (null != mParent) {
+      mParent.recordIncrementIssued();
+    }
+  }
+
+  /**
+   * Records counter increments sent to HBase.
+   *
+   * @param ncounters Number of counters incremented.
+   */
+  public void recordIncrementsSent(int ncounters) {
+    mIncrementsSent.addAndGet(ncounters);
+    if (null != mParent) {
+      mParent.recordIncrementsSent(ncounters);
+    }
+  }
+
+  /**
+   * Records the decoding of a cell.
+   *
+   * @param nanos Time spent decoding the cell, in nanoseconds.
+   */
+  public void recordDecode(long nanos) {
+    mCellsDecoded.incrementAndGet();
+    mDecodeNanos.addAndGet(nanos);
+    if (null != mParent) {
+      mParent.recordDecode(nanos);
+    }
+  }
+
+  /** Records a schema lookup that missed the schema table cache. */
+  public void recordSchemaTableMiss() {
+    mSchemaTableMisses.incrementAndGet();
+    if (null != mParent) {
+      mParent.recordSchemaTableMiss();
+    }
+  }
+
+  /** Records a point lookup served from the row cache. */
+  public void recordRowCacheHit() {
+    mRowCacheHits.incrementAndGet();
+    if (null != mParent) {
+      mParent.recordRowCacheHit();
+    }
+  }
+
+  /** Records a point lookup that missed the row cache. */
+  public void recordRowCacheMiss() {
+    mRowCacheMisses.incrementAndGet();
+    if (null != mParent) {
+      mParent.recordRowCacheMiss();
+    }
+  }
+
+  /**
+   * Reports the latencies of an operation.
+   *
+   * @param operation Operation to report the latencies of.
+   * @return the latencies of the operation.
+   */
+  public LatencySnapshot getLatency(Operation operation) {
+    return mLatencies[operation.ordinal()].snapshot();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getGetLatency() {
+    return getLatency(Operation.GET);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getBulkGetLatency() {
+    return getLatency(Operation.BULK_GET);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getScannerNextLatency() {
+    return getLatency(Operation.SCANNER_NEXT);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getPutLatency() {
+    return getLatency(Operation.PUT);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getIncrementLatency() {
+    return getLatency(Operation.INCREMENT);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public LatencySnapshot getDeleteLatency() {
+    return getLatency(Operation.DELETE);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getCellsRead() {
+    return mCellsRead.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getBytesRead() {
+    return mBytesRead.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getCellsWritten() {
+    return mCellsWritten.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getBytesWritten() {
+    return mBytesWritten.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getIncrementsIssued() {
+    return mIncrementsIssued.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getIncrementsSent() {
+    return mIncrementsSent.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getIncrementCoalescingRatio() {
+    final long sent = mIncrementsSent.get();
+    return (0 == sent) ? 1.0 : (double) mIncrementsIssued.get() / sent;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getCellsDecoded() {
+    return mCellsDecoded.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getDecodeTimeMicros() {
+    return mDecodeNanos.get() * 1e-3;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getSchemaTableMisses() {
+    return mSchemaTableMisses.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRowCacheHits() {
+    return mRowCacheHits.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRowCacheMisses() {
+    return mRowCacheMisses.get();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    for (LatencyHistogram histogram : mLatencies) {
+      histogram.reset();
+    }
+    mCellsRead.set(0);
+    mBytesRead.set(0);
+    mCellsWritten.set(0);
+    mBytesWritten.set(0);
+    mIncrementsIssued.set(0);
+    mIncrementsSent.set(0);
+    mCellsDecoded.set(0);
+    mDecodeNanos.set(0);
+    mSchemaTableMisses.set(0);
+    mRowCacheHits.set(0);
+    mRowCacheMisses.set(0);
+  }
+}
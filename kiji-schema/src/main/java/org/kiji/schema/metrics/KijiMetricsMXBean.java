@@ -0,0 +1,97 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.annotations.Inheritance;
+
+/**
+ * JMX view of the metrics of a Kiji instance or of a Kiji table.
+ *
+ * <p>
+ *   Registered under the domain "org.kiji.schema", with type "Kiji" for Kiji instances and
+ *   type "KijiTable" for Kiji tables.
+ * </p>
+ */
+@ApiAudience.Public
+@Inheritance.Sealed
+public interface KijiMetricsMXBean {
+  /** @return the latencies of single-row gets. */
+  LatencySnapshot getGetLatency();
+
+  /** @return the latencies of bulk gets, or of each batch of an asynchronous bulk get. */
+  LatencySnapshot getBulkGetLatency();
+
+  /** @return the latencies of fetching each row from row scanners, including HBase RPCs. */
+  LatencySnapshot getScannerNextLatency();
+
+  /** @return the latencies of the puts, or of each batch of buffered puts, sent to HBase. */
+  LatencySnapshot getPutLatency();
+
+  /** @return the latencies of the counter increments sent to HBase. */
+  LatencySnapshot getIncrementLatency();
+
+  /** @return the latencies of the deletes, or of each batch of buffered deletes, sent to HBase. */
+  LatencySnapshot getDeleteLatency();
+
+  /** @return the number of HBase cells read. */
+  long getCellsRead();
+
+  /** @return the total size, in bytes, of the HBase cells read. */
+  long getBytesRead();
+
+  /** @return the number of cells written. */
+  long getCellsWritten();
+
+  /** @return the total size, in bytes, of the encoded cells written. */
+  long getBytesWritten();
+
+  /** @return the number of counter increments issued to the table writers. */
+  long getIncrementsIssued();
+
+  /** @return the number of counter increments sent to HBase by the table writers. */
+  long getIncrementsSent();
+
+  /**
+   * Reports the ratio between the counter increments issued to the table writers and the counter
+   * increments sent to HBase. Above 1.0 when writers coalesce increments.
+   *
+   * @return the increment coalescing ratio, or 1.0 if no increment was sent yet.
+   */
+  double getIncrementCoalescingRatio();
+
+  /** @return the number of cells decoded. */
+  long getCellsDecoded();
+
+  /** @return the total time spent decoding cells, in microseconds. */
+  double getDecodeTimeMicros();
+
+  /** @return the number of schema lookups that missed the schema table cache. */
+  long getSchemaTableMisses();
+
+  /** @return the number of point lookups served from the row cache. */
+  long getRowCacheHits();
+
+  /** @return the number of point lookups that missed the row cache, when it is enabled. */
+  long getRowCacheMisses();
+
+  /** Discards all the metrics recorded so far. */
+  void reset();
+}
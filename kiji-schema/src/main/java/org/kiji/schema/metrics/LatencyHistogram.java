@@ -0,0 +1,175 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Preconditions;
+
+import org.kiji.annotations.ApiAudience;
+
+/**
+ * Lock-free histogram of latencies, in nanoseconds.
+ *
+ * <p>
+ *   Latencies are counted in log-linear buckets: each power of two is split into 4 buckets,
+ *   so that percentiles are reported within 25% of the exact value, with a fixed memory
+ *   footprint. Recording a latency costs a few atomic increments and takes no lock.
+ * </p>
+ */
+@ApiAudience.Private
+public final class LatencyHistogram {
+  /** Number of sub-buckets per power of two, as a power of two. */
+  private static final int SUB_BUCKET_BITS = 2;
+
+  /** Number of sub-buckets per power of two. */
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** Number of buckets required to cover all positive long values. */
+  private static final int NUM_BUCKETS = bucketIndex(Long.MAX_VALUE) + 1;
+
+  /** Number of latencies recorded in each bucket. */
+  private final AtomicLongArray mBuckets = new AtomicLongArray(NUM_BUCKETS);
+
+  /** Number of latencies recorded. */
+  private final AtomicLong mCount = new AtomicLong();
+
+  /** Sum of the latencies recorded, in nanoseconds. */
+  private final AtomicLong mTotalNanos = new AtomicLong();
+
+  /** Maximum latency recorded, in nanoseconds. */
+  private final AtomicLong mMaxNanos = new AtomicLong();
+
+  /**
+   * Reports the index of the bucket counting a given latency.
+   *
+   * @param nanos Latency, in nanoseconds.
+   * @return the index of the bucket counting the latency.
+   */
+  static int bucketIndex(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(nanos, 0);
+    }
+    final int log2 = 63 - Long.numberOfLeadingZeros(nanos);
+    final int subBucket = (int) (nanos >>> (log2 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return ((log2 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+  }
+
+  /**
+   * Reports the largest latency counted by a bucket.
+   *
+   * @param index Index of the bucket.
+   * @return the largest latency counted by the bucket, in nanoseconds.
+   */
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int log2 = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+    final int subBucket = index & (SUB_BUCKETS - 1);
+    final long width = 1L << (log2 - SUB_BUCKET_BITS);
+    final long lowerBound = (long) (SUB_BUCKETS + subBucket) << (log2 - SUB_BUCKET_BITS);
+    return lowerBound + (width - 1);
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos Latency, in nanoseconds. Negative latencies are recorded as zero.
+   */
+  public void record(long nanos) {
+    final long latency = Math.max(nanos, 0);
+    mBuckets.incrementAndGet(bucketIndex(latency));
+    mCount.incrementAndGet();
+    mTotalNanos.addAndGet(latency);
+    long max = mMaxNanos.get();
+    while ((latency > max) && !mMaxNanos.compareAndSet(max, latency)) {
+      max = mMaxNanos.get();
+    }
+  }
+
+  /** @return the number of latencies recorded. */
+  public long getCount() {
+    return mCount.get();
+  }
+
+  /** @return the sum of the latencies recorded, in nanoseconds. */
+  public long getTotalNanos() {
+    return mTotalNanos.get();
+  }
+
+  /** @return the maximum latency recorded, in nanoseconds. */
+  public long getMaxNanos() {
+    return mMaxNanos.get();
+  }
+
+  /**
+   * Reports an approximation of a percentile of the latencies recorded.
+   *
+   * <p>The result is the upper bound of the bucket containing the percentile, capped by the
+   * maximum latency recorded.</p>
+   *
+   * @param percentile Percentile to report, between 0 and 100.
+   * @return the approximate percentile, in nanoseconds, or 0 if no latency was recorded.
+   */
+  public long getPercentileNanos(double percentile) {
+    Preconditions.checkArgument((percentile >= 0.0) && (percentile <= 100.0),
+        "Invalid percentile: %s", percentile);
+    final long count = mCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; ++i) {
+      seen += mBuckets.get(i);
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), mMaxNanos.get());
+      }
+    }
+    // Concurrent updates may leave the buckets behind the count:
+    return mMaxNanos.get();
+  }
+
+  /** @return a snapshot of this histogram. */
+  public LatencySnapshot snapshot() {
+    final long count = mCount.get();
+    final double toMicros = 1e-3;
+    return new LatencySnapshot(
+        count,
+        (count == 0) ? 0.0 : mTotalNanos.get() * toMicros / count,
+        getPercentileNanos(50.0) * toMicros,
+        getPercentileNanos(90.0) * toMicros,
+        getPercentileNanos(99.0) * toMicros,
+        getPercentileNanos(99.9) * toMicros,
+        mMaxNanos.get() * toMicros);
+  }
+
+  /** Discards all the latencies recorded so far. */
+  public void reset() {
+    for (int i = 0; i < NUM_BUCKETS; ++i) {
+      mBuckets.set(i, 0);
+    }
+    mCount.set(0);
+    mTotalNanos.set(0);
+    mMaxNanos.set(0);
+  }
+}
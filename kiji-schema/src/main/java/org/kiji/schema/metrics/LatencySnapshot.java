@@ -0,0 +1,107 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import java.beans.ConstructorProperties;
+
+import org.kiji.annotations.ApiAudience;
+
+/**
+ * Immutable summary of a latency histogram, in microseconds.
+ *
+ * <p>Exposed through JMX as a composite value.</p>
+ */
+@ApiAudience.Public
+public final class LatencySnapshot {
+  private final long mCount;
+  private final double mMeanMicros;
+  private final double mP50Micros;
+  private final double mP90Micros;
+  private final double mP99Micros;
+  private final double mP999Micros;
+  private final double mMaxMicros;
+
+  /**
+   * Creates a latency snapshot.
+   *
+   * @param count Number of latencies recorded.
+   * @param meanMicros Mean latency, in microseconds.
+   * @param p50Micros Median latency, in microseconds.
+   * @param p90Micros 90th percentile latency, in microseconds.
+   * @param p99Micros 99th percentile latency, in microseconds.
+   * @param p999Micros 99.9th percentile latency, in microseconds.
+   * @param maxMicros Maximum latency, in microseconds.
+   */
+  @ConstructorProperties({
+      "count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "p999Micros", "maxMicros"})
+  public LatencySnapshot(long count, double meanMicros, double p50Micros, double p90Micros,
+      double p99Micros, double p999Micros, double maxMicros) {
+    mCount = count;
+    mMeanMicros = meanMicros;
+    mP50Micros = p50Micros;
+    mP90Micros = p90Micros;
+    mP99Micros = p99Micros;
+    mP999Micros = p999Micros;
+    mMaxMicros = maxMicros;
+  }
+
+  /** @return the number of latencies recorded. */
+  public long getCount() {
+    return mCount;
+  }
+
+  /** @return the mean latency, in microseconds. */
+  public double getMeanMicros() {
+    return mMeanMicros;
+  }
+
+  /** @return the median latency, in microseconds. */
+  public double getP50Micros() {
+    return mP50Micros;
+  }
+
+  /** @return the 90th percentile latency, in microseconds. */
+  public double getP90Micros() {
+    return mP90Micros;
+  }
+
+  /** @return the 99th percentile latency, in microseconds. */
+  public double getP99Micros() {
+    return mP99Micros;
+  }
+
+  /** @return the 99.9th percentile latency, in microseconds. */
+  public double getP999Micros() {
+    return mP999Micros;
+  }
+
+  /** @return the maximum latency, in microseconds. */
+  public double getMaxMicros() {
+    return mMaxMicros;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return String.format(
+        "LatencySnapshot(count=%d, meanMicros=%.1f, p50=%.1f, p99=%.1f, max=%.1f)",
+        mCount, mMeanMicros, mP50Micros, mP99Micros, mMaxMicros);
+  }
+}
@@ -0,0 +1,28 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Metrics of the Kiji instances and tables.
+ *
+ * <p>Kiji readers and writers record the latencies of their HBase operations and the volume of
+ * the data they read, write and decode in a {@link org.kiji.schema.metrics.KijiMetrics}
+ * registry. Registries are exposed through JMX under the "org.kiji.schema" domain.
+ * </p>
+ */
+package org.kiji.schema.metrics;
@@ -0,0 +1,143 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.tools;
+
+import java.util.List;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.kiji.annotations.ApiAudience;
+import org.kiji.common.flags.Flag;
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.impl.HBaseKijiTable;
+import org.kiji.schema.util.ResourceUtils;
+
+/**
+ * Command-line tool for bulk-loading HFiles into a kiji table.
+ *
+ * <p>HFiles are written by M/R jobs using the KijiHFileOutputFormat.</p>
+ */
+@ApiAudience.Private
+public final class BulkLoadTool extends BaseTool {
+  private static final Logger LOG = LoggerFactory.getLogger(BulkLoadTool.class.getName());
+
+  @Flag(name="table", usage="URI of the Kiji table to load the HFiles into.")
+  private String mTableURIFlag = null;
+
+  @Flag(name="hfile", usage="Path of the directory containing the HFiles to load.")
+  private String mHFileFlag = null;
+
+  /** URI of the Kiji table to load the HFiles into. */
+  private KijiURI mTableURI = null;
+
+  /** {@inheritDoc} */
+  @Override
+  public String getName() {
+    return "bulk-load";
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getDescription() {
+    return "Bulk load HFiles into a kiji table.";
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String getCategory() {
+    return "Data";
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void validateFlags() throws Exception {
+    super.validateFlags();
+    Preconditions.checkArgument((mTableURIFlag != null) && !mTableURIFlag.isEmpty(),
+        "Specify the table to load the HFiles into with "
+        + "--table=kiji://hbase-address/kiji-instance/table");
+    mTableURI = KijiURI.newBuilder(mTableURIFlag).build();
+    Preconditions.checkArgument(mTableURI.getTable() != null,
+        "No table specified in URI '%s', specify the table to load the HFiles into with "
+        + "--table=kiji://hbase-address/kiji-instance/table", mTableURI);
+    Preconditions.checkArgument((mHFileFlag != null) && !mHFileFlag.isEmpty(),
+        "Specify the directory containing the HFiles to load with --hfile=path");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void setup() throws Exception {
+    super.setup();
+    getConf().setInt(HConstants.ZOOKEEPER_CLIENT_PORT, mTableURI.getZookeeperClientPort());
+    getConf().set(HConstants.ZOOKEEPER_QUORUM,
+        Joiner.on(",").join(mTableURI.getZookeeperQuorumOrdered()));
+    setConf(HBaseConfiguration.addHbaseResources(getConf()));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected int run(List<String> nonFlagArgs) throws Exception {
+    final Kiji kiji = Kiji.Factory.open(mTableURI, getConf());
+    try {
+      final KijiTable table = kiji.openTable(mTableURI.getTable());
+      try {
+        final HTableInterface htable = HBaseKijiTable.downcast(table).openHTableConnection();
+        try {
+          if (!(htable instanceof HTable)) {
+            LOG.error("Cannot bulk load into HBase table interface {}.", htable.getClass());
+            return FAILURE;
+          }
+          // HFiles spanning several regions, e.g. after a region split, are split as needed.
+          new LoadIncrementalHFiles(getConf()).doBulkLoad(new Path(mHFileFlag), (HTable) htable);
+        } finally {
+          ResourceUtils.closeOrLog(htable);
+        }
+      } finally {
+        IOUtils.closeQuietly(table);
+      }
+    } finally {
+      kiji.release();
+    }
+
+    getPrintStream().printf("Loaded HFiles from '%s' into table '%s'.%n", mHFileFlag, mTableURI);
+    return SUCCESS;
+  }
+
+  /**
+   * Program entry point.
+   *
+   * @param args The command-line arguments.
+   * @throws Exception If there is an error.
+   */
+  public static void main(String[] args) throws Exception {
+    System.exit(new KijiToolLauncher().run(new BulkLoadTool(), args));
+  }
+}
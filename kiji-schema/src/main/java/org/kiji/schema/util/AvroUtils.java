@@ -19,9 +19,13 @@
 
 package org.kiji.schema.util;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.avro.Schema;
 
 import org.kiji.annotations.ApiAudience;
@@ -57,4 +61,188 @@ public final class AvroUtils {
     }
   }
 
+  /**
+   * Projects a record schema onto a subset of its fields.
+   *
+   * <p>The projected record keeps the name of the original record, so that it can be used as a
+   * reader schema for data written with the original record: Avro then skips the fields that are
+   * not projected, instead of decoding them.</p>
+   *
+   * @param record Record schema to project.
+   * @param fieldNames Names of the fields to keep, in the order of the projected record.
+   * @return the projected record schema.
+   * @throws IllegalArgumentException if the schema is not a record, or if a field does not exist.
+   */
+  public static Schema projectRecord(Schema record, Collection<String> fieldNames) {
+    Preconditions.checkArgument(record.getType() == Schema.Type.RECORD,
+        "Cannot project fields from a non-record schema: %s", record);
+    final List<Schema.Field> fields = Lists.newArrayListWithCapacity(fieldNames.size());
+    for (String fieldName : fieldNames) {
+      final Schema.Field field = record.getField(fieldName);
+      Preconditions.checkArgument(null != field,
+          "Record %s has no field named '%s'.", record.getFullName(), fieldName);
+      // Fields belong to a single record, and must be copied:
+      final Schema.Field copy = new Schema.Field(
+          field.name(), field.schema(), field.doc(), field.defaultValue(), field.order());
+      for (String alias : field.aliases()) {
+        copy.addAlias(alias);
+      }
+      fields.add(copy);
+    }
+    final Schema projected = Schema.createRecord(
+        record.getName(), record.getDoc(), record.getNamespace(), record.isError());
+    projected.setFields(fields);
+    for (String alias : record.getAliases()) {
+      projected.addAlias(alias);
+    }
+    return projected;
+  }
+
+  /**
+   * Reports whether data written with a given schema can be decoded with a given reader schema,
+   * following the Avro schema resolution rules.
+   *
+   * @param reader Reader schema.
+   * @param writer Writer schema.
+   * @return a description of the first incompatibility found, or null if the reader schema can
+   *     decode data written with the writer schema.
+   */
+  public static String getIncompatibility(Schema reader, Schema writer) {
+    return getIncompatibility(reader, writer, Sets.<String>newHashSet());
+  }
+
+  /**
+   * Reports whether data written with a given schema can be decoded with a given reader schema.
+   *
+   * <p>Records may be recursive: a pair of records whose resolution is already in progress is
+   * assumed compatible when reached again, the remaining fields of the pair being checked by
+   * the outer call.</p>
+   *
+   * @param reader Reader schema.
+   * @param writer Writer schema.
+   * @param inProgress Pairs of reader and writer record names being resolved.
+   * @return a description of the first incompatibility found, or null if the reader schema can
+   *     decode data written with the writer schema.
+   */
+  private static String getIncompatibility(Schema reader, Schema writer, Set<String> inProgress) {
+    if (writer.getType() == Schema.Type.UNION) {
+      // Every branch the writer may have used must be readable:
+      for (Schema branch : writer.getTypes()) {
+        final String incompatibility = getIncompatibility(reader, branch, inProgress);
+        if (null != incompatibility) {
+          return incompatibility;
+        }
+      }
+      return null;
+    }
+    if (reader.getType() == Schema.Type.UNION) {
+      for (Schema branch : reader.getTypes()) {
+        if (null == getIncompatibility(branch, writer, inProgress)) {
+          return null;
+        }
+      }
+      return String.format("No branch of reader union %s can read %s.", reader, writer);
+    }
+
+    switch (reader.getType()) {
+    case RECORD: {
+      if (writer.getType() != Schema.Type.RECORD) {
+        return mismatch(reader, writer);
+      }
+      if (!reader.getFullName().equals(writer.getFullName())) {
+        return String.format("Reader record %s cannot read writer record %s.",
+            reader.getFullName(), writer.getFullName());
+      }
+      final String pair = reader.getFullName() + "/" + writer.getFullName();
+      if (!inProgress.add(pair)) {
+        return null;
+      }
+      try {
+        for (Schema.Field readerField : reader.getFields()) {
+          final Schema.Field writerField = writer.getField(readerField.name());
+          if (null == writerField) {
+            if (null == readerField.defaultValue()) {
+              return String.format("Field '%s' of record %s has no default value, and is missing "
+                  + "from the writer schema.", readerField.name(), reader.getFullName());
+            }
+          } else {
+            final String incompatibility =
+                getIncompatibility(readerField.schema(), writerField.schema(), inProgress);
+            if (null != incompatibility) {
+              return incompatibility;
+            }
+          }
+        }
+        return null;
+      } finally {
+        inProgress.remove(pair);
+      }
+    }
+    case ENUM: {
+      if ((writer.getType() != Schema.Type.ENUM)
+          || !reader.getFullName().equals(writer.getFullName())) {
+        return mismatch(reader, writer);
+      }
+      for (String symbol : writer.getEnumSymbols()) {
+        if (!reader.hasEnumSymbol(symbol)) {
+          return String.format("Reader enum %s has no symbol '%s'.",
+              reader.getFullName(), symbol);
+        }
+      }
+      return null;
+    }
+    case FIXED: {
+      if ((writer.getType() != Schema.Type.FIXED)
+          || !reader.getFullName().equals(writer.getFullName())
+          || (reader.getFixedSize() != writer.getFixedSize())) {
+        return mismatch(reader, writer);
+      }
+      return null;
+    }
+    case ARRAY: {
+      if (writer.getType() != Schema.Type.ARRAY) {
+        return mismatch(reader, writer);
+      }
+      return getIncompatibility(reader.getElementType(), writer.getElementType(), inProgress);
+    }
+    case MAP: {
+      if (writer.getType() != Schema.Type.MAP) {
+        return mismatch(reader, writer);
+      }
+      return getIncompatibility(reader.getValueType(), writer.getValueType(), inProgress);
+    }
+    case LONG: {
+      return (writer.getType() == Schema.Type.LONG) || (writer.getType() == Schema.Type.INT)
+          ? null
+          : mismatch(reader, writer);
+    }
+    case FLOAT: {
+      return (writer.getType() == Schema.Type.FLOAT) || (writer.getType() == Schema.Type.LONG)
+          || (writer.getType() == Schema.Type.INT)
+          ? null
+          : mismatch(reader, writer);
+    }
+    case DOUBLE: {
+      return (writer.getType() == Schema.Type.DOUBLE) || (writer.getType() == Schema.Type.FLOAT)
+          || (writer.getType() == Schema.Type.LONG) || (writer.getType() == Schema.Type.INT)
+          ? null
+          : mismatch(reader, writer);
+    }
+    default: {
+      // Remaining primitive types (null, boolean, int, bytes and string) must match exactly:
+      return (writer.getType() == reader.getType()) ? null : mismatch(reader, writer);
+    }
+    }
+  }
+
+  /**
+   * Describes a type mismatch between a reader schema and a writer schema.
+   *
+   * @param reader Reader schema.
+   * @param writer Writer schema.
+   * @return a description of the type mismatch.
+   */
+  private static String mismatch(Schema reader, Schema writer) {
+    return String.format("Reader type %s cannot read writer type %s.", reader, writer);
+  }
 }
@@ -43,11 +43,14 @@ public final class ByteStreamArray {
   /**
    * Constructs a new stream of byte.
    *
+   * <p>The stream reads the array in place: the array is not copied, and must not be modified
+   * while the stream is in use.</p>
+   *
    * @param bytes Array of byte to wrap into a stream.
    * @param offset Offset of the stream head.
    */
   public ByteStreamArray(byte[] bytes, int offset) {
-    this.mBytes = Arrays.copyOf(bytes, bytes.length);
+    this.mBytes = bytes;
     this.mOffset = offset;
   }
 
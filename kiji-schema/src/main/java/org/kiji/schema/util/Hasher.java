@@ -20,13 +20,18 @@
 package org.kiji.schema.util;
 
 import java.io.UnsupportedEncodingException;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import org.kiji.annotations.ApiAudience;
+import org.kiji.schema.avro.HashType;
 
 /**
  * A thread-safe utility for computing hashes of strings.
+ *
+ * <p>Besides MD5, row keys may be hashed with the 128-bit x64 variant of MurmurHash3, which is
+ * much cheaper to compute and allocates nothing when hashing into a caller-provided buffer.</p>
  */
 @ApiAudience.Private
 public final class Hasher {
@@ -49,6 +54,20 @@ public final class Hasher {
           }
         };
 
+  /** A thread-local buffer to receive MD5 digests, when only some of their bytes are needed. */
+  private static final ThreadLocal<byte[]> DIGEST_BUFFER = new ThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[HASH_SIZE_BYTES];
+    }
+  };
+
+  /** First MurmurHash3 x64 128-bit mixing constant. */
+  private static final long MURMUR3_C1 = 0x87c37b91114253d5L;
+
+  /** Second MurmurHash3 x64 128-bit mixing constant. */
+  private static final long MURMUR3_C2 = 0x4cf5ad432745937fL;
+
   /** Disable constructor for utility class. */
   private Hasher() {}
 
@@ -75,4 +94,179 @@ public final class Hasher {
   public static byte[] hash(byte[] input) {
     return MESSAGE_DIGEST.get().digest(input);
   }
+
+  /**
+   * Hashes the input byte array with the specified hashing method.
+   *
+   * @param hashType Hashing method.
+   * @param input The bytes to hash.
+   * @return The 128-bit hash of the input.
+   */
+  public static byte[] hash(HashType hashType, byte[] input) {
+    final byte[] hash = new byte[HASH_SIZE_BYTES];
+    hash(hashType, input, 0, input.length, hash, 0, HASH_SIZE_BYTES);
+    return hash;
+  }
+
+  /**
+   * Hashes a slice of a byte array, and writes a prefix of the hash to an output buffer.
+   *
+   * <p>Neither hashing method allocates per call. MD5 digests into a thread-local buffer and
+   * copies the requested prefix from it; the message digest and this buffer are only allocated
+   * the first time a thread hashes with MD5.</p>
+   *
+   * @param hashType Hashing method.
+   * @param input Buffer containing the bytes to hash.
+   * @param offset Offset of the bytes to hash in the input buffer.
+   * @param length Number of bytes to hash.
+   * @param output Buffer to write the hash to.
+   * @param outputOffset Offset where to write the hash in the output buffer.
+   * @param hashSize Number of bytes of the hash to write, between 0 and 16.
+   */
+  public static void hash(
+      HashType hashType,
+      byte[] input,
+      int offset,
+      int length,
+      byte[] output,
+      int outputOffset,
+      int hashSize) {
+    if ((hashSize < 0) || (hashSize > HASH_SIZE_BYTES)) {
+      throw new IllegalArgumentException(String.format("Invalid hash size: %d.", hashSize));
+    }
+    switch (hashType) {
+    case MD5: {
+      final MessageDigest digest = MESSAGE_DIGEST.get();
+      digest.update(input, offset, length);
+      final byte[] buffer = DIGEST_BUFFER.get();
+      try {
+        digest.digest(buffer, 0, HASH_SIZE_BYTES);
+      } catch (DigestException de) {
+        throw new RuntimeException(de);
+      }
+      System.arraycopy(buffer, 0, output, outputOffset, hashSize);
+      return;
+    }
+    case MURMUR3: {
+      murmur3(input, offset, length, output, outputOffset, hashSize);
+      return;
+    }
+    default:
+      throw new RuntimeException(String.format("Unexpected hashing type: '%s'.", hashType));
+    }
+  }
+
+  /**
+   * Computes the 128-bit x64 MurmurHash3 of a slice of a byte array, with seed 0.
+   *
+   * <p>The hash bytes are laid out as the two 64-bit halves of the hash, in little-endian order,
+   * so that the result matches other common implementations of MurmurHash3.</p>
+   *
+   * @param input Buffer containing the bytes to hash.
+   * @param offset Offset of the bytes to hash in the input buffer.
+   * @param length Number of bytes to hash.
+   * @param output Buffer to write the hash to.
+   * @param outputOffset Offset where to write the hash in the output buffer.
+   * @param hashSize Number of bytes of the hash to write, between 0 and 16.
+   */
+  private static void murmur3(
+      byte[] input, int offset, int length, byte[] output, int outputOffset, int hashSize) {
+    long h1 = 0;
+    long h2 = 0;
+
+    final int nblocks = length >>> 4;
+    for (int i = 0; i < nblocks; ++i) {
+      final int block = offset + (i << 4);
+      long k1 = getLongLittleEndian(input, block);
+      long k2 = getLongLittleEndian(input, block + 8);
+
+      k1 *= MURMUR3_C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= MURMUR3_C2;
+      h1 ^= k1;
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      k2 *= MURMUR3_C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= MURMUR3_C1;
+      h2 ^= k2;
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    // Tail: the last (length % 16) bytes.
+    final int tail = offset + (nblocks << 4);
+    final int remaining = length & 15;
+    long k1 = 0;
+    long k2 = 0;
+    for (int i = remaining - 1; i >= 8; --i) {
+      k2 = (k2 << 8) | (input[tail + i] & 0xffL);
+    }
+    for (int i = Math.min(remaining, 8) - 1; i >= 0; --i) {
+      k1 = (k1 << 8) | (input[tail + i] & 0xffL);
+    }
+    if (remaining > 8) {
+      k2 *= MURMUR3_C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= MURMUR3_C1;
+      h2 ^= k2;
+    }
+    if (remaining > 0) {
+      k1 *= MURMUR3_C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= MURMUR3_C2;
+      h1 ^= k1;
+    }
+
+    // Finalization.
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+
+    for (int i = 0; i < hashSize; ++i) {
+      final long half = (i < 8) ? h1 : h2;
+      output[outputOffset + i] = (byte) (half >>> ((i & 7) << 3));
+    }
+  }
+
+  /**
+   * Reads a little-endian long from a byte array.
+   *
+   * @param bytes Byte array to read from.
+   * @param offset Offset of the long in the byte array.
+   * @return the long read.
+   */
+  private static long getLongLittleEndian(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xffL)
+        | ((bytes[offset + 1] & 0xffL) << 8)
+        | ((bytes[offset + 2] & 0xffL) << 16)
+        | ((bytes[offset + 3] & 0xffL) << 24)
+        | ((bytes[offset + 4] & 0xffL) << 32)
+        | ((bytes[offset + 5] & 0xffL) << 40)
+        | ((bytes[offset + 6] & 0xffL) << 48)
+        | ((bytes[offset + 7] & 0xffL) << 56);
+  }
+
+  /**
+   * MurmurHash3 64-bit finalization mix: forces all the bits of a hash block to avalanche.
+   *
+   * @param k Hash block to mix.
+   * @return the mixed hash block.
+   */
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
 }
@@ -22,16 +22,21 @@ package org.kiji.schema;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 
+import com.google.common.collect.Lists;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
@@ -42,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.kiji.schema.avro.CellSchema;
+import org.kiji.schema.avro.Edge;
 import org.kiji.schema.avro.Node;
 import org.kiji.schema.avro.SchemaStorage;
 import org.kiji.schema.avro.SchemaType;
@@ -191,6 +197,72 @@ public class TestHBaseKijiRowData extends KijiClientTest {
     LOG.info("stop testReadInts");
   }
 
+  @Test
+  public void testRawValue() throws IOException {
+    final EntityId row0 = mEntityIdFactory.getEntityId("row0");
+    final byte[] encoded = encodeInt(42);
+    final Result result = new Result(Lists.newArrayList(
+        new KeyValue(row0.getHBaseRowKey(), mHBaseFamily, mHBaseQual3, 1L, encoded)));
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().addFamily("family");
+    final KijiTable table = getKiji().openTable("table");
+    try {
+      final KijiRowData input =
+          new HBaseKijiRowData(row0, builder.build(), HBaseKijiTable.downcast(table), result);
+
+      // The view covers the encoded cell in the KeyValue backing array:
+      final ByteBuffer raw = input.getRawValue("family", "qual3", 1L);
+      assertTrue(raw.isReadOnly());
+      assertEquals(0, raw.position());
+      assertEquals(ByteBuffer.wrap(encoded), raw);
+      assertEquals(ByteBuffer.wrap(encoded), input.getMostRecentRawValue("family", "qual3"));
+
+      // Cells are decoded in place:
+      assertEquals(42, ((Integer) input.getValue("family", "qual3", 1L)).intValue());
+      assertEquals(42, ((Integer) input.getCell("family", "qual3", 1L).getData()).intValue());
+
+      assertNull(input.getRawValue("family", "qual3", 2L));
+      assertNull(input.getValue("family", "qual3", 2L));
+      assertNull(input.getMostRecentRawValue("family", "qual0"));
+    } finally {
+      table.close();
+    }
+  }
+
+  @Test
+  public void testProjectedReaderSchema() throws IOException {
+    final EntityId row0 = mEntityIdFactory.getEntityId("row0");
+    final Node node = Node.newBuilder()
+        .setWeight(2.0)
+        .setLabel("node0")
+        .setAnnotations(Collections.<String, String>emptyMap())
+        .setEdges(Collections.<Edge>emptyList())
+        .build();
+    final Result result = new Result(Lists.newArrayList(new KeyValue(
+        row0.getHBaseRowKey(), mHBaseFamily, mHBaseNodequal0, 1L, encodeNode(node))));
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withFields("label").add("family", "nodequal0");
+    final KijiTable table = getKiji().openTable("table");
+    try {
+      final KijiRowData input =
+          new HBaseKijiRowData(row0, builder.build(), HBaseKijiTable.downcast(table), result);
+
+      final Schema projected = input.getReaderSchema("family", "nodequal0");
+      assertEquals(Node.SCHEMA$.getFullName(), projected.getFullName());
+      assertEquals(1, projected.getFields().size());
+
+      // Projected cells are decoded as generic records, with the requested fields only:
+      final GenericRecord decoded = input.getMostRecentValue("family", "nodequal0");
+      assertEquals(projected, decoded.getSchema());
+      assertEquals("node0", decoded.get("label").toString());
+      assertNull(decoded.getSchema().getField("weight"));
+    } finally {
+      table.close();
+    }
+  }
+
   @Test
   public void testGetReaderSchema() throws IOException {
     Result result = new Result();
@@ -444,6 +516,45 @@ public class TestHBaseKijiRowData extends KijiClientTest {
     assertEquals("node1", values.get("nodequal1").getLabel().toString());
   }
 
+  @Test
+  public void testReadColumnsFromUnsortedResult() throws IOException {
+    final ColumnNameTranslator translator =
+        new ColumnNameTranslator(getKiji().getMetaTable().getTableLayout("table"));
+    final List<KeyValue> kvs = new ArrayList<KeyValue>();
+    final EntityId row0 = mEntityIdFactory.getEntityId("row0");
+    final byte[] hbaseRowKey = row0.getHBaseRowKey();
+    // KeyValues are deliberately added out of HBase order.
+    for (int i = 9; i >= 0; --i) {
+      final byte[] qualifier =
+          translator.toHBaseColumnName(new KijiColumnName("map", "key" + i)).getQualifier();
+      kvs.add(new KeyValue(hbaseRowKey, mHBaseMapFamily, qualifier, 1L, encodeInt(i)));
+    }
+    kvs.add(new KeyValue(hbaseRowKey, mHBaseFamily, mHBaseQual0, 1L, encodeStr("old")));
+    kvs.add(new KeyValue(hbaseRowKey, mHBaseFamily, mHBaseQual0, 2L, encodeStr("new")));
+    final Result result = new Result(kvs);
+
+    final KijiTableLayout tableLayout = getKiji().getMetaTable().getTableLayout("table");
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(10).add("family", "qual0").addFamily("map");
+    final KijiDataRequest dataRequest = builder.build();
+    final KijiRowData input = new HBaseKijiRowData(dataRequest, mCellDecoderFactory,
+        tableLayout, result, getKiji().getSchemaTable());
+
+    // Accessing a single column does not require filtering the entire row.
+    assertEquals(5, input.<Integer>getMostRecentValue("map", "key5").intValue());
+    assertFalse(input.containsColumn("map", "key10"));
+    assertFalse(input.containsColumn("family", "qual1"));
+    assertEquals(2, input.getTimestamps("family", "qual0").size());
+    assertEquals("new", input.getMostRecentValue("family", "qual0").toString());
+
+    final NavigableMap<String, Integer> values = input.getMostRecentValues("map");
+    assertEquals(10, values.size());
+    for (int i = 0; i < 10; ++i) {
+      assertEquals(i, values.get("key" + i).intValue());
+    }
+    assertEquals(2, ((HBaseKijiRowData) input).getMap().size());
+  }
+
   @Test
   public void testReadSpecificTimestampTypes() throws IOException {
     List<KeyValue> kvs = new ArrayList<KeyValue>();
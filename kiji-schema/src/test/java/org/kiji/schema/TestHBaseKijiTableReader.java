@@ -20,14 +20,24 @@
 package org.kiji.schema;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.kiji.schema.filter.KijiColumnRangeFilter;
+import org.kiji.schema.impl.HBaseKijiTable;
+import org.kiji.schema.impl.HBaseRowCache;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayouts;
+import org.kiji.schema.metrics.KijiMetrics;
 import org.kiji.schema.util.InstanceBuilder;
 
 public class TestHBaseKijiTableReader {
@@ -76,6 +86,25 @@ public class TestHBaseKijiTableReader {
     assertEquals("foo-val", actual);
   }
 
+  @Test
+  public void testGetWithColumnFilters() throws Exception {
+    final EntityId entityId = mTable.getEntityId("foo");
+    // These requests only differ by their column filter, and compare equal:
+    final KijiDataRequestBuilder nameBuilder = KijiDataRequest.builder();
+    nameBuilder.newColumnsDef()
+        .withFilter(new KijiColumnRangeFilter("name", true, "name", true)).addFamily("info");
+    final KijiDataRequestBuilder visitsBuilder = KijiDataRequest.builder();
+    visitsBuilder.newColumnsDef()
+        .withFilter(new KijiColumnRangeFilter("visits", true, "visits", true)).addFamily("info");
+
+    final KijiRowData name = mReader.get(entityId, nameBuilder.build());
+    assertTrue(name.containsColumn("info", "name"));
+    assertFalse(name.containsColumn("info", "visits"));
+    final KijiRowData visits = mReader.get(entityId, visitsBuilder.build());
+    assertFalse(visits.containsColumn("info", "name"));
+    assertTrue(visits.containsColumn("info", "visits"));
+  }
+
   @Test
   public void testGetCounter() throws Exception {
     final EntityId entityId = mTable.getEntityId("foo");
@@ -97,4 +126,52 @@ public class TestHBaseKijiTableReader {
     assertEquals("foo-val", actual1);
     assertEquals("bar-val", actual2);
   }
+
+  @Test
+  public void testBulkGetAsync() throws Exception {
+    final List<EntityId> entityIds = Lists.newArrayList(
+        mTable.getEntityId("foo"), mTable.getEntityId("missing"), mTable.getEntityId("bar"));
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().add("info", "name");
+    final KijiDataRequest request = builder.build();
+    final List<Future<KijiRowData>> futures = mReader.bulkGetAsync(entityIds, request,
+        new KijiTableReader.KijiBulkGetOptions().setMaxParallelism(2).setMaxBatchSize(1));
+    assertEquals(3, futures.size());
+    assertEquals("foo-val", futures.get(0).get().getValue("info", "name", 1L).toString());
+    assertFalse(futures.get(1).get().containsColumn("info", "name"));
+    assertEquals("bar-val", futures.get(2).get().getValue("info", "name", 1L).toString());
+  }
+
+  @Test
+  public void testRowCache() throws Exception {
+    mKiji.getConf().setLong(HBaseRowCache.CONF_MAX_BYTES + ".user", 1L << 20);
+    final KijiTable table = mKiji.openTable("user");
+    try {
+      final KijiTableReader reader = table.openTableReader();
+      final KijiTableWriter writer = table.openTableWriter();
+      try {
+        final KijiMetrics metrics = HBaseKijiTable.downcast(table).getMetrics();
+        final long hits = metrics.getRowCacheHits();
+        final EntityId entityId = table.getEntityId("foo");
+        final KijiDataRequest request = KijiDataRequest.create("info", "name");
+
+        assertEquals("foo-val", reader.get(entityId, request).getValue("info", "name", 1L)
+            .toString());
+        assertEquals("foo-val", reader.get(entityId, request).getValue("info", "name", 1L)
+            .toString());
+        assertEquals(hits + 1, metrics.getRowCacheHits());
+
+        // Writes through the same table invalidate the cached row:
+        writer.put(entityId, "info", "name", 1L, "new-val");
+        assertEquals("new-val", reader.get(entityId, request).getValue("info", "name", 1L)
+            .toString());
+        assertEquals(hits + 1, metrics.getRowCacheHits());
+      } finally {
+        IOUtils.closeQuietly(writer);
+        IOUtils.closeQuietly(reader);
+      }
+    } finally {
+      IOUtils.closeQuietly(table);
+    }
+  }
 }
@@ -20,6 +20,9 @@
 package org.kiji.schema;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 
@@ -28,8 +31,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.kiji.schema.impl.HBaseKijiTable;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayouts;
+import org.kiji.schema.metrics.KijiMetrics;
 import org.kiji.schema.util.InstanceBuilder;
 
 public class TestHBaseKijiTableWriter {
@@ -108,4 +113,121 @@ public class TestHBaseKijiTableWriter {
     final long actual = counter.getData();
     assertEquals(5L, actual);
   }
+
+  @Test
+  public void testPutToMapFamilyQualifiers() throws Exception {
+    final EntityId entityId = mTable.getEntityId("foo");
+    mWriter.put(entityId, "experiments", "exp1", 1L);
+    mWriter.put(entityId, "experiments", "exp2", 2L);
+    mWriter.increment(entityId, "experiments", "exp2", 3L);
+
+    final KijiRowData row = mReader.get(entityId, KijiDataRequest.create("experiments"));
+    assertEquals(1L, ((Long) row.getMostRecentValue("experiments", "exp1")).longValue());
+    assertEquals(5L, ((Long) row.getMostRecentValue("experiments", "exp2")).longValue());
+  }
+
+  @Test
+  public void testBufferedWriterFlushesOnExplicitFlush() throws Exception {
+    final KijiMetrics metrics = HBaseKijiTable.downcast(mTable).getMetrics();
+    metrics.reset();
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setMaxBufferedCells(100));
+    try {
+      final EntityId entityId = mTable.getEntityId("baz");
+      final KijiDataRequest request = KijiDataRequest.create("info", "name");
+      writer.put(entityId, "info", "name", 123L, "buffered");
+      assertFalse(mReader.get(entityId, request).containsColumn("info", "name"));
+      assertEquals(0, metrics.getPutLatency().getCount());
+
+      writer.flush();
+      assertEquals("buffered",
+          mReader.get(entityId, request).getValue("info", "name", 123L).toString());
+      // The batch of buffered puts is timed as one put:
+      assertEquals(1, metrics.getPutLatency().getCount());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testBufferedWriterFlushesOnCountThreshold() throws Exception {
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setMaxBufferedCells(2));
+    try {
+      final EntityId entityId = mTable.getEntityId("baz");
+      final KijiDataRequest request = KijiDataRequest.create("info", "name");
+      writer.put(entityId, "info", "name", 1L, "one");
+      assertFalse(mReader.get(entityId, request).containsColumn("info", "name"));
+
+      writer.put(entityId, "info", "name", 2L, "two");
+      assertEquals("two", mReader.get(entityId, request).getValue("info", "name", 2L).toString());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testBufferedWriterFlushesOnClose() throws Exception {
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setMaxBufferedBytes(1024 * 1024));
+    final EntityId entityId = mTable.getEntityId("baz");
+    writer.put(entityId, "info", "name", 123L, "closed");
+    writer.close();
+
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    assertTrue(mReader.get(entityId, request).containsColumn("info", "name"));
+  }
+
+  @Test
+  public void testBufferedWriterPreservesOrder() throws Exception {
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setMaxBufferedCells(100));
+    try {
+      final EntityId entityId = mTable.getEntityId("foo");
+      final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+      builder.newColumnsDef().withMaxVersions(10).add("info", "name");
+      final KijiDataRequest request = builder.build();
+      writer.deleteColumn(entityId, "info", "name");
+      writer.put(entityId, "info", "name", 2L, "after-delete");
+      writer.increment(entityId, "info", "visits", 1L);
+      writer.flush();
+
+      final KijiRowData row = mReader.get(entityId, request);
+      assertEquals("after-delete", row.getMostRecentValue("info", "name").toString());
+      assertEquals(1, row.getValues("info", "name").size());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testCoalescedIncrements() throws Exception {
+    final KijiMetrics metrics = HBaseKijiTable.downcast(mTable).getMetrics();
+    metrics.reset();
+    final KijiTableWriter writer = mTable.openTableWriter(
+        new KijiTableWriter.KijiWriterOptions().setCoalesceIncrements(true));
+    try {
+      final EntityId fooId = mTable.getEntityId("foo");
+      final EntityId barId = mTable.getEntityId("bar");
+      final KijiDataRequest request = KijiDataRequest.create("info", "visits");
+      assertNull(writer.increment(fooId, "info", "visits", 1L));
+      writer.increment(fooId, "info", "visits", 2L);
+      writer.increment(fooId, "info", "visits", 3L);
+      writer.increment(barId, "info", "visits", -1L);
+      assertEquals(42L, ((Long) mReader.get(fooId, request)
+          .getMostRecentValue("info", "visits")).longValue());
+
+      writer.flush();
+      assertEquals(48L, ((Long) mReader.get(fooId, request)
+          .getMostRecentValue("info", "visits")).longValue());
+      assertEquals(99L, ((Long) mReader.get(barId, request)
+          .getMostRecentValue("info", "visits")).longValue());
+      assertEquals(4L, metrics.getIncrementsIssued());
+      assertEquals(2L, metrics.getIncrementsSent());
+      assertEquals(2.0, metrics.getIncrementCoalescingRatio(), 0.0);
+      assertEquals(2, metrics.getIncrementLatency().getCount());
+    } finally {
+      writer.close();
+    }
+  }
 }
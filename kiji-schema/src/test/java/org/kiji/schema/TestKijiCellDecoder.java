@@ -20,6 +20,9 @@
 package org.kiji.schema;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -95,4 +98,70 @@ public class TestKijiCellDecoder extends KijiClientTest {
   public void testDecodeAvroSchemaFinal() throws IOException {
     testDecodeAvroSchema(SchemaStorage.FINAL);
   }
+
+  @Test
+  public void testCachedDatumReadersAreNotSharedAcrossDecoderTypes() throws IOException {
+    final CellSpec cellSpec = new CellSpec()
+        .setCellSchema(CellSchema.newBuilder()
+            .setType(SchemaType.CLASS)
+            .setValue(Node.class.getName())
+            .setStorage(SchemaStorage.HASH)
+            .build())
+        .setSchemaTable(getKiji().getSchemaTable());
+    final KijiCellEncoder encoder = DefaultKijiCellEncoderFactory.get().create(cellSpec);
+    final KijiCellDecoder<Object> specificDecoder =
+        SpecificCellDecoderFactory.get().create(cellSpec);
+    final KijiCellDecoder<Object> genericDecoder =
+        GenericCellDecoderFactory.get().create(cellSpec);
+
+    for (int i = 0; i < 3; ++i) {
+      final Node node = Node.newBuilder()
+          .setWeight((double) i)
+          .setLabel("label" + i)
+          .setAnnotations(Collections.<String, String>emptyMap())
+          .setEdges(Collections.<Edge>emptyList())
+          .build();
+      final byte[] bytes = encoder.encode(node);
+
+      final Object specific = specificDecoder.decodeValue(bytes);
+      assertTrue(specific instanceof Node);
+      assertEquals("label" + i, ((Node) specific).getLabel().toString());
+
+      final Object generic = genericDecoder.decodeValue(bytes);
+      assertFalse(generic instanceof Node);
+      assertEquals("label" + i, ((GenericRecord) generic).get("label").toString());
+    }
+  }
+
+  @Test
+  public void testDecodeValueReuse() throws IOException {
+    final CellSpec cellSpec = new CellSpec()
+        .setCellSchema(CellSchema.newBuilder()
+            .setType(SchemaType.CLASS)
+            .setValue(Node.class.getName())
+            .setStorage(SchemaStorage.UID)
+            .build())
+        .setSchemaTable(getKiji().getSchemaTable());
+    final KijiCellEncoder encoder = DefaultKijiCellEncoderFactory.get().create(cellSpec);
+    final KijiCellDecoder<Node> decoder = SpecificCellDecoderFactory.get().create(cellSpec);
+
+    final Node reuse = new Node();
+    for (int i = 0; i < 3; ++i) {
+      final Node node = Node.newBuilder()
+          .setWeight((double) i)
+          .setLabel("label" + i)
+          .setAnnotations(Collections.<String, String>emptyMap())
+          .setEdges(Collections.<Edge>emptyList())
+          .build();
+      // Decode from the middle of a larger buffer, into the recycled node:
+      final byte[] encoded = encoder.encode(node);
+      final byte[] bytes = new byte[encoded.length + 2];
+      System.arraycopy(encoded, 0, bytes, 1, encoded.length);
+
+      final Node decoded = decoder.decodeValue(bytes, 1, encoded.length, reuse);
+      assertSame(reuse, decoded);
+      assertEquals("label" + i, decoded.getLabel().toString());
+      assertEquals((double) i, decoded.getWeight(), 0.0);
+    }
+  }
 }
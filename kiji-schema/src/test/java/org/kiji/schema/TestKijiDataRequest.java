@@ -25,6 +25,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -32,7 +35,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 
+import org.apache.avro.Schema;
 import org.junit.Test;
 
 public class TestKijiDataRequest {
@@ -217,4 +222,72 @@ public class TestKijiDataRequest {
     assertEquals("Unexpected merged page size",
         4, merge1.getColumn("foo", "bar").getPageSize());
   }
+
+  @Test
+  public void testProjection() throws IOException, ClassNotFoundException {
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withFields("name", "email").add("info", "profile");
+    builder.newColumnsDef()
+        .withReaderSchema(Schema.create(Schema.Type.STRING))
+        .add("info", "name");
+    final KijiDataRequest request = builder.build();
+    assertEquals(Arrays.asList("name", "email"), request.getColumn("info", "profile").getFields());
+    assertEquals(Schema.create(Schema.Type.STRING),
+        request.getColumn("info", "name").getReaderSchema());
+
+    // Projections survive serialization, although Avro schemas are not serializable:
+    final ByteArrayOutputStream byteOutput = new ByteArrayOutputStream();
+    new ObjectOutputStream(byteOutput).writeObject(request);
+    final KijiDataRequest deserialized = (KijiDataRequest) new ObjectInputStream(
+        new ByteArrayInputStream(byteOutput.toByteArray())).readObject();
+    assertEquals(request, deserialized);
+    assertEquals(Schema.create(Schema.Type.STRING),
+        deserialized.getColumn("info", "name").getReaderSchema());
+
+    // Requests with different projections differ:
+    final KijiDataRequestBuilder other = KijiDataRequest.builder();
+    other.newColumnsDef().withFields("name").add("info", "profile");
+    other.newColumnsDef().add("info", "name");
+    assertThat(request, is(not(other.build())));
+  }
+
+  @Test
+  public void testProjectedSchemaMemoized() {
+    final String json = "{\"type\":\"record\",\"name\":\"Profile\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"email\",\"type\":\"string\"}]}";
+    final Schema layoutSchema = new Schema.Parser().parse(json);
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withFields("name").add("info", "profile");
+    final KijiDataRequest.Column column = builder.build().getColumn("info", "profile");
+
+    final Schema projected = column.getProjectedSchema(layoutSchema);
+    assertSame(projected, column.getProjectedSchema(layoutSchema));
+
+    // A different layout schema instance is projected again:
+    final Schema other = column.getProjectedSchema(new Schema.Parser().parse(json));
+    assertEquals(projected, other);
+    assertNotSame(projected, other);
+  }
+
+  @Test
+  public void testProjectionMerge() {
+    final KijiDataRequestBuilder builder1 = KijiDataRequest.builder();
+    builder1.newColumnsDef().withFields("name").add("info", "profile");
+    builder1.newColumnsDef().withFields("name").add("info", "other");
+    final KijiDataRequest first = builder1.build();
+
+    final KijiDataRequestBuilder builder2 = KijiDataRequest.builder();
+    builder2.newColumnsDef().withFields("email", "name").add("info", "profile");
+    builder2.newColumnsDef().add("info", "other");
+    final KijiDataRequest second = builder2.build();
+
+    // The union of the fields is projected:
+    final KijiDataRequest merged = first.merge(second);
+    assertEquals(Arrays.asList("name", "email"), merged.getColumn("info", "profile").getFields());
+
+    // A column read whole on one side is read whole:
+    assertFalse(merged.getColumn("info", "other").isProjected());
+    assertNull(merged.getColumn("info", "other").getFields());
+  }
 }
@@ -19,6 +19,8 @@
 
 package org.kiji.schema;
 
+import com.google.common.collect.Lists;
+import org.apache.avro.Schema;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -68,4 +70,29 @@ public class TestKijiDataRequestValidator extends KijiClientTest {
     KijiDataRequestValidator validator = new KijiDataRequestValidator(request);
     validator.validate(mTableLayout);
   }
+
+  @Test
+  public void testValidateReaderSchema() throws InvalidLayoutException {
+    final Schema optionalString = Schema.createUnion(Lists.newArrayList(
+        Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.STRING)));
+    KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withReaderSchema(optionalString).addFamily("info");
+    new KijiDataRequestValidator(builder.build()).validate(mTableLayout);
+  }
+
+  @Test(expected=KijiDataRequestException.class)
+  public void testValidateIncompatibleReaderSchema() throws InvalidLayoutException {
+    KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef()
+        .withReaderSchema(Schema.create(Schema.Type.INT))
+        .add("info", "name");
+    new KijiDataRequestValidator(builder.build()).validate(mTableLayout);
+  }
+
+  @Test(expected=KijiDataRequestException.class)
+  public void testValidateFieldsOfNonRecord() throws InvalidLayoutException {
+    KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withFields("first").add("info", "name");
+    new KijiDataRequestValidator(builder.build()).validate(mTableLayout);
+  }
 }
@@ -35,9 +35,11 @@ import org.slf4j.LoggerFactory;
 
 import org.kiji.schema.filter.RegexQualifierColumnFilter;
 import org.kiji.schema.filter.TestKijiPaginationFilter;
+import org.kiji.schema.impl.HBaseKijiTable;
 import org.kiji.schema.impl.KijiColumnPagingNotEnabledException;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayouts;
+import org.kiji.schema.metrics.KijiMetrics;
 
 public class TestKijiPager extends KijiClientTest {
   private static final Logger LOG = LoggerFactory.getLogger(TestKijiPaginationFilter.class);
@@ -209,6 +211,139 @@ public class TestKijiPager extends KijiClientTest {
     pager.close();
   }
 
+  /** Test that pages resume in the middle of the versions of a column. */
+  @Test
+  public void testMapTypeColumnPagingAcrossVersions() throws IOException {
+    final EntityId id = mTable.getEntityId("me");
+    final KijiTableWriter writer = mTable.openTableWriter();
+    writer.put(id, "jobs", "a", 1L, "a1");
+    writer.put(id, "jobs", "a", 2L, "a2");
+    writer.put(id, "jobs", "a", 3L, "a3");
+    writer.put(id, "jobs", "b", 4L, "b4");
+    writer.put(id, "jobs", "c", 5L, "c5");
+    writer.put(id, "jobs", "c", 6L, "c6");
+    writer.close();
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(2).withPageSize(2).addFamily("jobs");
+    final KijiRowData rowData = mReader.get(id, builder.build());
+    final KijiPager pager = rowData.getPager("jobs");
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page1 =
+        pager.next().getValues("jobs");
+    assertEquals(1, page1.size());
+    assertEquals(2, page1.get("a").size());
+    assertEquals("a3", page1.get("a").get(3L).toString());
+    assertEquals("a2", page1.get("a").get(2L).toString());
+    assertTrue(pager.hasNext());
+
+    // Only 2 versions of "a" are requested: a1 must be skipped.
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page2 =
+        pager.next().getValues("jobs");
+    assertEquals(2, page2.size());
+    assertEquals("b4", page2.get("b").get(4L).toString());
+    assertEquals("c6", page2.get("c").get(6L).toString());
+    assertTrue(pager.hasNext());
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page3 =
+        pager.next().getValues("jobs");
+    assertEquals(1, page3.size());
+    assertEquals("c5", page3.get("c").get(5L).toString());
+    assertTrue(!pager.hasNext());
+    pager.close();
+  }
+
+  /** Test that the older versions of the last column are only fetched if they exist. */
+  @Test
+  public void testMapTypeColumnPagingSkipsCompleteColumns() throws IOException {
+    final EntityId id = mTable.getEntityId("me");
+    final KijiTableWriter writer = mTable.openTableWriter();
+    writer.put(id, "jobs", "a", 1L, "a1");
+    writer.put(id, "jobs", "b", 2L, "b2");
+    writer.put(id, "jobs", "c", 3L, "c3");
+    writer.put(id, "jobs", "d", 4L, "d4");
+    writer.put(id, "jobs", "e", 5L, "e5");
+    writer.close();
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(2).withPageSize(2).addFamily("jobs");
+    final KijiRowData rowData = mReader.get(id, builder.build());
+    final KijiPager pager = rowData.getPager("jobs");
+    final KijiMetrics metrics = HBaseKijiTable.downcast(mTable).getMetrics();
+    metrics.reset();
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page1 =
+        pager.next().getValues("jobs");
+    assertEquals(2, page1.size());
+    assertEquals("b2", page1.get("b").get(2L).toString());
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page2 =
+        pager.next().getValues("jobs");
+    assertEquals(2, page2.size());
+    assertEquals("d4", page2.get("d").get(4L).toString());
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page3 =
+        pager.next().getValues("jobs");
+    assertEquals(1, page3.size());
+    assertEquals("e5", page3.get("e").get(5L).toString());
+    assertTrue(!pager.hasNext());
+
+    // Every column has a single version: each page only finds the next columns and fetches them.
+    assertEquals(6, metrics.getGetLatency().getCount());
+    pager.close();
+  }
+
+  /**
+   * Test that page boundaries may split the versions of several columns.
+   *
+   * <p>HBase column pagination filters only include one version per column: the versions must
+   * be counted by the pager, not by the filter.</p>
+   */
+  @Test
+  public void testMapTypeColumnPagingSplitsVersions() throws IOException {
+    final EntityId id = mTable.getEntityId("me");
+    final KijiTableWriter writer = mTable.openTableWriter();
+    writer.put(id, "jobs", "a", 1L, "a1");
+    writer.put(id, "jobs", "a", 2L, "a2");
+    writer.put(id, "jobs", "a", 3L, "a3");
+    writer.put(id, "jobs", "b", 4L, "b4");
+    writer.put(id, "jobs", "b", 5L, "b5");
+    writer.put(id, "jobs", "b", 6L, "b6");
+    writer.close();
+
+    final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(3).withPageSize(2).addFamily("jobs");
+    final KijiRowData rowData = mReader.get(id, builder.build());
+    final KijiPager pager = rowData.getPager("jobs");
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page1 =
+        pager.next().getValues("jobs");
+    assertEquals(1, page1.size());
+    assertEquals(2, page1.get("a").size());
+    assertEquals("a3", page1.get("a").get(3L).toString());
+    assertEquals("a2", page1.get("a").get(2L).toString());
+    assertTrue(pager.hasNext());
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page2 =
+        pager.next().getValues("jobs");
+    assertEquals(2, page2.size());
+    assertEquals(1, page2.get("a").size());
+    assertEquals("a1", page2.get("a").get(1L).toString());
+    assertEquals(1, page2.get("b").size());
+    assertEquals("b6", page2.get("b").get(6L).toString());
+    assertTrue(pager.hasNext());
+
+    final NavigableMap<String, NavigableMap<Long, CharSequence>> page3 =
+        pager.next().getValues("jobs");
+    assertEquals(1, page3.size());
+    assertEquals(2, page3.get("b").size());
+    assertEquals("b5", page3.get("b").get(5L).toString());
+    assertEquals("b4", page3.get("b").get(4L).toString());
+    assertTrue(pager.hasNext());
+
+    assertTrue(!pager.next().containsColumn("jobs"));
+    assertTrue(!pager.hasNext());
+    pager.close();
+  }
+
  /** Test that paging does not clobber user defined filters. */
   @Test
   public void testUserDefinedFilters() throws IOException {
@@ -0,0 +1,74 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.KijiTableLayouts;
+
+public class TestKijiRowKeySplitter {
+  @Test
+  public void testSplitWholeKeySpace() {
+    final byte[][] splitKeys = KijiRowKeySplitter.getSplitKeys(new byte[0], new byte[0], 4);
+    assertEquals(3, splitKeys.length);
+    assertTrue(Bytes.compareTo(splitKeys[0], splitKeys[1]) < 0);
+    assertTrue(Bytes.compareTo(splitKeys[1], splitKeys[2]) < 0);
+    // The boundaries are evenly spaced over the key space.
+    assertEquals(0x7F, splitKeys[1][0] & 0xFF);
+  }
+
+  @Test
+  public void testSplitRange() {
+    final byte[] startKey = Bytes.toBytes("a");
+    final byte[] endKey = Bytes.toBytes("e");
+    final byte[][] splitKeys = KijiRowKeySplitter.getSplitKeys(startKey, endKey, 4);
+    assertEquals(3, splitKeys.length);
+    assertArrayEquals(Bytes.toBytes("b"), splitKeys[0]);
+    assertArrayEquals(Bytes.toBytes("c"), splitKeys[1]);
+    assertArrayEquals(Bytes.toBytes("d"), splitKeys[2]);
+  }
+
+  @Test
+  public void testSplitNarrowRange() {
+    // There is no room for more than one boundary between "a" and "c".
+    final byte[][] splitKeys =
+        KijiRowKeySplitter.getSplitKeys(Bytes.toBytes("a"), Bytes.toBytes("c"), 8);
+    for (byte[] splitKey : splitKeys) {
+      assertTrue(Bytes.compareTo(splitKey, Bytes.toBytes("a")) > 0);
+      assertTrue(Bytes.compareTo(splitKey, Bytes.toBytes("c")) < 0);
+    }
+    assertEquals(0, KijiRowKeySplitter.getSplitKeys(new byte[0], new byte[0], 1).length);
+  }
+
+  @Test
+  public void testHasHashedRowKeys() throws Exception {
+    assertTrue(KijiRowKeySplitter.hasHashedRowKeys(
+        KijiTableLayout.newLayout(KijiTableLayouts.getLayout(KijiTableLayouts.SIMPLE))));
+    assertFalse(KijiRowKeySplitter.hasHashedRowKeys(
+        KijiTableLayout.newLayout(KijiTableLayouts.getLayout(KijiTableLayouts.SIMPLE_UNHASHED))));
+  }
+}
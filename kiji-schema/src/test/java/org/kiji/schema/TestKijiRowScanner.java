@@ -20,15 +20,23 @@
 package org.kiji.schema;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.kiji.schema.KijiTableReader.KijiParallelScanOptions;
 import org.kiji.schema.KijiTableReader.KijiScannerOptions;
 import org.kiji.schema.layout.KijiTableLayout;
 import org.kiji.schema.layout.KijiTableLayouts;
@@ -98,4 +106,92 @@ public class TestKijiRowScanner {
 
     scanner.close();
   }
+
+  @Test
+  public void testPrefetchingScanner() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    final KijiRowScanner scanner = mReader.getScanner(
+        request, new KijiScannerOptions().setPrefetchDepth(1));
+    final Iterator<KijiRowData> iterator = scanner.iterator();
+
+    final String actual1 = iterator.next().getValue("info", "name", 1L).toString();
+    final String actual2 = iterator.next().getValue("info", "name", 1L).toString();
+
+    assertEquals("bar-val", actual1);
+    assertEquals("foo-val", actual2);
+    assertFalse(iterator.hasNext());
+
+    scanner.close();
+  }
+
+  @Test
+  public void testPrefetchingScannerClosedEarly() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    final KijiRowScanner scanner = mReader.getScanner(
+        request, new KijiScannerOptions().setPrefetchDepth(1));
+    final Iterator<KijiRowData> iterator = scanner.iterator();
+    assertEquals("bar-val", iterator.next().getValue("info", "name", 1L).toString());
+
+    // Closing the scanner stops the prefetching thread, even though rows are left.
+    scanner.close();
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  public void testReuseRowData() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    final KijiRowScanner scanner = mReader.getScanner(
+        request, new KijiScannerOptions().setReuseRowData(true));
+    try {
+      final Iterator<KijiRowData> iterator = scanner.iterator();
+
+      final KijiRowData row1 = iterator.next();
+      assertEquals(mTable.getEntityId("bar"), row1.getEntityId());
+      final CharSequence value = row1.getMostRecentValue("info", "name", null);
+      assertEquals("bar-val", value.toString());
+
+      final KijiRowData row2 = iterator.next();
+      assertSame(row1, row2);
+      assertEquals(mTable.getEntityId("foo"), row2.getEntityId());
+      assertEquals("foo-val", row2.getMostRecentValue("info", "name", value).toString());
+      assertFalse(iterator.hasNext());
+    } finally {
+      scanner.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReuseRowDataWithPrefetching() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    mReader.getScanner(
+        request, new KijiScannerOptions().setReuseRowData(true).setPrefetchDepth(1));
+  }
+
+  @Test
+  public void testParallelScan() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    final Set<String> values = Collections.synchronizedSet(Sets.<String>newHashSet());
+    mReader.parallelScan(request, new KijiParallelScanOptions().setMaxParallelism(2),
+        new KijiRowConsumer() {
+          @Override
+          public void consume(KijiRowData row) throws IOException {
+            values.add(row.getValue("info", "name", 1L).toString());
+          }
+        });
+    assertEquals(Sets.newHashSet("foo-val", "bar-val"), values);
+  }
+
+  @Test
+  public void testOrderedParallelScan() throws Exception {
+    final KijiDataRequest request = KijiDataRequest.create("info", "name");
+    final List<String> values = Lists.newArrayList();
+    mReader.parallelScan(request, new KijiParallelScanOptions().setOrdered(true),
+        new KijiRowConsumer() {
+          @Override
+          public void consume(KijiRowData row) throws IOException {
+            values.add(row.getValue("info", "name", 1L).toString());
+          }
+        });
+    assertEquals(Lists.newArrayList("bar-val", "foo-val"), values);
+  }
 }
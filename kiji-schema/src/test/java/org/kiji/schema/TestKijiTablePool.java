@@ -29,6 +29,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -195,4 +196,43 @@ public class TestKijiTablePool extends KijiClientTest {
     pool.release(second);
     pool.close();
   }
+
+  @Test
+  public void testStats() throws IOException {
+    KijiTablePool pool = new KijiTablePool(mTableFactory);
+
+    KijiTable foo = createMock(KijiTable.class);
+    expect(foo.getName()).andReturn("foo").anyTimes();
+    expect(mTableFactory.openTable("foo")).andReturn(foo);
+    foo.close();
+
+    replay(foo);
+    replay(mTableFactory);
+
+    pool.release(pool.get("foo"));
+    KijiTable table = pool.get("foo");
+
+    KijiTablePool.Stats stats = pool.getStats("foo");
+    assertEquals(1L, stats.getHits());
+    assertEquals(1L, stats.getMisses());
+    assertEquals(0.5, stats.getHitRate(), 1e-9);
+    assertTrue(stats.getAverageOpenTime(TimeUnit.NANOSECONDS) >= 0.0);
+    assertEquals(1, stats.getLiveCount());
+    assertEquals(0, stats.getIdleCount());
+
+    pool.release(table);
+    assertEquals(1, pool.getStats().getIdleCount());
+    pool.close();
+
+    verify(mTableFactory);
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testGetAfterClose() throws IOException {
+    KijiTablePool pool = new KijiTablePool(mTableFactory);
+    replay(mTableFactory);
+    pool.close();
+    assertEquals(0, pool.getPoolSize("foo"));
+    pool.get("foo");
+  }
 }
@@ -0,0 +1,146 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.hbase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.junit.Test;
+
+import org.kiji.delegation.Priority;
+import org.kiji.schema.EntityId;
+import org.kiji.schema.KijiClientTest;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiDataRequestBuilder;
+import org.kiji.schema.KijiInstaller;
+import org.kiji.schema.KijiRowData;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableReader;
+import org.kiji.schema.KijiTableWriter;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.avro.TableLayoutDesc;
+import org.kiji.schema.impl.DefaultHTableInterfaceFactory;
+import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.KijiTableLayouts;
+
+public class TestInMemoryHBaseFactory extends KijiClientTest {
+  @Test
+  public void testRouting() throws Exception {
+    final InMemoryHBaseFactory factory = new InMemoryHBaseFactory();
+    final KijiURI uri1 = KijiURI.newBuilder("kiji://.in-memory.one/instance").build();
+    final KijiURI uri1b = KijiURI.newBuilder("kiji://.in-memory.one/other").build();
+    final KijiURI uri2 = KijiURI.newBuilder("kiji://.in-memory.two/instance").build();
+    final KijiURI realURI = KijiURI.newBuilder("kiji://localhost:2181/instance").build();
+
+    assertSame(factory.getHTableInterfaceFactory(uri1), factory.getHTableInterfaceFactory(uri1b));
+    assertNotSame(factory.getHTableInterfaceFactory(uri1), factory.getHTableInterfaceFactory(uri2));
+    assertSame(DefaultHTableInterfaceFactory.get(), factory.getHTableInterfaceFactory(realURI));
+
+    final Configuration conf = HBaseConfiguration.create();
+    assertSame(factory.getLockFactory(uri1, conf), factory.getLockFactory(uri1b, conf));
+  }
+
+  @Test
+  public void testInstall() throws Exception {
+    final InMemoryHBaseFactory factory = new InMemoryHBaseFactory();
+    final KijiURI uri = KijiURI.newBuilder("kiji://.in-memory.install/instance").build();
+    final Configuration conf = HBaseConfiguration.create();
+    KijiInstaller.get().install(uri, factory, conf);
+
+    final String systemTable = KijiManagedHBaseTableName.getSystemTableName("instance").toString();
+    final HBaseAdmin admin = factory.getHBaseAdminFactory(uri).create(conf);
+    try {
+      assertTrue(admin.tableExists(systemTable));
+    } finally {
+      admin.close();
+    }
+
+    factory.reset();
+    final HBaseAdmin newAdmin = factory.getHBaseAdminFactory(uri).create(conf);
+    try {
+      assertFalse(newAdmin.tableExists(systemTable));
+    } finally {
+      newAdmin.close();
+    }
+  }
+
+  @Test
+  public void testPriority() throws Exception {
+    final InMemoryHBaseFactory factory = new InMemoryHBaseFactory();
+    assertEquals(Priority.DISABLED, factory.getPriority(Collections.<String, String>emptyMap()));
+    assertEquals(Priority.HIGH, factory.getPriority(
+        Collections.singletonMap(InMemoryHBaseFactory.ENABLE_PROPERTY, "true")));
+  }
+
+  @Test
+  public void testTableWithTTLAndMaxVersions() throws Exception {
+    // The Kiji instances of KijiClientTest are served by an InMemoryHBaseFactory,
+    // through TestingHBaseFactory.
+    final TableLayoutDesc desc = KijiTableLayouts.getLayout(KijiTableLayouts.SIMPLE);
+    desc.getLocalityGroups().get(0).setMaxVersions(2);
+    desc.getLocalityGroups().get(0).setTtlSeconds(3600);
+    getKiji().createTable("table", KijiTableLayout.newLayout(desc));
+
+    final KijiTable table = getKiji().openTable("table");
+    try {
+      final EntityId rowId = table.getEntityId("row");
+      final EntityId expiredId = table.getEntityId("expired");
+      final long now = System.currentTimeMillis();
+      final KijiTableWriter writer = table.openTableWriter();
+      try {
+        writer.put(rowId, "family", "column", now - 3, "v1");
+        writer.put(rowId, "family", "column", now - 2, "v2");
+        writer.put(rowId, "family", "column", now - 1, "v3");
+        writer.put(expiredId, "family", "column", now - 2 * 3600 * 1000L, "expired");
+      } finally {
+        writer.close();
+      }
+
+      final KijiDataRequestBuilder builder = KijiDataRequest.builder();
+      builder.newColumnsDef().withMaxVersions(10).add("family", "column");
+      final KijiDataRequest request = builder.build();
+      final KijiTableReader reader = table.openTableReader();
+      try {
+        // Only the 2 most recent versions are kept:
+        final KijiRowData row = reader.get(rowId, request);
+        final NavigableMap<Long, CharSequence> values = row.getValues("family", "column");
+        assertEquals(2, values.size());
+        assertEquals("v3", values.get(now - 1).toString());
+        assertEquals("v2", values.get(now - 2).toString());
+
+        // Cells older than the TTL are discarded:
+        assertFalse(reader.get(expiredId, request).containsColumn("family", "column"));
+      } finally {
+        reader.close();
+      }
+    } finally {
+      table.close();
+    }
+  }
+}
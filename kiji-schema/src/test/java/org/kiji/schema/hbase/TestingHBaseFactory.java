@@ -22,28 +22,26 @@ package org.kiji.schema.hbase;
 import java.io.IOException;
 import java.util.Map;
 
-import com.google.common.collect.Maps;
 import org.apache.hadoop.conf.Configuration;
 
 import org.kiji.delegation.Priority;
 import org.kiji.schema.KijiURI;
-import org.kiji.schema.impl.DefaultHBaseAdminFactory;
-import org.kiji.schema.impl.DefaultHTableInterfaceFactory;
 import org.kiji.schema.impl.HBaseAdminFactory;
 import org.kiji.schema.impl.HTableInterfaceFactory;
-import org.kiji.schema.util.LocalLockFactory;
 import org.kiji.schema.util.LockFactory;
-import org.kiji.schema.util.ZooKeeperLockFactory;
-import org.kiji.testing.fakehtable.FakeHBase;
 
-/** Factory for HBase instances based on URIs. */
+/**
+ * Factory for HBase instances based on URIs.
+ *
+ * <p>URIs of the form "kiji://.fake.[fake-id]/instance/table" are served by in-memory HBase
+ * instances, through an {@link InMemoryHBaseFactory}. This factory is always enabled in tests.</p>
+ */
 public final class TestingHBaseFactory implements HBaseFactory {
+  /** URIs for fake HBase instances are "kiji://.fake.[fake-id]/instance/table". */
+  private static final String FAKE_HBASE_ID_PREFIX = ".fake.";
 
-  /** Map from fake HBase ID to fake HBase instances. */
-  private final Map<String, FakeHBase> mFakeHBase = Maps.newHashMap();
-
-  /** Map from fake HBase ID to fake (local) lock factories. */
-  private final Map<String, LockFactory> mLock = Maps.newHashMap();
+  /** Factory serving the fake HBase instances. */
+  private final InMemoryHBaseFactory mDelegate = new InMemoryHBaseFactory(FAKE_HBASE_ID_PREFIX);
 
   /**
    * Public constructor. This should not be directly invoked by users; you should
@@ -52,90 +50,27 @@ public final class TestingHBaseFactory implements HBaseFactory {
   public TestingHBaseFactory() {
   }
 
-  /** URIs for fake HBase instances are "kiji://.fake.[fake-id]/instance/table". */
-  private static final String FAKE_HBASE_ID_PREFIX = ".fake.";
-
-  /**
-   * Extracts the ID of the fake HBase from a Kiji URI.
-   *
-   * @param uri URI to extract a fake HBase ID from.
-   * @return the fake HBase ID, if any, or null.
-   */
-  private static String getFakeHBaseID(KijiURI uri) {
-    if (uri.getZookeeperQuorum().size() != 1) {
-      return null;
-    }
-    final String zkHost = uri.getZookeeperQuorum().get(0);
-    if (!zkHost.startsWith(FAKE_HBASE_ID_PREFIX)) {
-      return null;
-    }
-    return zkHost.substring(FAKE_HBASE_ID_PREFIX.length());
-  }
-
-  /**
-   * Gets the FakeHBase for a given HBase URI.
-   *
-   * @param uri URI of a fake HBase instance.
-   * @return the FakeHBase for the specified URI, or null if the URI does not specify a fake HBase.
-   */
-  public FakeHBase getFakeHBase(KijiURI uri) {
-    final String fakeID = getFakeHBaseID(uri);
-    if (fakeID == null) {
-      return null;
-    }
-    synchronized (mFakeHBase) {
-      final FakeHBase hbase = mFakeHBase.get(fakeID);
-      if (hbase != null) {
-        return hbase;
-      }
-      final FakeHBase newFake = new FakeHBase();
-      mFakeHBase.put(fakeID, newFake);
-      return newFake;
-    }
-  }
-
   /** {@inheritDoc} */
   @Override
   public HTableInterfaceFactory getHTableInterfaceFactory(KijiURI uri) {
-    final FakeHBase fake = getFakeHBase(uri);
-    if (fake != null) {
-      return fake.getHTableFactory();
-    }
-    return DefaultHTableInterfaceFactory.get();
+    return mDelegate.getHTableInterfaceFactory(uri);
   }
 
   /** {@inheritDoc} */
   @Override
   public HBaseAdminFactory getHBaseAdminFactory(KijiURI uri) {
-    final FakeHBase fake = getFakeHBase(uri);
-    if (fake != null) {
-      return fake.getAdminFactory();
-    }
-    return DefaultHBaseAdminFactory.get();
+    return mDelegate.getHBaseAdminFactory(uri);
   }
 
   /** {@inheritDoc} */
   @Override
   public LockFactory getLockFactory(KijiURI uri, Configuration conf) throws IOException {
-    final String fakeID = getFakeHBaseID(uri);
-    if (fakeID != null) {
-      synchronized (mLock) {
-        final LockFactory factory = mLock.get(fakeID);
-        if (factory != null) {
-          return factory;
-        }
-        final LockFactory newFactory = new LocalLockFactory();
-        mLock.put(fakeID, newFactory);
-        return newFactory;
-      }
-    }
-    return new ZooKeeperLockFactory(ZooKeeperLockFactory.zkConnStr(uri));
+    return mDelegate.getLockFactory(uri, conf);
   }
 
   /** Resets the testing HBase factory. */
   public void reset() {
-    mFakeHBase.clear();
-    mLock.clear();
+    mDelegate.reset();
   }
 
   /** {@inheritDoc} */
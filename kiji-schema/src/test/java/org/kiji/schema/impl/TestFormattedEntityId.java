@@ -474,7 +474,21 @@ public class TestFormattedEntityId {
     byte[] hbkey = new byte[]{(byte) 0x01, (byte) 0x02, (byte) 0x042, (byte) 0x01, (byte) 0x02,
         (byte) 0x042, (byte) 0x01, (byte) 0x02, (byte) 0x042, };
 
+    // Components are decoded lazily: the malformed key is reported when they are requested.
     FormattedEntityId testEntityId = FormattedEntityId.fromHBaseRowKey(hbkey, format);
+    testEntityId.getComponents();
+  }
+
+  @Test
+  public void testBadHbaseKeyToString() {
+    RowKeyFormat2 format = makeIntRowKeyFormat();
+    byte[] hbkey = new byte[]{(byte) 0x01, (byte) 0x02, (byte) 0x042, (byte) 0x01, (byte) 0x02,
+        (byte) 0x042, (byte) 0x01, (byte) 0x02, (byte) 0x042, };
+
+    // A malformed key is still printed, with its HBase row key only.
+    FormattedEntityId testEntityId = FormattedEntityId.fromHBaseRowKey(hbkey, format);
+    assertEquals("FormattedEntityId{hbase=" + Bytes.toStringBinary(hbkey) + "}",
+        testEntityId.toString());
   }
 
   @Test(expected=EntityIdException.class)
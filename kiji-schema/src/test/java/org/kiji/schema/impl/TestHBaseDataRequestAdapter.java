@@ -19,8 +19,11 @@
 
 package org.kiji.schema.impl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 
@@ -127,6 +130,36 @@ public class TestHBaseDataRequestAdapter extends KijiClientTest {
         hbaseDataRequest.toGet(entityId, mTableLayout).toString());
   }
 
+  @Test
+  public void testCompiledGetTemplate() throws IOException {
+    KijiDataRequestBuilder builder = KijiDataRequest.builder();
+    builder.newColumnsDef().withMaxVersions(1).add("info", "name");
+    builder.newColumnsDef().withMaxVersions(2).addFamily("purchases");
+    builder.withTimeRange(1L, 3L);
+    KijiDataRequest request = builder.build();
+
+    HBaseDataRequestAdapter hbaseDataRequest = new HBaseDataRequestAdapter(request);
+    HBaseDataRequestAdapter.GetTemplate template = hbaseDataRequest.compile(mTableLayout);
+    assertSame(mTableLayout, template.getTableLayout());
+
+    EntityId entityId1 = mEntityIdFactory.getEntityId("entity1");
+    EntityId entityId2 = mEntityIdFactory.getEntityId("entity2");
+    Get get1 = template.toGet(entityId1);
+    Get get2 = template.toGet(entityId2);
+    assertEquals(hbaseDataRequest.toGet(entityId1, mTableLayout).toString(), get1.toString());
+    assertEquals(hbaseDataRequest.toGet(entityId2, mTableLayout).toString(), get2.toString());
+    assertArrayEquals(entityId2.getHBaseRowKey(), get2.getRow());
+
+    // Gets do not share their stateful filters:
+    assertNotSame(get1.getFilter(), get2.getFilter());
+
+    // Adding columns to a Get does not modify the template:
+    final HBaseColumnName hbaseColumn = mColumnNameTranslator.toHBaseColumnName(
+        new KijiColumnName("info:email"));
+    get1.addColumn(hbaseColumn.getFamily(), hbaseColumn.getQualifier());
+    assertEquals(hbaseDataRequest.toGet(entityId2, mTableLayout).toString(),
+        template.toGet(entityId2).toString());
+  }
 
   @Test
   public void testDataRequestToGetEmpty() throws IOException {
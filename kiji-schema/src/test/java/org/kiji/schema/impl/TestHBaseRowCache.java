@@ -0,0 +1,143 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiDataRequestBuilder;
+import org.kiji.schema.filter.KijiColumnRangeFilter;
+import org.kiji.schema.metrics.KijiMetrics;
+import org.kiji.schema.util.IncrementingClock;
+
+public class TestHBaseRowCache {
+  private static final String REQUEST = "info:name/1@0-" + Long.MAX_VALUE;
+
+  private static Result makeResult(String row, String value) {
+    return new Result(new KeyValue[] {new KeyValue(
+        Bytes.toBytes(row), Bytes.toBytes("family"), Bytes.toBytes("qualifier"), 1L,
+        Bytes.toBytes(value))});
+  }
+
+  private static HBaseRowCache makeCache(long maxBytes, long ttlMillis, KijiMetrics metrics) {
+    return new HBaseRowCache(maxBytes, ttlMillis, new IncrementingClock(0), metrics);
+  }
+
+  @Test
+  public void testGetPut() {
+    final KijiMetrics metrics = new KijiMetrics(null);
+    final HBaseRowCache cache = makeCache(1L << 20, 0L, metrics);
+    final byte[] row = Bytes.toBytes("row");
+
+    assertNull(cache.get(row, REQUEST));
+    cache.put(row, REQUEST, makeResult("row", "value"), cache.getStamp(row));
+    final Result cached = cache.get(row, REQUEST);
+    assertNotNull(cached);
+    assertArrayEquals(Bytes.toBytes("value"), cached.value());
+    assertNull(cache.get(row, "info:name/2@0-" + Long.MAX_VALUE));
+
+    assertEquals(1, metrics.getRowCacheHits());
+    assertEquals(2, metrics.getRowCacheMisses());
+  }
+
+  @Test
+  public void testInvalidate() {
+    final HBaseRowCache cache = makeCache(1L << 20, 0L, new KijiMetrics(null));
+    final byte[] row = Bytes.toBytes("row");
+
+    cache.put(row, REQUEST, makeResult("row", "value"), cache.getStamp(row));
+    cache.invalidate(row);
+    assertNull(cache.get(row, REQUEST));
+    assertEquals(0, cache.getSizeBytes());
+
+    // A result fetched before the row was invalidated must not be cached:
+    final long stamp = cache.getStamp(row);
+    cache.invalidate(row);
+    cache.put(row, REQUEST, makeResult("row", "stale"), stamp);
+    assertNull(cache.get(row, REQUEST));
+  }
+
+  @Test
+  public void testEviction() {
+    final HBaseRowCache cache = makeCache(1000L, 0L, new KijiMetrics(null));
+    for (int i = 0; i < 100; ++i) {
+      final byte[] row = Bytes.toBytes("row" + i);
+      cache.put(row, REQUEST, makeResult("row" + i, "value"), cache.getStamp(row));
+      assertNotNull(cache.get(Bytes.toBytes("row0"), REQUEST));
+    }
+    // The most recently used rows are kept:
+    assertNotNull(cache.get(Bytes.toBytes("row0"), REQUEST));
+    assertNotNull(cache.get(Bytes.toBytes("row99"), REQUEST));
+    assertNull(cache.get(Bytes.toBytes("row1"), REQUEST));
+    assertTrue(cache.getSizeBytes() <= 1000L);
+  }
+
+  @Test
+  public void testExpiration() {
+    final HBaseRowCache cache = makeCache(1L << 20, 10L, new KijiMetrics(null));
+    final byte[] row = Bytes.toBytes("row");
+    cache.put(row, REQUEST, makeResult("row", "value"), cache.getStamp(row));
+    assertNotNull(cache.get(row, REQUEST));
+    for (int i = 0; i < 10; ++i) {
+      cache.get(row, REQUEST);
+    }
+    assertNull(cache.get(row, REQUEST));
+    assertEquals(0, cache.getSizeBytes());
+  }
+
+  @Test
+  public void testRequestKey() {
+    final KijiDataRequestBuilder builder1 = KijiDataRequest.builder();
+    builder1.newColumnsDef().add("info", "name").add("info", "email");
+    final KijiDataRequestBuilder builder2 = KijiDataRequest.builder();
+    builder2.newColumnsDef().add("info", "email").add("info", "name");
+    assertEquals(HBaseRowCache.getRequestKey(builder1.build()),
+        HBaseRowCache.getRequestKey(builder2.build()));
+
+    final KijiDataRequestBuilder paged = KijiDataRequest.builder();
+    paged.newColumnsDef().withPageSize(10).add("info", "name");
+    assertNull(HBaseRowCache.getRequestKey(paged.build()));
+
+    final KijiDataRequestBuilder filtered = KijiDataRequest.builder();
+    filtered.newColumnsDef()
+        .withFilter(new KijiColumnRangeFilter("a", true, "b", false)).add("info", "name");
+    assertNull(HBaseRowCache.getRequestKey(filtered.build()));
+  }
+
+  @Test
+  public void testCreate() {
+    final KijiMetrics metrics = new KijiMetrics(null);
+    final Configuration conf = new Configuration(false);
+    assertNull(HBaseRowCache.create(conf, "table", metrics));
+    conf.setLong(HBaseRowCache.CONF_MAX_BYTES + ".table", 1000L);
+    assertNotNull(HBaseRowCache.create(conf, "table", metrics));
+    assertNull(HBaseRowCache.create(conf, "other", metrics));
+  }
+}
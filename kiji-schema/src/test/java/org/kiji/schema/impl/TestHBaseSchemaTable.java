@@ -22,6 +22,13 @@ package org.kiji.schema.impl;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
 import org.apache.avro.Schema;
 import org.junit.Test;
 
@@ -116,4 +123,38 @@ public class TestHBaseSchemaTable extends KijiClientTest {
     assertEquals(TEST_SCHEMA_B, schemaTable.getSchema(testSchemaBId));
     assertEquals(testSchemaAId + 1, testSchemaBId);
   }
+
+  /** Tests concurrent lookups of known and unknown schemas. */
+  @Test
+  public void testConcurrentLookups() throws Exception {
+    final KijiSchemaTable schemaTable = getKiji().getSchemaTable();
+    final long schemaId = schemaTable.getOrCreateSchemaId(TEST_SCHEMA_A);
+    final BytesKey schemaHash = schemaTable.getSchemaHash(TEST_SCHEMA_A);
+
+    final int nthreads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(nthreads);
+    try {
+      final List<Future<Long>> futures = Lists.newArrayList();
+      for (int i = 0; i < nthreads; ++i) {
+        futures.add(executor.submit(new Callable<Long>() {
+          @Override
+          public Long call() throws Exception {
+            for (int j = 0; j < 1000; ++j) {
+              assertEquals(TEST_SCHEMA_A, schemaTable.getSchema(schemaId));
+              assertEquals(TEST_SCHEMA_A, schemaTable.getSchema(schemaHash));
+              assertNull(schemaTable.getSchema(schemaId + 1000L));
+            }
+            return schemaTable.getOrCreateSchemaId(TEST_SCHEMA_B);
+          }
+        }));
+      }
+      final long testSchemaBId = futures.get(0).get();
+      for (Future<Long> future : futures) {
+        assertEquals(testSchemaBId, (long) future.get());
+      }
+      assertEquals(TEST_SCHEMA_B, schemaTable.getSchema(testSchemaBId));
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
@@ -48,6 +48,21 @@ public class TestHashPrefixedEntityId {
     assertEquals(kijiRowKey, eid.getComponents().get(0));
   }
 
+  @Test
+  public void testMurmur3HashedEntityIdFromKijiRowKey() {
+    final RowKeyFormat format = RowKeyFormat.newBuilder()
+        .setEncoding(RowKeyEncoding.HASH_PREFIX)
+        .setHashType(HashType.MURMUR3)
+        .setHashSize(4)
+        .build();
+    final byte[] kijiRowKey = new byte[] {0x11, 0x22};
+    final HashPrefixedEntityId eid = HashPrefixedEntityId.getEntityId(kijiRowKey, format);
+    assertArrayEquals(kijiRowKey, (byte[])eid.getComponentByIndex(0));
+    assertEquals(
+        "219e83731122",
+        ByteArrayFormatter.toHex(eid.getHBaseRowKey()));
+  }
+
   @Test
   public void testHashedEntityIdFromHBaseRowKey() throws Exception {
     final RowKeyFormat format = RowKeyFormat.newBuilder()
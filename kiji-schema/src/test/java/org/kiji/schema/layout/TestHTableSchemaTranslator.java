@@ -23,11 +23,21 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Test;
 
+import org.kiji.schema.avro.BloomType;
+import org.kiji.schema.avro.CompressionType;
+import org.kiji.schema.avro.DataBlockEncoding;
+import org.kiji.schema.avro.LocalityGroupDesc;
+import org.kiji.schema.avro.RowKeyEncoding;
+import org.kiji.schema.avro.RowKeyFormat;
+import org.kiji.schema.avro.TableLayoutDesc;
+import org.kiji.schema.impl.HColumnDescriptorComparator;
 import org.kiji.schema.layout.impl.HTableSchemaTranslator;
 
 public class TestHTableSchemaTranslator {
@@ -50,4 +60,63 @@ public class TestHTableSchemaTranslator {
     assertTrue(tableDescriptor.getFamily(Bytes.toBytes("C")).isInMemory());
     assertEquals(1, tableDescriptor.getFamily(Bytes.toBytes("C")).getMaxVersions());
   }
+
+  @Test
+  public void testTranslateStorageSettings() throws Exception {
+    final HTableSchemaTranslator translator = new HTableSchemaTranslator();
+
+    final LocalityGroupDesc defaultDesc = LocalityGroupDesc.newBuilder()
+        .setName("default")
+        .setCompressionType(CompressionType.NONE)
+        .setTtlSeconds(HConstants.FOREVER)
+        .setMaxVersions(1)
+        .setInMemory(false)
+        .build();
+    final LocalityGroupDesc tunedDesc = LocalityGroupDesc.newBuilder(defaultDesc)
+        .setBloomType(BloomType.ROWCOL)
+        .setBlockSize(16384)
+        .setBlockCacheEnabled(false)
+        .setDataBlockEncoding(DataBlockEncoding.FAST_DIFF)
+        .build();
+
+    final HColumnDescriptor defaultColumn = translateLocalityGroup(translator, defaultDesc);
+    assertEquals("NONE", defaultColumn.getBloomFilterType().toString());
+    assertEquals(HColumnDescriptor.DEFAULT_BLOCKSIZE, defaultColumn.getBlocksize());
+    assertTrue(defaultColumn.isBlockCacheEnabled());
+    assertEquals(null, defaultColumn.getValue(HTableSchemaTranslator.DATA_BLOCK_ENCODING));
+
+    final HColumnDescriptor tunedColumn = translateLocalityGroup(translator, tunedDesc);
+    assertEquals("ROWCOL", tunedColumn.getBloomFilterType().toString());
+    assertEquals(16384, tunedColumn.getBlocksize());
+    assertFalse(tunedColumn.isBlockCacheEnabled());
+    assertEquals("FAST_DIFF", tunedColumn.getValue(HTableSchemaTranslator.DATA_BLOCK_ENCODING));
+
+    // Changes to the storage settings must be detected when the layout is updated:
+    final HColumnDescriptorComparator comparator = new HColumnDescriptorComparator();
+    assertEquals(0, comparator.compare(defaultColumn, translateLocalityGroup(translator,
+        LocalityGroupDesc.newBuilder(defaultDesc).build())));
+    assertTrue(0 != comparator.compare(defaultColumn, tunedColumn));
+  }
+
+  /**
+   * Translates a table layout with a single locality group.
+   *
+   * @param translator Translator to use.
+   * @param lgDesc Descriptor of the locality group.
+   * @return the HColumnDescriptor for the locality group.
+   * @throws Exception on error.
+   */
+  private static HColumnDescriptor translateLocalityGroup(
+      HTableSchemaTranslator translator, LocalityGroupDesc lgDesc) throws Exception {
+    final TableLayoutDesc desc = TableLayoutDesc.newBuilder()
+        .setName("table_name")
+        .setKeysFormat(RowKeyFormat.newBuilder().setEncoding(RowKeyEncoding.RAW).build())
+        .setVersion("layout-1.2")
+        .setLocalityGroups(Lists.newArrayList(lgDesc))
+        .build();
+    final HTableDescriptor tableDescriptor =
+        translator.toHTableDescriptor("myinstance", KijiTableLayout.newLayout(desc));
+    assertEquals(1, tableDescriptor.getColumnFamilies().length);
+    return tableDescriptor.getColumnFamilies()[0];
+  }
 }
@@ -21,6 +21,7 @@ package org.kiji.schema.layout;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -41,6 +42,7 @@ import org.kiji.schema.avro.ComponentType;
 import org.kiji.schema.avro.CompressionType;
 import org.kiji.schema.avro.FamilyDesc;
 import org.kiji.schema.avro.HashSpec;
+import org.kiji.schema.avro.HashType;
 import org.kiji.schema.avro.LocalityGroupDesc;
 import org.kiji.schema.avro.RowKeyComponent;
 import org.kiji.schema.avro.RowKeyEncoding;
@@ -320,6 +322,30 @@ public class TestKijiTableLayout {
     }
   }
 
+  /** Tests that the MURMUR3 hash type requires layout version 1.2. */
+  @Test
+  public void testMurmur3Version() throws Exception {
+    final RowKeyFormat2 format = RowKeyFormat2.newBuilder(makeHashPrefixedRowKeyFormat())
+        .setSalt(HashSpec.newBuilder().setHashType(HashType.MURMUR3).build())
+        .build();
+    final TableLayoutDesc desc = TableLayoutDesc.newBuilder()
+        .setName("table_name")
+        .setKeysFormat(format)
+        .setVersion("layout-1.2")
+        .build();
+    KijiTableLayout.newLayout(desc);
+
+    final TableLayoutDesc oldDesc = TableLayoutDesc.newBuilder(desc)
+        .setVersion(TABLE_LAYOUT_VERSION)
+        .build();
+    try {
+      KijiTableLayout.newLayout(oldDesc);
+      fail("MURMUR3 hash type should require layout version 1.2.");
+    } catch (InvalidLayoutException ile) {
+      // Expected.
+    }
+  }
+
   /** Tests for a layout with a single locality group, and with no reference layout. */
   @Test
   public void testLayoutWithNoReference() throws Exception {
@@ -384,6 +410,10 @@ public class TestKijiTableLayout {
 
     assertEquals(SchemaStorage.HASH, layout.getCellFormat(new KijiColumnName("family_name")));
     assertEquals(Schema.Type.INT, layout.getSchema(new KijiColumnName("family_name")).getType());
+
+    // The schema is parsed once, and shared by all the qualifiers of the family:
+    assertSame(layout.getSchema(new KijiColumnName("family_name:a")),
+        layout.getSchema(new KijiColumnName("family_name:b")));
   }
 
   /** Tests for a layout with one column, and with no reference layout. */
@@ -918,6 +948,44 @@ public class TestKijiTableLayout {
     }
   }
 
+  @Test
+  public void testLocalityGroupStorageSettings() throws Exception {
+    final LocalityGroupDesc lgDesc = LocalityGroupDesc.newBuilder()
+        .setName("default")
+        .setCompressionType(CompressionType.NONE)
+        .setTtlSeconds(1)
+        .setMaxVersions(1)
+        .setInMemory(false)
+        .setBlockSize(65536)
+        .build();
+    final TableLayoutDesc desc = TableLayoutDesc.newBuilder()
+        .setName("table_name")
+        .setKeysFormat(makeRawRKF1())
+        .setVersion("layout-1.2")
+        .setLocalityGroups(Lists.newArrayList(lgDesc))
+        .build();
+    KijiTableLayout.newLayout(desc);
+
+    try {
+      KijiTableLayout.newLayout(
+          TableLayoutDesc.newBuilder(desc).setVersion(TABLE_LAYOUT_VERSION).build());
+      fail("Locality group storage settings should require layout version 1.2.");
+    } catch (InvalidLayoutException ile) {
+      assertTrue(ile.getMessage().contains("begins with layout version"));
+    }
+
+    final LocalityGroupDesc invalidLGDesc =
+        LocalityGroupDesc.newBuilder(lgDesc).setBlockSize(0).build();
+    try {
+      KijiTableLayout.newLayout(TableLayoutDesc.newBuilder(desc)
+          .setLocalityGroups(Lists.newArrayList(invalidLGDesc))
+          .build());
+      fail("Invalid locality group with a zero block size did not throw");
+    } catch (InvalidLayoutException ile) {
+      assertTrue(ile.getMessage().contains("Invalid block size for locality group"));
+    }
+  }
+
   @Test
   public void testInvalidLocalityGroupMaxVersions() throws Exception {
     final TableLayoutDesc desc = TableLayoutDesc.newBuilder()
@@ -0,0 +1,133 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.mapreduce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.kiji.schema.Kiji;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiTableReader;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.KijiTableLayouts;
+import org.kiji.schema.testutil.AbstractKijiIntegrationTest;
+import org.kiji.schema.testutil.ToolResult;
+import org.kiji.schema.tools.BaseTool;
+import org.kiji.schema.tools.BulkLoadTool;
+
+/** Writes HFiles with KijiHFileOutputFormat and bulk-loads them with the bulk-load tool. */
+public class IntegrationTestKijiHFileOutputFormat extends AbstractKijiIntegrationTest {
+  private Kiji mKiji = null;
+  private KijiTable mTable = null;
+  private KijiURI mTableURI = null;
+
+  /** Writes the input line "name" into the cell family:column of the row "name". */
+  public static final class NameMapper
+      extends Mapper<LongWritable, Text, ImmutableBytesWritable, KeyValue> {
+    private KijiHFileOutputFormat.KeyValueEncoder mEncoder = null;
+
+    @Override
+    protected void setup(Context context) throws IOException {
+      mEncoder = new KijiHFileOutputFormat.KeyValueEncoder(context.getConfiguration());
+    }
+
+    @Override
+    protected void map(LongWritable offset, Text line, Context context)
+        throws IOException, InterruptedException {
+      final String name = line.toString();
+      final KeyValue kv =
+          mEncoder.encode(mEncoder.getEntityId(name), "family", "column", 1L, name);
+      context.write(new ImmutableBytesWritable(kv.getRow()), kv);
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException {
+      mEncoder.close();
+    }
+  }
+
+  @Before
+  public final void setupIntegrationTestKijiHFileOutputFormat() throws Exception {
+    mKiji = Kiji.Factory.open(getKijiURI(), getConf());
+    final KijiTableLayout layout = KijiTableLayouts.getTableLayout(KijiTableLayouts.SIMPLE);
+    mKiji.createTable(layout.getName(), layout);
+    mTable = mKiji.openTable(layout.getName());
+    mTableURI = mTable.getURI();
+  }
+
+  @After
+  public final void teardownIntegrationTestKijiHFileOutputFormat() throws Exception {
+    IOUtils.closeQuietly(mTable);
+    mKiji.release();
+  }
+
+  @Test
+  public void testWriteAndBulkLoadHFiles() throws Exception {
+    final File inputFile = new File(getTempDir(), "names.txt");
+    FileUtils.writeLines(inputFile, "UTF-8", Arrays.asList("alice", "bob", "carol"));
+    final Path outputDir = getDfsPath("hfiles");
+
+    final Job job = new Job(getConf(), "kiji-hfile-output-format");
+    job.setJarByClass(IntegrationTestKijiHFileOutputFormat.class);
+    job.setInputFormatClass(TextInputFormat.class);
+    FileInputFormat.setInputPaths(job, getDfsPath(inputFile));
+    job.setMapperClass(NameMapper.class);
+    KijiHFileOutputFormat.configureJob(job, mTableURI, outputDir);
+    assertTrue(job.waitForCompletion(true));
+
+    final ToolResult result = runTool(new BulkLoadTool(), new String[] {
+      "--table=" + mTableURI,
+      "--hfile=" + outputDir,
+    });
+    assertEquals(BaseTool.SUCCESS, result.getReturnCode());
+
+    final KijiTableReader reader = mTable.openTableReader();
+    try {
+      final KijiDataRequest request = KijiDataRequest.create("family", "column");
+      for (String name : new String[] {"alice", "bob", "carol"}) {
+        assertEquals(name, reader.get(mTable.getEntityId(name), request)
+            .getMostRecentValue("family", "column").toString());
+      }
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.mapreduce;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.mapreduce.TableSplit;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.junit.Test;
+
+import org.kiji.schema.KijiClientTest;
+import org.kiji.schema.KijiDataRequest;
+import org.kiji.schema.KijiRegion;
+import org.kiji.schema.KijiRowKeySplitter;
+import org.kiji.schema.KijiTable;
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.hbase.HBaseScanOptions;
+import org.kiji.schema.layout.KijiTableLayout;
+import org.kiji.schema.layout.KijiTableLayouts;
+
+public class TestKijiTableInputFormat extends KijiClientTest {
+  /**
+   * Creates a table to read from.
+   *
+   * @return the URI of the table.
+   * @throws Exception on error.
+   */
+  private KijiURI createTable() throws Exception {
+    return createTable(KijiTableLayouts.SIMPLE);
+  }
+
+  /**
+   * Creates a table to read from.
+   *
+   * @param layoutResource Resource path of the layout of the table.
+   * @return the URI of the table.
+   * @throws Exception on error.
+   */
+  private KijiURI createTable(String layoutResource) throws Exception {
+    final KijiTableLayout layout = KijiTableLayouts.getTableLayout(layoutResource);
+    getKiji().createTable(layout.getName(), layout);
+    return KijiURI.newBuilder(getKiji().getURI()).withTableName(layout.getName()).build();
+  }
+
+  /**
+   * Creates a region of a table.
+   *
+   * @param startKey Start key of the region.
+   * @param endKey End key of the region.
+   * @param location Location of the region, as hostname:port.
+   * @return a region with the specified boundaries and location.
+   */
+  private static KijiRegion newRegion(
+      final byte[] startKey, final byte[] endKey, final String location) {
+    return new KijiRegion() {
+      /** {@inheritDoc} */
+      @Override
+      public byte[] getStartKey() {
+        return startKey;
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public byte[] getEndKey() {
+        return endKey;
+      }
+
+      /** {@inheritDoc} */
+      @Override
+      public Collection<String> getLocations() {
+        return Collections.singletonList(location);
+      }
+    };
+  }
+
+  /**
+   * Checks the boundaries, location and estimated length of an input split.
+   *
+   * @param split Input split to check.
+   * @param startRow Expected start row of the split.
+   * @param endRow Expected end row of the split.
+   * @param regionStartKey Expected start key of the region of the split.
+   * @param location Expected host of the split.
+   * @param length Expected length of the split.
+   */
+  private static void assertSplit(InputSplit split, byte[] startRow, byte[] endRow,
+      byte[] regionStartKey, String location, long length) {
+    final KijiTableSplit kijiSplit = (KijiTableSplit) split;
+    assertArrayEquals(startRow, kijiSplit.getStartRow());
+    assertArrayEquals(endRow, kijiSplit.getEndRow());
+    assertArrayEquals(regionStartKey, kijiSplit.getRegionStartKey());
+    assertEquals(location, kijiSplit.getRegionLocation());
+    assertEquals(length, kijiSplit.getLength());
+  }
+
+  @Test
+  public void testGetScanOptionsDefaults() {
+    final HBaseScanOptions scanOptions =
+        KijiTableInputFormat.KijiTableRecordReader.getScanOptions(new Configuration(false));
+    assertNull(scanOptions.getServerPrefetchSize());
+    assertNull(scanOptions.getClientBufferSize());
+    // Full table scans do not cache blocks by default:
+    assertFalse(scanOptions.getCacheBlocks());
+  }
+
+  @Test
+  public void testGetScanOptions() {
+    final Configuration conf = new Configuration(false);
+    conf.setInt(KijiConfKeys.INPUT_SCAN_PREFETCH_SIZE, 100);
+    conf.setInt(KijiConfKeys.INPUT_SCAN_BATCH_SIZE, 10);
+    conf.setBoolean(KijiConfKeys.INPUT_SCAN_CACHE_BLOCKS, true);
+    final HBaseScanOptions scanOptions =
+        KijiTableInputFormat.KijiTableRecordReader.getScanOptions(conf);
+    assertEquals(100, (int) scanOptions.getServerPrefetchSize());
+    assertEquals(10, (int) scanOptions.getClientBufferSize());
+    assertEquals(true, scanOptions.getCacheBlocks());
+  }
+
+  @Test
+  public void testConfigureJobWithScanOptions() throws Exception {
+    final KijiURI tableURI = createTable();
+    final HBaseScanOptions scanOptions = new HBaseScanOptions();
+    scanOptions.setServerPrefetchSize(100);
+    scanOptions.setClientBufferSize(10);
+    scanOptions.setCacheBlocks(true);
+
+    final Job job = new Job(getConf());
+    KijiTableInputFormat.configureJob(
+        job, tableURI, KijiDataRequest.create("family"), null, null, scanOptions);
+    final Configuration conf = job.getConfiguration();
+    assertEquals(KijiTableInputFormat.class, job.getInputFormatClass());
+    assertEquals(tableURI.toString(), conf.get(KijiConfKeys.INPUT_TABLE_URI));
+    assertEquals(100, conf.getInt(KijiConfKeys.INPUT_SCAN_PREFETCH_SIZE, 0));
+    assertEquals(10, conf.getInt(KijiConfKeys.INPUT_SCAN_BATCH_SIZE, 0));
+    assertEquals("true", conf.get(KijiConfKeys.INPUT_SCAN_CACHE_BLOCKS));
+  }
+
+  @Test
+  public void testConfigureJobDefaultScanOptions() throws Exception {
+    final KijiURI tableURI = createTable();
+    final Job job = new Job(getConf());
+    KijiTableInputFormat.configureJob(
+        job, tableURI, KijiDataRequest.create("family"), null, null);
+    final Configuration conf = job.getConfiguration();
+    assertNull(conf.get(KijiConfKeys.INPUT_SCAN_PREFETCH_SIZE));
+    assertNull(conf.get(KijiConfKeys.INPUT_SCAN_BATCH_SIZE));
+    assertNull(conf.get(KijiConfKeys.INPUT_SCAN_CACHE_BLOCKS));
+    assertFalse(KijiTableInputFormat.KijiTableRecordReader.getScanOptions(conf).getCacheBlocks());
+  }
+
+  @Test
+  public void testGetSplitsOfHashedRegions() {
+    final byte[] tableName = Bytes.toBytes("table");
+    final byte[] empty = new byte[0];
+    final byte[] middle = KijiRowKeySplitter.getSplitKeys(2)[0];
+    final List<KijiRegion> regions = ImmutableList.of(
+        newRegion(empty, middle, "host1:60020"),
+        newRegion(middle, empty, "host2:60020"));
+    // The size of the second region is not known:
+    final Map<byte[], Long> regionSizes = new TreeMap<byte[], Long>(Bytes.BYTES_COMPARATOR);
+    regionSizes.put(new byte[0], 300L);
+
+    final List<InputSplit> splits =
+        KijiTableInputFormat.getSplits(tableName, regions, regionSizes, 100L, 16);
+    assertEquals(4, splits.size());
+
+    // The first region is cut into 3 splits of about 100 bytes, run on the region host:
+    final byte[][] splitKeys = KijiRowKeySplitter.getSplitKeys(empty, middle, 3);
+    assertEquals(2, splitKeys.length);
+    assertTrue(Bytes.compareTo(splitKeys[0], splitKeys[1]) < 0);
+    assertTrue(Bytes.compareTo(splitKeys[1], middle) < 0);
+    assertSplit(splits.get(0), empty, splitKeys[0], empty, "host1", 100L);
+    assertSplit(splits.get(1), splitKeys[0], splitKeys[1], empty, "host1", 100L);
+    assertSplit(splits.get(2), splitKeys[1], middle, empty, "host1", 100L);
+
+    // The second region makes a single split, with the default length estimate:
+    final long defaultLength =
+        new KijiTableSplit(new TableSplit(tableName, middle, empty, "host2"), middle).getLength();
+    assertSplit(splits.get(3), middle, empty, middle, "host2", defaultLength);
+  }
+
+  @Test
+  public void testGetSplitsMaxPerRegion() {
+    final byte[] tableName = Bytes.toBytes("table");
+    final byte[] empty = new byte[0];
+    final List<KijiRegion> regions = ImmutableList.of(newRegion(empty, empty, "host:60020"));
+    final Map<byte[], Long> regionSizes = new TreeMap<byte[], Long>(Bytes.BYTES_COMPARATOR);
+    regionSizes.put(empty, 1000L);
+
+    final List<InputSplit> splits =
+        KijiTableInputFormat.getSplits(tableName, regions, regionSizes, 100L, 4);
+    assertEquals(4, splits.size());
+    byte[] startRow = empty;
+    for (InputSplit split : splits) {
+      final KijiTableSplit kijiSplit = (KijiTableSplit) split;
+      assertArrayEquals(startRow, kijiSplit.getStartRow());
+      assertEquals(250L, kijiSplit.getLength());
+      startRow = kijiSplit.getEndRow();
+    }
+    assertArrayEquals(empty, startRow);
+  }
+
+  @Test
+  public void testGetSplitsOfUnhashedTable() throws Exception {
+    final KijiURI tableURI = createTable(KijiTableLayouts.SIMPLE_UNHASHED);
+    final Job job = new Job(getConf());
+    KijiTableInputFormat.configureJob(
+        job, tableURI, KijiDataRequest.create("family"), null, null);
+    job.getConfiguration().setLong(KijiConfKeys.INPUT_SPLIT_TARGET_BYTES, 1L);
+
+    // Row keys are not hashed: the target split size is ignored, and each region makes a split.
+    final List<InputSplit> splits = new KijiTableInputFormat().getSplits(job);
+    final KijiTable table = getKiji().openTable(tableURI.getTable());
+    try {
+      final List<KijiRegion> regions = table.getRegions();
+      assertEquals(regions.size(), splits.size());
+      for (int i = 0; i < regions.size(); ++i) {
+        final KijiTableSplit split = (KijiTableSplit) splits.get(i);
+        assertArrayEquals(regions.get(i).getStartKey(), split.getStartRow());
+        assertArrayEquals(regions.get(i).getEndKey(), split.getEndRow());
+        assertArrayEquals(regions.get(i).getStartKey(), split.getRegionStartKey());
+      }
+    } finally {
+      table.close();
+    }
+  }
+
+  @Test
+  public void testSplitWritable() throws IOException {
+    final TableSplit tableSplit = new TableSplit(
+        Bytes.toBytes("table"), Bytes.toBytes("start"), Bytes.toBytes("end"), "host");
+    final KijiTableSplit split = new KijiTableSplit(tableSplit, Bytes.toBytes("region"), 1234L);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+    split.write(out);
+    out.close();
+
+    final KijiTableSplit decoded = new KijiTableSplit();
+    decoded.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertArrayEquals(Bytes.toBytes("table"), decoded.getTableName());
+    assertArrayEquals(Bytes.toBytes("start"), decoded.getStartRow());
+    assertArrayEquals(Bytes.toBytes("end"), decoded.getEndRow());
+    assertEquals("host", decoded.getRegionLocation());
+    assertArrayEquals(Bytes.toBytes("region"), decoded.getRegionStartKey());
+    assertEquals(1234L, decoded.getLength());
+  }
+}
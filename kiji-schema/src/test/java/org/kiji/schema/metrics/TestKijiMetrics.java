@@ -0,0 +1,92 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import org.kiji.schema.KijiURI;
+import org.kiji.schema.metrics.KijiMetrics.Operation;
+
+public class TestKijiMetrics {
+  @Test
+  public void testParent() {
+    final KijiMetrics instance = new KijiMetrics(null);
+    final KijiMetrics table = new KijiMetrics(instance);
+
+    table.recordLatency(Operation.GET, 1000);
+    table.recordRead(3, 100);
+    table.recordWrite(2, 50);
+    table.recordDecode(2000);
+    table.recordSchemaTableMiss();
+    table.recordIncrementIssued();
+    table.recordIncrementIssued();
+    table.recordIncrementIssued();
+    table.recordIncrementsSent(2);
+    instance.recordLatency(Operation.GET, 3000);
+
+    assertEquals(1, table.getGetLatency().getCount());
+    assertEquals(2, instance.getGetLatency().getCount());
+    assertEquals(0, instance.getPutLatency().getCount());
+    for (KijiMetrics metrics : new KijiMetrics[] {instance, table}) {
+      assertEquals(3, metrics.getCellsRead());
+      assertEquals(100, metrics.getBytesRead());
+      assertEquals(2, metrics.getCellsWritten());
+      assertEquals(50, metrics.getBytesWritten());
+      assertEquals(1, metrics.getCellsDecoded());
+      assertEquals(2.0, metrics.getDecodeTimeMicros(), 1e-9);
+      assertEquals(1, metrics.getSchemaTableMisses());
+      assertEquals(3, metrics.getIncrementsIssued());
+      assertEquals(2, metrics.getIncrementsSent());
+      assertEquals(1.5, metrics.getIncrementCoalescingRatio(), 1e-9);
+    }
+
+    table.reset();
+    assertEquals(0, table.getCellsRead());
+    assertEquals(0, table.getGetLatency().getCount());
+    assertEquals(1.0, table.getIncrementCoalescingRatio(), 0.0);
+    assertEquals(3, instance.getCellsRead());
+  }
+
+  @Test
+  public void testRegister() throws Exception {
+    final KijiURI uri = KijiURI.newBuilder("kiji://localhost:2181/instance").build();
+    final ObjectName name = KijiMetrics.getTableObjectName(uri, 0, "table");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    final KijiMetrics metrics = new KijiMetrics(null);
+    metrics.recordRead(5, 500);
+    metrics.register(name);
+    try {
+      assertTrue(server.isRegistered(name));
+      assertEquals(5L, server.getAttribute(name, "CellsRead"));
+    } finally {
+      metrics.unregister();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+}
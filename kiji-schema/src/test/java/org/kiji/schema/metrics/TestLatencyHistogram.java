@@ -0,0 +1,67 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+  @Test
+  public void testBuckets() {
+    for (long nanos : new long[] {0, 1, 3, 4, 5, 7, 8, 1000, 123456789L, Long.MAX_VALUE}) {
+      final int index = LatencyHistogram.bucketIndex(nanos);
+      assertTrue(nanos <= LatencyHistogram.bucketUpperBound(index));
+      if (index > 0) {
+        assertTrue(nanos > LatencyHistogram.bucketUpperBound(index - 1));
+      }
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentileNanos(50.0));
+    for (long nanos = 1; nanos <= 1000; ++nanos) {
+      histogram.record(nanos * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1000000, histogram.getMaxNanos());
+
+    final long p50 = histogram.getPercentileNanos(50.0);
+    assertTrue(p50 >= 500000);
+    assertTrue(p50 <= 500000 * 1.25);
+    final long p99 = histogram.getPercentileNanos(99.0);
+    assertTrue(p99 >= 990000);
+    assertTrue(p99 <= 1000000);
+    assertEquals(1000000, histogram.getPercentileNanos(100.0));
+
+    final LatencySnapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(500.5, snapshot.getMeanMicros(), 1e-9);
+    assertEquals(1000.0, snapshot.getMaxMicros(), 1e-9);
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMaxNanos());
+    assertEquals(0, histogram.getPercentileNanos(99.0));
+  }
+}
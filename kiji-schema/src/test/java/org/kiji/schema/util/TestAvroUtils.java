@@ -0,0 +1,106 @@
+/**
+ * (c) Copyright 2013 WibiData, Inc.
+ *
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kiji.schema.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+import org.junit.Test;
+
+public class TestAvroUtils {
+  private static final Schema RECORD = new Schema.Parser().parse(
+      "{\"type\":\"record\",\"name\":\"Profile\",\"namespace\":\"org.kiji.test\",\"fields\":["
+      + "{\"name\":\"name\",\"type\":\"string\"},"
+      + "{\"name\":\"age\",\"type\":\"int\"},"
+      + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}]}");
+
+  @Test
+  public void testProjectRecord() {
+    final Schema projected = AvroUtils.projectRecord(RECORD, Arrays.asList("tags", "name"));
+    assertEquals(RECORD.getFullName(), projected.getFullName());
+    assertEquals(2, projected.getFields().size());
+    assertEquals("tags", projected.getFields().get(0).name());
+    assertEquals(RECORD.getField("tags").schema(), projected.getField("tags").schema());
+    assertNull(AvroUtils.getIncompatibility(projected, RECORD));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testProjectMissingField() {
+    AvroUtils.projectRecord(RECORD, Arrays.asList("email"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testProjectNonRecord() {
+    AvroUtils.projectRecord(Schema.create(Schema.Type.STRING), Arrays.asList("name"));
+  }
+
+  @Test
+  public void testGetIncompatibility() {
+    final Schema intSchema = Schema.create(Schema.Type.INT);
+    final Schema longSchema = Schema.create(Schema.Type.LONG);
+    final Schema stringSchema = Schema.create(Schema.Type.STRING);
+    final Schema nullSchema = Schema.create(Schema.Type.NULL);
+
+    // Promotions:
+    assertNull(AvroUtils.getIncompatibility(longSchema, intSchema));
+    assertNotNull(AvroUtils.getIncompatibility(intSchema, longSchema));
+    assertNotNull(AvroUtils.getIncompatibility(stringSchema, intSchema));
+
+    // Unions:
+    final Schema optionalString = Schema.createUnion(Arrays.asList(nullSchema, stringSchema));
+    assertNull(AvroUtils.getIncompatibility(optionalString, stringSchema));
+    assertNotNull(AvroUtils.getIncompatibility(stringSchema, optionalString));
+
+    // A reader field missing from the writer record needs a default value:
+    final Schema extended = new Schema.Parser().parse(
+        "{\"type\":\"record\",\"name\":\"Profile\",\"namespace\":\"org.kiji.test\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"email\",\"type\":\"string\"}]}");
+    assertNotNull(AvroUtils.getIncompatibility(extended, RECORD));
+    final Schema withDefault = new Schema.Parser().parse(
+        "{\"type\":\"record\",\"name\":\"Profile\",\"namespace\":\"org.kiji.test\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"email\",\"type\":\"string\",\"default\":\"\"}]}");
+    assertNull(AvroUtils.getIncompatibility(withDefault, RECORD));
+  }
+
+  @Test
+  public void testGetIncompatibilityRecursive() {
+    final Schema list = new Schema.Parser().parse(
+        "{\"type\":\"record\",\"name\":\"Node\",\"namespace\":\"org.kiji.test\",\"fields\":["
+        + "{\"name\":\"value\",\"type\":\"int\"},"
+        + "{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}");
+    assertNull(AvroUtils.getIncompatibility(list, list));
+
+    final Schema longList = new Schema.Parser().parse(
+        "{\"type\":\"record\",\"name\":\"Node\",\"namespace\":\"org.kiji.test\",\"fields\":["
+        + "{\"name\":\"value\",\"type\":\"long\"},"
+        + "{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}");
+    assertNull(AvroUtils.getIncompatibility(longList, list));
+    assertNotNull(AvroUtils.getIncompatibility(list, longList));
+
+    final Schema projected = AvroUtils.projectRecord(list, Arrays.asList("next"));
+    assertNull(AvroUtils.getIncompatibility(projected, list));
+  }
+}
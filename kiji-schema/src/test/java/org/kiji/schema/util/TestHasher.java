@@ -32,6 +32,8 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.kiji.schema.avro.HashType;
+
 public class TestHasher {
   private static final Logger LOG = LoggerFactory.getLogger(TestHasher.class);
 
@@ -45,6 +47,34 @@ public class TestHasher {
     assertFalse(Arrays.equals(Hasher.hash("foo"), Hasher.hash("bar")));
   }
 
+  @Test
+  public void testHashType() throws Exception {
+    final byte[] foo = "foo".getBytes("UTF-8");
+    assertArrayEquals(Hasher.hash(foo), Hasher.hash(HashType.MD5, foo));
+
+    // Reference MurmurHash3 x64 128-bit values, with seed 0:
+    assertEquals("00000000000000000000000000000000",
+        ByteArrayFormatter.toHex(Hasher.hash(HashType.MURMUR3, new byte[0])));
+    assertEquals("029bbd41b3a7d8cb191dae486a901e5b",
+        ByteArrayFormatter.toHex(Hasher.hash(HashType.MURMUR3, "hello".getBytes("UTF-8"))));
+    assertEquals("6c1b07bc7bbc4be347939ac4a93c437a",
+        ByteArrayFormatter.toHex(Hasher.hash(HashType.MURMUR3,
+            "The quick brown fox jumps over the lazy dog".getBytes("UTF-8"))));
+  }
+
+  @Test
+  public void testHashSlice() throws Exception {
+    final byte[] input = "xxThe quick brown fox jumps over the lazy dogxx".getBytes("UTF-8");
+    for (HashType hashType : HashType.values()) {
+      final byte[] expected = Hasher.hash(hashType, Arrays.copyOfRange(input, 2, input.length - 2));
+      final byte[] output = new byte[8];
+      Hasher.hash(hashType, input, 2, input.length - 4, output, 1, 4);
+      assertEquals(0, output[0]);
+      assertArrayEquals(Arrays.copyOf(expected, 4), Arrays.copyOfRange(output, 1, 5));
+      assertEquals(0, output[5]);
+    }
+  }
+
   public class HashingThread extends Thread {
     private final int mIterations;
     private boolean mFailed;
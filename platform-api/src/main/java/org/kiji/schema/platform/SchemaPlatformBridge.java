@@ -22,6 +22,7 @@ package org.kiji.schema.platform;
 import java.io.IOException;
 
 import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
 import org.kiji.annotations.ApiAudience;
 import org.kiji.delegation.Lookups;
@@ -59,6 +60,16 @@ public abstract class SchemaPlatformBridge {
   public abstract void setWriteBufferSize(HTableInterface hTable, long bufSize)
       throws IOException;
 
+  /**
+   * Increments a Hadoop counter of a MapReduce task.
+   *
+   * @param context the context of the task.
+   * @param counter the counter to increment.
+   * @param amount the amount to increment the counter by.
+   */
+  public abstract void incrementCounter(
+      TaskAttemptContext context, Enum<?> counter, long amount);
+
 
   private static SchemaPlatformBridge mBridge;
 